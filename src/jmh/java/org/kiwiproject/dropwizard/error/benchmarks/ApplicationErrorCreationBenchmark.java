@@ -0,0 +1,88 @@
+package org.kiwiproject.dropwizard.error.benchmarks;
+
+import org.kiwiproject.dropwizard.error.config.StackTraceCaptureConfig;
+import org.kiwiproject.dropwizard.error.model.ApplicationError;
+import org.kiwiproject.dropwizard.error.model.ApplicationError.Resolved;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of creating an {@link ApplicationError} from an exception, which is paid on the thread that
+ * reports the error, with and without the default {@link StackTraceCaptureConfig}, and the cost of computing its
+ * fingerprint, which is paid each time it is written.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ApplicationErrorCreationBenchmark {
+
+    /**
+     * The approximate number of frames in the stack trace of the exception.
+     */
+    @Param({ "50", "200" })
+    public int frameCount;
+
+    /**
+     * Whether stack traces are captured using the default {@link StackTraceCaptureConfig}, or in full.
+     */
+    @Param({ "false", "true" })
+    public boolean limitCapturedStackTraces;
+
+    private Throwable throwable;
+    private ApplicationError error;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (limitCapturedStackTraces) {
+            ApplicationError.setStackTraceCapturePolicy(new StackTraceCaptureConfig().toCapturePolicy());
+        }
+
+        throwable = newThrowable(frameCount);
+        error = newError();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ApplicationError.setStackTraceCapturePolicy(null);
+    }
+
+    @Benchmark
+    public ApplicationError newError() {
+        return ApplicationError.newError("An error occurred processing the request",
+                Resolved.NO,
+                BenchmarkData.hostNameOf(1),
+                BenchmarkData.ipAddressOf(1),
+                8080,
+                throwable);
+    }
+
+    @Benchmark
+    public String fingerprint() {
+        return error.getFingerprint();
+    }
+
+    private static Throwable newThrowable(int depth) {
+        if (depth <= 1) {
+            return new UncheckedIOException("Unable to read order", new IOException("Connection reset"));
+        }
+        return newThrowable(depth - 1);
+    }
+}
@@ -0,0 +1,157 @@
+package org.kiwiproject.dropwizard.error.benchmarks;
+
+import static java.util.Objects.nonNull;
+
+import com.codahale.metrics.health.HealthCheck;
+import io.dropwizard.db.ManagedDataSource;
+import org.kiwiproject.dropwizard.error.dao.ApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.health.RecentErrorsHealthCheck;
+import org.kiwiproject.dropwizard.error.model.ApplicationError;
+import org.kiwiproject.dropwizard.error.model.ServiceDetails;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of the operations that a service performs most often, i.e. recording an error, reading an
+ * error, and checking for recent errors, for each {@link BenchmarkDao}, as the table grows and as the number of
+ * threads increases.
+ * <p>
+ * Recorded errors are drawn from a fixed set of recurring errors that are inserted during setup, as during an error
+ * storm, so recording an error increments the count of an existing error, which is found by its fingerprint as it is
+ * when a service reports an error. The SQL DAOs use a connection pool that
+ * has a connection for each thread. SQLite allows only one writer at a time, so its write throughput is not expected
+ * to increase with more threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Duser.timezone=UTC")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ApplicationErrorDaoBenchmark {
+
+    private static final int MAX_THREADS = 16;
+    private static final int RECURRING_ERROR_COUNT = 100;
+    private static final int BATCH_SIZE = 100;
+
+    @Param({ "CONCURRENT_MAP", "JDBC_H2", "JDBC_SQLITE", "JDBI3_H2", "JDBI3_SQLITE" })
+    public BenchmarkDao dao;
+
+    @Param({ "1000", "100000" })
+    public int tableSize;
+
+    private ManagedDataSource dataSource;
+    private ApplicationErrorDao errorDao;
+    private List<ApplicationError> recurringErrors;
+    private RecentErrorsHealthCheck healthCheck;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var database = dao.database();
+        if (nonNull(database)) {
+            dataSource = database.newMigratedPooledDataSource(MAX_THREADS);
+            BenchmarkData.insertErrors(dataSource, tableSize);
+            errorDao = dao.newErrorDao(dataSource);
+        } else {
+            errorDao = dao.newErrorDao(null);
+            BenchmarkData.insertErrors(errorDao, tableSize);
+        }
+
+        // Keep the errors without IDs, as the application reports them, so that each occurrence is matched to the
+        // stored error by its fingerprint rather than incrementing the count of a known ID
+        recurringErrors = BenchmarkData.newRecurringErrors(RECURRING_ERROR_COUNT);
+        errorDao.insertErrors(recurringErrors);
+
+        var hostNumber = 7;
+        var serviceDetails = ServiceDetails.from(BenchmarkData.hostNameOf(hostNumber),
+                BenchmarkData.ipAddressOf(hostNumber), 8080);
+        healthCheck = new RecentErrorsHealthCheck(errorDao, serviceDetails);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        if (nonNull(dataSource)) {
+            dataSource.stop();
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long insertOrIncrementCount() {
+        return errorDao.insertOrIncrementCount(randomRecurringError());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long insertOrIncrementCount_4Threads() {
+        return errorDao.insertOrIncrementCount(randomRecurringError());
+    }
+
+    @Benchmark
+    @Threads(MAX_THREADS)
+    public long insertOrIncrementCount_16Threads() {
+        return errorDao.insertOrIncrementCount(randomRecurringError());
+    }
+
+    /**
+     * Records a batch of errors as the write-behind writer does. Each operation is a whole batch.
+     */
+    @Benchmark
+    @Threads(1)
+    public List<Long> insertOrIncrementCounts() {
+        var random = ThreadLocalRandom.current();
+        var batch = random.ints(BATCH_SIZE, 0, RECURRING_ERROR_COUNT)
+                .mapToObj(recurringErrors::get)
+                .toList();
+        return errorDao.insertOrIncrementCounts(batch);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Optional<ApplicationError> getById() {
+        return errorDao.getById(randomId());
+    }
+
+    @Benchmark
+    @Threads(MAX_THREADS)
+    public Optional<ApplicationError> getById_16Threads() {
+        return errorDao.getById(randomId());
+    }
+
+    @Benchmark
+    @Threads(1)
+    public HealthCheck.Result recentErrorsHealthCheck() {
+        return healthCheck.execute();
+    }
+
+    @Benchmark
+    @Threads(MAX_THREADS)
+    public HealthCheck.Result recentErrorsHealthCheck_16Threads() {
+        return healthCheck.execute();
+    }
+
+    private ApplicationError randomRecurringError() {
+        return recurringErrors.get(ThreadLocalRandom.current().nextInt(RECURRING_ERROR_COUNT));
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, tableSize + 1);
+    }
+}
@@ -0,0 +1,119 @@
+package org.kiwiproject.dropwizard.error.benchmarks;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.h2.tools.SimpleResultSet;
+import org.kiwiproject.dropwizard.error.dao.ApplicationErrorJdbc;
+import org.kiwiproject.dropwizard.error.model.ApplicationError;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of {@link ApplicationErrorJdbc#mapFrom(java.sql.ResultSet)}, which the SQL DAOs pay for each error
+ * they read, independently of any database. Rows are read from an in-memory result set having the same columns as
+ * {@link ApplicationErrorJdbc#ALL_COLUMNS}, with the stack trace stored either as text or compressed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ApplicationErrorRowMappingBenchmark {
+
+    private static final int ROW_COUNT = 25;
+
+    /**
+     * Whether the stack trace is read from the {@code compressed_stack_trace} column, or the {@code stack_trace}
+     * column.
+     */
+    @Param({ "false", "true" })
+    public boolean compressed;
+
+    private SimpleResultSet resultSet;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var stackTrace = ExceptionUtils.getStackTrace(newThrowable(100));
+        var compressedStackTrace = compressed ? ApplicationErrorJdbc.compressStackTrace(stackTrace) : null;
+
+        resultSet = new SimpleResultSet();
+        resultSet.setAutoClose(false);
+        resultSet.addColumn("id", Types.BIGINT, 19, 0);
+        resultSet.addColumn("created_at", Types.TIMESTAMP, 26, 6);
+        resultSet.addColumn("updated_at", Types.TIMESTAMP, 26, 6);
+        resultSet.addColumn("num_times_occurred", Types.INTEGER, 10, 0);
+        resultSet.addColumn("description", Types.VARCHAR, 4096, 0);
+        resultSet.addColumn("exception_type", Types.VARCHAR, 256, 0);
+        resultSet.addColumn("exception_message", Types.VARCHAR, 4096, 0);
+        resultSet.addColumn("exception_cause_type", Types.VARCHAR, 256, 0);
+        resultSet.addColumn("exception_cause_message", Types.VARCHAR, 4096, 0);
+        resultSet.addColumn("stack_trace", Types.CLOB, Integer.MAX_VALUE, 0);
+        resultSet.addColumn("compressed_stack_trace", Types.BLOB, Integer.MAX_VALUE, 0);
+        resultSet.addColumn("resolved", Types.BOOLEAN, 1, 0);
+        resultSet.addColumn("host_name", Types.VARCHAR, 256, 0);
+        resultSet.addColumn("ip_address", Types.VARCHAR, 256, 0);
+        resultSet.addColumn("port", Types.INTEGER, 10, 0);
+        resultSet.addColumn("fingerprint", Types.VARCHAR, 64, 0);
+
+        var now = Instant.now();
+        for (var i = 1; i <= ROW_COUNT; i++) {
+            var createdAt = Timestamp.from(now.minusSeconds(3_600L * i));
+            var updatedAt = Timestamp.from(now.minusSeconds(60L * i));
+            var hostName = BenchmarkData.hostNameOf(i);
+            var description = "An error occurred processing request " + i;
+            resultSet.addRow(
+                    (long) i,
+                    createdAt,
+                    updatedAt,
+                    i,
+                    description,
+                    IllegalStateException.class.getName(),
+                    "Unable to get order " + i,
+                    SQLException.class.getName(),
+                    "ERROR: canceling statement due to statement timeout",
+                    compressed ? null : stackTrace,
+                    compressedStackTrace,
+                    false,
+                    hostName,
+                    BenchmarkData.ipAddressOf(i),
+                    8080,
+                    ApplicationError.fingerprintOf(description, IllegalStateException.class.getName(), hostName));
+        }
+    }
+
+    /**
+     * Maps all rows of the result set. Each operation maps {@value #ROW_COUNT} rows.
+     */
+    @Benchmark
+    public void mapFrom(Blackhole blackhole) throws SQLException {
+        resultSet.beforeFirst();
+        while (resultSet.next()) {
+            blackhole.consume(ApplicationErrorJdbc.mapFrom(resultSet));
+        }
+    }
+
+    private static Throwable newThrowable(int depth) {
+        if (depth <= 1) {
+            return new IllegalStateException("Unable to get order",
+                    new SQLException("ERROR: canceling statement due to statement timeout", "57014"));
+        }
+        return newThrowable(depth - 1);
+    }
+}
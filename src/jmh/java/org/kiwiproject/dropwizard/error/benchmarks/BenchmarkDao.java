@@ -0,0 +1,81 @@
+package org.kiwiproject.dropwizard.error.benchmarks;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.sqlobject.SqlObjectPlugin;
+import org.kiwiproject.dropwizard.error.dao.ApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.dao.jdbi3.Jdbi3ApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.dao.jdk.ConcurrentMapApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.dao.jdk.JdbcApplicationErrorDao;
+
+import javax.sql.DataSource;
+
+/**
+ * The {@link ApplicationErrorDao} implementations that benchmarks can run against, along with the embedded database
+ * that each one uses, if any.
+ */
+public enum BenchmarkDao {
+
+    CONCURRENT_MAP(null) {
+        @Override
+        ApplicationErrorDao newErrorDao(@Nullable DataSource dataSource) {
+            return new ConcurrentMapApplicationErrorDao();
+        }
+    },
+
+    JDBC_H2(BenchmarkDatabase.H2) {
+        @Override
+        ApplicationErrorDao newErrorDao(@Nullable DataSource dataSource) {
+            return new JdbcApplicationErrorDao(dataSource);
+        }
+    },
+
+    JDBC_SQLITE(BenchmarkDatabase.SQLITE) {
+        @Override
+        ApplicationErrorDao newErrorDao(@Nullable DataSource dataSource) {
+            return new JdbcApplicationErrorDao(dataSource);
+        }
+    },
+
+    JDBI3_H2(BenchmarkDatabase.H2) {
+        @Override
+        ApplicationErrorDao newErrorDao(@Nullable DataSource dataSource) {
+            return newJdbi3ErrorDao(dataSource);
+        }
+    },
+
+    JDBI3_SQLITE(BenchmarkDatabase.SQLITE) {
+        @Override
+        ApplicationErrorDao newErrorDao(@Nullable DataSource dataSource) {
+            return newJdbi3ErrorDao(dataSource);
+        }
+    };
+
+    @Nullable
+    private final BenchmarkDatabase database;
+
+    BenchmarkDao(@Nullable BenchmarkDatabase database) {
+        this.database = database;
+    }
+
+    /**
+     * @return the database this DAO uses, or null if it does not use a database
+     */
+    @Nullable
+    public BenchmarkDatabase database() {
+        return database;
+    }
+
+    /**
+     * Create a new DAO.
+     *
+     * @param dataSource the DataSource for a migrated {@link #database()}, or null if it does not use a database
+     * @return the new DAO
+     */
+    abstract ApplicationErrorDao newErrorDao(@Nullable DataSource dataSource);
+
+    private static ApplicationErrorDao newJdbi3ErrorDao(DataSource dataSource) {
+        var jdbi = Jdbi.create(dataSource).installPlugin(new SqlObjectPlugin());
+        return jdbi.onDemand(Jdbi3ApplicationErrorDao.class);
+    }
+}
@@ -0,0 +1,171 @@
+package org.kiwiproject.dropwizard.error.benchmarks;
+
+import static org.kiwiproject.jdbc.KiwiJdbc.timestampFromZonedDateTime;
+
+import lombok.experimental.UtilityClass;
+import org.kiwiproject.dropwizard.error.dao.ApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.dao.ApplicationErrorJdbc;
+import org.kiwiproject.dropwizard.error.model.ApplicationError;
+import org.kiwiproject.jdbc.UncheckedSQLException;
+
+import java.sql.SQLException;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import javax.sql.DataSource;
+
+/**
+ * Creates realistic amounts of application error data for benchmarks.
+ */
+@UtilityClass
+@SuppressWarnings({ "SqlDialectInspection", "SqlNoDataSourceInspection" })
+public class BenchmarkData {
+
+    /**
+     * The number of distinct hosts in the generated data.
+     */
+    public static final int HOST_COUNT = 20;
+
+    /**
+     * The fraction of generated errors that are resolved.
+     */
+    public static final double RESOLVED_FRACTION = 0.9;
+
+    /**
+     * The number of days over which generated errors are spread.
+     */
+    public static final int DAYS_OF_ERRORS = 30;
+
+    private static final int BATCH_SIZE = 5_000;
+
+    public static String hostNameOf(int hostNumber) {
+        return "host-" + hostNumber + ".test";
+    }
+
+    public static String ipAddressOf(int hostNumber) {
+        return "10.0.0." + hostNumber;
+    }
+
+    /**
+     * Insert {@code count} errors, spread evenly across hosts and over the last {@link #DAYS_OF_ERRORS} days.
+     *
+     * @param dataSource the DataSource for a migrated database
+     * @param count      the number of errors to insert
+     */
+    public static void insertErrors(DataSource dataSource, int count) {
+        var sql = "insert into application_errors" +
+                " (created_at, updated_at, description, exception_type, exception_message, resolved," +
+                " host_name, ip_address, port, fingerprint, unresolved_key)" +
+                " values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+        var now = ZonedDateTime.now(ZoneOffset.UTC);
+        var secondsPerError = Math.max(1, DAYS_OF_ERRORS * 86_400L / count);
+
+        try (var conn = dataSource.getConnection(); var ps = conn.prepareStatement(sql)) {
+            var originalAutoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+
+            for (var i = 0; i < count; i++) {
+                var resolved = isResolved(i);
+                var timestamp = timestampFromZonedDateTime(now.minusSeconds(i * secondsPerError));
+                var error = newError(i);
+
+                ps.setTimestamp(1, timestamp);
+                ps.setTimestamp(2, timestamp);
+                ps.setString(3, error.getDescription());
+                ps.setString(4, error.getExceptionType());
+                ps.setString(5, error.getExceptionMessage());
+                ps.setBoolean(6, resolved);
+                ps.setString(7, error.getHostName());
+                ps.setString(8, error.getIpAddress());
+                ps.setInt(9, error.getPort());
+                ps.setString(10, error.getFingerprint());
+                ps.setString(11, resolved ? null : ApplicationErrorJdbc.unresolvedKeyOf(error));
+                ps.addBatch();
+
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    ps.executeBatch();
+                    conn.commit();
+                }
+            }
+
+            ps.executeBatch();
+            conn.commit();
+            conn.setAutoCommit(originalAutoCommit);
+        } catch (SQLException e) {
+            throw new UncheckedSQLException(e);
+        }
+    }
+
+    /**
+     * Insert {@code count} errors using the given DAO, with the same descriptions, hosts, and resolved status as
+     * {@link #insertErrors(DataSource, int)}. Their timestamps are the current time, since DAOs assign them.
+     *
+     * @param errorDao the DAO to insert errors into
+     * @param count    the number of errors to insert
+     */
+    public static void insertErrors(ApplicationErrorDao errorDao, int count) {
+        for (var start = 0; start < count; start += BATCH_SIZE) {
+            var end = Math.min(count, start + BATCH_SIZE);
+            var errors = IntStream.range(start, end).mapToObj(BenchmarkData::newError).toList();
+            var ids = errorDao.insertErrors(errors);
+
+            for (var i = start; i < end; i++) {
+                if (isResolved(i)) {
+                    errorDao.resolve(ids.get(i - start));
+                }
+            }
+        }
+    }
+
+    /**
+     * Create {@code count} distinct unresolved errors that are not in the data inserted by {@code insertErrors}, to
+     * simulate errors that recur many times.
+     *
+     * @param count the number of errors to create
+     * @return the new errors
+     */
+    public static List<ApplicationError> newRecurringErrors(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> ApplicationError.newUnresolvedError("Recurring error number " + i,
+                        hostNameOf(i % HOST_COUNT),
+                        ipAddressOf(i % HOST_COUNT),
+                        8080,
+                        new IllegalStateException("Something went wrong again")))
+                .toList();
+    }
+
+    private static ApplicationError newError(int errorNumber) {
+        var hostNumber = errorNumber % HOST_COUNT;
+        return ApplicationError.builder()
+                .numTimesOccurred(1)
+                .description("Error number " + errorNumber)
+                .exceptionType("java.lang.IllegalStateException")
+                .exceptionMessage("Something went wrong processing item " + errorNumber)
+                .hostName(hostNameOf(hostNumber))
+                .ipAddress(ipAddressOf(hostNumber))
+                .port(8080)
+                .build();
+    }
+
+    private static boolean isResolved(int errorNumber) {
+        return (errorNumber % 100) < (RESOLVED_FRACTION * 100);
+    }
+
+    /**
+     * Drop the indexes that support the most frequent queries, to compare against the indexed table.
+     *
+     * @param dataSource the DataSource for a migrated database
+     */
+    public static void dropQueryIndexes(DataSource dataSource) {
+        try (var conn = dataSource.getConnection(); var stmt = conn.createStatement()) {
+            stmt.executeUpdate("drop index if exists application_errors_resolved_updated_at_idx");
+            stmt.executeUpdate("drop index if exists application_errors_resolved_created_at_idx");
+            stmt.executeUpdate("drop index if exists application_errors_resolved_host_updated_at_idx");
+        } catch (SQLException e) {
+            throw new UncheckedSQLException(e);
+        }
+    }
+}
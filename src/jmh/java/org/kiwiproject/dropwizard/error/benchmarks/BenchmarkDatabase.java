@@ -0,0 +1,112 @@
+package org.kiwiproject.dropwizard.error.benchmarks;
+
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.db.DataSourceFactory;
+import io.dropwizard.db.ManagedDataSource;
+import org.kiwiproject.dropwizard.error.dao.ApplicationErrorJdbc;
+import org.kiwiproject.jdbc.UncheckedSQLException;
+import org.kiwiproject.test.jdbc.SimpleSingleConnectionDataSource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.sql.SQLException;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+/**
+ * Embedded databases that benchmarks can run against.
+ */
+public enum BenchmarkDatabase {
+
+    H2("dropwizard-app-errors-migrations.xml", "org.h2.Driver") {
+        @Override
+        String newJdbcUrl() {
+            return "jdbc:h2:mem:benchmark-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        }
+
+        @Override
+        String newSharedJdbcUrl() {
+            return newJdbcUrl();
+        }
+    },
+
+    SQLITE("dropwizard-app-errors-migrations-sqlite.xml", "org.sqlite.JDBC") {
+        @Override
+        String newJdbcUrl() {
+            return "jdbc:sqlite::memory:";
+        }
+
+        /**
+         * Each connection to an in-memory SQLite database has its own database, so use a temporary file instead.
+         * Write-ahead logging lets readers proceed while a write is in progress, and the busy timeout makes
+         * concurrent writers wait for each other instead of failing.
+         */
+        @Override
+        String newSharedJdbcUrl() {
+            try {
+                var file = Files.createTempFile("benchmark-", ".db").toFile();
+                file.deleteOnExit();
+                return "jdbc:sqlite:" + file.getAbsolutePath() + "?journal_mode=WAL&busy_timeout=30000";
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    };
+
+    private final String migrationsFilename;
+    private final String driverClass;
+
+    BenchmarkDatabase(String migrationsFilename, String driverClass) {
+        this.migrationsFilename = migrationsFilename;
+        this.driverClass = driverClass;
+    }
+
+    abstract String newJdbcUrl();
+
+    /**
+     * @return the URL of a new database that can be shared by multiple connections
+     */
+    abstract String newSharedJdbcUrl();
+
+    /**
+     * Create a new, empty, and fully migrated database.
+     *
+     * @return a single-connection DataSource for the new database
+     */
+    public SimpleSingleConnectionDataSource newMigratedDataSource() {
+        var dataSource = new SimpleSingleConnectionDataSource(newJdbcUrl(), "");
+        migrate(dataSource);
+        return dataSource;
+    }
+
+    /**
+     * Create a new, empty, and fully migrated database that is accessed using a connection pool, so that it can be
+     * used by multiple threads at once.
+     *
+     * @param maxConnections the maximum number of connections in the pool
+     * @return a pooled DataSource for the new database, which must be stopped when no longer needed
+     */
+    public ManagedDataSource newMigratedPooledDataSource(int maxConnections) {
+        var factory = new DataSourceFactory();
+        factory.setDriverClass(driverClass);
+        factory.setUrl(newSharedJdbcUrl());
+        factory.setUser("");
+        factory.setInitialSize(1);
+        factory.setMinSize(1);
+        factory.setMaxSize(maxConnections);
+
+        var dataSource = factory.build(new MetricRegistry(), "benchmark-" + name().toLowerCase());
+        migrate(dataSource);
+        return dataSource;
+    }
+
+    private void migrate(DataSource dataSource) {
+        try (var conn = dataSource.getConnection()) {
+            ApplicationErrorJdbc.migrateDatabase(conn, migrationsFilename);
+        } catch (SQLException e) {
+            throw new UncheckedSQLException(e);
+        }
+    }
+}
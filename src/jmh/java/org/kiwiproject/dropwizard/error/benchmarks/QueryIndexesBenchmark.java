@@ -0,0 +1,89 @@
+package org.kiwiproject.dropwizard.error.benchmarks;
+
+import org.kiwiproject.dropwizard.error.dao.ApplicationErrorStatus;
+import org.kiwiproject.dropwizard.error.dao.jdk.JdbcApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.model.ApplicationError;
+import org.kiwiproject.test.jdbc.SimpleSingleConnectionDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the queries made by {@link org.kiwiproject.dropwizard.error.health.RecentErrorsHealthCheck} and by paging
+ * through errors, as the table grows, with and without the query indexes added in the database migrations.
+ * <p>
+ * With the indexes, the time per query should stay roughly flat as the table size increases. Without them, it grows
+ * linearly because every query scans the whole table.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Duser.timezone=UTC")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class QueryIndexesBenchmark {
+
+    @Param({ "H2", "SQLITE" })
+    public BenchmarkDatabase database;
+
+    @Param({ "10000", "100000", "1000000" })
+    public int tableSize;
+
+    @Param({ "true", "false" })
+    public boolean indexed;
+
+    private SimpleSingleConnectionDataSource dataSource;
+    private JdbcApplicationErrorDao errorDao;
+    private String hostName;
+    private String ipAddress;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = database.newMigratedDataSource();
+        BenchmarkData.insertErrors(dataSource, tableSize);
+
+        if (!indexed) {
+            BenchmarkData.dropQueryIndexes(dataSource);
+        }
+
+        errorDao = new JdbcApplicationErrorDao(dataSource);
+        hostName = BenchmarkData.hostNameOf(7);
+        ipAddress = BenchmarkData.ipAddressOf(7);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataSource.close();
+    }
+
+    @Benchmark
+    public long recentErrorsHealthCheckCount() {
+        var since = ZonedDateTime.now(ZoneOffset.UTC).minusMinutes(15);
+        return errorDao.countUnresolvedErrorsOnHostSince(since, hostName, ipAddress);
+    }
+
+    @Benchmark
+    public List<ApplicationError> firstPageOfUnresolvedErrors() {
+        return errorDao.getErrors(ApplicationErrorStatus.UNRESOLVED, 1, 25);
+    }
+
+    @Benchmark
+    public List<ApplicationError> firstPageOfResolvedErrors() {
+        return errorDao.getErrors(ApplicationErrorStatus.RESOLVED, 1, 25);
+    }
+}
@@ -0,0 +1,195 @@
+package org.kiwiproject.dropwizard.error.benchmarks;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.kiwiproject.dropwizard.error.dao.ApplicationErrorJdbc;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the CPU cost of compressing stack traces when storing them, and decompressing them when reading them, for
+ * stack traces like those thrown from a resource method in a Dropwizard application, with a cause from a database
+ * driver.
+ * <p>
+ * The {@code compress} benchmark also reports the {@link CompressedSize#uncompressedBytes uncompressed} and
+ * {@link CompressedSize#compressedBytes compressed} sizes of the stack traces it compressed, whose ratio is the
+ * compression ratio.
+ * <p>
+ * The {@code encode} benchmark, which only converts the stack trace to UTF-8 bytes as the JDBC driver must do for an
+ * uncompressed stack trace, is the baseline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class StackTraceCompressionBenchmark {
+
+    /**
+     * The number of frames in the stack trace of the exception and of its cause. Stack traces from Jersey resource
+     * methods running in Jetty typically have around 100 frames.
+     */
+    @Param({ "50", "100", "200" })
+    public int frameCount;
+
+    private String stackTrace;
+    private int uncompressedSize;
+    private byte[] compressedStackTrace;
+
+    /**
+     * Counts the bytes compressed by the {@code compress} benchmark, which JMH reports along with the time.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class CompressedSize {
+
+        /**
+         * The total size, as UTF-8 bytes, of the stack traces compressed in the iteration.
+         */
+        public long uncompressedBytes;
+
+        /**
+         * The total size of the compressed stack traces in the iteration.
+         */
+        public long compressedBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            uncompressedBytes = 0;
+            compressedBytes = 0;
+        }
+    }
+
+    private static final StackTraceElement[] APPLICATION_FRAMES = {
+            new StackTraceElement("com.example.orders.dao.OrderDao", "findById", "OrderDao.java", 87),
+            new StackTraceElement("com.example.orders.service.OrderService", "getOrder", "OrderService.java", 142),
+            new StackTraceElement("com.example.orders.resource.OrderResource", "getOrder", "OrderResource.java", 58),
+    };
+
+    private static final StackTraceElement[] FRAMEWORK_FRAMES = {
+            new StackTraceElement("jdk.internal.reflect.DirectMethodHandleAccessor", "invoke",
+                    "DirectMethodHandleAccessor.java", 103),
+            new StackTraceElement("java.lang.reflect.Method", "invoke", "Method.java", 580),
+            new StackTraceElement("org.glassfish.jersey.server.model.internal.ResourceMethodInvocationHandlerFactory",
+                    "lambda$static$0", "ResourceMethodInvocationHandlerFactory.java", 52),
+            new StackTraceElement("org.glassfish.jersey.server.model.internal.AbstractJavaResourceMethodDispatcher$1",
+                    "run", "AbstractJavaResourceMethodDispatcher.java", 146),
+            new StackTraceElement("org.glassfish.jersey.server.model.internal.AbstractJavaResourceMethodDispatcher",
+                    "invoke", "AbstractJavaResourceMethodDispatcher.java", 189),
+            new StackTraceElement("org.glassfish.jersey.server.model.ResourceMethodInvoker", "invoke",
+                    "ResourceMethodInvoker.java", 478),
+            new StackTraceElement("org.glassfish.jersey.server.ServerRuntime$1", "run", "ServerRuntime.java", 265),
+            new StackTraceElement("org.glassfish.jersey.internal.Errors", "process", "Errors.java", 292),
+            new StackTraceElement("org.glassfish.jersey.process.internal.RequestScope", "runInScope",
+                    "RequestScope.java", 265),
+            new StackTraceElement("org.glassfish.jersey.server.ApplicationHandler", "handle",
+                    "ApplicationHandler.java", 684),
+            new StackTraceElement("org.glassfish.jersey.servlet.WebComponent", "service", "WebComponent.java", 394),
+            new StackTraceElement("org.glassfish.jersey.servlet.ServletContainer", "service",
+                    "ServletContainer.java", 358),
+            new StackTraceElement("io.dropwizard.jetty.NonblockingServletHolder", "handle",
+                    "NonblockingServletHolder.java", 50),
+            new StackTraceElement("org.eclipse.jetty.servlet.ServletHandler$ChainEnd", "doFilter",
+                    "ServletHandler.java", 1656),
+            new StackTraceElement("io.dropwizard.servlets.ThreadNameFilter", "doFilter", "ThreadNameFilter.java", 35),
+            new StackTraceElement("org.eclipse.jetty.servlet.FilterHolder", "doFilter", "FilterHolder.java", 193),
+            new StackTraceElement("io.dropwizard.jersey.filter.AllowedMethodsFilter", "handle",
+                    "AllowedMethodsFilter.java", 47),
+            new StackTraceElement("org.eclipse.jetty.server.handler.ScopedHandler", "handle", "ScopedHandler.java", 122),
+            new StackTraceElement("org.eclipse.jetty.server.handler.HandlerWrapper", "handle",
+                    "HandlerWrapper.java", 122),
+            new StackTraceElement("com.codahale.metrics.jetty11.InstrumentedHandler", "handle",
+                    "InstrumentedHandler.java", 313),
+            new StackTraceElement("io.dropwizard.jetty.RoutingHandler", "handle", "RoutingHandler.java", 52),
+            new StackTraceElement("org.eclipse.jetty.server.handler.StatisticsHandler", "handle",
+                    "StatisticsHandler.java", 181),
+            new StackTraceElement("org.eclipse.jetty.server.Server", "handle", "Server.java", 516),
+            new StackTraceElement("org.eclipse.jetty.server.HttpChannel", "handle", "HttpChannel.java", 487),
+            new StackTraceElement("org.eclipse.jetty.util.thread.QueuedThreadPool$Runner", "run",
+                    "QueuedThreadPool.java", 1149),
+    };
+
+    private static final StackTraceElement[] DRIVER_FRAMES = {
+            new StackTraceElement("org.postgresql.core.v3.QueryExecutorImpl", "receiveErrorResponse",
+                    "QueryExecutorImpl.java", 2725),
+            new StackTraceElement("org.postgresql.core.v3.QueryExecutorImpl", "processResults",
+                    "QueryExecutorImpl.java", 2412),
+            new StackTraceElement("org.postgresql.core.v3.QueryExecutorImpl", "execute",
+                    "QueryExecutorImpl.java", 371),
+            new StackTraceElement("org.postgresql.jdbc.PgStatement", "executeInternal", "PgStatement.java", 502),
+            new StackTraceElement("org.postgresql.jdbc.PgPreparedStatement", "executeQuery",
+                    "PgPreparedStatement.java", 134),
+            new StackTraceElement("org.apache.tomcat.jdbc.pool.StatementFacade$StatementProxy", "invoke",
+                    "StatementFacade.java", 118),
+            new StackTraceElement("org.jdbi.v3.core.statement.SqlStatement", "internalExecute",
+                    "SqlStatement.java", 1790),
+            new StackTraceElement("org.jdbi.v3.core.result.ResultProducers", "lambda$returningResults$1",
+                    "ResultProducers.java", 85),
+            new StackTraceElement("org.jdbi.v3.sqlobject.statement.internal.SqlQueryHandler", "invoke",
+                    "SqlQueryHandler.java", 27),
+    };
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        stackTrace = newStackTrace(frameCount);
+        uncompressedSize = stackTrace.getBytes(StandardCharsets.UTF_8).length;
+        compressedStackTrace = ApplicationErrorJdbc.compressStackTrace(stackTrace);
+    }
+
+    private static String newStackTrace(int frameCount) {
+        var cause = new SQLException("ERROR: canceling statement due to statement timeout", "57014");
+        cause.setStackTrace(frames(DRIVER_FRAMES, frameCount));
+
+        var exception = new IllegalStateException("Unable to get order 42", cause);
+        exception.setStackTrace(frames(APPLICATION_FRAMES, frameCount));
+
+        return ExceptionUtils.getStackTrace(exception);
+    }
+
+    /**
+     * Create frames starting with the given first frames, followed by the framework frames, repeating the framework
+     * frames (as happens with nested filters and handlers) until there are {@code frameCount} frames.
+     */
+    private static StackTraceElement[] frames(StackTraceElement[] firstFrames, int frameCount) {
+        var frames = new ArrayList<StackTraceElement>(frameCount);
+        for (var i = 0; i < frameCount; i++) {
+            frames.add(i < firstFrames.length ?
+                    firstFrames[i] : FRAMEWORK_FRAMES[(i - firstFrames.length) % FRAMEWORK_FRAMES.length]);
+        }
+        return frames.toArray(StackTraceElement[]::new);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return stackTrace.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] compress(CompressedSize compressedSize) {
+        var compressed = ApplicationErrorJdbc.compressStackTrace(stackTrace);
+        compressedSize.uncompressedBytes += uncompressedSize;
+        compressedSize.compressedBytes += compressed.length;
+        return compressed;
+    }
+
+    @Benchmark
+    public String decompress() {
+        return ApplicationErrorJdbc.decompressStackTrace(compressedStackTrace);
+    }
+}
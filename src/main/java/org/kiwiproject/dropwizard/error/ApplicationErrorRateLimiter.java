@@ -0,0 +1,307 @@
+package org.kiwiproject.dropwizard.error;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static org.kiwiproject.base.KiwiPreconditions.checkArgumentNotNull;
+import static org.kiwiproject.base.KiwiPreconditions.requireNotNull;
+import static org.kiwiproject.base.KiwiThrowables.typeOfNullable;
+import static org.kiwiproject.dropwizard.error.dao.ApplicationErrorDao.PENDING_ID;
+import static org.kiwiproject.validation.KiwiValidations.checkArgumentValid;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.dropwizard.lifecycle.Managed;
+import lombok.extern.slf4j.Slf4j;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.kiwiproject.dropwizard.error.config.RateLimitConfig;
+import org.kiwiproject.dropwizard.error.dao.ApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.model.ApplicationError;
+import org.slf4j.Logger;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Limits how often duplicate application errors, i.e. errors having the same fingerprint, are logged and saved, so
+ * that an error occurring in a tight loop does not saturate the log files and the data store.
+ * <p>
+ * Each distinct error has a token bucket holding up to {@link RateLimitConfig#getMaxErrorsPerPeriod()} tokens,
+ * which refills continuously at that many tokens per {@link RateLimitConfig#getPeriod() period}. While the bucket
+ * has a token, an occurrence is logged and saved as usual by {@link ApplicationErrors}. Otherwise, the occurrence is
+ * only counted in memory, and only one of every {@link RateLimitConfig#getLogSampleRate() logSampleRate} such
+ * occurrences is logged. When {@link #flush()} is called, the counted occurrences are added to the number of times
+ * the saved errors occurred, using a single {@link ApplicationErrorDao#incrementCounts(Map)} call.
+ * <p>
+ * Errors are tracked by description and exception type, which together with the host name (the same for every error
+ * in an application) determine the fingerprint, so that the fingerprint need not be computed for each occurrence.
+ * Occurrences are saved using the {@link ApplicationErrorDao} given by the caller, e.g. an
+ * {@link ApplicationErrorThrower}, while the DAO given to the constructor is used to add the counted occurrences to
+ * the saved errors, so both must use the same data store.
+ * <p>
+ * Occurrences are only rate limited once the ID of the saved error is known, so that the counted occurrences can
+ * always be added to it. When the DAO does not return the ID, e.g. because it defers or spools writes, every
+ * occurrence is saved until {@link #flush()} finds the unresolved error having the same fingerprint. Counts are added
+ * to the error whose ID is known, even if it has been resolved in the meantime.
+ * <p>
+ * {@link #flush()} is expected to be called periodically, e.g. by a scheduled executor. This class is a Dropwizard
+ * {@link Managed} object; {@link #stop()} flushes pending counts, after which errors are no longer rate limited.
+ */
+@Slf4j
+public class ApplicationErrorRateLimiter implements Managed {
+
+    private record ErrorKey(String description, @Nullable String exceptionType) {
+    }
+
+    /**
+     * The token bucket and pending count of a distinct error. The pending count is only incremented once the ID of
+     * the saved error is known. All access is synchronized on the instance.
+     */
+    private static class ErrorBucket {
+        double tokens;
+        long lastRefillMillis;
+        long errorId = PENDING_ID;
+        int pendingCount;
+        long rateLimitedCount;
+        boolean removed;
+    }
+
+    /**
+     * The outcome of trying to take a token, where {@code errorId} and {@code rateLimitedCount} are only
+     * meaningful when the occurrence was rate limited.
+     */
+    private record Permit(ErrorBucket bucket, boolean rateLimited, long errorId, long rateLimitedCount) {
+    }
+
+    private final ApplicationErrorDao errorDao;
+    private final int maxErrorsPerPeriod;
+    private final double tokensPerMilli;
+    private final int logSampleRate;
+    private final int maxTrackedErrors;
+    private final Clock clock;
+    private final ConcurrentMap<ErrorKey, ErrorBucket> buckets;
+    private volatile boolean stopped;
+
+    /**
+     * Create a new instance.
+     *
+     * @param errorDao the {@link ApplicationErrorDao} used to find saved errors and add counted occurrences to them
+     * @param config   the rate limit configuration
+     */
+    public ApplicationErrorRateLimiter(ApplicationErrorDao errorDao, RateLimitConfig config) {
+        this(errorDao, config, Clock.systemUTC());
+    }
+
+    @VisibleForTesting
+    ApplicationErrorRateLimiter(ApplicationErrorDao errorDao, RateLimitConfig config, Clock clock) {
+        this.errorDao = requireNotNull(errorDao, "errorDao must not be null");
+        checkArgumentNotNull(config, "config must not be null");
+        checkArgumentValid(config);
+
+        this.maxErrorsPerPeriod = config.getMaxErrorsPerPeriod();
+        this.tokensPerMilli = (double) maxErrorsPerPeriod / config.getPeriod().toMilliseconds();
+        this.logSampleRate = config.getLogSampleRate();
+        this.maxTrackedErrors = config.getMaxTrackedErrors();
+        this.clock = requireNotNull(clock, "clock must not be null");
+        this.buckets = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Log and save an {@link ApplicationError} with the given {@link Throwable} and message, unless the same error
+     * has occurred too often recently, in which case the occurrence is counted and possibly logged.
+     *
+     * @param errorDao  the {@link ApplicationErrorDao} used to save the error
+     * @param logger    the SLF4J logger to use when logging
+     * @param throwable the underlying cause of the application error (can be null)
+     * @param message   a description of the problem that occurred
+     * @return an OptionalLong containing the ID of the saved ApplicationError, or empty if a problem occurred saving
+     * or the ID is not known yet; when the occurrence was rate limited, contains the ID of the saved error having the
+     * same fingerprint
+     */
+    public OptionalLong logAndSaveApplicationError(ApplicationErrorDao errorDao,
+                                                   Logger logger,
+                                                   @Nullable Throwable throwable,
+                                                   String message) {
+        var permit = stopped ? null : tryAcquire(new ErrorKey(message, typeOfNullable(throwable).orElse(null)));
+
+        if (isNull(permit)) {
+            return ApplicationErrors.logAndSaveApplicationError(errorDao, logger, throwable, message);
+        }
+
+        if (permit.rateLimited()) {
+            if (logSampleRate > 0 && (permit.rateLimitedCount() - 1) % logSampleRate == 0) {
+                logger.error("{} [rate limited; logging 1 of every {} occurrences]", message, logSampleRate, throwable);
+            }
+            return OptionalLong.of(permit.errorId());
+        }
+
+        var optionalId = ApplicationErrors.logAndSaveApplicationError(errorDao, logger, throwable, message);
+        if (optionalId.isPresent()) {
+            var bucket = permit.bucket();
+            synchronized (bucket) {
+                bucket.errorId = optionalId.getAsLong();
+            }
+        }
+
+        return optionalId;
+    }
+
+    /**
+     * @return the permit, or null if the error is not tracked because the maximum number of errors are tracked
+     */
+    @Nullable
+    private Permit tryAcquire(ErrorKey key) {
+        while (true) {
+            var bucket = getOrCreateBucket(key);
+            if (isNull(bucket)) {
+                return null;
+            }
+
+            synchronized (bucket) {
+                // The bucket was removed by flush() after we got it, so get its replacement
+                if (bucket.removed) {
+                    continue;
+                }
+
+                refill(bucket, clock.millis());
+                if (bucket.tokens >= 1) {
+                    bucket.tokens -= 1;
+                    return new Permit(bucket, false, bucket.errorId, bucket.rateLimitedCount);
+                }
+
+                // Counted occurrences could not be added to the saved error, so save this one too
+                if (bucket.errorId == PENDING_ID) {
+                    return new Permit(bucket, false, bucket.errorId, bucket.rateLimitedCount);
+                }
+
+                ++bucket.pendingCount;
+                ++bucket.rateLimitedCount;
+                return new Permit(bucket, true, bucket.errorId, bucket.rateLimitedCount);
+            }
+        }
+    }
+
+    @Nullable
+    private ErrorBucket getOrCreateBucket(ErrorKey key) {
+        var bucket = buckets.get(key);
+        if (nonNull(bucket)) {
+            return bucket;
+        }
+
+        if (buckets.size() >= maxTrackedErrors) {
+            return null;
+        }
+
+        return buckets.computeIfAbsent(key, theKey -> {
+            var newBucket = new ErrorBucket();
+            newBucket.tokens = maxErrorsPerPeriod;
+            newBucket.lastRefillMillis = clock.millis();
+            return newBucket;
+        });
+    }
+
+    private void refill(ErrorBucket bucket, long nowMillis) {
+        var elapsedMillis = Math.max(0, nowMillis - bucket.lastRefillMillis);
+        bucket.tokens = Math.min(maxErrorsPerPeriod, bucket.tokens + elapsedMillis * tokensPerMilli);
+        bucket.lastRefillMillis = nowMillis;
+    }
+
+    /**
+     * Adds the counts of rate-limited occurrences to the saved errors using a single
+     * {@link ApplicationErrorDao#incrementCounts(Map)} call, and stops tracking errors that have not occurred
+     * recently. Also finds the IDs of saved errors that are not yet known, for errors that are occurring often
+     * enough to be rate limited.
+     *
+     * @return the number of errors whose counts were incremented
+     */
+    public int flush() {
+        var nowMillis = clock.millis();
+        var amounts = new HashMap<Long, Integer>();
+        var unknownIdKeys = new ArrayList<ErrorKey>();
+
+        for (var entry : buckets.entrySet()) {
+            var bucket = entry.getValue();
+            synchronized (bucket) {
+                if (bucket.pendingCount > 0) {
+                    amounts.merge(bucket.errorId, bucket.pendingCount, Integer::sum);
+                    bucket.pendingCount = 0;
+                }
+
+                refill(bucket, nowMillis);
+                if (bucket.tokens >= maxErrorsPerPeriod) {
+                    bucket.removed = true;
+                    buckets.remove(entry.getKey(), bucket);
+                } else if (bucket.errorId == PENDING_ID && bucket.tokens < 1) {
+                    unknownIdKeys.add(entry.getKey());
+                }
+            }
+        }
+
+        unknownIdKeys.forEach(this::findErrorId);
+
+        if (amounts.isEmpty()) {
+            return 0;
+        }
+
+        return writePendingCounts(amounts);
+    }
+
+    /**
+     * Find the ID of the saved unresolved error having the fingerprint of the given key. The DAO is queried without
+     * holding the lock on the bucket, so that the error can still be reported meanwhile.
+     */
+    private void findErrorId(ErrorKey key) {
+        var hostInformation = ApplicationError.getPersistentHostInformation();
+        if (isNull(hostInformation)) {
+            return;
+        }
+
+        var hostName = hostInformation.getHostName();
+        var fingerprint = ApplicationError.fingerprintOf(key.description(), key.exceptionType(), hostName);
+        OptionalLong errorId;
+        try {
+            errorId = errorDao.getUnresolvedErrorIdByFingerprint(fingerprint);
+        } catch (Exception e) {
+            LOG.warn("Error finding the ID of rate-limited ApplicationError: {}", key.description(), e);
+            return;
+        }
+
+        var bucket = buckets.get(key);
+        if (errorId.isEmpty() || isNull(bucket)) {
+            return;
+        }
+
+        synchronized (bucket) {
+            if (bucket.errorId == PENDING_ID) {
+                bucket.errorId = errorId.getAsLong();
+            }
+        }
+    }
+
+    private int writePendingCounts(Map<Long, Integer> amounts) {
+        try {
+            errorDao.incrementCounts(amounts);
+            return amounts.size();
+        } catch (Exception e) {
+            LOG.error("Error incrementing counts of rate-limited ApplicationErrors with IDs {}", amounts.keySet(), e);
+            return 0;
+        }
+    }
+
+    /**
+     * @return the number of distinct errors currently being rate limited
+     */
+    public int getTrackedErrorCount() {
+        return buckets.size();
+    }
+
+    @Override
+    public void stop() {
+        stopped = true;
+        var flushCount = flush();
+        LOG.info("Flushed counts of {} rate-limited errors on stop", flushCount);
+    }
+}
@@ -1,5 +1,7 @@
 package org.kiwiproject.dropwizard.error;
 
+import static java.util.Objects.isNull;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.NonNull;
@@ -25,6 +27,11 @@ import java.util.OptionalLong;
  * Generally you will inject an {@link ApplicationErrorDao} into the class that wants to throw application errors, and
  * then create and store the thrower in a {@code private final} field, which you would initialize during construction
  * with the {@link ApplicationErrorDao} and that class' {@link Logger}.
+ * <p>
+ * Optionally, supply the {@link ApplicationErrorRateLimiter} from {@link ErrorContext#rateLimiter()}, so that
+ * duplicate errors occurring too often are counted rather than logged and saved each time. Errors are still saved
+ * using the {@link ApplicationErrorDao} of this instance, which must use the same data store as the DAO of the rate
+ * limiter, since the rate limiter uses its DAO to add the counted occurrences to the saved errors.
  */
 @Builder
 @AllArgsConstructor
@@ -36,14 +43,32 @@ public class ApplicationErrorThrower {
     @NonNull
     private final Logger logger;
 
+    @Nullable
+    private final ApplicationErrorRateLimiter rateLimiter;
+
+    /**
+     * Create a new instance that does not rate limit errors.
+     *
+     * @param errorDao the DAO used to save application errors
+     * @param logger   the logger used to log application errors
+     */
+    public ApplicationErrorThrower(ApplicationErrorDao errorDao, Logger logger) {
+        this(errorDao, logger, null);
+    }
+
     /**
      * Log and save an {@link ApplicationError} with the given message.
      *
      * @param message a description of the problem that occurred
      * @return an OptionalLong containing the ID of the saved ApplicationError, or empty if a problem occurred saving
+     * or the ID is not known yet
      */
     public OptionalLong logAndSaveApplicationError(String message) {
-        return ApplicationErrors.logAndSaveApplicationError(errorDao, logger, message);
+        if (isNull(rateLimiter)) {
+            return ApplicationErrors.logAndSaveApplicationError(errorDao, logger, message);
+        }
+
+        return rateLimiter.logAndSaveApplicationError(errorDao, logger, null, message);
     }
 
 
@@ -55,9 +80,15 @@ public class ApplicationErrorThrower {
      *                        using {@link KiwiStrings#format(String, Object...)}
      * @param args            the arguments to supply to the message template
      * @return an OptionalLong containing the ID of the saved ApplicationError, or empty if a problem occurred saving
+     * or the ID is not known yet
      */
     public OptionalLong logAndSaveApplicationError(String messageTemplate, Object... args) {
-        return ApplicationErrors.logAndSaveApplicationError(errorDao, logger, messageTemplate, args);
+        if (isNull(rateLimiter)) {
+            return ApplicationErrors.logAndSaveApplicationError(errorDao, logger, messageTemplate, args);
+        }
+
+        var message = KiwiStrings.format(messageTemplate, args);
+        return rateLimiter.logAndSaveApplicationError(errorDao, logger, null, message);
     }
 
     /**
@@ -66,9 +97,14 @@ public class ApplicationErrorThrower {
      * @param throwable the underlying cause of the application error (can be null)
      * @param message   a description of the problem that occurred
      * @return an OptionalLong containing the ID of the saved ApplicationError, or empty if a problem occurred saving
+     * or the ID is not known yet
      */
     public OptionalLong logAndSaveApplicationError(@Nullable Throwable throwable, String message) {
-        return ApplicationErrors.logAndSaveApplicationError(errorDao, logger, throwable, message);
+        if (isNull(rateLimiter)) {
+            return ApplicationErrors.logAndSaveApplicationError(errorDao, logger, throwable, message);
+        }
+
+        return rateLimiter.logAndSaveApplicationError(errorDao, logger, throwable, message);
     }
 
     /**
@@ -80,8 +116,14 @@ public class ApplicationErrorThrower {
      *                        using {@link KiwiStrings#format(String, Object...)}
      * @param args            the arguments to supply to the message template
      * @return an OptionalLong containing the ID of the saved ApplicationError, or empty if a problem occurred saving
+     * or the ID is not known yet
      */
     public OptionalLong logAndSaveApplicationError(@Nullable Throwable throwable, String messageTemplate, Object... args) {
-        return ApplicationErrors.logAndSaveApplicationError(errorDao, logger, throwable, messageTemplate, args);
+        if (isNull(rateLimiter)) {
+            return ApplicationErrors.logAndSaveApplicationError(errorDao, logger, throwable, messageTemplate, args);
+        }
+
+        var message = KiwiStrings.format(messageTemplate, args);
+        return rateLimiter.logAndSaveApplicationError(errorDao, logger, throwable, message);
     }
 }
@@ -7,6 +7,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.kiwiproject.base.KiwiStrings;
 import org.kiwiproject.dropwizard.error.dao.ApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.dao.CircuitBreakerOpenException;
 import org.kiwiproject.dropwizard.error.model.ApplicationError;
 import org.slf4j.Logger;
 
@@ -23,6 +24,13 @@ import java.util.OptionalLong;
  * Methods return the generated error ID as an {@link OptionalLong}, so that if an exception occurs saving an
  * application error, an empty {@link OptionalLong} is returned, which would indicate to the caller that there was a
  * problem saving the error.
+ * <p>
+ * The returned {@link OptionalLong} is also empty when the ID of the saved error is not known yet. This happens when
+ * errors are saved asynchronously (see {@link ErrorContextBuilder#useAsyncWrites()}) and the error was queued, or when
+ * failed writes are spooled (see {@link ErrorContextBuilder#spoolFailedWrites(java.nio.file.Path)}) and the error was
+ * spooled to be written later. In both cases the DAO returns
+ * {@link org.kiwiproject.dropwizard.error.dao.ApplicationErrorDao#PENDING_ID PENDING_ID}, which is never
+ * a valid ID.
  */
 @UtilityClass
 @Slf4j
@@ -38,6 +46,7 @@ public class ApplicationErrors {
      *                        using {@link KiwiStrings#format(String, Object...)}
      * @param args            the arguments to supply to the message template
      * @return an OptionalLong containing the ID of the saved ApplicationError, or empty if a problem occurred saving
+     * or the ID is not known yet
      */
     public static OptionalLong logAndSaveApplicationError(ApplicationErrorDao errorDao,
                                                           Logger logger,
@@ -54,6 +63,7 @@ public class ApplicationErrors {
      * @param logger   the SLF4J logger to use when logging
      * @param message  a description of the problem that occurred
      * @return an OptionalLong containing the ID of the saved ApplicationError, or empty if a problem occurred saving
+     * or the ID is not known yet
      */
     public static OptionalLong logAndSaveApplicationError(ApplicationErrorDao errorDao,
                                                           Logger logger,
@@ -61,7 +71,7 @@ public class ApplicationErrors {
         try {
             logger.error(message);
             var unresolvedError = ApplicationError.newUnresolvedError(message);
-            return OptionalLong.of(errorDao.insertOrIncrementCount(unresolvedError));
+            return optionalIdOf(errorDao.insertOrIncrementCount(unresolvedError));
         } catch (Exception e) {
             logErrorSavingApplicationError(e, message, null);
             return OptionalLong.empty();
@@ -79,6 +89,7 @@ public class ApplicationErrors {
      *                        using {@link KiwiStrings#format(String, Object...)}
      * @param args            the arguments to supply to the message template
      * @return an OptionalLong containing the ID of the saved ApplicationError, or empty if a problem occurred saving
+     * or the ID is not known yet
      */
     public static OptionalLong logAndSaveApplicationError(ApplicationErrorDao errorDao,
                                                           Logger logger,
@@ -98,6 +109,7 @@ public class ApplicationErrors {
      * @param throwable the underlying cause of the application error (can be null)
      * @param message   a description of the problem that occurred
      * @return an OptionalLong containing the ID of the saved ApplicationError, or empty if a problem occurred saving
+     * or the ID is not known yet
      */
     public static OptionalLong logAndSaveApplicationError(ApplicationErrorDao errorDao,
                                                           Logger logger,
@@ -106,13 +118,22 @@ public class ApplicationErrors {
         try {
             logger.error(message, throwable);
             var unresolvedError = ApplicationError.newUnresolvedError(message, throwable);
-            return OptionalLong.of(errorDao.insertOrIncrementCount(unresolvedError));
+            return optionalIdOf(errorDao.insertOrIncrementCount(unresolvedError));
         } catch (Exception e) {
             logErrorSavingApplicationError(e, message, throwable);
             return OptionalLong.empty();
         }
     }
 
+    /**
+     * @param id the ID returned when saving an ApplicationError
+     * @return an OptionalLong containing the ID, or empty if the ID is
+     * {@link org.kiwiproject.dropwizard.error.dao.ApplicationErrorDao#PENDING_ID PENDING_ID}
+     */
+    static OptionalLong optionalIdOf(long id) {
+        return id == ApplicationErrorDao.PENDING_ID ? OptionalLong.empty() : OptionalLong.of(id);
+    }
+
     /**
      * @param saveException     the exception that was thrown when we tried to save the ApplicationError
      * @param appErrorMessage   the message from the ApplicationError that we tried (and failed) to save
@@ -121,6 +142,13 @@ public class ApplicationErrors {
     private static void logErrorSavingApplicationError(Exception saveException,
                                                        String appErrorMessage,
                                                        @Nullable Throwable appErrorThrowable) {
+        if (saveException instanceof CircuitBreakerOpenException) {
+            // The data store is already known to be failing, so don't log a stack trace for every error
+            LOG.warn("Not saving ApplicationError with description [{}]: {}",
+                    appErrorMessage, saveException.getMessage());
+            return;
+        }
+
         if (nonNull(appErrorThrowable)) {
             LOG.error("Error saving ApplicationError with description [{}] and {} exception having message: {}.",
                     appErrorMessage,
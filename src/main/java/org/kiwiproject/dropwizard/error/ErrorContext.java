@@ -70,4 +70,15 @@ public interface ErrorContext {
      */
     Optional<RecentErrorsHealthCheck> recentErrorsHealthCheck();
 
+    /**
+     * Return the {@link ApplicationErrorRateLimiter}, which should be supplied to each {@link ApplicationErrorThrower}
+     * so that duplicate errors are rate limited. Note if {@link ErrorContextBuilder#rateLimitErrors()} was not called
+     * this will return an empty {@link Optional}.
+     *
+     * @return an Optional containing the {@link ApplicationErrorRateLimiter}, or an empty Optional
+     */
+    default Optional<ApplicationErrorRateLimiter> rateLimiter() {
+        return Optional.empty();
+    }
+
 }
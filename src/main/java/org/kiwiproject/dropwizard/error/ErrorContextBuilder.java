@@ -12,17 +12,40 @@ import io.dropwizard.db.DataSourceFactory;
 import lombok.extern.slf4j.Slf4j;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.jdbi.v3.core.Jdbi;
+import org.kiwiproject.dropwizard.error.config.AsyncWriteConfig;
+import org.kiwiproject.dropwizard.error.config.BackgroundHealthCheckConfig;
+import org.kiwiproject.dropwizard.error.config.CircuitBreakerConfig;
 import org.kiwiproject.dropwizard.error.config.CleanupConfig;
+import org.kiwiproject.dropwizard.error.config.CoalescingConfig;
+import org.kiwiproject.dropwizard.error.config.InMemoryCapacityConfig;
+import org.kiwiproject.dropwizard.error.config.RateLimitConfig;
+import org.kiwiproject.dropwizard.error.config.RecentErrorCounterConfig;
+import org.kiwiproject.dropwizard.error.config.SpoolConfig;
+import org.kiwiproject.dropwizard.error.config.StackTraceCaptureConfig;
+import org.kiwiproject.dropwizard.error.config.UnresolvedErrorCacheConfig;
 import org.kiwiproject.dropwizard.error.dao.ApplicationErrorDao;
 import org.kiwiproject.dropwizard.error.dao.ApplicationErrorJdbc;
+import org.kiwiproject.dropwizard.error.dao.CachingApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.dao.CircuitBreakingApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.dao.CoalescingApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.dao.InstrumentedApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.dao.RecentErrorCountingApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.dao.SpoolingApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.dao.StackTraceCompression;
+import org.kiwiproject.dropwizard.error.dao.WriteBehindApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.dao.jdbi3.Jdbi3ApplicationErrorConfig;
 import org.kiwiproject.dropwizard.error.dao.jdk.ConcurrentMapApplicationErrorDao;
 import org.kiwiproject.dropwizard.error.dao.jdk.JdbcApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.dao.jdk.MappedFileApplicationErrorDao;
 import org.kiwiproject.dropwizard.error.dao.jdk.NoOpApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.health.CachedRecentErrorsHealthCheck;
+import org.kiwiproject.dropwizard.error.health.InMemoryRecentErrorsHealthCheck;
 import org.kiwiproject.dropwizard.error.health.TimeWindow;
 import org.kiwiproject.dropwizard.error.model.DataStoreType;
 import org.kiwiproject.dropwizard.error.model.ServiceDetails;
 import org.kiwiproject.dropwizard.jdbi3.Jdbi3Builders;
 
+import java.nio.file.Path;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalUnit;
 
@@ -43,6 +66,8 @@ import java.time.temporal.TemporalUnit;
  * <li>{@link #buildWithDataStoreFactoryOfType(DataSourceFactory, DaoType)}</li>
  * <li>{@link #buildWithNoOpDao()}</li>
  * <li>{@link #buildWithConcurrentMapDao()}</li>
+ * <li>{@link #buildWithConcurrentMapDao(InMemoryCapacityConfig)}</li>
+ * <li>{@link #buildWithMappedFileDao(Path)}</li>
  * <li>{@link #buildWithDao(ApplicationErrorDao)}</li>
  * </ul>
  * </ol>
@@ -105,10 +130,21 @@ public class ErrorContextBuilder {
     private boolean addGotErrorsResource = true;
     private boolean addHealthCheck = true;
     private boolean addCleanupJob = true;
+    private boolean addDaoMetrics = true;
     private long timeWindowValue = TimeWindow.DEFAULT_TIME_WINDOW_MINUTES;
     private TemporalUnit timeWindowUnit = ChronoUnit.MINUTES;
     private boolean healthCheckTimeWindowAlreadySet;
     private CleanupConfig cleanupConfig = new CleanupConfig();
+    private AsyncWriteConfig asyncWriteConfig;
+    private CoalescingConfig coalescingConfig;
+    private SpoolConfig spoolConfig;
+    private CircuitBreakerConfig circuitBreakerConfig;
+    private RateLimitConfig rateLimitConfig;
+    private BackgroundHealthCheckConfig backgroundHealthCheckConfig;
+    private RecentErrorCounterConfig recentErrorCounterConfig;
+    private boolean compressStackTraces;
+    private StackTraceCaptureConfig stackTraceCaptureConfig;
+    private UnresolvedErrorCacheConfig unresolvedErrorCacheConfig;
 
     public static ErrorContextBuilder newInstance() {
         return new ErrorContextBuilder();
@@ -196,6 +232,17 @@ public class ErrorContextBuilder {
         return this;
     }
 
+    /**
+     * Configures the resulting {@link ErrorContext} so that it does not record metrics for each
+     * {@link ApplicationErrorDao} call using an {@link InstrumentedApplicationErrorDao}.
+     *
+     * @return this builder
+     */
+    public ErrorContextBuilder skipDaoMetrics() {
+        this.addDaoMetrics = false;
+        return this;
+    }
+
     /**
      * Configures the {@link org.kiwiproject.dropwizard.error.job.CleanupApplicationErrorsJob} clean up job.
      *
@@ -207,6 +254,268 @@ public class ErrorContextBuilder {
         return this;
     }
 
+    /**
+     * Configures the resulting {@link ErrorContext} to save errors asynchronously using the default
+     * {@link AsyncWriteConfig}.
+     *
+     * @return this builder
+     * @see #useAsyncWrites(AsyncWriteConfig)
+     */
+    public ErrorContextBuilder useAsyncWrites() {
+        return useAsyncWrites(new AsyncWriteConfig());
+    }
+
+    /**
+     * Configures the resulting {@link ErrorContext} to save errors asynchronously. The {@link ApplicationErrorDao}
+     * will be wrapped in a {@link WriteBehindApplicationErrorDao}, which is registered with the Dropwizard lifecycle
+     * so that queued errors are written when the application shuts down.
+     * <p>
+     * When enabled, {@link ApplicationErrors} methods return
+     * {@link ApplicationErrorDao#PENDING_ID PENDING_ID} instead of the actual error ID.
+     *
+     * @param config the {@link AsyncWriteConfig}
+     * @return this builder
+     */
+    public ErrorContextBuilder useAsyncWrites(AsyncWriteConfig config) {
+        this.asyncWriteConfig = config;
+        return this;
+    }
+
+    /**
+     * Configures the resulting {@link ErrorContext} to coalesce duplicate errors using the default
+     * {@link CoalescingConfig}.
+     *
+     * @return this builder
+     * @see #coalesceDuplicateErrors(CoalescingConfig)
+     */
+    public ErrorContextBuilder coalesceDuplicateErrors() {
+        return coalesceDuplicateErrors(new CoalescingConfig());
+    }
+
+    /**
+     * Configures the resulting {@link ErrorContext} to coalesce duplicate errors, i.e. errors having the same
+     * fingerprint, within a time window. The {@link ApplicationErrorDao} will be wrapped in a
+     * {@link CoalescingApplicationErrorDao}, and a scheduled job flushes the coalesced counts at the end of each window.
+     *
+     * @param config the {@link CoalescingConfig}
+     * @return this builder
+     */
+    public ErrorContextBuilder coalesceDuplicateErrors(CoalescingConfig config) {
+        this.coalescingConfig = config;
+        return this;
+    }
+
+    /**
+     * Configures the resulting {@link ErrorContext} to spool errors that cannot be written to the data store to the
+     * given file, using the default values of the other {@link SpoolConfig} properties.
+     *
+     * @param path the path of the spool file
+     * @return this builder
+     * @see #spoolFailedWrites(SpoolConfig)
+     */
+    public ErrorContextBuilder spoolFailedWrites(Path path) {
+        checkArgumentNotNull(path, "path must not be null");
+
+        var config = new SpoolConfig();
+        config.setPath(path.toString());
+        return spoolFailedWrites(config);
+    }
+
+    /**
+     * Configures the resulting {@link ErrorContext} to spool errors that cannot be written to the data store, for
+     * example because it is unreachable, to a local file. The {@link ApplicationErrorDao} will be wrapped in a
+     * {@link SpoolingApplicationErrorDao}, which is registered with the Dropwizard lifecycle, and a scheduled job
+     * replays spooled errors to the data store once it recovers.
+     * <p>
+     * When an error is spooled, {@link ApplicationErrors} methods return
+     * {@link ApplicationErrorDao#PENDING_ID PENDING_ID} instead of the actual error ID.
+     *
+     * @param config the {@link SpoolConfig}
+     * @return this builder
+     */
+    public ErrorContextBuilder spoolFailedWrites(SpoolConfig config) {
+        this.spoolConfig = config;
+        return this;
+    }
+
+    /**
+     * Configures the resulting {@link ErrorContext} to guard writes to the data store with a circuit breaker using
+     * the default {@link CircuitBreakerConfig}.
+     *
+     * @return this builder
+     * @see #useCircuitBreaker(CircuitBreakerConfig)
+     */
+    public ErrorContextBuilder useCircuitBreaker() {
+        return useCircuitBreaker(new CircuitBreakerConfig());
+    }
+
+    /**
+     * Configures the resulting {@link ErrorContext} to guard writes to the data store with a circuit breaker, so
+     * that while the data store is failing or slow, saving errors fails fast instead of waiting for timeouts. The
+     * {@link ApplicationErrorDao} will be wrapped in a {@link CircuitBreakingApplicationErrorDao}, its state is
+     * registered as a gauge, and unless the health check is skipped, a health check reports unhealthy while the
+     * circuit is not closed.
+     * <p>
+     * Errors rejected while the circuit is open are logged and dropped, unless failed writes are spooled using
+     * {@link #spoolFailedWrites(SpoolConfig)}, in which case they are spooled and replayed later.
+     *
+     * @param config the {@link CircuitBreakerConfig}
+     * @return this builder
+     */
+    public ErrorContextBuilder useCircuitBreaker(CircuitBreakerConfig config) {
+        this.circuitBreakerConfig = config;
+        return this;
+    }
+
+    /**
+     * Configures the resulting {@link ErrorContext} to rate limit duplicate errors using the default
+     * {@link RateLimitConfig}.
+     *
+     * @return this builder
+     * @see #rateLimitErrors(RateLimitConfig)
+     */
+    public ErrorContextBuilder rateLimitErrors() {
+        return rateLimitErrors(new RateLimitConfig());
+    }
+
+    /**
+     * Configures the resulting {@link ErrorContext} to provide an {@link ApplicationErrorRateLimiter}, which limits
+     * how often duplicate errors (having the same fingerprint) are logged and saved. Occurrences beyond the limit are
+     * counted in memory, and a scheduled job adds the counts to the saved errors. The rate limiter is registered with
+     * the Dropwizard lifecycle.
+     * <p>
+     * Only errors saved using an {@link ApplicationErrorThrower} that was given the
+     * {@link ErrorContext#rateLimiter() rate limiter} are rate limited.
+     *
+     * @param config the {@link RateLimitConfig}
+     * @return this builder
+     */
+    public ErrorContextBuilder rateLimitErrors(RateLimitConfig config) {
+        this.rateLimitConfig = config;
+        return this;
+    }
+
+    /**
+     * Configures the resulting {@link ErrorContext} to evaluate the health check in the background using the default
+     * {@link BackgroundHealthCheckConfig}.
+     *
+     * @return this builder
+     * @see #evaluateHealthCheckInBackground(BackgroundHealthCheckConfig)
+     */
+    public ErrorContextBuilder evaluateHealthCheckInBackground() {
+        return evaluateHealthCheckInBackground(new BackgroundHealthCheckConfig());
+    }
+
+    /**
+     * Configures the resulting {@link ErrorContext} to evaluate the health check on a background schedule. The
+     * registered health check is a {@link CachedRecentErrorsHealthCheck}, which returns the most recently evaluated
+     * result, so that executing the health check does not query the errors data store.
+     * <p>
+     * Has no effect if the health check is skipped.
+     *
+     * @param config the {@link BackgroundHealthCheckConfig}
+     * @return this builder
+     */
+    public ErrorContextBuilder evaluateHealthCheckInBackground(BackgroundHealthCheckConfig config) {
+        this.backgroundHealthCheckConfig = config;
+        return this;
+    }
+
+    /**
+     * Configures the resulting {@link ErrorContext} to count recent errors in memory using the default
+     * {@link RecentErrorCounterConfig}.
+     *
+     * @return this builder
+     * @see #countRecentErrorsInMemory(RecentErrorCounterConfig)
+     */
+    public ErrorContextBuilder countRecentErrorsInMemory() {
+        return countRecentErrorsInMemory(new RecentErrorCounterConfig());
+    }
+
+    /**
+     * Configures the resulting {@link ErrorContext} to count recent errors in memory as they are written, so that
+     * executing the health check does not query the errors data store. The {@link ApplicationErrorDao} will be
+     * wrapped in a {@link RecentErrorCountingApplicationErrorDao}, and the registered health check is an
+     * {@link InMemoryRecentErrorsHealthCheck}. The in-memory count is reconciled with the data store once at startup,
+     * and for a {@link DataStoreType#SHARED SHARED} data store, a scheduled job then periodically reconciles it,
+     * unless disabled in the config.
+     * <p>
+     * Has no effect if the health check is skipped, and takes precedence over
+     * {@link #evaluateHealthCheckInBackground(BackgroundHealthCheckConfig)}.
+     *
+     * @param config the {@link RecentErrorCounterConfig}
+     * @return this builder
+     */
+    public ErrorContextBuilder countRecentErrorsInMemory(RecentErrorCounterConfig config) {
+        this.recentErrorCounterConfig = config;
+        return this;
+    }
+
+    /**
+     * Configures the resulting {@link ErrorContext} to cache the IDs of unresolved errors using the default
+     * {@link UnresolvedErrorCacheConfig}.
+     *
+     * @return this builder
+     * @see #cacheUnresolvedErrorIds(UnresolvedErrorCacheConfig)
+     */
+    public ErrorContextBuilder cacheUnresolvedErrorIds() {
+        return cacheUnresolvedErrorIds(new UnresolvedErrorCacheConfig());
+    }
+
+    /**
+     * Configures the resulting {@link ErrorContext} to cache the IDs of unresolved errors by fingerprint, so that
+     * when an error recurs, its count is incremented using a single update by ID. The {@link ApplicationErrorDao}
+     * will be wrapped in a {@link CachingApplicationErrorDao}.
+     *
+     * @param config the {@link UnresolvedErrorCacheConfig}
+     * @return this builder
+     */
+    public ErrorContextBuilder cacheUnresolvedErrorIds(UnresolvedErrorCacheConfig config) {
+        this.unresolvedErrorCacheConfig = config;
+        return this;
+    }
+
+    /**
+     * Configures the JDBC and JDBI 3 DAOs to store new stack traces compressed using
+     * {@link StackTraceCompression#DEFLATE DEFLATE}, which greatly reduces the size of the stored stack traces at a
+     * small CPU cost when storing and reading them. For JDBI 3, this sets the {@link Jdbi3ApplicationErrorConfig} of
+     * the {@link Jdbi} instance.
+     * <p>
+     * Has no effect on other DAOs.
+     *
+     * @return this builder
+     */
+    public ErrorContextBuilder compressStackTraces() {
+        this.compressStackTraces = true;
+        return this;
+    }
+
+    /**
+     * Configures the resulting {@link ErrorContext} to limit the stack traces captured when errors are created using
+     * the default {@link StackTraceCaptureConfig}.
+     *
+     * @return this builder
+     * @see #limitCapturedStackTraces(StackTraceCaptureConfig)
+     */
+    public ErrorContextBuilder limitCapturedStackTraces() {
+        return limitCapturedStackTraces(new StackTraceCaptureConfig());
+    }
+
+    /**
+     * Configures the resulting {@link ErrorContext} to limit the stack traces captured when errors are created by the
+     * {@link org.kiwiproject.dropwizard.error.model.ApplicationError ApplicationError} factory methods, by omitting
+     * frames in excluded packages, collapsing repeated frames, and limiting the number of frames and characters. The
+     * limits are applied while rendering the stack trace, so less is allocated, written, and stored for each error.
+     *
+     * @param config the {@link StackTraceCaptureConfig}
+     * @return this builder
+     * @see org.kiwiproject.dropwizard.error.model.StackTraceCapturePolicy
+     */
+    public ErrorContextBuilder limitCapturedStackTraces(StackTraceCaptureConfig config) {
+        this.stackTraceCaptureConfig = config;
+        return this;
+    }
+
     /**
      * Configures the {@link TimeWindow} for the health check. If an error occurs within this time window, the
      * health check will report as unhealthy. If there are no errors inside this window, the health check will
@@ -337,7 +646,8 @@ public class ErrorContextBuilder {
         LOG.info("Creating a {} JDBC ErrorContext instance from the dataSourceFactory", dataStoreType);
 
         var managedDataSource = dataSourceFactory.build(environment.metrics(), DEFAULT_DATABASE_HEALTH_CHECK_NAME);
-        var errorDao = new JdbcApplicationErrorDao(managedDataSource);
+        var stackTraceCompression = compressStackTraces ? StackTraceCompression.DEFLATE : StackTraceCompression.NONE;
+        var errorDao = new JdbcApplicationErrorDao(managedDataSource, stackTraceCompression);
 
         return buildWithDao(errorDao);
     }
@@ -421,6 +731,14 @@ public class ErrorContextBuilder {
     }
 
     private Jdbi3ErrorContext newJdbi3ErrorContext(Jdbi jdbi) {
+        if (nonNull(jdbi)) {
+            // Creating the config on the Jdbi instance means all handles share (copies of) it, e.g. its cached dialect
+            var config = jdbi.getConfig(Jdbi3ApplicationErrorConfig.class);
+            if (compressStackTraces) {
+                config.setStackTraceCompression(StackTraceCompression.DEFLATE);
+            }
+        }
+
         return new Jdbi3ErrorContext(environment, serviceDetails, jdbi, buildOptions());
     }
 
@@ -438,7 +756,8 @@ public class ErrorContextBuilder {
 
     /**
      * Build an {@link ErrorContext} with an in-memory {@link ApplicationErrorDao} that uses
-     * a {@link java.util.concurrent.ConcurrentMap ConcurrentMap} for storage.
+     * a {@link java.util.concurrent.ConcurrentMap ConcurrentMap} for storage. Its capacity is unbounded; use
+     * {@link #buildWithConcurrentMapDao(InMemoryCapacityConfig)} to bound it.
      *
      * @return a new {@link ErrorContext} instance
      * @implNote The returned instance always has {@code dataStoreType} as {@link DataStoreType#NOT_SHARED}
@@ -449,6 +768,48 @@ public class ErrorContextBuilder {
         return buildWithDao(new ConcurrentMapApplicationErrorDao());
     }
 
+    /**
+     * Build an {@link ErrorContext} with an in-memory {@link ApplicationErrorDao} that uses
+     * a {@link java.util.concurrent.ConcurrentMap ConcurrentMap} for storage, and whose capacity is bounded using
+     * the given configuration. Evictions are recorded in the environment's metrics.
+     *
+     * @param capacityConfig the capacity configuration
+     * @return a new {@link ErrorContext} instance
+     * @implNote The returned instance always has {@code dataStoreType} as {@link DataStoreType#NOT_SHARED}
+     * @see ConcurrentMapApplicationErrorDao
+     */
+    public ErrorContext buildWithConcurrentMapDao(InMemoryCapacityConfig capacityConfig) {
+        dataStoreType(DataStoreType.NOT_SHARED);
+
+        // Check arguments before using the environment to create the DAO
+        checkCommonArguments();
+
+        var errorDao = new ConcurrentMapApplicationErrorDao(capacityConfig, environment.metrics());
+        return buildWithDao(errorDao);
+    }
+
+    /**
+     * Build an {@link ErrorContext} with an {@link ApplicationErrorDao} that stores errors in a memory-mapped log
+     * file, so that they survive restarts without needing a database. The file is created if it does not exist, and
+     * is closed when the application stops.
+     *
+     * @param path the path of the log file
+     * @return a new {@link ErrorContext} instance
+     * @implNote The returned instance always has {@code dataStoreType} as {@link DataStoreType#NOT_SHARED}
+     * @see MappedFileApplicationErrorDao
+     */
+    public ErrorContext buildWithMappedFileDao(Path path) {
+        dataStoreType(DataStoreType.NOT_SHARED);
+
+        // Check arguments before opening the file
+        checkCommonArguments();
+
+        var errorDao = new MappedFileApplicationErrorDao(path);
+        environment.lifecycle().manage(errorDao);
+
+        return buildWithDao(errorDao);
+    }
+
     /**
      * Build an {@link ErrorContext} that uses a specific {@link ApplicationErrorDao}.
      *
@@ -469,6 +830,16 @@ public class ErrorContextBuilder {
                 .timeWindowValue(timeWindowValue)
                 .addCleanupJob(addCleanupJob)
                 .cleanupConfig(cleanupConfig)
+                .addDaoMetrics(addDaoMetrics)
+                .asyncWriteConfig(asyncWriteConfig)
+                .coalescingConfig(coalescingConfig)
+                .spoolConfig(spoolConfig)
+                .circuitBreakerConfig(circuitBreakerConfig)
+                .rateLimitConfig(rateLimitConfig)
+                .backgroundHealthCheckConfig(backgroundHealthCheckConfig)
+                .recentErrorCounterConfig(recentErrorCounterConfig)
+                .stackTraceCaptureConfig(stackTraceCaptureConfig)
+                .unresolvedErrorCacheConfig(unresolvedErrorCacheConfig)
                 .build();
     }
 }
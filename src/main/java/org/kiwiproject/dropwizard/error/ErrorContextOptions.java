@@ -4,7 +4,16 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NonNull;
 
+import org.kiwiproject.dropwizard.error.config.AsyncWriteConfig;
+import org.kiwiproject.dropwizard.error.config.BackgroundHealthCheckConfig;
+import org.kiwiproject.dropwizard.error.config.CircuitBreakerConfig;
 import org.kiwiproject.dropwizard.error.config.CleanupConfig;
+import org.kiwiproject.dropwizard.error.config.CoalescingConfig;
+import org.kiwiproject.dropwizard.error.config.RateLimitConfig;
+import org.kiwiproject.dropwizard.error.config.RecentErrorCounterConfig;
+import org.kiwiproject.dropwizard.error.config.SpoolConfig;
+import org.kiwiproject.dropwizard.error.config.StackTraceCaptureConfig;
+import org.kiwiproject.dropwizard.error.config.UnresolvedErrorCacheConfig;
 import org.kiwiproject.dropwizard.error.health.TimeWindow;
 import org.kiwiproject.dropwizard.error.model.DataStoreType;
 
@@ -45,4 +54,56 @@ class ErrorContextOptions {
 
     @Builder.Default
     private CleanupConfig cleanupConfig = new CleanupConfig();
+
+    /**
+     * When true (the default), the DAO records metrics for each call to the data store.
+     */
+    @Builder.Default
+    private boolean addDaoMetrics = true;
+
+    /**
+     * When null (the default), errors are written synchronously.
+     */
+    private AsyncWriteConfig asyncWriteConfig;
+
+    /**
+     * When null (the default), duplicate errors are not coalesced.
+     */
+    private CoalescingConfig coalescingConfig;
+
+    /**
+     * When null (the default), errors that cannot be written to the data store are not spooled.
+     */
+    private SpoolConfig spoolConfig;
+
+    /**
+     * When null (the default), writes to the data store are not guarded by a circuit breaker.
+     */
+    private CircuitBreakerConfig circuitBreakerConfig;
+
+    /**
+     * When null (the default), duplicate errors are not rate limited.
+     */
+    private RateLimitConfig rateLimitConfig;
+
+    /**
+     * When null (the default), the health check is evaluated each time it is executed.
+     */
+    private BackgroundHealthCheckConfig backgroundHealthCheckConfig;
+
+    /**
+     * When null (the default), recent errors are not counted in memory. Takes precedence over
+     * {@link #backgroundHealthCheckConfig}.
+     */
+    private RecentErrorCounterConfig recentErrorCounterConfig;
+
+    /**
+     * When null (the default), full stack traces are captured.
+     */
+    private StackTraceCaptureConfig stackTraceCaptureConfig;
+
+    /**
+     * When null (the default), the IDs of unresolved errors are not cached.
+     */
+    private UnresolvedErrorCacheConfig unresolvedErrorCacheConfig;
 }
@@ -1,17 +1,32 @@
 package org.kiwiproject.dropwizard.error;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 import static java.util.Objects.requireNonNull;
 import static org.kiwiproject.base.KiwiPreconditions.checkArgumentNotNull;
 import static org.kiwiproject.validation.KiwiValidations.checkArgumentValid;
 
+import com.codahale.metrics.Gauge;
 import io.dropwizard.core.setup.Environment;
 import lombok.experimental.UtilityClass;
 import org.checkerframework.checker.nullness.qual.Nullable;
+import org.kiwiproject.dropwizard.error.config.BackgroundHealthCheckConfig;
 import org.kiwiproject.dropwizard.error.config.CleanupConfig;
 import org.kiwiproject.dropwizard.error.dao.ApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.dao.CachingApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.dao.CircuitBreakingApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.dao.CoalescingApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.dao.ForwardingApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.dao.InstrumentedApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.dao.RecentErrorCountingApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.dao.SpoolingApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.dao.WriteBehindApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.health.CachedRecentErrorsHealthCheck;
+import org.kiwiproject.dropwizard.error.health.CircuitBreakerHealthCheck;
+import org.kiwiproject.dropwizard.error.health.InMemoryRecentErrorsHealthCheck;
 import org.kiwiproject.dropwizard.error.health.RecentErrorsHealthCheck;
+import org.kiwiproject.dropwizard.error.health.SlidingWindowErrorCounter;
 import org.kiwiproject.dropwizard.error.job.CleanupApplicationErrorsJob;
 import org.kiwiproject.dropwizard.error.model.ApplicationError;
 import org.kiwiproject.dropwizard.error.model.DataStoreType;
@@ -20,6 +35,7 @@ import org.kiwiproject.dropwizard.error.model.ServiceDetails;
 import org.kiwiproject.dropwizard.error.resource.ApplicationErrorResource;
 import org.kiwiproject.dropwizard.error.resource.GotErrorsResource;
 
+import java.time.Duration;
 import java.time.temporal.TemporalUnit;
 import java.util.concurrent.TimeUnit;
 
@@ -42,6 +58,42 @@ class ErrorContextUtilities {
                 options.getTimeWindowValue(),
                 options.getTimeWindowUnit(),
                 options.getCleanupConfig());
+
+        if (nonNull(options.getAsyncWriteConfig())) {
+            checkArgumentValid(options.getAsyncWriteConfig());
+        }
+
+        if (nonNull(options.getCoalescingConfig())) {
+            checkArgumentValid(options.getCoalescingConfig());
+        }
+
+        if (nonNull(options.getSpoolConfig())) {
+            checkArgumentValid(options.getSpoolConfig());
+        }
+
+        if (nonNull(options.getCircuitBreakerConfig())) {
+            checkArgumentValid(options.getCircuitBreakerConfig());
+        }
+
+        if (nonNull(options.getRateLimitConfig())) {
+            checkArgumentValid(options.getRateLimitConfig());
+        }
+
+        if (nonNull(options.getBackgroundHealthCheckConfig())) {
+            checkArgumentValid(options.getBackgroundHealthCheckConfig());
+        }
+
+        if (nonNull(options.getRecentErrorCounterConfig())) {
+            checkArgumentValid(options.getRecentErrorCounterConfig());
+        }
+
+        if (nonNull(options.getStackTraceCaptureConfig())) {
+            checkArgumentValid(options.getStackTraceCaptureConfig());
+        }
+
+        if (nonNull(options.getUnresolvedErrorCacheConfig())) {
+            checkArgumentValid(options.getUnresolvedErrorCacheConfig());
+        }
     }
 
     static void checkCommonArguments(Environment environment,
@@ -72,6 +124,132 @@ class ErrorContextUtilities {
         return ApplicationError.getPersistentHostInformation();
     }
 
+    static void setStackTraceCapturePolicyFrom(ErrorContextOptions options) {
+        checkArgumentNotNull(options);
+
+        var captureConfig = options.getStackTraceCaptureConfig();
+        ApplicationError.setStackTraceCapturePolicy(isNull(captureConfig) ? null : captureConfig.toCapturePolicy());
+    }
+
+    /**
+     * Wraps the given DAO with any decorators requested in the options, registering them with the Dropwizard
+     * lifecycle if necessary.
+     *
+     * @return the (possibly) decorated DAO, which callers should use instead of the given DAO
+     */
+    static ApplicationErrorDao decorateErrorDao(Environment environment,
+                                                ApplicationErrorDao errorDao,
+                                                ErrorContextOptions options) {
+
+        checkArgumentNotNull(environment);
+        checkArgumentNotNull(errorDao);
+        checkArgumentNotNull(options);
+
+        var decoratedDao = errorDao;
+
+        // Innermost, so that the metrics reflect calls to the data store, including those made by other decorators
+        if (options.isAddDaoMetrics()) {
+            decoratedDao = new InstrumentedApplicationErrorDao(decoratedDao, environment.metrics());
+        }
+
+        // Outside the metrics decorator so that rejected writes are not recorded as calls to the data store, and
+        // inside the other decorators so that their writes are guarded and the writes it rejects can be spooled
+        var circuitBreakerConfig = options.getCircuitBreakerConfig();
+        if (nonNull(circuitBreakerConfig)) {
+            var circuitBreakingDao = new CircuitBreakingApplicationErrorDao(decoratedDao, circuitBreakerConfig);
+            environment.metrics().register(CircuitBreakingApplicationErrorDao.STATE_METRIC,
+                    (Gauge<Integer>) () -> circuitBreakingDao.getState().getGaugeValue());
+
+            if (options.isAddHealthCheck()) {
+                environment.healthChecks().register("applicationErrorsCircuitBreaker",
+                        new CircuitBreakerHealthCheck(circuitBreakingDao));
+            }
+
+            decoratedDao = circuitBreakingDao;
+        }
+
+        // Inside the other decorators, so that only errors actually written to the data store use the cache
+        var unresolvedErrorCacheConfig = options.getUnresolvedErrorCacheConfig();
+        if (nonNull(unresolvedErrorCacheConfig)) {
+            decoratedDao = new CachingApplicationErrorDao(decoratedDao, unresolvedErrorCacheConfig);
+        }
+
+        var coalescingConfig = options.getCoalescingConfig();
+        if (nonNull(coalescingConfig)) {
+            var coalescingDao = new CoalescingApplicationErrorDao(decoratedDao, coalescingConfig);
+            environment.lifecycle().manage(coalescingDao);
+
+            var executor = environment.lifecycle()
+                    .scheduledExecutorService(coalescingConfig.getFlushJobName(), true)
+                    .build();
+            var windowMillis = coalescingConfig.getWindow().toMilliseconds();
+            executor.scheduleWithFixedDelay(coalescingDao::flush, windowMillis, windowMillis, TimeUnit.MILLISECONDS);
+
+            decoratedDao = coalescingDao;
+        }
+
+        // Outside the coalescing decorator so that errors it fails to write are spooled, and inside the write-behind
+        // decorator so that errors its writer thread fails to write are spooled
+        var spoolConfig = options.getSpoolConfig();
+        if (nonNull(spoolConfig)) {
+            var spoolingDao = new SpoolingApplicationErrorDao(decoratedDao, spoolConfig);
+            environment.lifecycle().manage(spoolingDao);
+
+            var executor = environment.lifecycle()
+                    .scheduledExecutorService(spoolConfig.getReplayJobName(), true)
+                    .build();
+            var replayMillis = spoolConfig.getReplayInterval().toMilliseconds();
+            executor.scheduleWithFixedDelay(spoolingDao::replaySpooledErrors,
+                    replayMillis, replayMillis, TimeUnit.MILLISECONDS);
+
+            decoratedDao = spoolingDao;
+        }
+
+        var asyncWriteConfig = options.getAsyncWriteConfig();
+        if (nonNull(asyncWriteConfig)) {
+            var writeBehindDao = new WriteBehindApplicationErrorDao(decoratedDao, asyncWriteConfig);
+            environment.lifecycle().manage(writeBehindDao);
+            decoratedDao = writeBehindDao;
+        }
+
+        // Outermost, so that errors are counted when they occur rather than when they are written
+        if (options.isAddHealthCheck() && nonNull(options.getRecentErrorCounterConfig())) {
+            var window = Duration.of(options.getTimeWindowValue(), options.getTimeWindowUnit());
+            decoratedDao = new RecentErrorCountingApplicationErrorDao(decoratedDao,
+                    new SlidingWindowErrorCounter(window));
+        }
+
+        return decoratedDao;
+    }
+
+    /**
+     * Creates a rate limiter if requested in the options, registering it with the Dropwizard lifecycle and scheduling
+     * a job that adds the counts of rate-limited errors to the saved errors.
+     *
+     * @return the rate limiter, or null if rate limiting was not requested
+     */
+    @Nullable
+    static ApplicationErrorRateLimiter registerRateLimiterOrNull(Environment environment,
+                                                                 ApplicationErrorDao errorDao,
+                                                                 ErrorContextOptions options) {
+
+        var rateLimitConfig = options.getRateLimitConfig();
+        if (isNull(rateLimitConfig)) {
+            return null;
+        }
+
+        var rateLimiter = new ApplicationErrorRateLimiter(errorDao, rateLimitConfig);
+        environment.lifecycle().manage(rateLimiter);
+
+        var executor = environment.lifecycle()
+                .scheduledExecutorService(rateLimitConfig.getFlushJobName(), true)
+                .build();
+        var flushMillis = rateLimitConfig.getFlushInterval().toMilliseconds();
+        executor.scheduleWithFixedDelay(rateLimiter::flush, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+
+        return rateLimiter;
+    }
+
     static void registerResources(Environment environment,
                                   ApplicationErrorDao errorDao,
                                   ErrorContextOptions options) {
@@ -99,10 +277,7 @@ class ErrorContextUtilities {
                                                                          ErrorContextOptions options) {
 
         if (options.isAddHealthCheck()) {
-            var healthCheck = new RecentErrorsHealthCheck(errorDao,
-                    serviceDetails,
-                    options.getTimeWindowValue(),
-                    options.getTimeWindowUnit());
+            var healthCheck = newRecentErrorsHealthCheck(environment, serviceDetails, errorDao, options);
             environment.healthChecks().register("recentApplicationErrors", healthCheck);
             return healthCheck;
         }
@@ -110,6 +285,89 @@ class ErrorContextUtilities {
         return null;
     }
 
+    private static RecentErrorsHealthCheck newRecentErrorsHealthCheck(Environment environment,
+                                                                      ServiceDetails serviceDetails,
+                                                                      ApplicationErrorDao errorDao,
+                                                                      ErrorContextOptions options) {
+
+        var countingDao = findRecentErrorCountingDao(errorDao);
+        if (nonNull(countingDao)) {
+            return newInMemoryRecentErrorsHealthCheck(environment, serviceDetails, countingDao, options);
+        }
+
+        var backgroundConfig = options.getBackgroundHealthCheckConfig();
+        if (nonNull(backgroundConfig)) {
+            return newCachedRecentErrorsHealthCheck(environment, serviceDetails, errorDao, options, backgroundConfig);
+        }
+
+        return new RecentErrorsHealthCheck(errorDao,
+                serviceDetails,
+                options.getTimeWindowValue(),
+                options.getTimeWindowUnit());
+    }
+
+    @Nullable
+    private static RecentErrorCountingApplicationErrorDao findRecentErrorCountingDao(ApplicationErrorDao errorDao) {
+        var dao = errorDao;
+        while (dao instanceof ForwardingApplicationErrorDao forwardingDao) {
+            if (forwardingDao instanceof RecentErrorCountingApplicationErrorDao countingDao) {
+                return countingDao;
+            }
+            dao = forwardingDao.delegate();
+        }
+        return null;
+    }
+
+    private static InMemoryRecentErrorsHealthCheck newInMemoryRecentErrorsHealthCheck(
+            Environment environment,
+            ServiceDetails serviceDetails,
+            RecentErrorCountingApplicationErrorDao countingDao,
+            ErrorContextOptions options) {
+
+        var healthCheck = new InMemoryRecentErrorsHealthCheck(countingDao,
+                serviceDetails,
+                options.getTimeWindowValue(),
+                options.getTimeWindowUnit(),
+                countingDao.getCounter());
+
+        // Errors already in the data store when the service starts are not counted otherwise
+        healthCheck.reconcile();
+
+        var counterConfig = requireNonNull(options.getRecentErrorCounterConfig());
+        if (options.getDataStoreType() == DataStoreType.SHARED && counterConfig.isReconcileSharedDataStore()) {
+            var executor = environment.lifecycle()
+                    .scheduledExecutorService(counterConfig.getReconciliationJobName(), true)
+                    .build();
+            var reconcileMillis = counterConfig.getReconciliationInterval().toMilliseconds();
+            executor.scheduleWithFixedDelay(healthCheck::reconcile,
+                    reconcileMillis, reconcileMillis, TimeUnit.MILLISECONDS);
+        }
+
+        return healthCheck;
+    }
+
+    private static CachedRecentErrorsHealthCheck newCachedRecentErrorsHealthCheck(
+            Environment environment,
+            ServiceDetails serviceDetails,
+            ApplicationErrorDao errorDao,
+            ErrorContextOptions options,
+            BackgroundHealthCheckConfig backgroundConfig) {
+
+        var healthCheck = new CachedRecentErrorsHealthCheck(errorDao,
+                serviceDetails,
+                options.getTimeWindowValue(),
+                options.getTimeWindowUnit(),
+                backgroundConfig.getMaxResultAge().toJavaDuration());
+
+        var executor = environment.lifecycle()
+                .scheduledExecutorService(backgroundConfig.getRefreshJobName(), true)
+                .build();
+        var refreshMillis = backgroundConfig.getRefreshInterval().toMilliseconds();
+        executor.scheduleWithFixedDelay(healthCheck::refresh, 0, refreshMillis, TimeUnit.MILLISECONDS);
+
+        return healthCheck;
+    }
+
     @Nullable
     static CleanupApplicationErrorsJob registerCleanupJobOrNull(Environment environment,
                                                                 ApplicationErrorDao errorDao,
@@ -122,7 +380,7 @@ class ErrorContextUtilities {
                     .scheduledExecutorService(cleanupConfig.getCleanupJobName(), true)
                     .build();
 
-            var cleanupJob = new CleanupApplicationErrorsJob(cleanupConfig, errorDao);
+            var cleanupJob = new CleanupApplicationErrorsJob(cleanupConfig, errorDao, environment.metrics());
 
             executor.scheduleWithFixedDelay(cleanupJob, cleanupConfig.getInitialJobDelay().toMinutes(),
                     cleanupConfig.getJobInterval().toMinutes(), TimeUnit.MINUTES);
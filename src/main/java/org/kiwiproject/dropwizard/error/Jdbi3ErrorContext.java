@@ -3,10 +3,13 @@ package org.kiwiproject.dropwizard.error;
 import static org.kiwiproject.base.KiwiPreconditions.checkArgumentNotNull;
 import static org.kiwiproject.base.KiwiStrings.f;
 import static org.kiwiproject.dropwizard.error.ErrorContextUtilities.checkCommonArguments;
+import static org.kiwiproject.dropwizard.error.ErrorContextUtilities.decorateErrorDao;
 import static org.kiwiproject.dropwizard.error.ErrorContextUtilities.registerCleanupJobOrNull;
+import static org.kiwiproject.dropwizard.error.ErrorContextUtilities.registerRateLimiterOrNull;
 import static org.kiwiproject.dropwizard.error.ErrorContextUtilities.registerRecentErrorsHealthCheckOrNull;
 import static org.kiwiproject.dropwizard.error.ErrorContextUtilities.registerResources;
 import static org.kiwiproject.dropwizard.error.ErrorContextUtilities.setPersistentHostInformationFrom;
+import static org.kiwiproject.dropwizard.error.ErrorContextUtilities.setStackTraceCapturePolicyFrom;
 
 import io.dropwizard.core.setup.Environment;
 import org.jdbi.v3.core.Jdbi;
@@ -37,6 +40,7 @@ class Jdbi3ErrorContext implements ErrorContext {
     private final DataStoreType dataStoreType;
     private final ApplicationErrorDao errorDao;
     private final RecentErrorsHealthCheck healthCheck;
+    private final ApplicationErrorRateLimiter rateLimiter;
 
     Jdbi3ErrorContext(Environment environment,
                       ServiceDetails serviceDetails,
@@ -46,10 +50,12 @@ class Jdbi3ErrorContext implements ErrorContext {
         checkCommonArguments(environment, serviceDetails, options);
         checkArgumentNotNull(jdbi, "Jdbi (version 3) instance cannot be null");
         setPersistentHostInformationFrom(serviceDetails);
+        setStackTraceCapturePolicyFrom(options);
 
         this.dataStoreType = options.getDataStoreType();
-        this.errorDao = getOnDemandErrorDao(jdbi);
+        this.errorDao = decorateErrorDao(environment, getOnDemandErrorDao(jdbi), options);
         this.healthCheck = registerRecentErrorsHealthCheckOrNull(environment, serviceDetails, errorDao, options);
+        this.rateLimiter = registerRateLimiterOrNull(environment, errorDao, options);
 
         registerCleanupJobOrNull(environment, errorDao, options);
         registerResources(environment, errorDao, options);
@@ -77,4 +83,9 @@ class Jdbi3ErrorContext implements ErrorContext {
     public Optional<RecentErrorsHealthCheck> recentErrorsHealthCheck() {
         return Optional.ofNullable(healthCheck);
     }
+
+    @Override
+    public Optional<ApplicationErrorRateLimiter> rateLimiter() {
+        return Optional.ofNullable(rateLimiter);
+    }
 }
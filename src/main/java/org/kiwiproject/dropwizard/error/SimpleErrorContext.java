@@ -2,10 +2,13 @@ package org.kiwiproject.dropwizard.error;
 
 import static org.kiwiproject.base.KiwiPreconditions.checkArgumentNotNull;
 import static org.kiwiproject.dropwizard.error.ErrorContextUtilities.checkCommonArguments;
+import static org.kiwiproject.dropwizard.error.ErrorContextUtilities.decorateErrorDao;
 import static org.kiwiproject.dropwizard.error.ErrorContextUtilities.registerCleanupJobOrNull;
+import static org.kiwiproject.dropwizard.error.ErrorContextUtilities.registerRateLimiterOrNull;
 import static org.kiwiproject.dropwizard.error.ErrorContextUtilities.registerRecentErrorsHealthCheckOrNull;
 import static org.kiwiproject.dropwizard.error.ErrorContextUtilities.registerResources;
 import static org.kiwiproject.dropwizard.error.ErrorContextUtilities.setPersistentHostInformationFrom;
+import static org.kiwiproject.dropwizard.error.ErrorContextUtilities.setStackTraceCapturePolicyFrom;
 
 import io.dropwizard.core.setup.Environment;
 import org.kiwiproject.dropwizard.error.dao.ApplicationErrorDao;
@@ -25,6 +28,7 @@ class SimpleErrorContext implements ErrorContext {
     private final ApplicationErrorDao errorDao;
     private final DataStoreType dataStoreType;
     private final RecentErrorsHealthCheck healthCheck;
+    private final ApplicationErrorRateLimiter rateLimiter;
 
     SimpleErrorContext(Environment environment,
                        ServiceDetails serviceDetails,
@@ -34,13 +38,15 @@ class SimpleErrorContext implements ErrorContext {
         checkCommonArguments(environment, serviceDetails, options);
         checkArgumentNotNull(errorDao, "ApplicationErrorDao must not be null");
         setPersistentHostInformationFrom(serviceDetails);
+        setStackTraceCapturePolicyFrom(options);
 
-        this.errorDao = errorDao;
+        this.errorDao = decorateErrorDao(environment, errorDao, options);
         this.dataStoreType = options.getDataStoreType();
-        this.healthCheck = registerRecentErrorsHealthCheckOrNull(environment, serviceDetails, errorDao, options);
+        this.healthCheck = registerRecentErrorsHealthCheckOrNull(environment, serviceDetails, this.errorDao, options);
+        this.rateLimiter = registerRateLimiterOrNull(environment, this.errorDao, options);
 
-        registerCleanupJobOrNull(environment, errorDao, options);
-        registerResources(environment, errorDao, options);
+        registerCleanupJobOrNull(environment, this.errorDao, options);
+        registerResources(environment, this.errorDao, options);
     }
 
     @Override
@@ -57,4 +63,9 @@ class SimpleErrorContext implements ErrorContext {
     public Optional<RecentErrorsHealthCheck> recentErrorsHealthCheck() {
         return Optional.ofNullable(healthCheck);
     }
+
+    @Override
+    public Optional<ApplicationErrorRateLimiter> rateLimiter() {
+        return Optional.ofNullable(rateLimiter);
+    }
 }
@@ -0,0 +1,50 @@
+package org.kiwiproject.dropwizard.error.config;
+
+import io.dropwizard.util.Duration;
+import io.dropwizard.validation.MinDuration;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration class used to set up asynchronous (write-behind) persistence of application errors using a
+ * {@link org.kiwiproject.dropwizard.error.dao.WriteBehindApplicationErrorDao}.
+ */
+@Getter
+@Setter
+public class AsyncWriteConfig {
+
+    /**
+     * The maximum number of errors that can be waiting to be written. When the queue is full, new errors are
+     * rejected (and logged) rather than blocking the calling thread. Defaults to 1000.
+     */
+    @Min(1)
+    private int queueCapacity = 1_000;
+
+    /**
+     * The maximum number of queued errors that the writer thread writes to the delegate DAO in a single
+     * {@link org.kiwiproject.dropwizard.error.dao.ApplicationErrorDao#insertOrIncrementCounts(java.util.Collection)
+     * insertOrIncrementCounts} call. Defaults to 100.
+     */
+    @Min(1)
+    private int maxBatchSize = 100;
+
+    /**
+     * The name to give the background writer thread. Defaults to {@code Application-Errors-Async-Writer}.
+     */
+    @NotBlank
+    private String writerThreadName = "Application-Errors-Async-Writer";
+
+    /**
+     * The maximum time to wait for the writer thread to drain queued errors during shutdown, after which any
+     * remaining errors are written on the thread performing the shutdown. Defaults to 10 seconds.
+     */
+    @NotNull
+    @MinDuration(value = 1, unit = TimeUnit.MILLISECONDS)
+    private Duration shutdownTimeout = Duration.seconds(10);
+}
@@ -0,0 +1,44 @@
+package org.kiwiproject.dropwizard.error.config;
+
+import io.dropwizard.util.Duration;
+import io.dropwizard.validation.MinDuration;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration class used to evaluate the recent errors health check on a background schedule using a
+ * {@link org.kiwiproject.dropwizard.error.health.CachedRecentErrorsHealthCheck}, so that polling the health check
+ * does not query the errors data store.
+ */
+@Getter
+@Setter
+public class BackgroundHealthCheckConfig {
+
+    /**
+     * How often to evaluate the health check in the background. Defaults to 15 seconds.
+     */
+    @NotNull
+    @MinDuration(value = 1, unit = TimeUnit.MILLISECONDS)
+    private Duration refreshInterval = Duration.seconds(15);
+
+    /**
+     * The maximum age of the cached result. If the last evaluation is older than this, for example because the
+     * background evaluations are taking too long, the health check reports unhealthy. Defaults to 2 minutes.
+     */
+    @NotNull
+    @MinDuration(value = 1, unit = TimeUnit.MILLISECONDS)
+    private Duration maxResultAge = Duration.minutes(2);
+
+    /**
+     * The name to give the scheduled job that evaluates the health check. Defaults to
+     * {@code Application-Errors-Health-Check-Refresh-Job-%d} which will result in thread names like
+     * {@code Application-Errors-Health-Check-Refresh-Job-1}.
+     */
+    @NotBlank
+    private String refreshJobName = "Application-Errors-Health-Check-Refresh-Job-%d";
+}
@@ -0,0 +1,71 @@
+package org.kiwiproject.dropwizard.error.config;
+
+import io.dropwizard.util.Duration;
+import io.dropwizard.validation.MinDuration;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration class used to set up a circuit breaker around saving application errors using a
+ * {@link org.kiwiproject.dropwizard.error.dao.CircuitBreakingApplicationErrorDao}.
+ */
+@Getter
+@Setter
+public class CircuitBreakerConfig {
+
+    /**
+     * The number of most recent writes used to compute the failure and slow call rates while the circuit is closed.
+     * Defaults to 50.
+     */
+    @Min(1)
+    private int slidingWindowSize = 50;
+
+    /**
+     * The minimum number of writes in the sliding window before the rates are evaluated, so that the circuit does not
+     * open after only a few writes. Defaults to 10.
+     */
+    @Min(1)
+    private int minimumNumberOfCalls = 10;
+
+    /**
+     * The percentage of failed writes at or above which the circuit opens. Defaults to 50.
+     */
+    @Min(1)
+    @Max(100)
+    private int failureRateThreshold = 50;
+
+    /**
+     * The percentage of slow writes at or above which the circuit opens. Defaults to 100, i.e. the circuit opens
+     * when all writes in the sliding window are slow.
+     */
+    @Min(1)
+    @Max(100)
+    private int slowCallRateThreshold = 100;
+
+    /**
+     * The duration at or above which a write is considered slow. Defaults to 2 seconds.
+     */
+    @NotNull
+    @MinDuration(value = 1, unit = TimeUnit.MILLISECONDS)
+    private Duration slowCallDuration = Duration.seconds(2);
+
+    /**
+     * How long the circuit stays open, rejecting writes, before permitting trial writes. Defaults to 30 seconds.
+     */
+    @NotNull
+    @MinDuration(value = 1, unit = TimeUnit.MILLISECONDS)
+    private Duration waitDurationInOpenState = Duration.seconds(30);
+
+    /**
+     * The number of trial writes permitted while the circuit is half-open. When all have completed, the circuit closes
+     * if their failure and slow call rates are below the thresholds, and opens again otherwise. Defaults to 5.
+     */
+    @Min(1)
+    private int permittedCallsInHalfOpenState = 5;
+}
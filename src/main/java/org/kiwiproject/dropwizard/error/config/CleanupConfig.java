@@ -2,6 +2,7 @@ package org.kiwiproject.dropwizard.error.config;
 
 import io.dropwizard.util.Duration;
 import io.dropwizard.validation.MinDuration;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
@@ -68,4 +69,29 @@ public class CleanupConfig {
     @NotNull
     @MinDuration(value = 1, unit = TimeUnit.MINUTES)
     private Duration jobInterval = Duration.days(1);
+
+    /**
+     * The maximum number of errors to delete in a single statement. Expired errors are deleted in batches of this
+     * size, so that each delete is a short transaction. Defaults to 1,000.
+     */
+    @Min(1)
+    private int batchSize = 1_000;
+
+    /**
+     * The pause between consecutive batches, which gives other database work a chance to proceed. Defaults to
+     * 100 milliseconds.
+     */
+    @NotNull
+    @MinDuration(value = 0, unit = TimeUnit.MILLISECONDS)
+    private Duration pauseBetweenBatches = Duration.milliseconds(100);
+
+    /**
+     * The maximum amount of time that a single run of the cleanup job will spend deleting errors. When exceeded, the
+     * job stops after the current batch and remaining expired errors are deleted by the next run. When the strategy is
+     * {@link CleanupStrategy#ALL_ERRORS}, deleting resolved errors may use at most half of it, so that unresolved
+     * errors are always deleted too. Defaults to 10 minutes.
+     */
+    @NotNull
+    @MinDuration(value = 1, unit = TimeUnit.MILLISECONDS)
+    private Duration maxRunDuration = Duration.minutes(10);
 }
@@ -0,0 +1,45 @@
+package org.kiwiproject.dropwizard.error.config;
+
+import io.dropwizard.util.Duration;
+import io.dropwizard.validation.MinDuration;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration class used to set up coalescing of duplicate application errors using a
+ * {@link org.kiwiproject.dropwizard.error.dao.CoalescingApplicationErrorDao}.
+ */
+@Getter
+@Setter
+public class CoalescingConfig {
+
+    /**
+     * The length of the window in which duplicate errors (having the same fingerprint) are merged
+     * into a single count increment. Defaults to 1 second.
+     */
+    @NotNull
+    @MinDuration(value = 1, unit = TimeUnit.MILLISECONDS)
+    private Duration window = Duration.seconds(1);
+
+    /**
+     * The number of times the pending count of an error is written before it is discarded, when writing it fails,
+     * e.g. because the data store is unavailable. Counts that could not be written are retried on the next flush.
+     * Defaults to 3.
+     */
+    @Min(1)
+    private int maxFlushAttempts = 3;
+
+    /**
+     * The name to give the scheduled job that flushes coalesced errors at the end of each window. Defaults to
+     * {@code Application-Errors-Coalescing-Flush-Job-%d} which will result in thread names like
+     * {@code Application-Errors-Coalescing-Flush-Job-1}.
+     */
+    @NotBlank
+    private String flushJobName = "Application-Errors-Coalescing-Flush-Job-%d";
+}
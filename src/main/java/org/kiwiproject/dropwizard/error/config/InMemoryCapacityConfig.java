@@ -0,0 +1,55 @@
+package org.kiwiproject.dropwizard.error.config;
+
+import io.dropwizard.util.DataSize;
+import io.dropwizard.util.DataSizeUnit;
+import io.dropwizard.validation.MinDataSize;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Configuration class used to bound the capacity of an in-memory
+ * {@link org.kiwiproject.dropwizard.error.dao.jdk.ConcurrentMapApplicationErrorDao ConcurrentMapApplicationErrorDao}.
+ * When either limit is exceeded, errors are evicted according to the {@link EvictionPolicy} until both limits are met.
+ */
+@Getter
+@Setter
+public class InMemoryCapacityConfig {
+
+    /**
+     * Policies for which errors are evicted when the capacity is exceeded.
+     * <ul>
+     *     <li>RESOLVED_ONLY - Evicts the least recently updated resolved error, and never evicts unresolved errors,
+     *     so the limits can be exceeded when there are no resolved errors left to evict</li>
+     *     <li>OLDEST_RESOLVED_FIRST - Evicts the least recently updated resolved error, and only when there are no
+     *     resolved errors, the least recently updated unresolved error</li>
+     *     <li>LEAST_RECENTLY_UPDATED - Evicts the least recently updated error, whether resolved or not</li>
+     * </ul>
+     */
+    public enum EvictionPolicy {
+        RESOLVED_ONLY, OLDEST_RESOLVED_FIRST, LEAST_RECENTLY_UPDATED
+    }
+
+    /**
+     * The maximum number of errors to keep. Defaults to 10,000.
+     */
+    @Min(1)
+    private int maxErrors = 10_000;
+
+    /**
+     * The maximum estimated size of the errors to keep. The estimate is based mainly on the length of each error's
+     * text, including its stack trace, so it is only approximately the heap memory used. Defaults to 64 mebibytes.
+     */
+    @NotNull
+    @MinDataSize(value = 1, unit = DataSizeUnit.KIBIBYTES)
+    private DataSize maxEstimatedSize = DataSize.mebibytes(64);
+
+    /**
+     * The policy for which errors to evict. Defaults to {@link EvictionPolicy#RESOLVED_ONLY}, so that unresolved
+     * errors are never lost; choose another policy to strictly bound the capacity.
+     */
+    @NotNull
+    private EvictionPolicy evictionPolicy = EvictionPolicy.RESOLVED_ONLY;
+}
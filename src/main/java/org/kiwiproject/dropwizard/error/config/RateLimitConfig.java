@@ -0,0 +1,66 @@
+package org.kiwiproject.dropwizard.error.config;
+
+import io.dropwizard.util.Duration;
+import io.dropwizard.validation.MinDuration;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration class used to set up rate limiting of duplicate application errors using an
+ * {@link org.kiwiproject.dropwizard.error.ApplicationErrorRateLimiter}.
+ */
+@Getter
+@Setter
+public class RateLimitConfig {
+
+    /**
+     * The number of occurrences of the same error (having the same fingerprint) that are logged and saved in a
+     * burst, and on average in each {@link #period}. Occurrences beyond this are only counted in memory.
+     * Defaults to 10.
+     */
+    @Min(1)
+    private int maxErrorsPerPeriod = 10;
+
+    /**
+     * The period in which up to {@link #maxErrorsPerPeriod} occurrences of the same error are logged and saved.
+     * Defaults to 1 minute.
+     */
+    @NotNull
+    @MinDuration(value = 1, unit = TimeUnit.MILLISECONDS)
+    private Duration period = Duration.minutes(1);
+
+    /**
+     * Log one of every this many rate-limited occurrences of the same error, or zero to not log rate-limited
+     * occurrences at all. Defaults to 1000.
+     */
+    @Min(0)
+    private int logSampleRate = 1_000;
+
+    /**
+     * The maximum number of distinct errors to rate limit. Occurrences of other errors are logged and saved as
+     * usual until errors that have not recently occurred are no longer tracked. Defaults to 10,000.
+     */
+    @Min(1)
+    private int maxTrackedErrors = 10_000;
+
+    /**
+     * How often the counts of rate-limited occurrences are added to the saved errors. Defaults to 10 seconds.
+     */
+    @NotNull
+    @MinDuration(value = 1, unit = TimeUnit.MILLISECONDS)
+    private Duration flushInterval = Duration.seconds(10);
+
+    /**
+     * The name to give the scheduled job that adds the counts of rate-limited occurrences to the saved errors.
+     * Defaults to {@code Application-Errors-Rate-Limit-Flush-Job-%d} which will result in thread names like
+     * {@code Application-Errors-Rate-Limit-Flush-Job-1}.
+     */
+    @NotBlank
+    private String flushJobName = "Application-Errors-Rate-Limit-Flush-Job-%d";
+}
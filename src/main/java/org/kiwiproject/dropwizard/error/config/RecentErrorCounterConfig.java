@@ -0,0 +1,45 @@
+package org.kiwiproject.dropwizard.error.config;
+
+import io.dropwizard.util.Duration;
+import io.dropwizard.validation.MinDuration;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration class used to count recent errors in memory using a
+ * {@link org.kiwiproject.dropwizard.error.health.InMemoryRecentErrorsHealthCheck}, so that executing the health check
+ * does not query the errors data store.
+ */
+@Getter
+@Setter
+public class RecentErrorCounterConfig {
+
+    /**
+     * Whether to periodically replace the in-memory count with the count from the errors data store when the data
+     * store is {@link org.kiwiproject.dropwizard.error.model.DataStoreType#SHARED SHARED}, since errors written or
+     * resolved by other service instances are not seen by this one. Defaults to true. The count is always reconciled
+     * once at startup, but never periodically for a
+     * {@link org.kiwiproject.dropwizard.error.model.DataStoreType#NOT_SHARED NOT_SHARED} data store.
+     */
+    private boolean reconcileSharedDataStore = true;
+
+    /**
+     * How often to reconcile the in-memory count with the errors data store. Defaults to 1 minute.
+     */
+    @NotNull
+    @MinDuration(value = 1, unit = TimeUnit.MILLISECONDS)
+    private Duration reconciliationInterval = Duration.minutes(1);
+
+    /**
+     * The name to give the scheduled job that reconciles the count. Defaults to
+     * {@code Application-Errors-Recent-Error-Count-Reconciliation-Job-%d} which will result in thread names like
+     * {@code Application-Errors-Recent-Error-Count-Reconciliation-Job-1}.
+     */
+    @NotBlank
+    private String reconciliationJobName = "Application-Errors-Recent-Error-Count-Reconciliation-Job-%d";
+}
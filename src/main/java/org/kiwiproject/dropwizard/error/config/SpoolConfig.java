@@ -0,0 +1,67 @@
+package org.kiwiproject.dropwizard.error.config;
+
+import io.dropwizard.util.DataSize;
+import io.dropwizard.util.DataSizeUnit;
+import io.dropwizard.util.Duration;
+import io.dropwizard.validation.MinDataSize;
+import io.dropwizard.validation.MinDuration;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration class used to set up spooling of application errors that could not be written to the data store to
+ * a local file, using a {@link org.kiwiproject.dropwizard.error.dao.SpoolingApplicationErrorDao}.
+ */
+@Getter
+@Setter
+public class SpoolConfig {
+
+    /**
+     * The path of the spool file, which is created if it does not exist. There is no default; this must be set.
+     * <p>
+     * The file should be on a local disk, and must not be shared by more than one application instance.
+     */
+    @NotBlank
+    private String path;
+
+    /**
+     * The maximum size of the spool file, counting only the errors that have not been replayed. When the spool is
+     * full, new errors that cannot be written to the data store are rejected (and logged). Defaults to 64 mebibytes.
+     */
+    @NotNull
+    @MinDataSize(value = 1, unit = DataSizeUnit.KIBIBYTES)
+    private DataSize maxSize = DataSize.mebibytes(64);
+
+    /**
+     * Whether to force each spooled error to the storage device before returning, so that it survives a crash of
+     * the host and not just of the application. Defaults to true.
+     */
+    private boolean syncOnWrite = true;
+
+    /**
+     * How often to try replaying spooled errors to the data store. Defaults to 30 seconds.
+     */
+    @NotNull
+    @MinDuration(value = 1, unit = TimeUnit.MILLISECONDS)
+    private Duration replayInterval = Duration.seconds(30);
+
+    /**
+     * The maximum number of spooled errors read from the spool at a time when replaying. Defaults to 100.
+     */
+    @Min(1)
+    private int replayBatchSize = 100;
+
+    /**
+     * The name to give the scheduled job that replays spooled errors. Defaults to
+     * {@code Application-Errors-Spool-Replay-Job-%d} which will result in thread names like
+     * {@code Application-Errors-Spool-Replay-Job-1}.
+     */
+    @NotBlank
+    private String replayJobName = "Application-Errors-Spool-Replay-Job-%d";
+}
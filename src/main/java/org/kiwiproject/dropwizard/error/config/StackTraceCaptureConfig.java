@@ -0,0 +1,62 @@
+package org.kiwiproject.dropwizard.error.config;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.kiwiproject.dropwizard.error.model.StackTraceCapturePolicy;
+
+import java.util.List;
+
+/**
+ * Configuration class used to limit the stack traces captured when application errors are created, using a
+ * {@link StackTraceCapturePolicy}.
+ */
+@Getter
+@Setter
+public class StackTraceCaptureConfig {
+
+    /**
+     * The maximum number of frames to include for each exception in the cause chain. Defaults to 100.
+     */
+    @Min(1)
+    private int maxFrames = 100;
+
+    /**
+     * The maximum length of the stack trace in characters. Defaults to 32,768.
+     */
+    @Min(256)
+    private int maxLength = 32_768;
+
+    /**
+     * Whether to include a repeated frame, or a repeated sequence of frames such as from a recursive call, only
+     * once. Defaults to true.
+     */
+    private boolean collapseRepeatedFrames = true;
+
+    /**
+     * Frames of classes in any of these packages, or their subpackages, are omitted. Defaults to the reflection
+     * packages, whose frames appear between every framework and application method invoked reflectively. A trailing
+     * dot is ignored.
+     * <p>
+     * For example, adding {@code org.eclipse.jetty} omits the frames of the Jetty server, which are the same in
+     * every error that occurs in a resource method.
+     */
+    @NotNull
+    private List<String> excludedPackages = List.of("java.lang.reflect", "jdk.internal.reflect", "sun.reflect");
+
+    /**
+     * Create a {@link StackTraceCapturePolicy} using this configuration.
+     *
+     * @return a new policy
+     */
+    public StackTraceCapturePolicy toCapturePolicy() {
+        return StackTraceCapturePolicy.builder()
+                .maxFrames(maxFrames)
+                .maxLength(maxLength)
+                .collapseRepeatedFrames(collapseRepeatedFrames)
+                .excludedPackages(excludedPackages)
+                .build();
+    }
+}
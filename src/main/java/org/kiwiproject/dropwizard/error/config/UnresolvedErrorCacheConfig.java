@@ -0,0 +1,22 @@
+package org.kiwiproject.dropwizard.error.config;
+
+import jakarta.validation.constraints.Min;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Configuration class used to cache the IDs of unresolved errors using a
+ * {@link org.kiwiproject.dropwizard.error.dao.CachingApplicationErrorDao}.
+ */
+@Getter
+@Setter
+public class UnresolvedErrorCacheConfig {
+
+    /**
+     * The maximum number of unresolved error IDs to cache. When full, the least recently used IDs are evicted.
+     * Defaults to 10,000.
+     */
+    @Min(1)
+    private long maxSize = 10_000;
+}
@@ -1,17 +1,46 @@
 package org.kiwiproject.dropwizard.error.dao;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static org.kiwiproject.base.KiwiPreconditions.checkArgumentNotNull;
+import static org.kiwiproject.collect.KiwiLists.last;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.kiwiproject.dropwizard.error.model.ApplicationError;
+import org.kiwiproject.dropwizard.error.model.ApplicationErrorCursor;
+import org.kiwiproject.dropwizard.error.model.ApplicationErrorPage;
+import org.kiwiproject.dropwizard.error.model.ApplicationErrorSummary;
+import org.kiwiproject.dropwizard.error.model.ApplicationErrorSummaryPage;
 import org.kiwiproject.search.KiwiSearching;
 
 import java.time.ZonedDateTime;
+import java.time.chrono.ChronoZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
 
 /**
  * Defines the contract for finding, creating, updating, and resolving {@link ApplicationError}s.
  */
 public interface ApplicationErrorDao {
 
+    /**
+     * The ID returned from {@link #insertOrIncrementCount(ApplicationError)} when an error was accepted but not yet
+     * written, e.g. because it was queued or spooled, so that its actual ID is not known. Real database IDs start at
+     * one, so this is never a valid ID.
+     */
+    long PENDING_ID = 0L;
+
     /**
      * Find an error by id.
      *
@@ -93,6 +122,136 @@ public interface ApplicationErrorDao {
      */
     List<ApplicationError> getErrors(ApplicationErrorStatus status, int pageNumber, int pageSize);
 
+    /**
+     * Get a page of errors with the given status, along with the total number of errors having that status.
+     *
+     * @param status     the status to filter by
+     * @param pageNumber the one-based page number
+     * @param pageSize   the page size
+     * @return the page of application errors, including the total count
+     * @implNote The default implementation calls {@link #getErrors(ApplicationErrorStatus, int, int)} and
+     * {@link #count(ApplicationErrorStatus)}. Implementations backed by a remote data store should override this
+     * to get both in a single round trip.
+     */
+    default ApplicationErrorPage getErrorPage(ApplicationErrorStatus status, int pageNumber, int pageSize) {
+        var errors = getErrors(status, pageNumber, pageSize);
+        var totalCount = count(status);
+        return ApplicationErrorPage.of(errors, totalCount, pageNumber, pageSize);
+    }
+
+    /**
+     * Paginate errors with the given status using keyset (cursor-based) pagination. Errors are ordered by
+     * {@code updatedAt} and then {@code id}, both descending.
+     * <p>
+     * Unlike {@link #getErrors(ApplicationErrorStatus, int, int)}, the cost of retrieving a page does not depend on
+     * how far into the results the page is. Note that an error moves to the front of the ordering when its count is
+     * incremented or it is resolved, so it might be skipped or repeated while paging through errors.
+     *
+     * @param status   the status to filter by
+     * @param cursor   the position after which the page starts, e.g. the cursor for the last error on the
+     *                 previous page, or null to get the first page
+     * @param pageSize the page size
+     * @return a list representing a single page of application errors
+     * @implNote The default implementation reads pages using {@link #getErrors(ApplicationErrorStatus, int, int)}
+     * from the first page until it has found the errors after the cursor, so its cost DOES depend on how far into
+     * the results the page is. Implementations should override this to start reading at the cursor.
+     * @see ApplicationErrorCursor#after(ApplicationError)
+     */
+    default List<ApplicationError> getErrors(ApplicationErrorStatus status,
+                                             @Nullable ApplicationErrorCursor cursor,
+                                             int pageSize) {
+        checkPageSize(pageSize);
+
+        var newestFirst = Comparator.comparing(ApplicationError::getUpdatedAt, ChronoZonedDateTime.timeLineOrder())
+                .thenComparing(ApplicationError::getId)
+                .reversed();
+
+        // Pages are ordered by updatedAt, but errors updated at the same time might be in any order, so keep reading
+        // until the last error read was updated before the last error on the requested page
+        var errors = new ArrayList<ApplicationError>();
+        for (var pageNumber = 1; ; pageNumber++) {
+            var page = getErrors(status, pageNumber, pageSize);
+            page.stream()
+                    .filter(error -> isNull(cursor) || cursor.precedes(error))
+                    .forEach(errors::add);
+            errors.sort(newestFirst);
+
+            if (page.size() < pageSize || isAfterPage(last(page), errors, pageSize)) {
+                break;
+            }
+        }
+
+        return List.copyOf(errors.subList(0, Math.min(pageSize, errors.size())));
+    }
+
+    private static boolean isAfterPage(ApplicationError lastErrorRead,
+                                       List<ApplicationError> sortedErrors,
+                                       int pageSize) {
+        if (sortedErrors.size() < pageSize) {
+            return false;
+        }
+
+        var lastErrorOnPage = sortedErrors.get(pageSize - 1);
+        return lastErrorRead.getUpdatedAt().isBefore(lastErrorOnPage.getUpdatedAt());
+    }
+
+    /**
+     * Paginate summaries of errors with the given status. Summaries omit the stack trace, so are much smaller than
+     * the full errors.
+     *
+     * @param status     the status to filter by
+     * @param pageNumber the one-based page number
+     * @param pageSize   the page size
+     * @return a list representing a single page of application error summaries
+     * @implNote The default implementation summarizes the errors from
+     * {@link #getErrors(ApplicationErrorStatus, int, int)}. Implementations backed by a remote data store should
+     * override this to avoid retrieving stack traces.
+     */
+    default List<ApplicationErrorSummary> getErrorSummaries(ApplicationErrorStatus status,
+                                                            int pageNumber,
+                                                            int pageSize) {
+        return getErrors(status, pageNumber, pageSize).stream().map(ApplicationErrorSummary::from).toList();
+    }
+
+    /**
+     * Get a page of error summaries with the given status, along with the total number of errors having that
+     * status.
+     *
+     * @param status     the status to filter by
+     * @param pageNumber the one-based page number
+     * @param pageSize   the page size
+     * @return the page of application error summaries, including the total count
+     * @implNote The default implementation calls {@link #getErrorSummaries(ApplicationErrorStatus, int, int)} and
+     * {@link #count(ApplicationErrorStatus)}. Implementations backed by a remote data store should override this
+     * to get both in a single round trip.
+     * @see #getErrorPage(ApplicationErrorStatus, int, int)
+     */
+    default ApplicationErrorSummaryPage getErrorSummaryPage(ApplicationErrorStatus status,
+                                                            int pageNumber,
+                                                            int pageSize) {
+        var summaries = getErrorSummaries(status, pageNumber, pageSize);
+        var totalCount = count(status);
+        return ApplicationErrorSummaryPage.of(summaries, totalCount, pageNumber, pageSize);
+    }
+
+    /**
+     * Paginate summaries of errors with the given status using keyset (cursor-based) pagination.
+     *
+     * @param status   the status to filter by
+     * @param cursor   the position after which the page starts, or null to get the first page
+     * @param pageSize the page size
+     * @return a list representing a single page of application error summaries
+     * @implNote The default implementation summarizes the errors from
+     * {@link #getErrors(ApplicationErrorStatus, ApplicationErrorCursor, int)}. Implementations backed by a remote
+     * data store should override this to avoid retrieving stack traces.
+     * @see #getErrors(ApplicationErrorStatus, ApplicationErrorCursor, int)
+     */
+    default List<ApplicationErrorSummary> getErrorSummaries(ApplicationErrorStatus status,
+                                                            @Nullable ApplicationErrorCursor cursor,
+                                                            int pageSize) {
+        return getErrors(status, cursor, pageSize).stream().map(ApplicationErrorSummary::from).toList();
+    }
+
     /**
      * Find all errors that have the given description.
      *
@@ -110,6 +269,17 @@ public interface ApplicationErrorDao {
      */
     List<ApplicationError> getUnresolvedErrorsByDescriptionAndHost(String description, String hostName);
 
+    /**
+     * Find the ID of the unresolved error having the given fingerprint, which is the error whose count
+     * {@link #insertOrIncrementCount(ApplicationError)} increments when the same error occurs again.
+     *
+     * @param fingerprint the fingerprint of the error
+     * @return an OptionalLong containing the ID, or an empty OptionalLong if there is no unresolved error with the
+     * given fingerprint
+     * @see ApplicationError#getFingerprint()
+     */
+    OptionalLong getUnresolvedErrorIdByFingerprint(String fingerprint);
+
     /**
      * Insert a new error, returning the generated ID of the saved error.
      *
@@ -120,6 +290,20 @@ public interface ApplicationErrorDao {
      */
     long insertError(ApplicationError newError);
 
+    /**
+     * Insert new errors, returning the generated IDs of the saved errors in the same order as the given errors.
+     *
+     * @param newErrors the new ApplicationErrors to save
+     * @return the unique IDs of the new application errors
+     * @implNote The default implementation calls {@link #insertError(ApplicationError)} for each error.
+     * Implementations should override this to insert the errors using as few round trips as possible.
+     * @see #insertError(ApplicationError)
+     */
+    default List<Long> insertErrors(List<ApplicationError> newErrors) {
+        checkArgumentNotNull(newErrors, "newErrors must not be null");
+        return newErrors.stream().map(this::insertError).toList();
+    }
+
     /**
      * Increments the count of the error with the given ID, and updates the timestamp. Leaves ALL OTHER values
      * unchanged.
@@ -129,21 +313,166 @@ public interface ApplicationErrorDao {
     void incrementCount(long id);
 
     /**
-     * Inserts a new error if no unresolved errors exist having the same description and host name. Otherwise,
-     * increments the count of the existing error having the same description and host. Returns the error ID.
+     * Increments the count of the error with the given ID by the given amount, and updates the timestamp. Leaves
+     * ALL OTHER values unchanged.
+     *
+     * @param id     the unique ID of the ApplicationError to update
+     * @param amount the amount to add to the count; must be positive
+     * @implNote The default implementation calls {@link #incrementCount(long)} {@code amount} times. Implementations
+     * should override this to perform the increment in a single operation.
+     */
+    default void incrementCount(long id, int amount) {
+        checkArgument(amount > 0, "amount must be positive");
+        for (var i = 0; i < amount; i++) {
+            incrementCount(id);
+        }
+    }
+
+    /**
+     * Increments the counts of the errors having the given IDs by the corresponding amounts, and updates their
+     * timestamps. Leaves ALL OTHER values unchanged.
+     * <p>
+     * The counts of all errors that exist are incremented, even when some of the IDs do not exist.
+     *
+     * @param amounts the amounts to add to the counts keyed by the unique ID of the ApplicationError to update;
+     *                each amount must be positive
+     * @throws IllegalStateException if no error exists for one or more of the IDs
+     * @implNote The default implementation calls {@link #incrementCount(long, int)} for each ID. Implementations
+     * should override this to increment the counts using as few round trips as possible.
+     * @see #incrementCount(long, int)
+     */
+    default void incrementCounts(Map<Long, Integer> amounts) {
+        checkIncrementAmounts(amounts);
+
+        var missingIds = new ArrayList<Long>();
+        amounts.forEach((id, amount) -> {
+            try {
+                incrementCount(id, amount);
+            } catch (IllegalStateException e) {
+                missingIds.add(id);
+            }
+        });
+        checkAllIncremented(missingIds);
+    }
+
+    /**
+     * Inserts a new error if no unresolved errors exist having the same fingerprint, i.e. the same description,
+     * exception type, and host name. Otherwise, increments the count of the existing error having the same
+     * fingerprint. Returns the error ID.
      * <p>
-     * If the description and host match an existing error, only the count and timestamp are updated. ALL OTHER values
+     * If the fingerprint matches an existing error, only the count and timestamp are updated. ALL OTHER values
      * are left unchanged.
      *
      * @param error the ApplicationError to insert or update
-     * @return the ID of the new or existing application error
+     * @return the ID of the new or existing application error, or {@link #PENDING_ID}
+     * (zero) if the error was accepted but not yet written, so that its ID is not known
      * @implNote Do not assume that {@code error} is updated when this method is called. Changes to the object are
      * implementation-dependent. If you need an updated version, pass the returned long into {@link #getById(long)}.
+     * @apiNote Decorators that write errors later, such as {@link WriteBehindApplicationErrorDao} and
+     * {@link SpoolingApplicationErrorDao}, return {@link #PENDING_ID}
+     * instead of the actual ID. Since real IDs start at one, callers must treat zero as an unknown ID, and must not
+     * pass it to methods such as {@link #getById(long)} or {@link #incrementCount(long)}.
      * @see #insertError(ApplicationError)
      * @see #incrementCount(long)
      */
     long insertOrIncrementCount(ApplicationError error);
 
+    /**
+     * Performs {@link #insertOrIncrementCount(ApplicationError)} for each of the given errors, returning the error
+     * IDs in the same order as the given errors.
+     * <p>
+     * Unresolved errors having the same fingerprint are written once, and the count of the resulting error is then
+     * incremented by the number of remaining occurrences using {@link #incrementCounts(Map)}. If writing an error
+     * returns {@link #PENDING_ID}, its duplicates are each written as well.
+     *
+     * @param errors the ApplicationErrors to insert or update
+     * @return the IDs of the new or existing application errors, any of which may be
+     * {@link #PENDING_ID} as described in
+     * {@link #insertOrIncrementCount(ApplicationError)}
+     * @implNote The default implementation calls {@link #insertOrIncrementCount(ApplicationError)} once for each
+     * distinct error, and then {@link #incrementCounts(Map)} once for all duplicates, so its cost depends on the
+     * number of distinct errors rather than the total number of errors.
+     * @see #insertOrIncrementCount(ApplicationError)
+     */
+    default List<Long> insertOrIncrementCounts(Collection<ApplicationError> errors) {
+        checkArgumentNotNull(errors, "errors must not be null");
+
+        var idsByFingerprint = new HashMap<String, Long>();
+        var duplicateCounts = new LinkedHashMap<Long, Integer>();
+        var ids = new ArrayList<Long>(errors.size());
+
+        for (var error : errors) {
+            // Only unresolved errors without an ID are matched by fingerprint when they are written
+            if (nonNull(error.getId()) || error.isResolved()) {
+                ids.add(insertOrIncrementCount(error));
+                continue;
+            }
+
+            var fingerprint = error.getFingerprint();
+            var existingId = idsByFingerprint.get(fingerprint);
+            if (isNull(existingId)) {
+                var id = insertOrIncrementCount(error);
+                // A pending ID cannot be incremented, so duplicates of an error that was not written yet are written
+                if (id != PENDING_ID) {
+                    idsByFingerprint.put(fingerprint, id);
+                }
+                ids.add(id);
+            } else {
+                duplicateCounts.merge(existingId, 1, Integer::sum);
+                ids.add(existingId);
+            }
+        }
+
+        if (!duplicateCounts.isEmpty()) {
+            incrementCounts(duplicateCounts);
+        }
+        return ids;
+    }
+
+    /**
+     * Increments the count of the error with the given ID and updates the timestamp, but only if the error exists and
+     * is unresolved. Leaves ALL OTHER values unchanged.
+     *
+     * @param id the unique ID of the ApplicationError to update
+     * @return true if the count was incremented, or false if the error does not exist or is resolved
+     * @implNote The default implementation gets the error and then increments its count, so it is not atomic.
+     * Implementations should override this to check and increment in a single operation.
+     * @see CachingApplicationErrorDao
+     */
+    default boolean incrementCountIfUnresolved(long id) {
+        var unresolved = getById(id).filter(error -> !error.isResolved()).isPresent();
+        if (unresolved) {
+            incrementCount(id);
+        }
+        return unresolved;
+    }
+
+    /**
+     * Increments the counts of the errors having the given IDs by the corresponding amounts, and updates their
+     * timestamps, but only for errors that exist and are unresolved. Leaves ALL OTHER values unchanged.
+     *
+     * @param amounts the amounts to add to the counts keyed by the unique ID of the ApplicationError to update;
+     *                each amount must be positive
+     * @return the IDs of the errors whose counts were incremented
+     * @implNote The default implementation gets each error and then increments its count, so it is not atomic.
+     * Implementations should override this to check and increment the counts using as few round trips as possible.
+     * @see #incrementCountIfUnresolved(long)
+     * @see #incrementCounts(Map)
+     */
+    default Set<Long> incrementCountsIfUnresolved(Map<Long, Integer> amounts) {
+        checkIncrementAmounts(amounts);
+
+        var incrementedIds = new HashSet<Long>();
+        amounts.forEach((id, amount) -> {
+            var unresolved = getById(id).filter(error -> !error.isResolved()).isPresent();
+            if (unresolved) {
+                incrementCount(id, amount);
+                incrementedIds.add(id);
+            }
+        });
+        return incrementedIds;
+    }
+
     /**
      * Resolves the error with the given ID. Returns the updated error instance.
      *
@@ -176,6 +505,18 @@ public interface ApplicationErrorDao {
         return KiwiSearching.zeroBasedOffset(pageNumber, pageSize);
     }
 
+    /**
+     * Check that the given page size is valid.
+     * <p>
+     * Intended to be used by implementations of {@link #getErrors(ApplicationErrorStatus, ApplicationErrorCursor, int)}.
+     *
+     * @param pageSize the page size
+     * @throws IllegalArgumentException if the page size is not positive
+     */
+    static void checkPageSize(int pageSize) {
+        checkArgument(pageSize > 0, "pageSize must be positive");
+    }
+
     /**
      * Deletes all resolved application errors that were created before the expiration date.
      *
@@ -191,4 +532,101 @@ public interface ApplicationErrorDao {
      * @return The number of rows deleted.
      */
     int deleteUnresolvedErrorsBefore(ZonedDateTime expirationDate);
+
+    /**
+     * Deletes at most {@code limit} resolved application errors that were created before the expiration date. This
+     * allows deleting a large number of expired errors in batches, each of which is a short transaction.
+     * <p>
+     * The default implementation ignores the limit and deletes all matching errors.
+     *
+     * @param expirationDate The date (exclusive) used to determine what gets deleted.
+     * @param limit          The maximum number of rows to delete, which must be positive.
+     * @return The number of rows deleted.
+     */
+    default int deleteResolvedErrorsBefore(ZonedDateTime expirationDate, int limit) {
+        checkDeleteLimit(limit);
+        return deleteResolvedErrorsBefore(expirationDate);
+    }
+
+    /**
+     * Deletes at most {@code limit} unresolved application errors that were created before the expiration date. This
+     * allows deleting a large number of expired errors in batches, each of which is a short transaction.
+     * <p>
+     * The default implementation ignores the limit and deletes all matching errors.
+     *
+     * @param expirationDate The date (exclusive) used to determine what gets deleted.
+     * @param limit          The maximum number of rows to delete, which must be positive.
+     * @return The number of rows deleted.
+     */
+    default int deleteUnresolvedErrorsBefore(ZonedDateTime expirationDate, int limit) {
+        checkDeleteLimit(limit);
+        return deleteUnresolvedErrorsBefore(expirationDate);
+    }
+
+    /**
+     * Deletes stored stack traces that are no longer used by any application error. This only applies to
+     * implementations that store each distinct stack trace once and share it among errors, and should be called after
+     * deleting errors.
+     * <p>
+     * The default implementation does nothing, since stack traces are stored with each error.
+     *
+     * @return The number of stack traces deleted.
+     */
+    default int deleteUnusedStackTraces() {
+        return 0;
+    }
+
+    /**
+     * Deletes at most {@code limit} stored stack traces that are no longer used by any application error. This
+     * allows deleting a large number of unused stack traces in batches, each of which is a short transaction.
+     * <p>
+     * The default implementation ignores the limit and calls {@link #deleteUnusedStackTraces()}.
+     *
+     * @param limit The maximum number of stack traces to delete, which must be positive.
+     * @return The number of stack traces deleted.
+     */
+    default int deleteUnusedStackTraces(int limit) {
+        checkDeleteLimit(limit);
+        return deleteUnusedStackTraces();
+    }
+
+    /**
+     * Check that the given limit on the number of errors to delete is valid.
+     * <p>
+     * Intended to be used by implementations of {@link #deleteResolvedErrorsBefore(ZonedDateTime, int)},
+     * {@link #deleteUnresolvedErrorsBefore(ZonedDateTime, int)}, and {@link #deleteUnusedStackTraces(int)}.
+     *
+     * @param limit the maximum number of errors or stack traces to delete
+     * @throws IllegalArgumentException if the limit is not positive
+     */
+    static void checkDeleteLimit(int limit) {
+        checkArgument(limit > 0, "limit must be positive");
+    }
+
+    /**
+     * Check that the given amounts to increment counts by are valid.
+     * <p>
+     * Intended to be used by implementations of {@link #incrementCounts(Map)}.
+     *
+     * @param amounts the amounts keyed by error ID
+     * @throws IllegalArgumentException if the amounts are null, or any amount is null or not positive
+     */
+    static void checkIncrementAmounts(Map<Long, Integer> amounts) {
+        checkArgumentNotNull(amounts, "amounts must not be null");
+        checkArgument(amounts.values().stream().allMatch(amount -> nonNull(amount) && amount > 0),
+                "amounts must all be positive");
+    }
+
+    /**
+     * Check that the counts of all errors were incremented.
+     * <p>
+     * Intended to be used by implementations of {@link #incrementCounts(Map)}.
+     *
+     * @param missingIds the IDs of errors that were not found
+     * @throws IllegalStateException if there are any missing IDs
+     */
+    static void checkAllIncremented(List<Long> missingIds) {
+        checkState(missingIds.isEmpty(), "Unable to increment count. No ApplicationError found with ids %s",
+                missingIds);
+    }
 }
@@ -1,6 +1,7 @@
 package org.kiwiproject.dropwizard.error.dao;
 
 import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 import static java.util.Objects.requireNonNull;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
 import static org.apache.commons.lang3.StringUtils.startsWithAny;
@@ -9,6 +10,7 @@ import static org.kiwiproject.base.KiwiStrings.format;
 import static org.kiwiproject.jdbc.KiwiJdbc.utcZonedDateTimeFromTimestamp;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.hash.Hashing;
 import io.dropwizard.db.DataSourceFactory;
 import liquibase.command.CommandScope;
 import liquibase.command.core.UpdateCommandStep;
@@ -22,14 +24,29 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.kiwiproject.dropwizard.error.model.ApplicationError;
+import org.kiwiproject.dropwizard.error.model.ApplicationErrorPage;
+import org.kiwiproject.dropwizard.error.model.ApplicationErrorSummary;
+import org.kiwiproject.dropwizard.error.model.ApplicationErrorSummaryPage;
 import org.kiwiproject.dropwizard.error.model.DataStoreType;
 import org.kiwiproject.jdbc.UncheckedSQLException;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Locale;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
 
 /**
  * Helper utilities when using JDBC for application error persistence.
@@ -40,12 +57,54 @@ import java.util.Locale;
 @Slf4j
 public class ApplicationErrorJdbc {
 
+    /**
+     * The columns to select to get full {@link ApplicationError}s, for use in queries that select from
+     * {@link #ERRORS_WITH_STACK_TRACES}.
+     * <p>
+     * The stack trace comes from {@code application_error_stack_traces}, where it is stored either as text or
+     * compressed, or from the {@code stack_trace} column of {@code application_errors} for errors that were stored
+     * before stack traces were deduplicated.
+     */
+    public static final String ALL_COLUMNS = "e.id, e.created_at, e.updated_at, e.num_times_occurred," +
+            " e.description, e.exception_type, e.exception_message, e.exception_cause_type," +
+            " e.exception_cause_message, coalesce(t.stack_trace, e.stack_trace) as stack_trace," +
+            " t.compressed_stack_trace, e.resolved, e.host_name, e.ip_address, e.port, e.fingerprint";
+
+    /**
+     * The tables to select from to get full {@link ApplicationError}s, which are {@code application_errors} with the
+     * alias {@code e}, joined to the deduplicated stack traces with the alias {@code t}.
+     */
+    public static final String ERRORS_WITH_STACK_TRACES = "application_errors e" +
+            " left join application_error_stack_traces t on t.stack_trace_hash = e.stack_trace_hash";
+
+    /**
+     * The SQL to select full {@link ApplicationError}s, to which a where clause may be appended.
+     */
+    public static final String SELECT_ERRORS_SQL = "select " + ALL_COLUMNS + " from " + ERRORS_WITH_STACK_TRACES;
+
+    /**
+     * The columns to select to get {@link ApplicationErrorSummary} objects, which are all the columns except
+     * {@code stack_trace}.
+     */
+    public static final String SUMMARY_COLUMNS = "id, created_at, updated_at, num_times_occurred, description," +
+            " exception_type, exception_message, exception_cause_type, exception_cause_message, resolved," +
+            " host_name, ip_address, port, fingerprint";
+
+    /**
+     * How long a stored stack trace that no error references is kept after it was last used, i.e. stored or found
+     * already stored when inserting an error. This protects stack traces of errors that are being inserted, since
+     * storing the stack trace and inserting the error are separate statements.
+     */
+    public static final Duration UNUSED_STACK_TRACE_GRACE_PERIOD = Duration.ofHours(1);
+
     private static final String MIGRATIONS_FILENAME = "dropwizard-app-errors-migrations.xml";
     private static final String H2_DRIVER = "org.h2.Driver";
     private static final String H2_IN_MEMORY_DB_URL = "jdbc:h2:mem:dw-app-errors;DB_CLOSE_DELAY=-1";
     private static final String H2_IN_MEMORY_DB_USERNAME = "appErrorUser";
     private static final String H2_IN_MEMORY_DB_PASSWORD = RandomStringUtils.secure().nextAlphanumeric(20);
 
+    private static final String TOTAL_COUNT_COLUMN = "total_count";
+
     private static final String H2_EMBEDDED_IN_MEMORY_URL_PREFIX = "jdbc:h2:mem:";
     private static final String H2_EMBEDDED_FILE_EXPLICIT_URL_PREFIX = "jdbc:h2:file:";
     private static final String H2_EMBEDDED_FILE_RELATIVE_URL_PREFIX = "jdbc:h2:~/";
@@ -214,6 +273,167 @@ public class ApplicationErrorJdbc {
         return !url.toUpperCase(Locale.US).contains(H2_AUTOMATIC_MIXED_MODE);
     }
 
+    /**
+     * Database dialects for which the DAOs can perform {@code insertOrIncrementCount} as a single, atomic statement.
+     */
+    public enum UpsertDialect {
+
+        /**
+         * Uses {@code MERGE ... USING} inside a {@code FINAL TABLE} query to return the ID.
+         */
+        H2,
+
+        /**
+         * Uses {@code INSERT ... ON CONFLICT DO UPDATE ... RETURNING}.
+         */
+        POSTGRES,
+
+        /**
+         * Uses {@code INSERT ... ON CONFLICT DO UPDATE ... RETURNING} (requires SQLite 3.35.0 or higher).
+         */
+        SQLITE,
+
+        /**
+         * Single-statement upsert is not supported; DAOs must query for an existing error and then insert or update.
+         */
+        UNSUPPORTED;
+
+        /**
+         * Determine the dialect from a JDBC database product name.
+         *
+         * @param databaseProductName the product name, as reported by {@link java.sql.DatabaseMetaData}
+         * @return the matching dialect, or {@link #UNSUPPORTED} for unknown (or null) product names
+         */
+        public static UpsertDialect fromDatabaseProductName(@Nullable String databaseProductName) {
+            if (isNull(databaseProductName)) {
+                return UNSUPPORTED;
+            }
+
+            return switch (databaseProductName.toLowerCase(Locale.US)) {
+                case "h2" -> H2;
+                case "postgresql" -> POSTGRES;
+                case "sqlite" -> SQLITE;
+                default -> UNSUPPORTED;
+            };
+        }
+    }
+
+    /**
+     * Determine the {@link UpsertDialect} of the database for the given connection.
+     *
+     * @param conn the database connection; it is NOT closed by this method!
+     * @return the dialect
+     */
+    public static UpsertDialect upsertDialectOf(Connection conn) {
+        checkArgumentNotNull(conn);
+        return UpsertDialect.fromDatabaseProductName(getDatabaseProductNameOrUnknown(conn));
+    }
+
+    /**
+     * Compute the value of the {@code unresolved_key} column for an unresolved {@link ApplicationError}.
+     * <p>
+     * The database has a unique index on this column, which guarantees there is at most one unresolved error
+     * having a given fingerprint. Resolved errors must have a null {@code unresolved_key}.
+     *
+     * @param error the error
+     * @return the fingerprint of the error
+     * @see ApplicationError#getFingerprint()
+     */
+    public static String unresolvedKeyOf(ApplicationError error) {
+        checkArgumentNotNull(error);
+        return error.getFingerprint();
+    }
+
+    /**
+     * Determine whether the given exception, or any of its causes, is a {@link SQLException} reporting an integrity
+     * constraint violation, e.g. inserting an unresolved error whose {@code unresolved_key} already exists.
+     *
+     * @param throwable the exception to check, which may be null
+     * @return true if the exception was caused by an integrity constraint violation
+     */
+    public static boolean isIntegrityConstraintViolation(@Nullable Throwable throwable) {
+        var current = throwable;
+        while (nonNull(current)) {
+            if (current instanceof SQLException sqlException && isIntegrityConstraintViolationState(sqlException)) {
+                return true;
+            }
+            current = current.getCause();
+        }
+        return false;
+    }
+
+    /**
+     * SQL states in class 23 are integrity constraint violations, which includes unique violations.
+     */
+    private static boolean isIntegrityConstraintViolationState(SQLException e) {
+        return e instanceof SQLIntegrityConstraintViolationException ||
+                (nonNull(e.getSQLState()) && e.getSQLState().startsWith("23"));
+    }
+
+    /**
+     * Compute the value of the {@code stack_trace_hash} column, which identifies a stack trace stored in the
+     * {@code application_error_stack_traces} table. Each distinct stack trace is stored only once, no matter how many
+     * errors have it.
+     *
+     * @param stackTrace the stack trace, which may be null
+     * @return the SHA-256 hash (as 64 hexadecimal characters) of the stack trace, or null if it is null
+     */
+    @Nullable
+    public static String stackTraceHashOf(@Nullable String stackTrace) {
+        if (isNull(stackTrace)) {
+            return null;
+        }
+
+        return Hashing.sha256().hashString(stackTrace, StandardCharsets.UTF_8).toString();
+    }
+
+    /**
+     * Compress a stack trace using DEFLATE, for storing in the {@code compressed_stack_trace} column.
+     *
+     * @param stackTrace the stack trace
+     * @return the compressed UTF-8 bytes of the stack trace
+     * @see StackTraceCompression#DEFLATE
+     */
+    public static byte[] compressStackTrace(String stackTrace) {
+        checkArgumentNotNull(stackTrace, "stackTrace must not be null");
+
+        var bytes = new ByteArrayOutputStream();
+        try (var deflaterStream = new DeflaterOutputStream(bytes)) {
+            deflaterStream.write(stackTrace.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to compress stack trace", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decompress a stack trace that was compressed using {@link #compressStackTrace(String)}.
+     *
+     * @param compressedStackTrace the compressed stack trace
+     * @return the stack trace
+     * @throws UncheckedIOException if the bytes are not a compressed stack trace
+     */
+    public static String decompressStackTrace(byte[] compressedStackTrace) {
+        checkArgumentNotNull(compressedStackTrace, "compressedStackTrace must not be null");
+
+        try (var inflaterStream = new InflaterInputStream(new ByteArrayInputStream(compressedStackTrace))) {
+            return new String(inflaterStream.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to decompress stack trace", e);
+        }
+    }
+
+    /**
+     * Return the tables to select from to get the given columns.
+     *
+     * @param columns the columns to select, either {@link #ALL_COLUMNS} or {@link #SUMMARY_COLUMNS}
+     * @return {@link #ERRORS_WITH_STACK_TRACES} for all columns, otherwise only {@code application_errors} with the
+     * alias {@code e}, so that summaries never read stack traces
+     */
+    public static String tablesFor(String columns) {
+        return ALL_COLUMNS.equals(columns) ? ERRORS_WITH_STACK_TRACES : "application_errors e";
+    }
+
     public static ApplicationError mapFrom(ResultSet rs) throws SQLException {
         return ApplicationError.builder()
                 .id(rs.getLong("id"))
@@ -225,14 +445,114 @@ public class ApplicationErrorJdbc {
                 .exceptionMessage(rs.getString("exception_message"))
                 .exceptionCauseType(rs.getString("exception_cause_type"))
                 .exceptionCauseMessage(rs.getString("exception_cause_message"))
-                .stackTrace(rs.getString("stack_trace"))
+                .stackTrace(stackTraceFrom(rs))
+                .resolved(rs.getBoolean("resolved"))
+                .hostName(rs.getString("host_name"))
+                .ipAddress(rs.getString("ip_address"))
+                .port(rs.getInt("port"))
+                .fingerprint(rs.getString("fingerprint"))
+                .build();
+    }
+
+    @Nullable
+    private static String stackTraceFrom(ResultSet rs) throws SQLException {
+        var compressedStackTrace = rs.getBytes("compressed_stack_trace");
+        if (isNull(compressedStackTrace)) {
+            return rs.getString("stack_trace");
+        }
+
+        return decompressStackTrace(compressedStackTrace);
+    }
+
+    public static ApplicationErrorSummary mapSummaryFrom(ResultSet rs) throws SQLException {
+        return ApplicationErrorSummary.builder()
+                .id(rs.getLong("id"))
+                .createdAt(utcZonedDateTimeFromTimestamp(rs, "created_at"))
+                .updatedAt(utcZonedDateTimeFromTimestamp(rs, "updated_at"))
+                .numTimesOccurred(rs.getInt("num_times_occurred"))
+                .description(rs.getString("description"))
+                .exceptionType(rs.getString("exception_type"))
+                .exceptionMessage(rs.getString("exception_message"))
+                .exceptionCauseType(rs.getString("exception_cause_type"))
+                .exceptionCauseMessage(rs.getString("exception_cause_message"))
                 .resolved(rs.getBoolean("resolved"))
                 .hostName(rs.getString("host_name"))
                 .ipAddress(rs.getString("ip_address"))
                 .port(rs.getInt("port"))
+                .fingerprint(rs.getString("fingerprint"))
                 .build();
     }
 
+    /**
+     * Build the SQL to get a page of errors along with the total number of errors matching the where clause, using a
+     * {@code count(*) over ()} window function so that both come back in a single query.
+     *
+     * @param columns     the columns to select, either {@link #ALL_COLUMNS} or {@link #SUMMARY_COLUMNS}
+     * @param whereClause the where clause, which may be empty
+     * @param pageSize    the number of errors on a page
+     * @param offset      the starting offset (zero-based)
+     * @return the SQL
+     * @see #mapPageFrom(ResultSet, int, int)
+     * @see #mapSummaryPageFrom(ResultSet, int, int)
+     */
+    public static String errorPageSql(String columns, String whereClause, int pageSize, int offset) {
+        return format("select {}, count(*) over () as {} from {} {} order by updated_at desc" +
+                " limit {} offset {}", columns, TOTAL_COUNT_COLUMN, tablesFor(columns), whereClause, pageSize, offset);
+    }
+
+    /**
+     * Map all rows from a result set produced by the SQL from {@link #errorPageSql(String, String, int, int)},
+     * selecting {@link #ALL_COLUMNS}, to a page.
+     * <p>
+     * When the page is empty, there are no rows from which to read the total count, so the returned page has a
+     * total count of {@link ApplicationErrorPage#TOTAL_COUNT_NOT_INCLUDED}, and callers must count separately.
+     *
+     * @param rs         the result set
+     * @param pageNumber the one-based page number
+     * @param pageSize   the number of errors on a page
+     * @return the page
+     * @throws SQLException if there is any error reading the result set
+     */
+    public static ApplicationErrorPage mapPageFrom(ResultSet rs, int pageNumber, int pageSize) throws SQLException {
+        var errors = new ArrayList<ApplicationError>(pageSize);
+        var totalCount = collectPage(rs, ApplicationErrorJdbc::mapFrom, errors);
+        return ApplicationErrorPage.of(Collections.unmodifiableList(errors), totalCount, pageNumber, pageSize);
+    }
+
+    /**
+     * Map all rows from a result set produced by the SQL from {@link #errorPageSql(String, String, int, int)},
+     * selecting {@link #SUMMARY_COLUMNS}, to a page. Like {@link #mapPageFrom(ResultSet, int, int)}, the total count
+     * is {@link ApplicationErrorPage#TOTAL_COUNT_NOT_INCLUDED} when the page is empty.
+     *
+     * @param rs         the result set
+     * @param pageNumber the one-based page number
+     * @param pageSize   the number of errors on a page
+     * @return the page
+     * @throws SQLException if there is any error reading the result set
+     */
+    public static ApplicationErrorSummaryPage mapSummaryPageFrom(ResultSet rs, int pageNumber, int pageSize)
+            throws SQLException {
+
+        var summaries = new ArrayList<ApplicationErrorSummary>(pageSize);
+        var totalCount = collectPage(rs, ApplicationErrorJdbc::mapSummaryFrom, summaries);
+        var items = Collections.unmodifiableList(summaries);
+        return ApplicationErrorSummaryPage.of(items, totalCount, pageNumber, pageSize);
+    }
+
+    private static <T> long collectPage(ResultSet rs, ResultSetMapper<T> mapper, List<T> items) throws SQLException {
+        var totalCount = ApplicationErrorPage.TOTAL_COUNT_NOT_INCLUDED;
+        while (rs.next()) {
+            items.add(mapper.map(rs));
+            totalCount = rs.getLong(TOTAL_COUNT_COLUMN);
+        }
+        return totalCount;
+    }
+
+    @FunctionalInterface
+    private interface ResultSetMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
     /**
      * Runtime exception wrapper around generic database- or migration-related exceptions, such as
      * those thrown by Liquibase.
@@ -0,0 +1,130 @@
+package org.kiwiproject.dropwizard.error.dao;
+
+import com.google.common.annotations.VisibleForTesting;
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+import lombok.extern.slf4j.Slf4j;
+import org.kiwiproject.dropwizard.error.model.ApplicationError;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * A Liquibase custom change that sets the {@code fingerprint} of errors that existed before the {@code fingerprint}
+ * column was added, so that they are found when looking for duplicates of new errors.
+ * <p>
+ * The fingerprint is computed in Java, since it is a SHA-256 hash that cannot be computed portably in SQL. Errors
+ * are read and updated in batches ordered by ID, so that only one batch is held in memory at a time.
+ *
+ * @see ApplicationError#fingerprintOf(String, String, String)
+ */
+@Slf4j
+public class BackfillFingerprintsChange implements CustomTaskChange {
+
+    @VisibleForTesting
+    static final int BATCH_SIZE = 1_000;
+
+    private static final String SELECT_ERRORS_SQL =
+            "select id, description, exception_type, host_name from application_errors" +
+                    " where fingerprint is null and id > ? order by id";
+
+    private static final String UPDATE_FINGERPRINT_SQL =
+            "update application_errors set fingerprint = ? where id = ?";
+
+    private int backfillCount;
+
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        var conn = ((JdbcConnection) database.getConnection()).getUnderlyingConnection();
+        try {
+            backfillCount = backfillFingerprints(conn);
+        } catch (SQLException e) {
+            throw new CustomChangeException("Error setting fingerprint of existing errors", e);
+        }
+    }
+
+    /**
+     * Sets the {@code fingerprint} of errors that do not have one.
+     *
+     * @param conn the database connection; it is NOT closed by this method!
+     * @return the number of errors whose fingerprint was set
+     * @throws SQLException if a database access error occurs
+     */
+    @VisibleForTesting
+    static int backfillFingerprints(Connection conn) throws SQLException {
+        var count = 0;
+        var lastId = 0L;
+
+        while (true) {
+            var fingerprintsById = nextBatch(conn, lastId);
+            if (fingerprintsById.isEmpty()) {
+                break;
+            }
+
+            updateFingerprints(conn, fingerprintsById);
+            count += fingerprintsById.size();
+            lastId = fingerprintsById.lastKey();
+        }
+
+        LOG.info("Set fingerprint of {} existing errors", count);
+        return count;
+    }
+
+    private static SortedMap<Long, String> nextBatch(Connection conn, long lastId) throws SQLException {
+        var fingerprintsById = new TreeMap<Long, String>();
+
+        try (var ps = conn.prepareStatement(SELECT_ERRORS_SQL)) {
+            ps.setMaxRows(BATCH_SIZE);
+            ps.setLong(1, lastId);
+
+            try (var rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    var fingerprint = ApplicationError.fingerprintOf(
+                            rs.getString("description"), rs.getString("exception_type"), rs.getString("host_name"));
+                    fingerprintsById.put(rs.getLong("id"), fingerprint);
+                }
+            }
+        }
+
+        return fingerprintsById;
+    }
+
+    private static void updateFingerprints(Connection conn, SortedMap<Long, String> fingerprintsById)
+            throws SQLException {
+
+        try (var ps = conn.prepareStatement(UPDATE_FINGERPRINT_SQL)) {
+            for (var entry : fingerprintsById.entrySet()) {
+                ps.setString(1, entry.getValue());
+                ps.setLong(2, entry.getKey());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return "Set fingerprint of " + backfillCount + " existing errors";
+    }
+
+    @Override
+    public void setUp() {
+        // nothing to set up
+    }
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {
+        // does not use any resources
+    }
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        return new ValidationErrors();
+    }
+}
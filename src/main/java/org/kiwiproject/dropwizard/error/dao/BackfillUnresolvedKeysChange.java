@@ -0,0 +1,177 @@
+package org.kiwiproject.dropwizard.error.dao;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import com.google.common.annotations.VisibleForTesting;
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+import lombok.extern.slf4j.Slf4j;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.kiwiproject.dropwizard.error.model.ApplicationError;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A Liquibase custom change that sets the {@code unresolved_key} of unresolved errors that existed before the
+ * {@code unresolved_key} column was added, so that new occurrences increment their counts instead of inserting
+ * duplicates. It must run before the unique index on {@code unresolved_key} is created.
+ * <p>
+ * The key is computed in Java, since it is a SHA-256 hash that cannot be computed portably in SQL. When several
+ * unresolved errors have the same key, only the most recently updated one gets the key, and the others keep a null
+ * key, which the unique index permits. Errors are read and updated in batches, ordered by most recently updated
+ * first, so that only one batch of errors is held in memory at a time. The keys already set are remembered across
+ * batches, so their number is bounded by the number of distinct unresolved errors rather than all errors.
+ *
+ * @see ApplicationErrorJdbc#unresolvedKeyOf(ApplicationError)
+ */
+@Slf4j
+public class BackfillUnresolvedKeysChange implements CustomTaskChange {
+
+    @VisibleForTesting
+    static final int BATCH_SIZE = 1_000;
+
+    private static final String SELECT_UNRESOLVED_ERRORS_SQL =
+            "select id, updated_at, description, exception_type, host_name from application_errors" +
+                    " where resolved = false and unresolved_key is null";
+
+    private static final String ORDER_BY_MOST_RECENTLY_UPDATED = " order by updated_at desc, id desc";
+
+    private static final String SELECT_FIRST_BATCH_SQL = SELECT_UNRESOLVED_ERRORS_SQL + ORDER_BY_MOST_RECENTLY_UPDATED;
+
+    private static final String SELECT_NEXT_BATCH_SQL = SELECT_UNRESOLVED_ERRORS_SQL +
+            " and (updated_at < ? or (updated_at = ? and id < ?))" + ORDER_BY_MOST_RECENTLY_UPDATED;
+
+    private static final String UPDATE_UNRESOLVED_KEY_SQL =
+            "update application_errors set unresolved_key = ? where id = ?";
+
+    private int backfillCount;
+
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        var conn = ((JdbcConnection) database.getConnection()).getUnderlyingConnection();
+        try {
+            backfillCount = backfillUnresolvedKeys(conn);
+        } catch (SQLException e) {
+            throw new CustomChangeException("Error setting unresolved_key of existing unresolved errors", e);
+        }
+    }
+
+    /**
+     * The position of the last error read, which the next batch starts after.
+     */
+    private record Position(Timestamp updatedAt, long id) {
+    }
+
+    /**
+     * Sets the {@code unresolved_key} of unresolved errors that do not have one.
+     *
+     * @param conn the database connection; it is NOT closed by this method!
+     * @return the number of errors whose key was set
+     * @throws SQLException if a database access error occurs
+     */
+    @VisibleForTesting
+    static int backfillUnresolvedKeys(Connection conn) throws SQLException {
+        var count = 0;
+        var keys = new HashSet<String>();
+        Position lastPosition = null;
+
+        while (true) {
+            var keysById = new LinkedHashMap<Long, String>();
+            lastPosition = nextBatch(conn, lastPosition, keys, keysById);
+            if (isNull(lastPosition)) {
+                break;
+            }
+
+            updateUnresolvedKeys(conn, keysById);
+            count += keysById.size();
+        }
+
+        LOG.info("Set unresolved_key of {} existing unresolved errors", count);
+        return count;
+    }
+
+    /**
+     * Reads the next batch of errors after the given position, adding the key of each error whose key was not
+     * already set to {@code keys} and {@code keysById}.
+     *
+     * @return the position of the last error read, or null if there are no more errors
+     */
+    @Nullable
+    private static Position nextBatch(Connection conn,
+                                      @Nullable Position after,
+                                      Set<String> keys,
+                                      Map<Long, String> keysById) throws SQLException {
+
+        var sql = nonNull(after) ? SELECT_NEXT_BATCH_SQL : SELECT_FIRST_BATCH_SQL;
+        try (var ps = conn.prepareStatement(sql)) {
+            ps.setMaxRows(BATCH_SIZE);
+            if (nonNull(after)) {
+                ps.setTimestamp(1, after.updatedAt());
+                ps.setTimestamp(2, after.updatedAt());
+                ps.setLong(3, after.id());
+            }
+
+            Position lastPosition = null;
+            try (var rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    var id = rs.getLong("id");
+                    var key = ApplicationError.fingerprintOf(
+                            rs.getString("description"), rs.getString("exception_type"), rs.getString("host_name"));
+
+                    // Rows are ordered by most recently updated, so the first one having a key gets it
+                    if (keys.add(key)) {
+                        keysById.put(id, key);
+                    }
+                    lastPosition = new Position(rs.getTimestamp("updated_at"), id);
+                }
+            }
+            return lastPosition;
+        }
+    }
+
+    private static void updateUnresolvedKeys(Connection conn, Map<Long, String> keysById) throws SQLException {
+        if (keysById.isEmpty()) {
+            return;
+        }
+
+        try (var ps = conn.prepareStatement(UPDATE_UNRESOLVED_KEY_SQL)) {
+            for (var entry : keysById.entrySet()) {
+                ps.setString(1, entry.getValue());
+                ps.setLong(2, entry.getKey());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return "Set unresolved_key of " + backfillCount + " existing unresolved errors";
+    }
+
+    @Override
+    public void setUp() {
+        // nothing to set up
+    }
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {
+        // does not use any resources
+    }
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        return new ValidationErrors();
+    }
+}
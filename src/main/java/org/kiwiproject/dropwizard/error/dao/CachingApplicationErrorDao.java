@@ -0,0 +1,186 @@
+package org.kiwiproject.dropwizard.error.dao;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static org.kiwiproject.base.KiwiPreconditions.checkArgumentNotNull;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.kiwiproject.dropwizard.error.config.UnresolvedErrorCacheConfig;
+import org.kiwiproject.dropwizard.error.model.ApplicationError;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An {@link ApplicationErrorDao} that caches the IDs of unresolved errors, keyed by
+ * {@link ApplicationError#getFingerprint() fingerprint}, in front of the delegate DAO.
+ * <p>
+ * When an error recurs, its cached ID is used to increment the count of the existing error using
+ * {@link #incrementCountIfUnresolved(long)}, which for the SQL DAOs is a single update by primary key. That skips
+ * hashing and writing the stack trace, and finding the existing error by its fingerprint.
+ * <p>
+ * Cached IDs are invalidated when errors are resolved, or unresolved errors are deleted, using this DAO. Since errors
+ * may also be resolved or deleted by other service instances, or without using this DAO, the increment only succeeds
+ * when the error still exists and is unresolved. Otherwise, the cached ID is discarded and the error is written using
+ * {@link #insertOrIncrementCount(ApplicationError)} on the delegate, so a stale ID is never used.
+ */
+public class CachingApplicationErrorDao extends ForwardingApplicationErrorDao {
+
+    /**
+     * IDs of unresolved errors keyed by {@link ApplicationError#getFingerprint() fingerprint}.
+     */
+    private final Cache<String, Long> unresolvedErrorIds;
+
+    /**
+     * Create a new instance using the default {@link UnresolvedErrorCacheConfig}.
+     *
+     * @param delegate the {@link ApplicationErrorDao} to cache unresolved error IDs for
+     */
+    public CachingApplicationErrorDao(ApplicationErrorDao delegate) {
+        this(delegate, new UnresolvedErrorCacheConfig());
+    }
+
+    /**
+     * Create a new instance.
+     *
+     * @param delegate the {@link ApplicationErrorDao} to cache unresolved error IDs for
+     * @param config   the cache configuration
+     */
+    public CachingApplicationErrorDao(ApplicationErrorDao delegate, UnresolvedErrorCacheConfig config) {
+        super(delegate);
+        checkArgumentNotNull(config, "config must not be null");
+
+        this.unresolvedErrorIds = CacheBuilder.newBuilder()
+                .maximumSize(config.getMaxSize())
+                .build();
+    }
+
+    /**
+     * If the ID of an unresolved error having the same fingerprint is cached, and that error is still unresolved,
+     * increments its count and returns its ID. Otherwise, writes the error to the delegate and caches its ID if the
+     * error is unresolved.
+     *
+     * @param error the ApplicationError to insert or update
+     * @return the ID of the new or existing application error
+     */
+    @Override
+    public long insertOrIncrementCount(ApplicationError error) {
+        checkArgumentNotNull(error, "error must not be null");
+
+        var cachedId = incrementCountIfCached(error);
+        if (nonNull(cachedId)) {
+            return cachedId;
+        }
+
+        var id = delegate().insertOrIncrementCount(error);
+        if (!error.isResolved()) {
+            unresolvedErrorIds.put(error.getFingerprint(), id);
+        }
+        return id;
+    }
+
+    /**
+     * Increments the count of the error using its cached ID, discarding the cached ID if the increment fails.
+     *
+     * @return the cached ID if the count was incremented, otherwise null
+     */
+    @Nullable
+    private Long incrementCountIfCached(ApplicationError error) {
+        var key = error.getFingerprint();
+        var cachedId = unresolvedErrorIds.getIfPresent(key);
+        if (isNull(cachedId)) {
+            return null;
+        }
+
+        if (delegate().incrementCountIfUnresolved(cachedId)) {
+            return cachedId;
+        }
+
+        unresolvedErrorIds.asMap().remove(key, cachedId);
+        return null;
+    }
+
+    /**
+     * Increments the counts of errors whose IDs are cached, as in {@link #insertOrIncrementCount(ApplicationError)}.
+     * All other errors are written to the delegate using a single
+     * {@link ApplicationErrorDao#insertOrIncrementCounts(Collection)} call, and the IDs of those that are unresolved
+     * are cached.
+     *
+     * @param errors the ApplicationErrors to insert or update
+     * @return the IDs of the new or existing application errors
+     */
+    @Override
+    public List<Long> insertOrIncrementCounts(Collection<ApplicationError> errors) {
+        checkArgumentNotNull(errors, "errors must not be null");
+
+        var ids = new ArrayList<Long>(Collections.nCopies(errors.size(), null));
+        var uncachedErrors = new ArrayList<ApplicationError>();
+        var uncachedIndexes = new ArrayList<Integer>();
+
+        var index = 0;
+        for (var error : errors) {
+            var cachedId = incrementCountIfCached(error);
+            if (nonNull(cachedId)) {
+                ids.set(index, cachedId);
+            } else {
+                uncachedErrors.add(error);
+                uncachedIndexes.add(index);
+            }
+            ++index;
+        }
+
+        if (!uncachedErrors.isEmpty()) {
+            var uncachedIds = delegate().insertOrIncrementCounts(uncachedErrors);
+            for (var i = 0; i < uncachedErrors.size(); i++) {
+                var error = uncachedErrors.get(i);
+                var id = uncachedIds.get(i);
+                ids.set(uncachedIndexes.get(i), id);
+                if (!error.isResolved()) {
+                    unresolvedErrorIds.put(error.getFingerprint(), id);
+                }
+            }
+        }
+
+        return ids;
+    }
+
+    /**
+     * @return the number of cached unresolved error IDs
+     */
+    public long getCachedErrorCount() {
+        return unresolvedErrorIds.size();
+    }
+
+    @Override
+    public ApplicationError resolve(long id) {
+        var resolvedError = delegate().resolve(id);
+        unresolvedErrorIds.asMap().values().removeIf(cachedId -> cachedId == id);
+        return resolvedError;
+    }
+
+    @Override
+    public int resolveAllUnresolvedErrors() {
+        var resolveCount = delegate().resolveAllUnresolvedErrors();
+        unresolvedErrorIds.invalidateAll();
+        return resolveCount;
+    }
+
+    @Override
+    public int deleteUnresolvedErrorsBefore(ZonedDateTime expirationDate) {
+        var deleteCount = delegate().deleteUnresolvedErrorsBefore(expirationDate);
+        unresolvedErrorIds.invalidateAll();
+        return deleteCount;
+    }
+
+    @Override
+    public int deleteUnresolvedErrorsBefore(ZonedDateTime expirationDate, int limit) {
+        var deleteCount = delegate().deleteUnresolvedErrorsBefore(expirationDate, limit);
+        unresolvedErrorIds.invalidateAll();
+        return deleteCount;
+    }
+}
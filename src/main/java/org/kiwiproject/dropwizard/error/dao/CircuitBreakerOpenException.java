@@ -0,0 +1,16 @@
+package org.kiwiproject.dropwizard.error.dao;
+
+/**
+ * Thrown by {@link CircuitBreakingApplicationErrorDao} when a write is rejected because the circuit is open.
+ */
+public class CircuitBreakerOpenException extends IllegalStateException {
+
+    /**
+     * Create a new instance.
+     *
+     * @param message the detail message
+     */
+    public CircuitBreakerOpenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,285 @@
+package org.kiwiproject.dropwizard.error.dao;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static org.kiwiproject.base.KiwiPreconditions.checkArgumentNotNull;
+import static org.kiwiproject.base.KiwiPreconditions.requireNotNull;
+import static org.kiwiproject.base.KiwiStrings.f;
+import static org.kiwiproject.dropwizard.error.dao.DataStoreFailures.isDataStoreFailure;
+import static org.kiwiproject.validation.KiwiValidations.checkArgumentValid;
+
+import com.google.common.annotations.VisibleForTesting;
+import lombok.extern.slf4j.Slf4j;
+import org.kiwiproject.dropwizard.error.config.CircuitBreakerConfig;
+import org.kiwiproject.dropwizard.error.model.ApplicationError;
+
+import java.time.Clock;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * An {@link ApplicationErrorDao} that stops writing errors to the delegate DAO while the data store is failing or
+ * slow, so that threads reporting errors fail fast instead of each waiting for a connection or socket timeout.
+ * <p>
+ * Only the methods that write errors are guarded by the circuit breaker; all other methods, such as those used by the
+ * resources, health checks, and cleanup job, are performed by the delegate as usual. The circuit breaker has three
+ * states:
+ * <ul>
+ *     <li>CLOSED - writes are performed, and the outcome of the most recent writes is recorded in a sliding window.
+ *     When the window contains at least the minimum number of writes, and the percentage that failed or the
+ *     percentage that were slow reaches its threshold, the circuit opens.</li>
+ *     <li>OPEN - writes are rejected immediately with a {@link CircuitBreakerOpenException}. After the configured wait
+ *     duration, the circuit becomes half-open.</li>
+ *     <li>HALF_OPEN - a limited number of trial writes are performed, and other writes are rejected. When all trial
+ *     writes complete, the circuit closes if their failure and slow call rates are below the thresholds, and opens
+ *     again otherwise.</li>
+ * </ul>
+ * Only writes that fail because the data store cannot be accessed, as decided by
+ * {@link DataStoreFailures#isDataStoreFailure(Throwable)}, count as failed. Writes that fail for other reasons, such
+ * as an invalid argument, an error rejected by the data store, or a missing error, say nothing about the health of
+ * the data store, so they count as successful. Writes rejected because the circuit is open are not lost if this DAO
+ * is wrapped in a {@link SpoolingApplicationErrorDao}, which spools them to replay later.
+ */
+@Slf4j
+public class CircuitBreakingApplicationErrorDao extends ForwardingApplicationErrorDao {
+
+    /**
+     * Name of the gauge whose value is the {@link State#getGaugeValue() gauge value} of the current state.
+     */
+    public static final String STATE_METRIC = name(CircuitBreakingApplicationErrorDao.class, "state");
+
+    /**
+     * The states of the circuit breaker.
+     */
+    public enum State {
+        CLOSED(0), OPEN(1), HALF_OPEN(2);
+
+        private final int gaugeValue;
+
+        State(int gaugeValue) {
+            this.gaugeValue = gaugeValue;
+        }
+
+        /**
+         * @return the value of the {@link #STATE_METRIC} gauge when the circuit breaker is in this state
+         */
+        public int getGaugeValue() {
+            return gaugeValue;
+        }
+    }
+
+    private static final byte FAILED = 1;
+    private static final byte SLOW = 2;
+
+    private final int minimumNumberOfCalls;
+    private final int failureRateThreshold;
+    private final int slowCallRateThreshold;
+    private final long slowCallMillis;
+    private final long waitMillisInOpenState;
+    private final int permittedCallsInHalfOpenState;
+    private final Clock clock;
+    private final Object lock = new Object();
+
+    /**
+     * The outcomes of the most recent writes while closed, as a ring of FAILED and SLOW flags.
+     */
+    private final byte[] outcomes;
+    private int nextOutcomeIndex;
+    private int outcomeCount;
+    private int failureCount;
+    private int slowCallCount;
+
+    private volatile State state;
+
+    /**
+     * Incremented on each state change, so that writes permitted in an earlier state do not affect the current one.
+     */
+    private long generation;
+    private long openedAtMillis;
+    private int halfOpenPermittedCount;
+    private int halfOpenCompletedCount;
+
+    /**
+     * Create a new instance.
+     *
+     * @param delegate the {@link ApplicationErrorDao} that errors are written to
+     * @param config   the circuit breaker configuration
+     */
+    public CircuitBreakingApplicationErrorDao(ApplicationErrorDao delegate, CircuitBreakerConfig config) {
+        this(delegate, config, Clock.systemUTC());
+    }
+
+    @VisibleForTesting
+    CircuitBreakingApplicationErrorDao(ApplicationErrorDao delegate, CircuitBreakerConfig config, Clock clock) {
+        super(delegate);
+        checkArgumentNotNull(config, "config must not be null");
+        checkArgumentValid(config);
+
+        this.minimumNumberOfCalls = config.getMinimumNumberOfCalls();
+        this.failureRateThreshold = config.getFailureRateThreshold();
+        this.slowCallRateThreshold = config.getSlowCallRateThreshold();
+        this.slowCallMillis = config.getSlowCallDuration().toMilliseconds();
+        this.waitMillisInOpenState = config.getWaitDurationInOpenState().toMilliseconds();
+        this.permittedCallsInHalfOpenState = config.getPermittedCallsInHalfOpenState();
+        this.clock = requireNotNull(clock, "clock must not be null");
+        this.outcomes = new byte[config.getSlidingWindowSize()];
+        this.state = State.CLOSED;
+    }
+
+    /**
+     * @return the current state of the circuit breaker
+     */
+    public State getState() {
+        return state;
+    }
+
+    @Override
+    public long insertError(ApplicationError newError) {
+        return guard("insertError", () -> delegate().insertError(newError));
+    }
+
+    @Override
+    public List<Long> insertErrors(List<ApplicationError> newErrors) {
+        return guard("insertErrors", () -> delegate().insertErrors(newErrors));
+    }
+
+    @Override
+    public void incrementCount(long id) {
+        run("incrementCount", () -> delegate().incrementCount(id));
+    }
+
+    @Override
+    public void incrementCount(long id, int amount) {
+        run("incrementCount", () -> delegate().incrementCount(id, amount));
+    }
+
+    @Override
+    public void incrementCounts(Map<Long, Integer> amounts) {
+        run("incrementCounts", () -> delegate().incrementCounts(amounts));
+    }
+
+    @Override
+    public long insertOrIncrementCount(ApplicationError error) {
+        return guard("insertOrIncrementCount", () -> delegate().insertOrIncrementCount(error));
+    }
+
+    @Override
+    public List<Long> insertOrIncrementCounts(Collection<ApplicationError> errors) {
+        return guard("insertOrIncrementCounts", () -> delegate().insertOrIncrementCounts(errors));
+    }
+
+    @Override
+    public boolean incrementCountIfUnresolved(long id) {
+        return guard("incrementCountIfUnresolved", () -> delegate().incrementCountIfUnresolved(id));
+    }
+
+    @Override
+    public Set<Long> incrementCountsIfUnresolved(Map<Long, Integer> amounts) {
+        return guard("incrementCountsIfUnresolved", () -> delegate().incrementCountsIfUnresolved(amounts));
+    }
+
+    private <T> T guard(String operation, Supplier<T> call) {
+        var permittedGeneration = acquirePermission(operation);
+        var startMillis = clock.millis();
+        try {
+            var result = call.get();
+            recordOutcome(permittedGeneration, clock.millis() - startMillis, false);
+            return result;
+        } catch (RuntimeException e) {
+            recordOutcome(permittedGeneration, clock.millis() - startMillis, isDataStoreFailure(e));
+            throw e;
+        }
+    }
+
+    private void run(String operation, Runnable call) {
+        guard(operation, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    /**
+     * @return the generation in which the write was permitted
+     * @throws CircuitBreakerOpenException if the write is not permitted
+     */
+    private long acquirePermission(String operation) {
+        synchronized (lock) {
+            if (state == State.OPEN && clock.millis() - openedAtMillis >= waitMillisInOpenState) {
+                transitionTo(State.HALF_OPEN);
+            }
+
+            if (state == State.CLOSED) {
+                return generation;
+            }
+
+            if (state == State.HALF_OPEN && halfOpenPermittedCount < permittedCallsInHalfOpenState) {
+                ++halfOpenPermittedCount;
+                return generation;
+            }
+
+            throw new CircuitBreakerOpenException(
+                    f("ApplicationError circuit breaker is {}; not performing {}", state, operation));
+        }
+    }
+
+    private void recordOutcome(long permittedGeneration, long elapsedMillis, boolean failed) {
+        synchronized (lock) {
+            if (permittedGeneration != generation) {
+                return;
+            }
+
+            var slow = elapsedMillis >= slowCallMillis;
+            addOutcome((byte) ((failed ? FAILED : 0) | (slow ? SLOW : 0)));
+
+            if (state == State.CLOSED) {
+                if (outcomeCount >= minimumNumberOfCalls && exceedsThresholds()) {
+                    transitionTo(State.OPEN);
+                }
+            } else if (state == State.HALF_OPEN && ++halfOpenCompletedCount == permittedCallsInHalfOpenState) {
+                transitionTo(exceedsThresholds() ? State.OPEN : State.CLOSED);
+            }
+        }
+    }
+
+    private void addOutcome(byte outcome) {
+        if (outcomeCount == outcomes.length) {
+            var evicted = outcomes[nextOutcomeIndex];
+            failureCount -= evicted & FAILED;
+            slowCallCount -= (evicted & SLOW) >> 1;
+        } else {
+            ++outcomeCount;
+        }
+
+        outcomes[nextOutcomeIndex] = outcome;
+        nextOutcomeIndex = (nextOutcomeIndex + 1) % outcomes.length;
+        failureCount += outcome & FAILED;
+        slowCallCount += (outcome & SLOW) >> 1;
+    }
+
+    private boolean exceedsThresholds() {
+        return failureCount * 100L >= (long) failureRateThreshold * outcomeCount ||
+                slowCallCount * 100L >= (long) slowCallRateThreshold * outcomeCount;
+    }
+
+    private void transitionTo(State newState) {
+        if (newState == State.OPEN) {
+            LOG.warn("Opening ApplicationError circuit breaker after {} failed and {} slow of {} writes;" +
+                            " rejecting writes for {} ms",
+                    failureCount, slowCallCount, outcomeCount, waitMillisInOpenState);
+            openedAtMillis = clock.millis();
+        } else {
+            LOG.info("ApplicationError circuit breaker changing from {} to {}", state, newState);
+        }
+
+        state = newState;
+        ++generation;
+        halfOpenPermittedCount = 0;
+        halfOpenCompletedCount = 0;
+        nextOutcomeIndex = 0;
+        outcomeCount = 0;
+        failureCount = 0;
+        slowCallCount = 0;
+    }
+}
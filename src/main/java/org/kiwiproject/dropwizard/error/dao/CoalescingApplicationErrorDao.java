@@ -0,0 +1,261 @@
+package org.kiwiproject.dropwizard.error.dao;
+
+import static org.kiwiproject.base.KiwiPreconditions.checkArgumentNotNull;
+import static org.kiwiproject.validation.KiwiValidations.checkArgumentValid;
+
+import io.dropwizard.lifecycle.Managed;
+import lombok.extern.slf4j.Slf4j;
+import org.kiwiproject.dropwizard.error.config.CoalescingConfig;
+import org.kiwiproject.dropwizard.error.model.ApplicationError;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An {@link ApplicationErrorDao} that coalesces duplicate errors, i.e. errors having the same fingerprint,
+ * before they reach the delegate DAO.
+ * <p>
+ * The first occurrence of an error is written to the delegate immediately, so that its ID is known. Subsequent
+ * occurrences only increment an in-memory count and return the same ID. When {@link #flush()} is called, all
+ * accumulated counts are written to the delegate using a single {@link #incrementCountsIfUnresolved(Map)} call, and a
+ * new window begins. During an error storm, this turns many round trips per error into one per distinct error, plus
+ * one per window.
+ * <p>
+ * {@link #flush()} is expected to be called periodically, e.g. by a scheduled executor. Resolving and deleting errors
+ * through this instance flushes first, and counts are only added to errors that are still unresolved, so pending
+ * counts are not applied to errors that were resolved or deleted in the meantime, e.g. by another process. When
+ * writing the counts fails, e.g. because the data store is unavailable, they are kept and written again on the next
+ * flush, up to {@link CoalescingConfig#getMaxFlushAttempts()} times. This class is a Dropwizard {@link Managed}
+ * object; {@link #stop()} flushes pending counts, after which errors are no longer coalesced.
+ */
+@Slf4j
+public class CoalescingApplicationErrorDao extends ForwardingApplicationErrorDao implements Managed {
+
+    private record PendingCount(long id, int delta) {
+
+        PendingCount incremented() {
+            return new PendingCount(id, delta + 1);
+        }
+    }
+
+    private record FailedCount(int delta, int attempts) {
+
+        FailedCount plus(FailedCount other) {
+            return new FailedCount(delta + other.delta, Math.max(attempts, other.attempts));
+        }
+    }
+
+    /**
+     * Pending counts keyed by {@link ApplicationError#getFingerprint() fingerprint}.
+     */
+    private final ConcurrentMap<String, PendingCount> pendingCounts;
+
+    /**
+     * Counts that could not be written, keyed by error ID, which are written again on the next flush.
+     */
+    private final ConcurrentMap<Long, FailedCount> failedCounts;
+
+    private final int maxFlushAttempts;
+    private volatile boolean stopped;
+
+    /**
+     * Create a new instance with the default {@link CoalescingConfig}.
+     *
+     * @param delegate the {@link ApplicationErrorDao} that coalesced errors are written to
+     */
+    public CoalescingApplicationErrorDao(ApplicationErrorDao delegate) {
+        this(delegate, new CoalescingConfig());
+    }
+
+    /**
+     * Create a new instance.
+     *
+     * @param delegate the {@link ApplicationErrorDao} that coalesced errors are written to
+     * @param config   the coalescing configuration
+     */
+    public CoalescingApplicationErrorDao(ApplicationErrorDao delegate, CoalescingConfig config) {
+        super(delegate);
+        checkArgumentNotNull(config, "config must not be null");
+        checkArgumentValid(config);
+
+        this.pendingCounts = new ConcurrentHashMap<>();
+        this.failedCounts = new ConcurrentHashMap<>();
+        this.maxFlushAttempts = config.getMaxFlushAttempts();
+    }
+
+    /**
+     * If an error having the same fingerprint was written in the current window, increments its pending
+     * count and returns its ID. Otherwise, writes the error to the delegate and starts coalescing it.
+     *
+     * @param error the ApplicationError to insert or update
+     * @return the ID of the new or existing application error
+     */
+    @Override
+    public long insertOrIncrementCount(ApplicationError error) {
+        checkArgumentNotNull(error, "error must not be null");
+
+        if (stopped) {
+            return delegate().insertOrIncrementCount(error);
+        }
+
+        var key = error.getFingerprint();
+
+        // Atomic with respect to the removal in flush(), so an occurrence is never lost
+        var coalesced = pendingCounts.computeIfPresent(key, (theKey, pendingCount) -> pendingCount.incremented());
+        if (coalesced != null) {
+            return coalesced.id();
+        }
+
+        var id = delegate().insertOrIncrementCount(error);
+        pendingCounts.putIfAbsent(key, new PendingCount(id, 0));
+        return id;
+    }
+
+    /**
+     * Performs {@link #insertOrIncrementCount(ApplicationError)} for each error, so that the errors are coalesced
+     * the same way as errors that are written one at a time.
+     *
+     * @param errors the ApplicationErrors to insert or update
+     * @return the IDs of the new or existing application errors
+     */
+    @Override
+    public List<Long> insertOrIncrementCounts(Collection<ApplicationError> errors) {
+        checkArgumentNotNull(errors, "errors must not be null");
+        return errors.stream().map(this::insertOrIncrementCount).toList();
+    }
+
+    /**
+     * Writes all pending counts, including counts that could not be written by previous flushes, to the delegate DAO
+     * using a single {@link #incrementCountsIfUnresolved(Map)} call, and starts a new coalescing window.
+     *
+     * @return the number of errors whose counts were incremented
+     */
+    public int flush() {
+        var amounts = new HashMap<Long, Integer>();
+        var previousAttempts = new HashMap<Long, Integer>();
+
+        for (var id : failedCounts.keySet()) {
+            var failedCount = failedCounts.remove(id);
+            if (failedCount != null) {
+                amounts.merge(id, failedCount.delta(), Integer::sum);
+                previousAttempts.put(id, failedCount.attempts());
+            }
+        }
+
+        for (var key : pendingCounts.keySet()) {
+            var pendingCount = pendingCounts.remove(key);
+            if (pendingCount != null && pendingCount.delta() > 0) {
+                amounts.merge(pendingCount.id(), pendingCount.delta(), Integer::sum);
+            }
+        }
+
+        if (amounts.isEmpty()) {
+            return 0;
+        }
+
+        return writePendingCounts(amounts, previousAttempts);
+    }
+
+    private int writePendingCounts(Map<Long, Integer> amounts, Map<Long, Integer> previousAttempts) {
+        try {
+            var incrementedIds = delegate().incrementCountsIfUnresolved(amounts);
+            if (incrementedIds.size() < amounts.size()) {
+                LOG.debug("Discarded pending counts of {} ApplicationErrors that were resolved or deleted",
+                        amounts.size() - incrementedIds.size());
+            }
+            return incrementedIds.size();
+        } catch (Exception e) {
+            keepFailedCounts(amounts, previousAttempts, e);
+            return 0;
+        }
+    }
+
+    private void keepFailedCounts(Map<Long, Integer> amounts, Map<Long, Integer> previousAttempts, Exception e) {
+        var discardedIds = new ArrayList<Long>();
+        amounts.forEach((id, delta) -> {
+            var attempts = previousAttempts.getOrDefault(id, 0) + 1;
+            if (attempts < maxFlushAttempts) {
+                failedCounts.merge(id, new FailedCount(delta, attempts), FailedCount::plus);
+            } else {
+                discardedIds.add(id);
+            }
+        });
+
+        if (discardedIds.isEmpty()) {
+            LOG.warn("Error incrementing counts of ApplicationErrors with IDs {}; will retry on next flush",
+                    amounts.keySet(), e);
+        } else {
+            LOG.error("Error incrementing counts of ApplicationErrors with IDs {}; discarding counts of IDs {}" +
+                    " after {} attempts", amounts.keySet(), discardedIds, maxFlushAttempts, e);
+        }
+    }
+
+    /**
+     * @return the number of errors whose counts could not be written, and will be written again on the next flush
+     */
+    public int getFailedErrorCount() {
+        return failedCounts.size();
+    }
+
+    /**
+     * @return the number of distinct errors being coalesced in the current window
+     */
+    public int getPendingErrorCount() {
+        return pendingCounts.size();
+    }
+
+    @Override
+    public ApplicationError resolve(long id) {
+        flush();
+        return delegate().resolve(id);
+    }
+
+    @Override
+    public int resolveAllUnresolvedErrors() {
+        flush();
+        return delegate().resolveAllUnresolvedErrors();
+    }
+
+    @Override
+    public int deleteResolvedErrorsBefore(ZonedDateTime expirationDate) {
+        flush();
+        return delegate().deleteResolvedErrorsBefore(expirationDate);
+    }
+
+    @Override
+    public int deleteUnresolvedErrorsBefore(ZonedDateTime expirationDate) {
+        flush();
+        return delegate().deleteUnresolvedErrorsBefore(expirationDate);
+    }
+
+    @Override
+    public int deleteResolvedErrorsBefore(ZonedDateTime expirationDate, int limit) {
+        flush();
+        return delegate().deleteResolvedErrorsBefore(expirationDate, limit);
+    }
+
+    @Override
+    public int deleteUnresolvedErrorsBefore(ZonedDateTime expirationDate, int limit) {
+        flush();
+        return delegate().deleteUnresolvedErrorsBefore(expirationDate, limit);
+    }
+
+    @Override
+    public void stop() {
+        stopped = true;
+        var flushCount = flush();
+        LOG.info("Flushed {} coalesced errors on stop", flushCount);
+
+        if (!failedCounts.isEmpty()) {
+            LOG.warn("Discarding counts of {} coalesced errors that could not be written on stop",
+                    failedCounts.size());
+            failedCounts.clear();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.kiwiproject.dropwizard.error.dao;
+
+import static java.util.Objects.nonNull;
+
+import lombok.experimental.UtilityClass;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.jdbi.v3.core.ConnectionException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.SQLDataException;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+
+/**
+ * Classifies exceptions thrown by an {@link ApplicationErrorDao}, to distinguish a data store that is unavailable or
+ * failing from an error that the data store rejected.
+ */
+@UtilityClass
+public class DataStoreFailures {
+
+    /**
+     * Determine whether the given exception, or any of its causes, means the data store could not be accessed, so
+     * that the same operation may succeed later. These are:
+     * <ul>
+     *     <li>a JDBI {@link ConnectionException}</li>
+     *     <li>a {@link SQLException}, except one reporting a data exception (SQL state class 22) or an integrity
+     *     constraint violation (SQL state class 23), since retrying with the same data fails the same way</li>
+     *     <li>an {@link IOException} or {@link UncheckedIOException}</li>
+     *     <li>a {@link CircuitBreakerOpenException}, since the circuit opens only when the data store is failing</li>
+     * </ul>
+     *
+     * @param throwable the exception to check, which may be null
+     * @return true if the exception was caused by a failure to access the data store
+     */
+    public static boolean isDataStoreFailure(@Nullable Throwable throwable) {
+        var current = throwable;
+        while (nonNull(current)) {
+            if (current instanceof SQLException sqlException) {
+                return !isRejectedData(sqlException);
+            }
+
+            if (current instanceof ConnectionException ||
+                    current instanceof IOException ||
+                    current instanceof UncheckedIOException ||
+                    current instanceof CircuitBreakerOpenException) {
+                return true;
+            }
+            current = current.getCause();
+        }
+        return false;
+    }
+
+    private static boolean isRejectedData(SQLException e) {
+        var sqlState = e.getSQLState();
+        return e instanceof SQLDataException ||
+                e instanceof SQLIntegrityConstraintViolationException ||
+                (nonNull(sqlState) && (sqlState.startsWith("22") || sqlState.startsWith("23")));
+    }
+}
@@ -0,0 +1,218 @@
+package org.kiwiproject.dropwizard.error.dao;
+
+import static org.kiwiproject.base.KiwiPreconditions.checkArgumentNotNull;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.kiwiproject.dropwizard.error.model.ApplicationError;
+import org.kiwiproject.dropwizard.error.model.ApplicationErrorCursor;
+import org.kiwiproject.dropwizard.error.model.ApplicationErrorPage;
+import org.kiwiproject.dropwizard.error.model.ApplicationErrorSummary;
+import org.kiwiproject.dropwizard.error.model.ApplicationErrorSummaryPage;
+
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+
+/**
+ * An {@link ApplicationErrorDao} which forwards all its method calls to another {@link ApplicationErrorDao}.
+ * <p>
+ * Subclasses override only the methods they need to decorate, similar to Guava's "forwarding" collections.
+ */
+public abstract class ForwardingApplicationErrorDao implements ApplicationErrorDao {
+
+    private final ApplicationErrorDao delegate;
+
+    protected ForwardingApplicationErrorDao(ApplicationErrorDao delegate) {
+        checkArgumentNotNull(delegate, "delegate ApplicationErrorDao must not be null");
+        this.delegate = delegate;
+    }
+
+    /**
+     * @return the {@link ApplicationErrorDao} that this instance forwards to
+     */
+    public ApplicationErrorDao delegate() {
+        return delegate;
+    }
+
+    @Override
+    public Optional<ApplicationError> getById(long id) {
+        return delegate.getById(id);
+    }
+
+    @Override
+    public long count(ApplicationErrorStatus status) {
+        return delegate.count(status);
+    }
+
+    @Override
+    public long countResolvedErrors() {
+        return delegate.countResolvedErrors();
+    }
+
+    @Override
+    public long countUnresolvedErrors() {
+        return delegate.countUnresolvedErrors();
+    }
+
+    @Override
+    public long countAllErrors() {
+        return delegate.countAllErrors();
+    }
+
+    @Override
+    public long countUnresolvedErrorsSince(ZonedDateTime since) {
+        return delegate.countUnresolvedErrorsSince(since);
+    }
+
+    @Override
+    public long countUnresolvedErrorsOnHostSince(ZonedDateTime since, String hostName, String ipAddress) {
+        return delegate.countUnresolvedErrorsOnHostSince(since, hostName, ipAddress);
+    }
+
+    @Override
+    public List<ApplicationError> getAllErrors(int pageNumber, int pageSize) {
+        return delegate.getAllErrors(pageNumber, pageSize);
+    }
+
+    @Override
+    public List<ApplicationError> getErrors(ApplicationErrorStatus status, int pageNumber, int pageSize) {
+        return delegate.getErrors(status, pageNumber, pageSize);
+    }
+
+    @Override
+    public ApplicationErrorPage getErrorPage(ApplicationErrorStatus status, int pageNumber, int pageSize) {
+        return delegate.getErrorPage(status, pageNumber, pageSize);
+    }
+
+    @Override
+    public List<ApplicationError> getErrors(ApplicationErrorStatus status,
+                                            @Nullable ApplicationErrorCursor cursor,
+                                            int pageSize) {
+        return delegate.getErrors(status, cursor, pageSize);
+    }
+
+    @Override
+    public List<ApplicationErrorSummary> getErrorSummaries(ApplicationErrorStatus status,
+                                                           int pageNumber,
+                                                           int pageSize) {
+        return delegate.getErrorSummaries(status, pageNumber, pageSize);
+    }
+
+    @Override
+    public ApplicationErrorSummaryPage getErrorSummaryPage(ApplicationErrorStatus status,
+                                                           int pageNumber,
+                                                           int pageSize) {
+        return delegate.getErrorSummaryPage(status, pageNumber, pageSize);
+    }
+
+    @Override
+    public List<ApplicationErrorSummary> getErrorSummaries(ApplicationErrorStatus status,
+                                                           @Nullable ApplicationErrorCursor cursor,
+                                                           int pageSize) {
+        return delegate.getErrorSummaries(status, cursor, pageSize);
+    }
+
+    @Override
+    public List<ApplicationError> getUnresolvedErrorsByDescription(String description) {
+        return delegate.getUnresolvedErrorsByDescription(description);
+    }
+
+    @Override
+    public List<ApplicationError> getUnresolvedErrorsByDescriptionAndHost(String description, String hostName) {
+        return delegate.getUnresolvedErrorsByDescriptionAndHost(description, hostName);
+    }
+
+    @Override
+    public OptionalLong getUnresolvedErrorIdByFingerprint(String fingerprint) {
+        return delegate.getUnresolvedErrorIdByFingerprint(fingerprint);
+    }
+
+    @Override
+    public long insertError(ApplicationError newError) {
+        return delegate.insertError(newError);
+    }
+
+    @Override
+    public List<Long> insertErrors(List<ApplicationError> newErrors) {
+        return delegate.insertErrors(newErrors);
+    }
+
+    @Override
+    public void incrementCount(long id) {
+        delegate.incrementCount(id);
+    }
+
+    @Override
+    public void incrementCount(long id, int amount) {
+        delegate.incrementCount(id, amount);
+    }
+
+    @Override
+    public void incrementCounts(Map<Long, Integer> amounts) {
+        delegate.incrementCounts(amounts);
+    }
+
+    @Override
+    public long insertOrIncrementCount(ApplicationError error) {
+        return delegate.insertOrIncrementCount(error);
+    }
+
+    @Override
+    public List<Long> insertOrIncrementCounts(Collection<ApplicationError> errors) {
+        return delegate.insertOrIncrementCounts(errors);
+    }
+
+    @Override
+    public boolean incrementCountIfUnresolved(long id) {
+        return delegate.incrementCountIfUnresolved(id);
+    }
+
+    @Override
+    public Set<Long> incrementCountsIfUnresolved(Map<Long, Integer> amounts) {
+        return delegate.incrementCountsIfUnresolved(amounts);
+    }
+
+    @Override
+    public ApplicationError resolve(long id) {
+        return delegate.resolve(id);
+    }
+
+    @Override
+    public int resolveAllUnresolvedErrors() {
+        return delegate.resolveAllUnresolvedErrors();
+    }
+
+    @Override
+    public int deleteResolvedErrorsBefore(ZonedDateTime expirationDate) {
+        return delegate.deleteResolvedErrorsBefore(expirationDate);
+    }
+
+    @Override
+    public int deleteUnresolvedErrorsBefore(ZonedDateTime expirationDate) {
+        return delegate.deleteUnresolvedErrorsBefore(expirationDate);
+    }
+
+    @Override
+    public int deleteResolvedErrorsBefore(ZonedDateTime expirationDate, int limit) {
+        return delegate.deleteResolvedErrorsBefore(expirationDate, limit);
+    }
+
+    @Override
+    public int deleteUnresolvedErrorsBefore(ZonedDateTime expirationDate, int limit) {
+        return delegate.deleteUnresolvedErrorsBefore(expirationDate, limit);
+    }
+
+    @Override
+    public int deleteUnusedStackTraces() {
+        return delegate.deleteUnusedStackTraces();
+    }
+
+    @Override
+    public int deleteUnusedStackTraces(int limit) {
+        return delegate.deleteUnusedStackTraces(limit);
+    }
+}
@@ -0,0 +1,320 @@
+package org.kiwiproject.dropwizard.error.dao;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static org.kiwiproject.base.KiwiPreconditions.requireNotNull;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.kiwiproject.dropwizard.error.model.ApplicationError;
+import org.kiwiproject.dropwizard.error.model.ApplicationErrorCursor;
+import org.kiwiproject.dropwizard.error.model.ApplicationErrorPage;
+import org.kiwiproject.dropwizard.error.model.ApplicationErrorSummary;
+import org.kiwiproject.dropwizard.error.model.ApplicationErrorSummaryPage;
+
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * An {@link ApplicationErrorDao} that records metrics for each call to the delegate DAO.
+ * <p>
+ * Each method is timed using a {@link Timer} named by {@link #timerName(String)}, and each call that throws is counted
+ * using a {@link Counter} named by {@link #failuresName(String)}, where the operation is the method name. Overloaded
+ * methods share their metrics. In addition, the number of errors inserted, the number of occurrences added to
+ * existing errors, and the number of errors inserted or incremented are recorded using the {@link Meter}s named by the
+ * constants in this class.
+ */
+public class InstrumentedApplicationErrorDao extends ForwardingApplicationErrorDao {
+
+    /**
+     * Name of the {@link Meter} that records the number of errors inserted using {@link #insertError(ApplicationError)}
+     * and {@link #insertErrors(List)}.
+     */
+    public static final String INSERTS_METRIC = name(InstrumentedApplicationErrorDao.class, "inserts");
+
+    /**
+     * Name of the {@link Meter} that records the number of occurrences added to existing errors using the
+     * {@code incrementCount} methods, {@link #incrementCountIfUnresolved(long)}, and
+     * {@link #incrementCountsIfUnresolved(Map)}.
+     */
+    public static final String INCREMENTS_METRIC = name(InstrumentedApplicationErrorDao.class, "increments");
+
+    /**
+     * Name of the {@link Meter} that records the number of errors written using
+     * {@link #insertOrIncrementCount(ApplicationError)} and {@link #insertOrIncrementCounts(Collection)}.
+     */
+    public static final String INSERTS_OR_INCREMENTS_METRIC =
+            name(InstrumentedApplicationErrorDao.class, "insertsOrIncrements");
+
+    private record OperationMetrics(Timer timer, Counter failures) {
+    }
+
+    private final MetricRegistry metrics;
+    private final ConcurrentMap<String, OperationMetrics> operationMetrics;
+    private final Meter inserts;
+    private final Meter increments;
+    private final Meter insertsOrIncrements;
+
+    /**
+     * Create a new instance.
+     *
+     * @param delegate the {@link ApplicationErrorDao} to record metrics for
+     * @param metrics  the registry in which to register metrics
+     */
+    public InstrumentedApplicationErrorDao(ApplicationErrorDao delegate, MetricRegistry metrics) {
+        super(delegate);
+        this.metrics = requireNotNull(metrics, "metrics must not be null");
+        this.operationMetrics = new ConcurrentHashMap<>();
+        this.inserts = metrics.meter(INSERTS_METRIC);
+        this.increments = metrics.meter(INCREMENTS_METRIC);
+        this.insertsOrIncrements = metrics.meter(INSERTS_OR_INCREMENTS_METRIC);
+    }
+
+    /**
+     * @param operation the name of an {@link ApplicationErrorDao} method, e.g. {@code insertOrIncrementCount}
+     * @return the name of the {@link Timer} for the operation
+     */
+    public static String timerName(String operation) {
+        return name(InstrumentedApplicationErrorDao.class, operation);
+    }
+
+    /**
+     * @param operation the name of an {@link ApplicationErrorDao} method, e.g. {@code insertOrIncrementCount}
+     * @return the name of the {@link Counter} of failed calls of the operation
+     */
+    public static String failuresName(String operation) {
+        return name(InstrumentedApplicationErrorDao.class, operation, "failures");
+    }
+
+    @Override
+    public Optional<ApplicationError> getById(long id) {
+        return time("getById", () -> delegate().getById(id));
+    }
+
+    @Override
+    public long count(ApplicationErrorStatus status) {
+        return time("count", () -> delegate().count(status));
+    }
+
+    @Override
+    public long countResolvedErrors() {
+        return time("countResolvedErrors", () -> delegate().countResolvedErrors());
+    }
+
+    @Override
+    public long countUnresolvedErrors() {
+        return time("countUnresolvedErrors", () -> delegate().countUnresolvedErrors());
+    }
+
+    @Override
+    public long countAllErrors() {
+        return time("countAllErrors", () -> delegate().countAllErrors());
+    }
+
+    @Override
+    public long countUnresolvedErrorsSince(ZonedDateTime since) {
+        return time("countUnresolvedErrorsSince", () -> delegate().countUnresolvedErrorsSince(since));
+    }
+
+    @Override
+    public long countUnresolvedErrorsOnHostSince(ZonedDateTime since, String hostName, String ipAddress) {
+        return time("countUnresolvedErrorsOnHostSince",
+                () -> delegate().countUnresolvedErrorsOnHostSince(since, hostName, ipAddress));
+    }
+
+    @Override
+    public List<ApplicationError> getAllErrors(int pageNumber, int pageSize) {
+        return time("getAllErrors", () -> delegate().getAllErrors(pageNumber, pageSize));
+    }
+
+    @Override
+    public List<ApplicationError> getErrors(ApplicationErrorStatus status, int pageNumber, int pageSize) {
+        return time("getErrors", () -> delegate().getErrors(status, pageNumber, pageSize));
+    }
+
+    @Override
+    public ApplicationErrorPage getErrorPage(ApplicationErrorStatus status, int pageNumber, int pageSize) {
+        return time("getErrorPage", () -> delegate().getErrorPage(status, pageNumber, pageSize));
+    }
+
+    @Override
+    public List<ApplicationError> getErrors(ApplicationErrorStatus status,
+                                            @Nullable ApplicationErrorCursor cursor,
+                                            int pageSize) {
+        return time("getErrors", () -> delegate().getErrors(status, cursor, pageSize));
+    }
+
+    @Override
+    public List<ApplicationErrorSummary> getErrorSummaries(ApplicationErrorStatus status,
+                                                           int pageNumber,
+                                                           int pageSize) {
+        return time("getErrorSummaries", () -> delegate().getErrorSummaries(status, pageNumber, pageSize));
+    }
+
+    @Override
+    public ApplicationErrorSummaryPage getErrorSummaryPage(ApplicationErrorStatus status,
+                                                           int pageNumber,
+                                                           int pageSize) {
+        return time("getErrorSummaryPage", () -> delegate().getErrorSummaryPage(status, pageNumber, pageSize));
+    }
+
+    @Override
+    public List<ApplicationErrorSummary> getErrorSummaries(ApplicationErrorStatus status,
+                                                           @Nullable ApplicationErrorCursor cursor,
+                                                           int pageSize) {
+        return time("getErrorSummaries", () -> delegate().getErrorSummaries(status, cursor, pageSize));
+    }
+
+    @Override
+    public List<ApplicationError> getUnresolvedErrorsByDescription(String description) {
+        return time("getUnresolvedErrorsByDescription",
+                () -> delegate().getUnresolvedErrorsByDescription(description));
+    }
+
+    @Override
+    public List<ApplicationError> getUnresolvedErrorsByDescriptionAndHost(String description, String hostName) {
+        return time("getUnresolvedErrorsByDescriptionAndHost",
+                () -> delegate().getUnresolvedErrorsByDescriptionAndHost(description, hostName));
+    }
+
+    @Override
+    public OptionalLong getUnresolvedErrorIdByFingerprint(String fingerprint) {
+        return time("getUnresolvedErrorIdByFingerprint",
+                () -> delegate().getUnresolvedErrorIdByFingerprint(fingerprint));
+    }
+
+    @Override
+    public long insertError(ApplicationError newError) {
+        var id = time("insertError", () -> delegate().insertError(newError));
+        inserts.mark();
+        return id;
+    }
+
+    @Override
+    public List<Long> insertErrors(List<ApplicationError> newErrors) {
+        var ids = time("insertErrors", () -> delegate().insertErrors(newErrors));
+        inserts.mark(ids.size());
+        return ids;
+    }
+
+    @Override
+    public void incrementCount(long id) {
+        run("incrementCount", () -> delegate().incrementCount(id));
+        increments.mark();
+    }
+
+    @Override
+    public void incrementCount(long id, int amount) {
+        run("incrementCount", () -> delegate().incrementCount(id, amount));
+        increments.mark(amount);
+    }
+
+    @Override
+    public void incrementCounts(Map<Long, Integer> amounts) {
+        run("incrementCounts", () -> delegate().incrementCounts(amounts));
+        increments.mark(amounts.values().stream().mapToLong(Integer::longValue).sum());
+    }
+
+    @Override
+    public long insertOrIncrementCount(ApplicationError error) {
+        var id = time("insertOrIncrementCount", () -> delegate().insertOrIncrementCount(error));
+        insertsOrIncrements.mark();
+        return id;
+    }
+
+    @Override
+    public List<Long> insertOrIncrementCounts(Collection<ApplicationError> errors) {
+        var ids = time("insertOrIncrementCounts", () -> delegate().insertOrIncrementCounts(errors));
+        insertsOrIncrements.mark(ids.size());
+        return ids;
+    }
+
+    @Override
+    public boolean incrementCountIfUnresolved(long id) {
+        var incremented = time("incrementCountIfUnresolved", () -> delegate().incrementCountIfUnresolved(id));
+        if (incremented) {
+            increments.mark();
+        }
+        return incremented;
+    }
+
+    @Override
+    public Set<Long> incrementCountsIfUnresolved(Map<Long, Integer> amounts) {
+        var incrementedIds = time("incrementCountsIfUnresolved", () -> delegate().incrementCountsIfUnresolved(amounts));
+        increments.mark(incrementedIds.stream().mapToLong(id -> amounts.get(id).longValue()).sum());
+        return incrementedIds;
+    }
+
+    @Override
+    public ApplicationError resolve(long id) {
+        return time("resolve", () -> delegate().resolve(id));
+    }
+
+    @Override
+    public int resolveAllUnresolvedErrors() {
+        return time("resolveAllUnresolvedErrors", () -> delegate().resolveAllUnresolvedErrors());
+    }
+
+    @Override
+    public int deleteResolvedErrorsBefore(ZonedDateTime expirationDate) {
+        return time("deleteResolvedErrorsBefore", () -> delegate().deleteResolvedErrorsBefore(expirationDate));
+    }
+
+    @Override
+    public int deleteUnresolvedErrorsBefore(ZonedDateTime expirationDate) {
+        return time("deleteUnresolvedErrorsBefore", () -> delegate().deleteUnresolvedErrorsBefore(expirationDate));
+    }
+
+    @Override
+    public int deleteResolvedErrorsBefore(ZonedDateTime expirationDate, int limit) {
+        return time("deleteResolvedErrorsBefore",
+                () -> delegate().deleteResolvedErrorsBefore(expirationDate, limit));
+    }
+
+    @Override
+    public int deleteUnresolvedErrorsBefore(ZonedDateTime expirationDate, int limit) {
+        return time("deleteUnresolvedErrorsBefore",
+                () -> delegate().deleteUnresolvedErrorsBefore(expirationDate, limit));
+    }
+
+    @Override
+    public int deleteUnusedStackTraces() {
+        return time("deleteUnusedStackTraces", () -> delegate().deleteUnusedStackTraces());
+    }
+
+    @Override
+    public int deleteUnusedStackTraces(int limit) {
+        return time("deleteUnusedStackTraces", () -> delegate().deleteUnusedStackTraces(limit));
+    }
+
+    private <T> T time(String operation, Supplier<T> call) {
+        var opMetrics = operationMetrics.computeIfAbsent(operation, this::newOperationMetrics);
+        try (var ignored = opMetrics.timer().time()) {
+            return call.get();
+        } catch (RuntimeException e) {
+            opMetrics.failures().inc();
+            throw e;
+        }
+    }
+
+    private void run(String operation, Runnable call) {
+        time(operation, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    private OperationMetrics newOperationMetrics(String operation) {
+        return new OperationMetrics(metrics.timer(timerName(operation)), metrics.counter(failuresName(operation)));
+    }
+}
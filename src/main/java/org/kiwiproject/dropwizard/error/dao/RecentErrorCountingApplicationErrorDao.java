@@ -0,0 +1,147 @@
+package org.kiwiproject.dropwizard.error.dao;
+
+import static java.util.Objects.nonNull;
+import static org.kiwiproject.base.KiwiPreconditions.requireNotNull;
+
+import org.kiwiproject.dropwizard.error.health.SlidingWindowErrorCounter;
+import org.kiwiproject.dropwizard.error.model.ApplicationError;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An {@link ApplicationErrorDao} that records each unresolved error written through it in a
+ * {@link SlidingWindowErrorCounter}, so that recent errors can be counted without querying the delegate DAO.
+ * <p>
+ * Each error is counted once, no matter how many times it occurs, which is the same unit that the errors data store
+ * counts. Errors are identified by ID, or by fingerprint when the ID is not yet known because the delegate writes
+ * errors later and returns {@link ApplicationErrorDao#PENDING_ID PENDING_ID}.
+ * <p>
+ * Resolving a single error removes it from the counter, and resolving all errors resets the counter. Errors written
+ * by other processes, e.g. other service instances using a shared data store, are not counted; use
+ * {@link SlidingWindowErrorCounter#reconcile(long)} to correct the counter in that case.
+ */
+public class RecentErrorCountingApplicationErrorDao extends ForwardingApplicationErrorDao {
+
+    private final SlidingWindowErrorCounter counter;
+
+    /**
+     * Create a new instance.
+     *
+     * @param delegate the {@link ApplicationErrorDao} that errors are written to
+     * @param counter  the counter to record errors in
+     */
+    public RecentErrorCountingApplicationErrorDao(ApplicationErrorDao delegate, SlidingWindowErrorCounter counter) {
+        super(delegate);
+        this.counter = requireNotNull(counter, "counter must not be null");
+    }
+
+    /**
+     * @return the counter in which errors are recorded
+     */
+    public SlidingWindowErrorCounter getCounter() {
+        return counter;
+    }
+
+    @Override
+    public long insertError(ApplicationError newError) {
+        var id = delegate().insertError(newError);
+        record(id, newError);
+        return id;
+    }
+
+    @Override
+    public List<Long> insertErrors(List<ApplicationError> newErrors) {
+        var ids = delegate().insertErrors(newErrors);
+        record(ids, newErrors);
+        return ids;
+    }
+
+    @Override
+    public long insertOrIncrementCount(ApplicationError error) {
+        var id = delegate().insertOrIncrementCount(error);
+        record(id, error);
+        return id;
+    }
+
+    @Override
+    public List<Long> insertOrIncrementCounts(Collection<ApplicationError> errors) {
+        var ids = delegate().insertOrIncrementCounts(errors);
+        record(ids, errors);
+        return ids;
+    }
+
+    @Override
+    public void incrementCount(long id) {
+        delegate().incrementCount(id);
+        counter.record(idKey(id));
+    }
+
+    @Override
+    public void incrementCount(long id, int amount) {
+        delegate().incrementCount(id, amount);
+        counter.record(idKey(id));
+    }
+
+    @Override
+    public void incrementCounts(Map<Long, Integer> amounts) {
+        delegate().incrementCounts(amounts);
+        amounts.keySet().forEach(id -> counter.record(idKey(id)));
+    }
+
+    @Override
+    public Set<Long> incrementCountsIfUnresolved(Map<Long, Integer> amounts) {
+        var incrementedIds = delegate().incrementCountsIfUnresolved(amounts);
+        incrementedIds.forEach(id -> counter.record(idKey(id)));
+        return incrementedIds;
+    }
+
+    private void record(List<Long> ids, Collection<ApplicationError> errors) {
+        var idIterator = ids.iterator();
+        for (var error : errors) {
+            if (!idIterator.hasNext()) {
+                return;
+            }
+            record(idIterator.next(), error);
+        }
+    }
+
+    private void record(long id, ApplicationError error) {
+        // The data store counts only unresolved errors
+        if (error.isResolved()) {
+            return;
+        }
+
+        var idIsPending = id == PENDING_ID;
+        counter.record(idIsPending ? fingerprintKey(error.getFingerprint()) : idKey(id));
+    }
+
+    @Override
+    public ApplicationError resolve(long id) {
+        var resolvedError = delegate().resolve(id);
+        counter.remove(idKey(id));
+
+        // The error may have been recorded by fingerprint if its ID was pending when it was written
+        if (nonNull(resolvedError)) {
+            counter.remove(fingerprintKey(resolvedError.getFingerprint()));
+        }
+        return resolvedError;
+    }
+
+    @Override
+    public int resolveAllUnresolvedErrors() {
+        var count = delegate().resolveAllUnresolvedErrors();
+        counter.reset();
+        return count;
+    }
+
+    private static String idKey(long id) {
+        return "id:" + id;
+    }
+
+    private static String fingerprintKey(String fingerprint) {
+        return "fingerprint:" + fingerprint;
+    }
+}
@@ -0,0 +1,232 @@
+package org.kiwiproject.dropwizard.error.dao;
+
+import static org.kiwiproject.base.KiwiPreconditions.checkArgumentNotNull;
+import static org.kiwiproject.base.KiwiPreconditions.requireNotNull;
+import static org.kiwiproject.dropwizard.error.dao.DataStoreFailures.isDataStoreFailure;
+import static org.kiwiproject.validation.KiwiValidations.checkArgumentValid;
+
+import io.dropwizard.lifecycle.Managed;
+import lombok.extern.slf4j.Slf4j;
+import org.kiwiproject.dropwizard.error.config.SpoolConfig;
+import org.kiwiproject.dropwizard.error.dao.jdk.ApplicationErrorSpool;
+import org.kiwiproject.dropwizard.error.dao.jdk.ApplicationErrorSpool.SpooledError;
+import org.kiwiproject.dropwizard.error.model.ApplicationError;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An {@link ApplicationErrorDao} that saves errors to a local {@link ApplicationErrorSpool} when
+ * {@link #insertOrIncrementCount(ApplicationError)} or {@link #insertOrIncrementCounts(Collection)} fails because the
+ * data store cannot be accessed, and later replays them to the delegate DAO. Which failures those are is decided by
+ * {@link DataStoreFailures#isDataStoreFailure(Throwable)}; other failures, such as an error rejected by the data
+ * store, are thrown as usual.
+ * <p>
+ * While the spool contains errors, new errors are appended to it without first trying the delegate. This keeps the
+ * errors in order and, when the data store is unreachable, avoids waiting for a connection timeout for each error.
+ * Spooled errors are replayed by {@link #replaySpooledErrors()}, which is expected to be called periodically, e.g. by
+ * a scheduled executor. Replay is at-least-once: an error may be written twice if the application stops after it
+ * is written but before it is removed from the spool, or if a batch write fails after writing some of its errors.
+ * Spooled errors keep the time they occurred, which the data store uses as their creation time.
+ * <p>
+ * Since the actual ID of a spooled error is not known until it is replayed, the insert methods return
+ * {@link ApplicationErrorDao#PENDING_ID PENDING_ID} for spooled errors. If the spool is full, the error
+ * is rejected with an {@link IllegalStateException}. All other methods are performed by the delegate.
+ * <p>
+ * This class is a Dropwizard {@link Managed} object. {@link #stop()} closes the spool; errors still in the spool are
+ * replayed after the application next starts, and after stopping, errors are written directly to the delegate.
+ */
+@Slf4j
+public class SpoolingApplicationErrorDao extends ForwardingApplicationErrorDao implements Managed {
+
+    /**
+     * The result of replaying one batch of spooled errors. When not complete, replaying should stop until later.
+     */
+    private record BatchResult(int replayedCount, boolean complete) {
+    }
+
+    private final ApplicationErrorSpool spool;
+    private final int replayBatchSize;
+    private volatile boolean stopped;
+
+    /**
+     * Create a new instance, opening (or creating) the spool file.
+     *
+     * @param delegate the {@link ApplicationErrorDao} that errors are ultimately written to
+     * @param config   the spool configuration
+     */
+    public SpoolingApplicationErrorDao(ApplicationErrorDao delegate, SpoolConfig config) {
+        this(delegate, newSpool(config), config.getReplayBatchSize());
+    }
+
+    /**
+     * Create a new instance using an existing spool.
+     *
+     * @param delegate        the {@link ApplicationErrorDao} that errors are ultimately written to
+     * @param spool           the spool in which to save errors that cannot be written to the delegate
+     * @param replayBatchSize the maximum number of spooled errors to read at a time when replaying
+     */
+    public SpoolingApplicationErrorDao(ApplicationErrorDao delegate, ApplicationErrorSpool spool, int replayBatchSize) {
+        super(delegate);
+        this.spool = requireNotNull(spool, "spool must not be null");
+        this.replayBatchSize = replayBatchSize;
+    }
+
+    private static ApplicationErrorSpool newSpool(SpoolConfig config) {
+        checkArgumentNotNull(config, "config must not be null");
+        checkArgumentValid(config);
+
+        return new ApplicationErrorSpool(Path.of(config.getPath()), config.getMaxSize().toBytes(),
+                config.isSyncOnWrite());
+    }
+
+    /**
+     * Writes the error to the delegate, or spools it if the spool already contains errors or the data store cannot
+     * be accessed.
+     *
+     * @param error the ApplicationError to insert or update
+     * @return the ID of the new or existing application error, or {@link ApplicationErrorDao#PENDING_ID}
+     * if the error was spooled
+     * @throws IllegalStateException if the error could not be written and the spool is full
+     */
+    @Override
+    public long insertOrIncrementCount(ApplicationError error) {
+        checkArgumentNotNull(error, "error must not be null");
+
+        if (stopped) {
+            return delegate().insertOrIncrementCount(error);
+        }
+
+        if (!spool.isEmpty()) {
+            spool.append(error);
+            return PENDING_ID;
+        }
+
+        try {
+            return delegate().insertOrIncrementCount(error);
+        } catch (RuntimeException e) {
+            if (!isDataStoreFailure(e)) {
+                throw e;
+            }
+
+            LOG.warn("Unable to save ApplicationError; spooling it to {} to replay later", spool.getPath(), e);
+            spool.append(error);
+            return PENDING_ID;
+        }
+    }
+
+    /**
+     * Writes the errors to the delegate, or spools all of them if the spool already contains errors or the data store
+     * cannot be accessed.
+     *
+     * @param errors the ApplicationErrors to insert or update
+     * @return the IDs of the new or existing application errors, or {@link ApplicationErrorDao#PENDING_ID}
+     * for each error if the errors were spooled
+     * @throws IllegalStateException if the errors could not be written and the spool is full
+     */
+    @Override
+    public List<Long> insertOrIncrementCounts(Collection<ApplicationError> errors) {
+        checkArgumentNotNull(errors, "errors must not be null");
+
+        if (stopped || errors.isEmpty()) {
+            return delegate().insertOrIncrementCounts(errors);
+        }
+
+        if (!spool.isEmpty()) {
+            return spoolAll(errors);
+        }
+
+        try {
+            return delegate().insertOrIncrementCounts(errors);
+        } catch (RuntimeException e) {
+            if (!isDataStoreFailure(e)) {
+                throw e;
+            }
+
+            LOG.warn("Unable to save {} ApplicationErrors; spooling them to {} to replay later",
+                    errors.size(), spool.getPath(), e);
+            return spoolAll(errors);
+        }
+    }
+
+    private List<Long> spoolAll(Collection<ApplicationError> errors) {
+        spool.appendAll(errors);
+        return Collections.nCopies(errors.size(), PENDING_ID);
+    }
+
+    /**
+     * Writes spooled errors to the delegate, oldest first, removing each from the spool once it is written.
+     * <p>
+     * Stops when the spool is empty, or at the first error that cannot be written because the data store cannot be
+     * accessed, which is kept along with the errors after it to retry later. An error that cannot be written for any
+     * other reason, e.g. because the data store rejects it, would fail the same way when retried, so it is discarded
+     * and logged.
+     *
+     * @return the number of errors replayed
+     */
+    public synchronized int replaySpooledErrors() {
+        var replayedCount = 0;
+
+        try {
+            List<SpooledError> batch;
+            while (!stopped && !(batch = spool.peek(replayBatchSize)).isEmpty()) {
+                var result = replay(batch);
+                replayedCount += result.replayedCount();
+                if (!result.complete()) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            LOG.error("Error replaying spooled ApplicationErrors", e);
+        }
+
+        if (replayedCount > 0) {
+            LOG.info("Replayed {} spooled ApplicationErrors; {} remain spooled", replayedCount, spool.size());
+        }
+
+        return replayedCount;
+    }
+
+    private BatchResult replay(List<SpooledError> batch) {
+        var replayedCount = 0;
+
+        for (var spooled : batch) {
+            try {
+                delegate().insertOrIncrementCount(spooled.error());
+                ++replayedCount;
+            } catch (RuntimeException e) {
+                if (isDataStoreFailure(e)) {
+                    LOG.warn("Unable to replay spooled ApplicationErrors; will retry later", e);
+                    return new BatchResult(replayedCount, false);
+                }
+
+                LOG.error("Discarding spooled ApplicationError that could not be replayed: {}",
+                        spooled.error().getDescription(), e);
+            }
+
+            spool.discardThrough(spooled.endOffset());
+        }
+
+        return new BatchResult(replayedCount, true);
+    }
+
+    /**
+     * @return the number of errors waiting to be replayed
+     */
+    public int getSpooledErrorCount() {
+        return spool.size();
+    }
+
+    @Override
+    public void stop() {
+        stopped = true;
+
+        // Wait for any replay in progress to finish before closing the spool
+        synchronized (this) {
+            LOG.info("Closing application error spool {} containing {} errors", spool.getPath(), spool.size());
+            spool.close();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package org.kiwiproject.dropwizard.error.dao;
+
+/**
+ * How the JDBC and JDBI 3 DAOs store new stack traces in the {@code application_error_stack_traces} table.
+ * <p>
+ * Stack traces stored either way can always be read, so this can be changed at any time.
+ */
+public enum StackTraceCompression {
+
+    /**
+     * Stores stack traces as text, in the {@code stack_trace} column.
+     */
+    NONE,
+
+    /**
+     * Stores stack traces compressed using DEFLATE, in the {@code compressed_stack_trace} column. Stack traces are
+     * highly repetitive, so they typically compress to a small fraction of their size.
+     *
+     * @see ApplicationErrorJdbc#compressStackTrace(String)
+     */
+    DEFLATE
+}
@@ -0,0 +1,209 @@
+package org.kiwiproject.dropwizard.error.dao;
+
+import static org.kiwiproject.base.KiwiPreconditions.checkArgumentNotNull;
+import static org.kiwiproject.base.KiwiStrings.f;
+import static org.kiwiproject.collect.KiwiLists.first;
+import static org.kiwiproject.validation.KiwiValidations.checkArgumentValid;
+
+import io.dropwizard.lifecycle.Managed;
+import lombok.extern.slf4j.Slf4j;
+import org.kiwiproject.dropwizard.error.config.AsyncWriteConfig;
+import org.kiwiproject.dropwizard.error.model.ApplicationError;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * An {@link ApplicationErrorDao} that performs {@link #insertOrIncrementCount(ApplicationError)} asynchronously.
+ * Errors are placed on a bounded queue and written to the delegate DAO by a single background writer thread, so
+ * that the thread reporting the error never waits on the data store. The writer thread writes all errors that are
+ * queued, up to the configured maximum batch size, using a single
+ * {@link ApplicationErrorDao#insertOrIncrementCounts(java.util.Collection) insertOrIncrementCounts} call. If
+ * writing a batch fails, each of its errors is written separately, so that an error that cannot be written does not
+ * cause the others to be lost. Errors of the batch that were written before the failure may then be counted twice.
+ * <p>
+ * Because the write happens later, {@link #insertOrIncrementCount(ApplicationError)} returns {@link #PENDING_ID}
+ * instead of the actual error ID. If the queue is full, the error is rejected with an {@link IllegalStateException}
+ * (which {@link org.kiwiproject.dropwizard.error.ApplicationErrors ApplicationErrors} logs and converts into an
+ * empty {@link java.util.OptionalLong OptionalLong}). All other methods are performed synchronously.
+ * <p>
+ * This class is a Dropwizard {@link Managed} object. The writer thread is started in {@link #start()}; errors
+ * received before then are queued and written once it starts. {@link #stop()} flushes all queued errors, and after
+ * that, errors are written synchronously to the delegate.
+ */
+@Slf4j
+public class WriteBehindApplicationErrorDao extends ForwardingApplicationErrorDao implements Managed {
+
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+
+    private enum State {
+        NEW, RUNNING, STOPPED
+    }
+
+    private final BlockingQueue<ApplicationError> queue;
+    private final int queueCapacity;
+    private final int maxBatchSize;
+    private final String writerThreadName;
+    private final Duration shutdownTimeout;
+    private final AtomicReference<State> state;
+    private Thread writerThread;
+
+    /**
+     * Create a new instance with the default {@link AsyncWriteConfig}.
+     *
+     * @param delegate the {@link ApplicationErrorDao} that errors are ultimately written to
+     */
+    public WriteBehindApplicationErrorDao(ApplicationErrorDao delegate) {
+        this(delegate, new AsyncWriteConfig());
+    }
+
+    /**
+     * Create a new instance.
+     *
+     * @param delegate the {@link ApplicationErrorDao} that errors are ultimately written to
+     * @param config   the asynchronous write configuration
+     */
+    public WriteBehindApplicationErrorDao(ApplicationErrorDao delegate, AsyncWriteConfig config) {
+        super(delegate);
+        checkArgumentNotNull(config, "config must not be null");
+        checkArgumentValid(config);
+
+        this.queueCapacity = config.getQueueCapacity();
+        this.maxBatchSize = config.getMaxBatchSize();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.writerThreadName = config.getWriterThreadName();
+        this.shutdownTimeout = config.getShutdownTimeout().toJavaDuration();
+        this.state = new AtomicReference<>(State.NEW);
+    }
+
+    /**
+     * Queues the error to be inserted (or have its count incremented) by the background writer thread.
+     *
+     * @param error the ApplicationError to insert or update
+     * @return {@link #PENDING_ID} if the error was queued, or the actual ID if this instance has been stopped
+     * and the error was therefore written synchronously
+     * @throws IllegalStateException if the queue is full
+     */
+    @Override
+    public long insertOrIncrementCount(ApplicationError error) {
+        checkArgumentNotNull(error, "error must not be null");
+
+        if (state.get() == State.STOPPED) {
+            return delegate().insertOrIncrementCount(error);
+        }
+
+        if (!queue.offer(error)) {
+            throw new IllegalStateException(
+                    f("ApplicationError queue is full (capacity: {}); unable to queue error", queueCapacity));
+        }
+
+        // Handle the race where stop() drained the queue between the state check and the offer
+        if (state.get() == State.STOPPED && queue.remove(error)) {
+            return delegate().insertOrIncrementCount(error);
+        }
+
+        return PENDING_ID;
+    }
+
+    /**
+     * @return the number of errors waiting to be written
+     */
+    public int getQueuedErrorCount() {
+        return queue.size();
+    }
+
+    @Override
+    public synchronized void start() {
+        if (!state.compareAndSet(State.NEW, State.RUNNING)) {
+            LOG.warn("Ignoring start request; writer has state {}", state.get());
+            return;
+        }
+
+        writerThread = new Thread(this::writeQueuedErrors, writerThreadName);
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @Override
+    public synchronized void stop() throws InterruptedException {
+        var previousState = state.getAndSet(State.STOPPED);
+        if (previousState == State.RUNNING) {
+            writerThread.join(shutdownTimeout.toMillis());
+
+            if (writerThread.isAlive()) {
+                LOG.warn("Writer thread did not finish within {}; interrupting it", shutdownTimeout);
+                writerThread.interrupt();
+                writerThread.join(shutdownTimeout.toMillis());
+            }
+
+            // Don't write on this thread while the writer thread might still be writing
+            if (writerThread.isAlive()) {
+                LOG.warn("Writer thread did not exit after being interrupted; leaving {} queued errors to it",
+                        queue.size());
+                return;
+            }
+        }
+
+        drainQueue();
+    }
+
+    private void writeQueuedErrors() {
+        LOG.info("Starting ApplicationError writer thread");
+
+        while (state.get() == State.RUNNING) {
+            try {
+                var error = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (error != null) {
+                    var batch = new ArrayList<ApplicationError>(maxBatchSize);
+                    batch.add(error);
+                    queue.drainTo(batch, maxBatchSize - 1);
+                    write(batch);
+                }
+            } catch (InterruptedException e) {
+                LOG.warn("ApplicationError writer thread was interrupted; exiting");
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+
+        drainQueue();
+        LOG.info("ApplicationError writer thread has finished");
+    }
+
+    private void drainQueue() {
+        var batch = new ArrayList<ApplicationError>(maxBatchSize);
+        while (queue.drainTo(batch, maxBatchSize) > 0) {
+            write(batch);
+            batch = new ArrayList<>(maxBatchSize);
+        }
+    }
+
+    private void write(List<ApplicationError> errors) {
+        try {
+            delegate().insertOrIncrementCounts(errors);
+        } catch (Exception e) {
+            if (errors.size() == 1) {
+                LOG.error("Error writing queued ApplicationError with description: {}",
+                        first(errors).getDescription(), e);
+                return;
+            }
+
+            LOG.warn("Error writing batch of {} queued ApplicationErrors; writing them one at a time",
+                    errors.size(), e);
+            errors.forEach(this::writeOne);
+        }
+    }
+
+    private void writeOne(ApplicationError error) {
+        try {
+            delegate().insertOrIncrementCount(error);
+        } catch (Exception e) {
+            LOG.error("Error writing queued ApplicationError with description: {}", error.getDescription(), e);
+        }
+    }
+}
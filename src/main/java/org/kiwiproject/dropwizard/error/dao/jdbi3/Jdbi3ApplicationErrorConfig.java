@@ -0,0 +1,77 @@
+package org.kiwiproject.dropwizard.error.dao.jdbi3;
+
+import static java.util.Objects.isNull;
+import static org.kiwiproject.base.KiwiPreconditions.requireNotNull;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.jdbi.v3.core.config.JdbiConfig;
+import org.kiwiproject.dropwizard.error.dao.ApplicationErrorJdbc;
+import org.kiwiproject.dropwizard.error.dao.ApplicationErrorJdbc.UpsertDialect;
+import org.kiwiproject.dropwizard.error.dao.StackTraceCompression;
+
+import java.sql.Connection;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * JDBI configuration for {@link Jdbi3ApplicationErrorDao}, for example:
+ * <pre>
+ * jdbi.getConfig(Jdbi3ApplicationErrorConfig.class).setStackTraceCompression(StackTraceCompression.DEFLATE);
+ * </pre>
+ */
+@Getter
+public class Jdbi3ApplicationErrorConfig implements JdbiConfig<Jdbi3ApplicationErrorConfig> {
+
+    /**
+     * How to store new stack traces. Defaults to {@link StackTraceCompression#NONE}.
+     */
+    private StackTraceCompression stackTraceCompression = StackTraceCompression.NONE;
+
+    /**
+     * The upsert dialect of the database, determined on first use. Copies share it, so that it is determined only
+     * once for a {@link org.jdbi.v3.core.Jdbi Jdbi} instance instead of once per handle.
+     */
+    @Getter(AccessLevel.NONE)
+    private final AtomicReference<UpsertDialect> upsertDialect;
+
+    public Jdbi3ApplicationErrorConfig() {
+        // required by JDBI
+        this.upsertDialect = new AtomicReference<>();
+    }
+
+    private Jdbi3ApplicationErrorConfig(Jdbi3ApplicationErrorConfig other) {
+        this.stackTraceCompression = other.stackTraceCompression;
+        this.upsertDialect = other.upsertDialect;
+    }
+
+    /**
+     * Set how to store new stack traces.
+     *
+     * @param stackTraceCompression the compression to use
+     * @return this config
+     */
+    public Jdbi3ApplicationErrorConfig setStackTraceCompression(StackTraceCompression stackTraceCompression) {
+        this.stackTraceCompression = requireNotNull(stackTraceCompression, "stackTraceCompression must not be null");
+        return this;
+    }
+
+    /**
+     * Get the upsert dialect of the database, determining it using the given connection the first time.
+     *
+     * @param conn the database connection; it is NOT closed by this method!
+     * @return the dialect
+     */
+    UpsertDialect upsertDialect(Connection conn) {
+        var dialect = upsertDialect.get();
+        if (isNull(dialect)) {
+            dialect = ApplicationErrorJdbc.upsertDialectOf(conn);
+            upsertDialect.set(dialect);
+        }
+        return dialect;
+    }
+
+    @Override
+    public Jdbi3ApplicationErrorConfig createCopy() {
+        return new Jdbi3ApplicationErrorConfig(this);
+    }
+}
@@ -1,33 +1,65 @@
 package org.kiwiproject.dropwizard.error.dao.jdbi3;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.isNull;
+import static java.util.stream.Collectors.toUnmodifiableSet;
 import static org.kiwiproject.base.KiwiPreconditions.checkArgumentIsNull;
+import static org.kiwiproject.base.KiwiPreconditions.checkArgumentNotNull;
 import static org.kiwiproject.collect.KiwiLists.first;
+import static org.kiwiproject.dropwizard.error.dao.ApplicationErrorDao.checkAllIncremented;
+import static org.kiwiproject.dropwizard.error.dao.ApplicationErrorDao.checkIncrementAmounts;
+import static org.kiwiproject.dropwizard.error.dao.ApplicationErrorDao.checkPageSize;
 import static org.kiwiproject.dropwizard.error.dao.ApplicationErrorDao.checkPagingArgumentsAndCalculateZeroBasedOffset;
-
+import static org.kiwiproject.dropwizard.error.dao.ApplicationErrorJdbc.UNUSED_STACK_TRACE_GRACE_PERIOD;
+import static org.kiwiproject.dropwizard.error.dao.ApplicationErrorJdbc.unresolvedKeyOf;
+import static org.kiwiproject.dropwizard.error.dao.jdbi3.Jdbi3ApplicationErrorSql.errorPageQuery;
+import static org.kiwiproject.dropwizard.error.dao.jdbi3.Jdbi3ApplicationErrorSql.keysetWhereClause;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.jdbi.v3.core.statement.UnableToExecuteStatementException;
+import org.jdbi.v3.sqlobject.SqlObject;
 import org.jdbi.v3.sqlobject.config.RegisterRowMapper;
+import org.jdbi.v3.sqlobject.customizer.AllowUnusedBindings;
 import org.jdbi.v3.sqlobject.customizer.Bind;
 import org.jdbi.v3.sqlobject.customizer.BindBean;
+import org.jdbi.v3.sqlobject.customizer.Define;
 import org.jdbi.v3.sqlobject.statement.GetGeneratedKeys;
+import org.jdbi.v3.sqlobject.statement.SqlBatch;
 import org.jdbi.v3.sqlobject.statement.SqlQuery;
 import org.jdbi.v3.sqlobject.statement.SqlUpdate;
 import org.kiwiproject.dropwizard.error.dao.ApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.dao.ApplicationErrorJdbc;
+import org.kiwiproject.dropwizard.error.dao.ApplicationErrorJdbc.UpsertDialect;
 import org.kiwiproject.dropwizard.error.dao.ApplicationErrorStatus;
+import org.kiwiproject.dropwizard.error.dao.StackTraceCompression;
 import org.kiwiproject.dropwizard.error.model.ApplicationError;
+import org.kiwiproject.dropwizard.error.model.ApplicationErrorCursor;
+import org.kiwiproject.dropwizard.error.model.ApplicationErrorPage;
+import org.kiwiproject.dropwizard.error.model.ApplicationErrorSummary;
+import org.kiwiproject.dropwizard.error.model.ApplicationErrorSummaryPage;
 
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.stream.IntStream;
 
 /**
  * Implementation of {@link ApplicationErrorDao} that uses JDBI 3.
  */
 @SuppressWarnings({"SqlDialectInspection", "SqlNoDataSourceInspection"})
-public interface Jdbi3ApplicationErrorDao extends ApplicationErrorDao {
+public interface Jdbi3ApplicationErrorDao extends ApplicationErrorDao, SqlObject {
 
     @Override
-    @SqlQuery("select * from application_errors where id = :id")
+    @SqlQuery(ApplicationErrorJdbc.SELECT_ERRORS_SQL + " where e.id = :id")
     @RegisterRowMapper(Jdbi3ApplicationErrorRowMapper.class)
     Optional<ApplicationError> getById(@Bind("id") long id);
 
@@ -83,7 +115,7 @@ public interface Jdbi3ApplicationErrorDao extends ApplicationErrorDao {
      * <p>
      * The SQL 2008 standard way to do this would be: OFFSET {@code offset} ROWS FETCH FIRST {@code limit} ROWS ONLY
      */
-    @SqlQuery("select * from application_errors order by updated_at desc limit :pageSize offset :offset")
+    @SqlQuery(ApplicationErrorJdbc.SELECT_ERRORS_SQL + " order by updated_at desc limit :pageSize offset :offset")
     @RegisterRowMapper(Jdbi3ApplicationErrorRowMapper.class)
     List<ApplicationError> getAllErrorsInternal(@Bind("pageSize") int pageSize, @Bind("offset") int offset);
 
@@ -96,52 +128,324 @@ public interface Jdbi3ApplicationErrorDao extends ApplicationErrorDao {
      * note on {@link #getAllErrorsInternal(int, int)}.
      * @see #getAllErrorsInternal(int, int)
      */
-    @SqlQuery("select * from application_errors" +
+    @SqlQuery(ApplicationErrorJdbc.SELECT_ERRORS_SQL +
             " where resolved = :resolved order by updated_at desc limit :pageSize offset :offset")
     @RegisterRowMapper(Jdbi3ApplicationErrorRowMapper.class)
     List<ApplicationError> getErrorsInternal(@Bind("resolved") boolean resolved,
                                              @Bind("pageSize") int pageSize,
                                              @Bind("offset") int offset);
 
+    /**
+     * {@inheritDoc}
+     *
+     * @implNote Gets the page and the total count in a single query using a {@code count(*) over ()} window
+     * function. Only when the requested page is past the last page (so that there are no rows from which to read the
+     * total count) does this make a second query to count the errors.
+     */
+    @Override
+    default ApplicationErrorPage getErrorPage(ApplicationErrorStatus status, int pageNumber, int pageSize) {
+        var page = errorPageQuery(getHandle(), ApplicationErrorJdbc.ALL_COLUMNS, status, pageNumber, pageSize)
+                .scanResultSet((resultSetSupplier, ctx) ->
+                        ApplicationErrorJdbc.mapPageFrom(resultSetSupplier.get(), pageNumber, pageSize));
+
+        if (page.getItems().isEmpty()) {
+            return ApplicationErrorPage.of(page.getItems(), count(status), pageNumber, pageSize);
+        }
+        return page;
+    }
+
     @Override
-    @SqlQuery("select * from application_errors" +
+    default List<ApplicationError> getErrors(ApplicationErrorStatus status,
+                                             @Nullable ApplicationErrorCursor cursor,
+                                             int pageSize) {
+        checkNotNull(status, "status cannot be null");
+        checkPageSize(pageSize);
+
+        return getErrorsAfterCursorInternal(keysetWhereClause(status, cursor),
+                status == ApplicationErrorStatus.RESOLVED,
+                isNull(cursor) ? null : cursor.getUpdatedAt(),
+                isNull(cursor) ? 0 : cursor.getId(),
+                pageSize);
+    }
+
+    /**
+     * @param whereClause     the where clause, which may be empty and may reference the other parameters
+     * @param resolved        whether to find resolved or unresolved application errors, if the where clause uses it
+     * @param cursorUpdatedAt the updatedAt of the cursor, if the where clause uses it
+     * @param cursorId        the ID of the cursor, if the where clause uses it
+     * @param pageSize        the number of errors on a page
+     * @return a list of ApplicationError
+     * @see #getErrors(ApplicationErrorStatus, ApplicationErrorCursor, int)
+     */
+    @SqlQuery(ApplicationErrorJdbc.SELECT_ERRORS_SQL +
+            " <whereClause> order by updated_at desc, id desc limit :pageSize")
+    @RegisterRowMapper(Jdbi3ApplicationErrorRowMapper.class)
+    @AllowUnusedBindings
+    List<ApplicationError> getErrorsAfterCursorInternal(@Define("whereClause") String whereClause,
+                                                        @Bind("resolved") boolean resolved,
+                                                        @Bind("cursorUpdatedAt") ZonedDateTime cursorUpdatedAt,
+                                                        @Bind("cursorId") long cursorId,
+                                                        @Bind("pageSize") int pageSize);
+
+    /**
+     * {@inheritDoc}
+     *
+     * @implNote Selects all columns except {@code stack_trace}.
+     */
+    @Override
+    default List<ApplicationErrorSummary> getErrorSummaries(ApplicationErrorStatus status,
+                                                            int pageNumber,
+                                                            int pageSize) {
+        checkNotNull(status, "status cannot be null");
+
+        int offset = checkPagingArgumentsAndCalculateZeroBasedOffset(pageNumber, pageSize);
+
+        return switch (status) {
+            case ALL -> getAllErrorSummariesInternal(pageSize, offset);
+            case RESOLVED -> getErrorSummariesInternal(true, pageSize, offset);
+            case UNRESOLVED -> getErrorSummariesInternal(false, pageSize, offset);
+        };
+    }
+
+    /**
+     * @param pageSize the number of errors on a page
+     * @param offset   the starting offset (zero-based)
+     * @return a list of ApplicationErrorSummary
+     * @implNote The LIMIT and OFFSET fields must be in this order. For further information, read the implementation
+     * note on {@link #getAllErrorsInternal(int, int)}.
+     */
+    @SqlQuery("select " + ApplicationErrorJdbc.SUMMARY_COLUMNS + " from application_errors" +
+            " order by updated_at desc limit :pageSize offset :offset")
+    @RegisterRowMapper(Jdbi3ApplicationErrorSummaryRowMapper.class)
+    List<ApplicationErrorSummary> getAllErrorSummariesInternal(@Bind("pageSize") int pageSize,
+                                                               @Bind("offset") int offset);
+
+    /**
+     * @param resolved whether to find resolved or unresolved application errors
+     * @param pageSize the number of errors on a page
+     * @param offset   the starting offset (zero-based)
+     * @return a list of ApplicationErrorSummary
+     * @implNote The LIMIT and OFFSET fields must be in this order. For further information, read the implementation
+     * note on {@link #getAllErrorsInternal(int, int)}.
+     */
+    @SqlQuery("select " + ApplicationErrorJdbc.SUMMARY_COLUMNS + " from application_errors" +
+            " where resolved = :resolved order by updated_at desc limit :pageSize offset :offset")
+    @RegisterRowMapper(Jdbi3ApplicationErrorSummaryRowMapper.class)
+    List<ApplicationErrorSummary> getErrorSummariesInternal(@Bind("resolved") boolean resolved,
+                                                            @Bind("pageSize") int pageSize,
+                                                            @Bind("offset") int offset);
+
+    /**
+     * {@inheritDoc}
+     *
+     * @implNote Selects all columns except {@code stack_trace}. Gets the page and the total count in a single query,
+     * in the same way as {@link #getErrorPage(ApplicationErrorStatus, int, int)}.
+     */
+    @Override
+    default ApplicationErrorSummaryPage getErrorSummaryPage(ApplicationErrorStatus status,
+                                                            int pageNumber,
+                                                            int pageSize) {
+        var page = errorPageQuery(getHandle(), ApplicationErrorJdbc.SUMMARY_COLUMNS, status, pageNumber, pageSize)
+                .scanResultSet((resultSetSupplier, ctx) ->
+                        ApplicationErrorJdbc.mapSummaryPageFrom(resultSetSupplier.get(), pageNumber, pageSize));
+
+        if (page.getItems().isEmpty()) {
+            return ApplicationErrorSummaryPage.of(page.getItems(), count(status), pageNumber, pageSize);
+        }
+        return page;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @implNote Selects all columns except {@code stack_trace}.
+     */
+    @Override
+    default List<ApplicationErrorSummary> getErrorSummaries(ApplicationErrorStatus status,
+                                                            @Nullable ApplicationErrorCursor cursor,
+                                                            int pageSize) {
+        checkNotNull(status, "status cannot be null");
+        checkPageSize(pageSize);
+
+        return getErrorSummariesAfterCursorInternal(keysetWhereClause(status, cursor),
+                status == ApplicationErrorStatus.RESOLVED,
+                isNull(cursor) ? null : cursor.getUpdatedAt(),
+                isNull(cursor) ? 0 : cursor.getId(),
+                pageSize);
+    }
+
+    /**
+     * @param whereClause     the where clause, which may be empty and may reference the other parameters
+     * @param resolved        whether to find resolved or unresolved application errors, if the where clause uses it
+     * @param cursorUpdatedAt the updatedAt of the cursor, if the where clause uses it
+     * @param cursorId        the ID of the cursor, if the where clause uses it
+     * @param pageSize        the number of errors on a page
+     * @return a list of ApplicationErrorSummary
+     * @see #getErrorSummaries(ApplicationErrorStatus, ApplicationErrorCursor, int)
+     */
+    @SqlQuery("select " + ApplicationErrorJdbc.SUMMARY_COLUMNS + " from application_errors <whereClause>" +
+            " order by updated_at desc, id desc limit :pageSize")
+    @RegisterRowMapper(Jdbi3ApplicationErrorSummaryRowMapper.class)
+    @AllowUnusedBindings
+    List<ApplicationErrorSummary> getErrorSummariesAfterCursorInternal(
+            @Define("whereClause") String whereClause,
+            @Bind("resolved") boolean resolved,
+            @Bind("cursorUpdatedAt") ZonedDateTime cursorUpdatedAt,
+            @Bind("cursorId") long cursorId,
+            @Bind("pageSize") int pageSize);
+
+    @Override
+    @SqlQuery(ApplicationErrorJdbc.SELECT_ERRORS_SQL +
             " where resolved = false and description = :desc order by updated_at desc")
     @RegisterRowMapper(Jdbi3ApplicationErrorRowMapper.class)
     List<ApplicationError> getUnresolvedErrorsByDescription(@Bind("desc") String description);
 
     @Override
-    @SqlQuery("select * from application_errors" +
+    @SqlQuery(ApplicationErrorJdbc.SELECT_ERRORS_SQL +
             " where resolved = false and description = :desc and host_name = :host order by updated_at desc")
     @RegisterRowMapper(Jdbi3ApplicationErrorRowMapper.class)
     List<ApplicationError> getUnresolvedErrorsByDescriptionAndHost(@Bind("desc") String description,
                                                                    @Bind("host") String hostName);
 
     @Override
+    default OptionalLong getUnresolvedErrorIdByFingerprint(String fingerprint) {
+        var ids = getUnresolvedErrorIdsByFingerprintInternal(fingerprint);
+        return ids.isEmpty() ? OptionalLong.empty() : OptionalLong.of(first(ids));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @implNote For H2, Postgres, and SQLite, this first increments the count of the existing unresolved error using
+     * the unique index on the {@code unresolved_key} column, which is a single statement. Only if there is no such
+     * error is the stack trace stored, and the error inserted using an atomic "upsert" statement, which increments
+     * the count instead if the same error was inserted concurrently. For other databases, it finds an existing
+     * unresolved error using the index on the {@code fingerprint} and {@code resolved} columns, and then either
+     * increments its count or inserts a new error. If the insert violates the unique index because the same error was
+     * inserted concurrently, the count of that error is incremented instead. In all cases, the stack trace is only
+     * hashed and stored when inserting a new error.
+     */
+    @Override
     default long insertOrIncrementCount(ApplicationError error) {
         checkNotNull(error.getDescription(), "Error description cannot be null");
 
-        var errors = getUnresolvedErrorsByDescriptionAndHost(error.getDescription(), error.getHostName());
+        var upsertDialect = upsertDialectInternal();
+        if (upsertDialect == UpsertDialect.H2) {
+            var unresolvedKey = unresolvedKeyOf(error);
+            var incrementedIds = incrementUnresolvedCountUsingFinalTableInternal(unresolvedKey);
+            if (!incrementedIds.isEmpty()) {
+                return first(incrementedIds);
+            }
+
+            var stackTraceHash = insertStackTraceIfAbsentInternal(upsertDialect, error.getStackTrace());
+            return upsertUsingMergeInternal(error, unresolvedKey, stackTraceHash);
+        } else if (upsertDialect == UpsertDialect.POSTGRES || upsertDialect == UpsertDialect.SQLITE) {
+            var unresolvedKey = unresolvedKeyOf(error);
+            var incrementedIds = incrementUnresolvedCountUsingReturningInternal(unresolvedKey);
+            if (!incrementedIds.isEmpty()) {
+                return first(incrementedIds);
+            }
+
+            var stackTraceHash = insertStackTraceIfAbsentInternal(upsertDialect, error.getStackTrace());
+            return upsertUsingOnConflictInternal(error, unresolvedKey, stackTraceHash);
+        }
 
-        if (errors.isEmpty()) {
-            return insertError(error);
+        var existingIds = getUnresolvedErrorIdsByFingerprintInternal(error.getFingerprint());
+
+        if (existingIds.isEmpty()) {
+            try {
+                // Setting the unresolved key makes the insert fail if the same error was inserted concurrently
+                checkArgumentIsNull(error.getId(), "Cannot insert an ApplicationError that has an id");
+                var stackTraceHash = insertStackTraceIfAbsentInternal(upsertDialect, error.getStackTrace());
+                return insertErrorWithUnresolvedKeyInternal(error, unresolvedKeyOf(error), stackTraceHash);
+            } catch (UnableToExecuteStatementException e) {
+                // Another thread or process might have inserted the same error after we looked for it
+                existingIds = getUnresolvedErrorIdsByFingerprintInternal(error.getFingerprint());
+                if (!ApplicationErrorJdbc.isIntegrityConstraintViolation(e) || existingIds.isEmpty()) {
+                    throw e;
+                }
+            }
         }
 
-        var existingError = first(errors);
-        incrementCount(existingError.getId());
-        return existingError.getId();
+        var existingId = first(existingIds);
+        incrementCount(existingId);
+        return existingId;
     }
 
+    /**
+     * @return the upsert dialect of the database, which is cached in the {@link Jdbi3ApplicationErrorConfig} so that
+     * the database metadata is only queried once
+     */
+    default UpsertDialect upsertDialectInternal() {
+        var handle = getHandle();
+        return handle.getConfig(Jdbi3ApplicationErrorConfig.class).upsertDialect(handle.getConnection());
+    }
+
+    @SqlQuery("select id from application_errors" +
+            " where fingerprint = :fingerprint and resolved = false order by updated_at desc")
+    List<Long> getUnresolvedErrorIdsByFingerprintInternal(@Bind("fingerprint") String fingerprint);
+
+    @SqlQuery("update application_errors" +
+            " set num_times_occurred = num_times_occurred + 1, updated_at = current_timestamp" +
+            " where unresolved_key = :unresolvedKey returning id")
+    List<Long> incrementUnresolvedCountUsingReturningInternal(@Bind("unresolvedKey") String unresolvedKey);
+
+    @SqlQuery("select id from final table (update application_errors" +
+            " set num_times_occurred = num_times_occurred + 1, updated_at = current_timestamp" +
+            " where unresolved_key = :unresolvedKey)")
+    List<Long> incrementUnresolvedCountUsingFinalTableInternal(@Bind("unresolvedKey") String unresolvedKey);
+
+    @SqlQuery("insert into application_errors" +
+            " (description, exception_type, exception_message, exception_cause_type, exception_cause_message," +
+            " stack_trace_hash, host_name, ip_address, port, fingerprint, created_at, unresolved_key)" +
+            " values (:description, :exceptionType, :exceptionMessage, :exceptionCauseType, :exceptionCauseMessage," +
+            " :stackTraceHash, :hostName, :ipAddress, :port, :fingerprint, coalesce(:createdAt, current_timestamp)," +
+            " :unresolvedKey)" +
+            " on conflict (unresolved_key) do update" +
+            " set num_times_occurred = application_errors.num_times_occurred + 1, updated_at = current_timestamp" +
+            " returning id")
+    long upsertUsingOnConflictInternal(@BindBean ApplicationError error,
+                                       @Bind("unresolvedKey") String unresolvedKey,
+                                       @Bind("stackTraceHash") String stackTraceHash);
+
+    @SqlQuery("select id from final table (" +
+            "merge into application_errors e" +
+            " using (select cast(:unresolvedKey as varchar(64)) as unresolved_key) k" +
+            " on e.unresolved_key = k.unresolved_key" +
+            " when matched then update" +
+            " set num_times_occurred = e.num_times_occurred + 1, updated_at = current_timestamp" +
+            " when not matched then insert" +
+            " (description, exception_type, exception_message, exception_cause_type, exception_cause_message," +
+            " stack_trace_hash, host_name, ip_address, port, fingerprint, created_at, unresolved_key)" +
+            " values (:description, :exceptionType, :exceptionMessage, :exceptionCauseType, :exceptionCauseMessage," +
+            " :stackTraceHash, :hostName, :ipAddress, :port, :fingerprint, coalesce(:createdAt, current_timestamp)," +
+            " k.unresolved_key))")
+    long upsertUsingMergeInternal(@BindBean ApplicationError error,
+                                  @Bind("unresolvedKey") String unresolvedKey,
+                                  @Bind("stackTraceHash") String stackTraceHash);
+
     /**
      * Inserts a <strong>new</strong> {@link ApplicationError}.
      * <p>
      * Notes:
      * <ul>
      * <li>
-     *     Non-null values in {@code createdAt} and {@code updatedAt} will be overridden with the current timestamp.
+     *     A non-null value in {@code createdAt} is kept, so that an error saved after it occurred, e.g. one that
+     *     was spooled while the data store was unavailable, keeps the time it occurred. A null value is replaced
+     *     with the current timestamp. A non-null value in {@code updatedAt} will be overridden with the current
+     *     timestamp.
      * </li>
      * <li>
      *     Resolved will always be set to false regardless of what the value in {@code newError} is.
      * </li>
+     * <li>
+     *     The {@code unresolved_key} is left null, so an unresolved error having the same fingerprint may already
+     *     exist.
+     * </li>
+     * <li>
+     *     The stack trace is stored in {@code application_error_stack_traces} unless an identical stack trace is
+     *     already stored there, and the new error references it by its hash.
+     * </li>
      * </ul>
      *
      * @param newError the new ApplicationError
@@ -151,27 +455,226 @@ public interface Jdbi3ApplicationErrorDao extends ApplicationErrorDao {
     @Override
     default long insertError(ApplicationError newError) {
         checkArgumentIsNull(newError.getId(), "Cannot insert an ApplicationError that has an id");
-        return insertErrorInternal(newError);
+
+        var upsertDialect = upsertDialectInternal();
+        var stackTraceHash = insertStackTraceIfAbsentInternal(upsertDialect, newError.getStackTrace());
+        return insertErrorInternal(newError, stackTraceHash);
     }
 
-    @SqlUpdate("insert into application_errors" +
-            " (description, exception_type, exception_message, exception_cause_type, exception_cause_message," +
-            " stack_trace, host_name, ip_address, port)" +
-            " values (:description, :exceptionType, :exceptionMessage, :exceptionCauseType, :exceptionCauseMessage," +
-            " :stackTrace, :hostName, :ipAddress, :port)")
+    /**
+     * {@inheritDoc}
+     *
+     * @implNote The distinct stack traces are stored first, and then the errors are inserted using a single
+     * {@link SqlBatch}. For SQLite, whose driver returns only the last generated key of a batch, the errors are
+     * inserted one at a time.
+     */
+    @Override
+    default List<Long> insertErrors(List<ApplicationError> newErrors) {
+        checkArgumentNotNull(newErrors, "newErrors must not be null");
+        newErrors.forEach(newError ->
+                checkArgumentIsNull(newError.getId(), "Cannot insert an ApplicationError that has an id"));
+
+        if (newErrors.isEmpty()) {
+            return List.of();
+        }
+
+        var upsertDialect = upsertDialectInternal();
+        var hashesByStackTrace = new HashMap<String, String>();
+        var stackTraceHashes = new ArrayList<String>(newErrors.size());
+        for (var newError : newErrors) {
+            var stackTrace = newError.getStackTrace();
+            stackTraceHashes.add(isNull(stackTrace) ? null : hashesByStackTrace.computeIfAbsent(stackTrace,
+                    theStackTrace -> insertStackTraceIfAbsentInternal(upsertDialect, theStackTrace)));
+        }
+
+        if (upsertDialect == UpsertDialect.SQLITE) {
+            var ids = new ArrayList<Long>(newErrors.size());
+            for (var i = 0; i < newErrors.size(); i++) {
+                ids.add(insertErrorInternal(newErrors.get(i), stackTraceHashes.get(i)));
+            }
+            return ids;
+        }
+
+        var ids = insertErrorsInternal(newErrors, stackTraceHashes);
+        return Arrays.stream(ids).boxed().toList();
+    }
+
+    @SqlBatch(Jdbi3ApplicationErrorSql.INSERT_ERROR_SQL)
+    @GetGeneratedKeys
+    long[] insertErrorsInternal(@BindBean List<ApplicationError> newErrors,
+                                @Bind("stackTraceHash") List<String> stackTraceHashes);
+
+    /**
+     * Stores the given stack trace unless an identical one is already stored. It is stored using the
+     * {@link StackTraceCompression} in the {@link Jdbi3ApplicationErrorConfig}. In either case, the time it was last
+     * used is set to the current time, so that {@link #deleteUnusedStackTraces()} does not delete it before the error
+     * using it is inserted.
+     *
+     * @param upsertDialect the dialect of the database
+     * @param stackTrace    the stack trace, which may be null
+     * @return the hash of the stack trace, or null if it is null
+     */
+    @Nullable
+    default String insertStackTraceIfAbsentInternal(UpsertDialect upsertDialect, @Nullable String stackTrace) {
+        if (isNull(stackTrace)) {
+            return null;
+        }
+
+        var stackTraceHash = ApplicationErrorJdbc.stackTraceHashOf(stackTrace);
+        var lastUsedAt = ZonedDateTime.now(ZoneOffset.UTC);
+
+        var compression = getHandle().getConfig(Jdbi3ApplicationErrorConfig.class).getStackTraceCompression();
+        var compress = compression == StackTraceCompression.DEFLATE;
+
+        // Compressing a stack trace costs much more than marking a stored one as used, so only compress a stack trace
+        // that is not already stored. Without an upsert statement, this is also how to find whether it is stored.
+        var touchFirst = compress || upsertDialect == UpsertDialect.UNSUPPORTED;
+        if (touchFirst && touchStackTraceInternal(stackTraceHash, lastUsedAt) > 0) {
+            return stackTraceHash;
+        }
+
+        var text = compress ? null : stackTrace;
+        var compressed = compress ? ApplicationErrorJdbc.compressStackTrace(stackTrace) : null;
+
+        switch (upsertDialect) {
+            case H2 -> insertStackTraceUsingMergeInternal(stackTraceHash, lastUsedAt, text, compressed);
+            case POSTGRES, SQLITE ->
+                    insertStackTraceUsingOnConflictInternal(stackTraceHash, lastUsedAt, text, compressed);
+            case UNSUPPORTED -> {
+                try {
+                    insertStackTraceInternal(stackTraceHash, lastUsedAt, text, compressed);
+                } catch (UnableToExecuteStatementException e) {
+                    // Another thread might have inserted the same stack trace after we checked whether it exists
+                    if (touchStackTraceInternal(stackTraceHash, lastUsedAt) == 0) {
+                        throw e;
+                    }
+                }
+            }
+        }
+        return stackTraceHash;
+    }
+
+    @SqlUpdate("update application_error_stack_traces set last_used_at = :lastUsedAt" +
+            " where stack_trace_hash = :stackTraceHash")
+    int touchStackTraceInternal(@Bind("stackTraceHash") String stackTraceHash,
+                                @Bind("lastUsedAt") ZonedDateTime lastUsedAt);
+
+    @SqlUpdate("insert into application_error_stack_traces" +
+            " (stack_trace_hash, last_used_at, stack_trace, compressed_stack_trace)" +
+            " values (:stackTraceHash, :lastUsedAt, :stackTrace, :compressedStackTrace)")
+    void insertStackTraceInternal(@Bind("stackTraceHash") String stackTraceHash,
+                                  @Bind("lastUsedAt") ZonedDateTime lastUsedAt,
+                                  @Bind("stackTrace") String stackTrace,
+                                  @Bind("compressedStackTrace") byte[] compressedStackTrace);
+
+    @SqlUpdate("insert into application_error_stack_traces" +
+            " (stack_trace_hash, last_used_at, stack_trace, compressed_stack_trace)" +
+            " values (:stackTraceHash, :lastUsedAt, :stackTrace, :compressedStackTrace)" +
+            " on conflict (stack_trace_hash) do update set last_used_at = excluded.last_used_at")
+    void insertStackTraceUsingOnConflictInternal(@Bind("stackTraceHash") String stackTraceHash,
+                                                 @Bind("lastUsedAt") ZonedDateTime lastUsedAt,
+                                                 @Bind("stackTrace") String stackTrace,
+                                                 @Bind("compressedStackTrace") byte[] compressedStackTrace);
+
+    @SqlUpdate("merge into application_error_stack_traces t" +
+            " using (select cast(:stackTraceHash as varchar(64)) as stack_trace_hash," +
+            " cast(:lastUsedAt as timestamp) as last_used_at) h" +
+            " on t.stack_trace_hash = h.stack_trace_hash" +
+            " when matched then update set last_used_at = h.last_used_at" +
+            " when not matched then insert (stack_trace_hash, last_used_at, stack_trace, compressed_stack_trace)" +
+            " values (h.stack_trace_hash, h.last_used_at, :stackTrace, :compressedStackTrace)")
+    void insertStackTraceUsingMergeInternal(@Bind("stackTraceHash") String stackTraceHash,
+                                            @Bind("lastUsedAt") ZonedDateTime lastUsedAt,
+                                            @Bind("stackTrace") String stackTrace,
+                                            @Bind("compressedStackTrace") byte[] compressedStackTrace);
+
+    @SqlUpdate(Jdbi3ApplicationErrorSql.INSERT_ERROR_SQL)
+    @GetGeneratedKeys
+    long insertErrorInternal(@BindBean ApplicationError newError,
+                             @Bind("stackTraceHash") String stackTraceHash);
+
+    @SqlUpdate(Jdbi3ApplicationErrorSql.INSERT_ERROR_WITH_UNRESOLVED_KEY_SQL)
     @GetGeneratedKeys
-    long insertErrorInternal(@BindBean ApplicationError newError);
+    long insertErrorWithUnresolvedKeyInternal(@BindBean ApplicationError newError,
+                                              @Bind("unresolvedKey") String unresolvedKey,
+                                              @Bind("stackTraceHash") String stackTraceHash);
 
     @Override
     default void incrementCount(long id) {
-        var count = incrementCountInternal(id);
+        incrementCount(id, 1);
+    }
+
+    @Override
+    default void incrementCount(long id, int amount) {
+        checkArgument(amount > 0, "amount must be positive");
+
+        var count = incrementCountInternal(id, amount);
         checkState(count == 1, "Unable to increment count. No ApplicationError found with id %s", id);
     }
 
-    @SqlUpdate("update application_errors" +
-            " set num_times_occurred = num_times_occurred + 1, updated_at = current_timestamp" +
-            " where id = :id")
-    int incrementCountInternal(@Bind("id") long id);
+    @SqlUpdate(Jdbi3ApplicationErrorSql.INCREMENT_COUNT_SQL)
+    int incrementCountInternal(@Bind("id") long id, @Bind("amount") int amount);
+
+    /**
+     * {@inheritDoc}
+     *
+     * @implNote The counts are incremented using a single {@link SqlBatch}.
+     */
+    @Override
+    default void incrementCounts(Map<Long, Integer> amounts) {
+        checkIncrementAmounts(amounts);
+
+        if (amounts.isEmpty()) {
+            return;
+        }
+
+        var ids = List.copyOf(amounts.keySet());
+        var counts = incrementCountsInternal(ids, ids.stream().map(amounts::get).toList());
+
+        // A driver may return SUCCESS_NO_INFO instead of the count, so only a count of zero means it is missing
+        var missingIds = IntStream.range(0, counts.length)
+                .filter(i -> counts[i] == 0)
+                .mapToObj(ids::get)
+                .toList();
+        checkAllIncremented(missingIds);
+    }
+
+    @SqlBatch(Jdbi3ApplicationErrorSql.INCREMENT_COUNT_SQL)
+    int[] incrementCountsInternal(@Bind("id") List<Long> ids, @Bind("amount") List<Integer> amounts);
+
+    @Override
+    default boolean incrementCountIfUnresolved(long id) {
+        return incrementCountIfUnresolvedInternal(id, 1) == 1;
+    }
+
+    @SqlUpdate(Jdbi3ApplicationErrorSql.INCREMENT_COUNT_IF_UNRESOLVED_SQL)
+    int incrementCountIfUnresolvedInternal(@Bind("id") long id, @Bind("amount") int amount);
+
+    /**
+     * {@inheritDoc}
+     *
+     * @implNote The counts are incremented using a single {@link SqlBatch}.
+     */
+    @Override
+    default Set<Long> incrementCountsIfUnresolved(Map<Long, Integer> amounts) {
+        checkIncrementAmounts(amounts);
+
+        if (amounts.isEmpty()) {
+            return Set.of();
+        }
+
+        var ids = List.copyOf(amounts.keySet());
+        var counts = incrementCountsIfUnresolvedInternal(ids, ids.stream().map(amounts::get).toList());
+
+        // A driver may return SUCCESS_NO_INFO instead of the count, so only a count of zero means it was skipped
+        return IntStream.range(0, counts.length)
+                .filter(i -> counts[i] != 0)
+                .mapToObj(ids::get)
+                .collect(toUnmodifiableSet());
+    }
+
+    @SqlBatch(Jdbi3ApplicationErrorSql.INCREMENT_COUNT_IF_UNRESOLVED_SQL)
+    int[] incrementCountsIfUnresolvedInternal(@Bind("id") List<Long> ids, @Bind("amount") List<Integer> amounts);
 
     @Override
     default ApplicationError resolve(long id) {
@@ -182,11 +685,13 @@ public interface Jdbi3ApplicationErrorDao extends ApplicationErrorDao {
         return getById(id).orElseThrow();
     }
 
-    @SqlUpdate("update application_errors set resolved = true, updated_at = current_timestamp where id = :id")
+    @SqlUpdate("update application_errors" +
+            " set resolved = true, unresolved_key = null, updated_at = current_timestamp where id = :id")
     int resolveInternal(@Bind("id") long id);
 
     @Override
-    @SqlUpdate("update application_errors set resolved = true, updated_at = current_timestamp where resolved = false")
+    @SqlUpdate("update application_errors" +
+            " set resolved = true, unresolved_key = null, updated_at = current_timestamp where resolved = false")
     int resolveAllUnresolvedErrors();
 
     @Override
@@ -196,4 +701,65 @@ public interface Jdbi3ApplicationErrorDao extends ApplicationErrorDao {
     @Override
     @SqlUpdate("delete from application_errors where resolved = false and created_at < :expirationDate")
     int deleteUnresolvedErrorsBefore(@Bind("expirationDate") ZonedDateTime expirationDate);
+
+    @Override
+    default int deleteResolvedErrorsBefore(ZonedDateTime expirationDate, int limit) {
+        ApplicationErrorDao.checkDeleteLimit(limit);
+        return deleteErrorsBeforeWithLimitInternal(true, expirationDate, limit);
+    }
+
+    @Override
+    default int deleteUnresolvedErrorsBefore(ZonedDateTime expirationDate, int limit) {
+        ApplicationErrorDao.checkDeleteLimit(limit);
+        return deleteErrorsBeforeWithLimitInternal(false, expirationDate, limit);
+    }
+
+    // The extra derived table is required by MySQL, which does not allow limit in an "in" subquery
+    // nor selecting from the table being deleted from
+    @SqlUpdate("delete from application_errors where id in (select id from" +
+            " (select id from application_errors where resolved = :resolved and created_at < :expirationDate" +
+            " limit :limit) as expired)")
+    int deleteErrorsBeforeWithLimitInternal(@Bind("resolved") boolean resolved,
+                                            @Bind("expirationDate") ZonedDateTime expirationDate,
+                                            @Bind("limit") int limit);
+
+    /**
+     * {@inheritDoc}
+     *
+     * @implNote Stack traces used within the last {@link ApplicationErrorJdbc#UNUSED_STACK_TRACE_GRACE_PERIOD} are
+     * not deleted, since storing a stack trace (or marking an existing one as used) and inserting the error that uses
+     * it are separate statements.
+     */
+    @Override
+    default int deleteUnusedStackTraces() {
+        var usedSince = ZonedDateTime.now(ZoneOffset.UTC).minus(UNUSED_STACK_TRACE_GRACE_PERIOD);
+        return deleteUnusedStackTracesInternal(usedSince);
+    }
+
+    @SqlUpdate("delete from application_error_stack_traces where last_used_at < :usedSince" +
+            " and not exists (select 1 from application_errors e" +
+            " where e.stack_trace_hash = application_error_stack_traces.stack_trace_hash)")
+    int deleteUnusedStackTracesInternal(@Bind("usedSince") ZonedDateTime usedSince);
+
+    /**
+     * {@inheritDoc}
+     *
+     * @implNote Like {@link #deleteUnusedStackTraces()}, stack traces used within the last
+     * {@link ApplicationErrorJdbc#UNUSED_STACK_TRACE_GRACE_PERIOD} are not deleted.
+     */
+    @Override
+    default int deleteUnusedStackTraces(int limit) {
+        ApplicationErrorDao.checkDeleteLimit(limit);
+        var usedSince = ZonedDateTime.now(ZoneOffset.UTC).minus(UNUSED_STACK_TRACE_GRACE_PERIOD);
+        return deleteUnusedStackTracesWithLimitInternal(usedSince, limit);
+    }
+
+    // The extra derived table is required by MySQL, which does not allow limit in an "in" subquery
+    // nor selecting from the table being deleted from
+    @SqlUpdate("delete from application_error_stack_traces where stack_trace_hash in" +
+            " (select stack_trace_hash from (select t.stack_trace_hash from application_error_stack_traces t" +
+            " where t.last_used_at < :usedSince and not exists (select 1 from application_errors e" +
+            " where e.stack_trace_hash = t.stack_trace_hash) limit :limit) as unused)")
+    int deleteUnusedStackTracesWithLimitInternal(@Bind("usedSince") ZonedDateTime usedSince,
+                                                 @Bind("limit") int limit);
 }
@@ -0,0 +1,99 @@
+package org.kiwiproject.dropwizard.error.dao.jdbi3;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.Objects.nonNull;
+import static org.kiwiproject.dropwizard.error.dao.ApplicationErrorDao.checkPagingArgumentsAndCalculateZeroBasedOffset;
+
+import lombok.experimental.UtilityClass;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.jdbi.v3.core.Handle;
+import org.jdbi.v3.core.statement.Query;
+import org.kiwiproject.dropwizard.error.dao.ApplicationErrorJdbc;
+import org.kiwiproject.dropwizard.error.dao.ApplicationErrorStatus;
+import org.kiwiproject.dropwizard.error.model.ApplicationErrorCursor;
+
+import java.util.ArrayList;
+
+/**
+ * Builds the dynamic parts of the SQL used by {@link Jdbi3ApplicationErrorDao}.
+ */
+@UtilityClass
+class Jdbi3ApplicationErrorSql {
+
+    /**
+     * Inserts an error without an {@code unresolved_key}, used by both the single and batch inserts.
+     */
+    static final String INSERT_ERROR_SQL = "insert into application_errors" +
+            " (description, exception_type, exception_message, exception_cause_type, exception_cause_message," +
+            " stack_trace_hash, host_name, ip_address, port, fingerprint, created_at)" +
+            " values (:description, :exceptionType, :exceptionMessage, :exceptionCauseType, :exceptionCauseMessage," +
+            " :stackTraceHash, :hostName, :ipAddress, :port, :fingerprint, coalesce(:createdAt, current_timestamp))";
+
+    /**
+     * Inserts an error having the given {@code unresolved_key}, which fails if an unresolved error having the same
+     * key already exists.
+     */
+    static final String INSERT_ERROR_WITH_UNRESOLVED_KEY_SQL = "insert into application_errors" +
+            " (description, exception_type, exception_message, exception_cause_type, exception_cause_message," +
+            " stack_trace_hash, host_name, ip_address, port, fingerprint, created_at, unresolved_key)" +
+            " values (:description, :exceptionType, :exceptionMessage, :exceptionCauseType, :exceptionCauseMessage," +
+            " :stackTraceHash, :hostName, :ipAddress, :port, :fingerprint, coalesce(:createdAt, current_timestamp)," +
+            " :unresolvedKey)";
+
+    /**
+     * Increments the count of an error, used by both the single and batch increments.
+     */
+    static final String INCREMENT_COUNT_SQL = "update application_errors" +
+            " set num_times_occurred = num_times_occurred + :amount, updated_at = current_timestamp" +
+            " where id = :id";
+
+    /**
+     * Increments the count of an error if it is unresolved, used by both the single and batch increments.
+     */
+    static final String INCREMENT_COUNT_IF_UNRESOLVED_SQL = INCREMENT_COUNT_SQL + " and resolved = false";
+
+    /**
+     * @return a where clause that uses the {@code resolved} named parameter, or an empty string for
+     * {@link ApplicationErrorStatus#ALL}
+     */
+    static String statusWhereClause(ApplicationErrorStatus status) {
+        return (status == ApplicationErrorStatus.ALL) ? "" : "where resolved = :resolved";
+    }
+
+    /**
+     * Create a query for a page of errors along with the total count, with its parameters bound.
+     *
+     * @see ApplicationErrorJdbc#errorPageSql(String, String, int, int)
+     */
+    static Query errorPageQuery(Handle handle,
+                                String columns,
+                                ApplicationErrorStatus status,
+                                int pageNumber,
+                                int pageSize) {
+        checkNotNull(status, "status cannot be null");
+
+        int offset = checkPagingArgumentsAndCalculateZeroBasedOffset(pageNumber, pageSize);
+        var sql = ApplicationErrorJdbc.errorPageSql(columns, statusWhereClause(status), pageSize, offset);
+
+        var query = handle.createQuery(sql);
+        if (status != ApplicationErrorStatus.ALL) {
+            query.bind("resolved", status == ApplicationErrorStatus.RESOLVED);
+        }
+        return query;
+    }
+
+    /**
+     * @return a where clause that uses the {@code resolved}, {@code cursorUpdatedAt}, and {@code cursorId} named
+     * parameters as needed, or an empty string for {@link ApplicationErrorStatus#ALL} and a null cursor
+     */
+    static String keysetWhereClause(ApplicationErrorStatus status, @Nullable ApplicationErrorCursor cursor) {
+        var conditions = new ArrayList<String>();
+        if (status != ApplicationErrorStatus.ALL) {
+            conditions.add("resolved = :resolved");
+        }
+        if (nonNull(cursor)) {
+            conditions.add("(updated_at < :cursorUpdatedAt or (updated_at = :cursorUpdatedAt and id < :cursorId))");
+        }
+        return conditions.isEmpty() ? "" : "where " + String.join(" and ", conditions);
+    }
+}
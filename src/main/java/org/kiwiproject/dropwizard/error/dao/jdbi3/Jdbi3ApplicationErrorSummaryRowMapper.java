@@ -0,0 +1,20 @@
+package org.kiwiproject.dropwizard.error.dao.jdbi3;
+
+import org.jdbi.v3.core.mapper.RowMapper;
+import org.jdbi.v3.core.statement.StatementContext;
+import org.kiwiproject.dropwizard.error.dao.ApplicationErrorJdbc;
+import org.kiwiproject.dropwizard.error.model.ApplicationErrorSummary;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * JDBI 3 row mapper for ApplicationErrorSummary objects.
+ */
+public class Jdbi3ApplicationErrorSummaryRowMapper implements RowMapper<ApplicationErrorSummary> {
+
+    @Override
+    public ApplicationErrorSummary map(ResultSet rs, StatementContext ctx) throws SQLException {
+        return ApplicationErrorJdbc.mapSummaryFrom(rs);
+    }
+}
@@ -0,0 +1,475 @@
+package org.kiwiproject.dropwizard.error.dao.jdk;
+
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static org.kiwiproject.base.KiwiPreconditions.checkArgumentNotNull;
+import static org.kiwiproject.dropwizard.error.dao.jdk.ErrorLogEncoding.encode;
+import static org.kiwiproject.dropwizard.error.dao.jdk.ErrorLogEncoding.readError;
+import static org.kiwiproject.dropwizard.error.dao.jdk.ErrorLogEncoding.writeError;
+
+import com.google.common.annotations.VisibleForTesting;
+import lombok.extern.slf4j.Slf4j;
+import org.kiwiproject.dropwizard.error.model.ApplicationError;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * A durable, append-only queue of application errors stored in a local file. Used by
+ * {@link org.kiwiproject.dropwizard.error.dao.SpoolingApplicationErrorDao SpoolingApplicationErrorDao} to hold errors
+ * that could not be written to the data store until they can be replayed.
+ * <p>
+ * The file starts with a header identifying its format, followed by the offset of the first error that has not been
+ * replayed. The header is followed by records. Each record consists of the length of its payload, the payload (the
+ * error, without its ID), and a CRC32 checksum of the payload. When the spool is opened, a record that is incomplete
+ * or whose checksum does not match is treated as the end of the spool and is discarded along with anything after it;
+ * this happens when the process stopped while writing the record.
+ * <p>
+ * Errors are read using {@link #peek(int)} and removed using {@link #discardThrough(long)} once they have been
+ * replayed. The space used by replayed errors is reclaimed when the spool becomes empty, at which point the file is
+ * truncated to just its header, or when appending would exceed the maximum size, at which point the errors that have
+ * not been replayed are copied to a new file that replaces the spool file. If the process stops after an error is
+ * replayed but before it is discarded, the error is replayed again when the spool is next opened, so replay is
+ * at-least-once.
+ * <p>
+ * This class is thread-safe.
+ */
+@Slf4j
+public class ApplicationErrorSpool implements Closeable {
+
+    /**
+     * An error read from the spool, along with the offset just past its record, which is passed to
+     * {@link #discardThrough(long)} once the error has been replayed. The offset remains valid after the spool is
+     * compacted.
+     */
+    public record SpooledError(ApplicationError error, long endOffset) {
+    }
+
+    /**
+     * "AppErrS1" in ASCII.
+     */
+    private static final long MAGIC = 0x4170704572725331L;
+
+    private static final long READ_OFFSET_POSITION = Long.BYTES;
+    private static final long HEADER_BYTES = Long.BYTES + Long.BYTES;
+    private static final int RECORD_OVERHEAD_BYTES = Integer.BYTES + Integer.BYTES;
+
+    private final Path path;
+    private final long maxSizeInBytes;
+    private final boolean syncOnWrite;
+
+    /**
+     * The end offsets of the records that have not been discarded, in order.
+     */
+    private final Deque<Long> recordEndOffsets;
+
+    private FileChannel channel;
+    private long readOffset;
+    private long writeOffset;
+
+    /**
+     * The number of bytes removed from the front of the file by compacting. It is added to the offsets returned by
+     * {@link #peek(int)}, so that errors peeked before compacting are still discarded correctly afterward.
+     */
+    private long compactedBytes;
+
+    /**
+     * Open the spool in the given file, creating the file if it does not exist.
+     *
+     * @param path           the path of the spool file
+     * @param maxSizeInBytes the maximum size of the spool file, including the errors that have not been discarded
+     *                       but not those that have; errors that do not fit are rejected
+     * @param syncOnWrite    whether to force each change to the storage device before returning
+     * @throws UncheckedIOException if the file cannot be read or written, or is not a spool file
+     */
+    public ApplicationErrorSpool(Path path, long maxSizeInBytes, boolean syncOnWrite) {
+        checkArgumentNotNull(path, "path must not be null");
+        this.path = path;
+        this.maxSizeInBytes = maxSizeInBytes;
+        this.syncOnWrite = syncOnWrite;
+        this.recordEndOffsets = new ArrayDeque<>();
+
+        try {
+            channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+            if (channel.size() == 0) {
+                reset();
+            } else {
+                checkHeader();
+                scan();
+            }
+        } catch (IOException e) {
+            closeQuietly();
+            throw new UncheckedIOException("Unable to open application error spool " + path, e);
+        } catch (RuntimeException e) {
+            closeQuietly();
+            throw e;
+        }
+    }
+
+    private void checkHeader() throws IOException {
+        var header = ByteBuffer.allocate((int) HEADER_BYTES);
+        if (!readFully(header, 0) || header.getLong() != MAGIC) {
+            throw new IOException(path + " is not an application error spool");
+        }
+
+        readOffset = header.getLong();
+        if (readOffset < HEADER_BYTES) {
+            throw new IOException(path + " is not an application error spool");
+        }
+    }
+
+    private void scan() throws IOException {
+        var size = channel.size();
+        if (readOffset >= size) {
+            // The process stopped after the spool was emptied, but before its header was updated
+            reset();
+            return;
+        }
+
+        var position = readOffset;
+        while (position + RECORD_OVERHEAD_BYTES <= size) {
+            var lengthBuffer = ByteBuffer.allocate(Integer.BYTES);
+            readFully(lengthBuffer, position);
+            var length = lengthBuffer.getInt();
+            if (length <= 0 || position + RECORD_OVERHEAD_BYTES + length > size) {
+                break;
+            }
+
+            var record = ByteBuffer.allocate(length + Integer.BYTES);
+            readFully(record, position + Integer.BYTES);
+            var payload = new byte[length];
+            record.get(payload);
+            if (record.getInt() != checksumOf(payload)) {
+                break;
+            }
+
+            position += RECORD_OVERHEAD_BYTES + length;
+            recordEndOffsets.addLast(position);
+        }
+
+        if (position < size) {
+            LOG.warn("Discarding {} bytes of partially written records at offset {} of application error spool {}",
+                    size - position, position, path);
+        }
+
+        if (recordEndOffsets.isEmpty()) {
+            reset();
+            return;
+        }
+
+        channel.truncate(position);
+        writeOffset = position;
+        LOG.info("Found {} spooled errors in application error spool {}", recordEndOffsets.size(), path);
+    }
+
+    /**
+     * Truncate the file to just its header, pointing at an empty spool.
+     */
+    private void reset() throws IOException {
+        channel.truncate(HEADER_BYTES);
+        var header = ByteBuffer.allocate((int) HEADER_BYTES).putLong(MAGIC).putLong(HEADER_BYTES).flip();
+        writeFully(header, 0);
+        if (syncOnWrite) {
+            channel.force(true);
+        }
+
+        readOffset = HEADER_BYTES;
+        writeOffset = HEADER_BYTES;
+    }
+
+    /**
+     * Append the given error to the end of the spool.
+     *
+     * @param error the error
+     * @throws IllegalStateException if the spool is closed or full
+     * @throws UncheckedIOException  if the error cannot be written
+     */
+    public void append(ApplicationError error) {
+        checkArgumentNotNull(error, "error must not be null");
+        appendAll(List.of(error));
+    }
+
+    /**
+     * Append the given errors to the end of the spool. Either all the errors are appended or, if they do not fit,
+     * none of them are. If the errors fit only after reclaiming the space used by discarded errors, the spool is
+     * compacted first.
+     *
+     * @param errors the errors
+     * @throws IllegalStateException if the spool is closed or full
+     * @throws UncheckedIOException  if the errors cannot be written
+     */
+    public synchronized void appendAll(Collection<ApplicationError> errors) {
+        checkArgumentNotNull(errors, "errors must not be null");
+        checkOpen();
+
+        var records = errors.stream().map(ApplicationErrorSpool::encodeRecord).toList();
+        var recordBytes = records.stream().mapToLong(record -> record.length).sum();
+        checkState(liveBytes() + recordBytes <= maxSizeInBytes,
+                "application error spool %s is full (max size: %s bytes)", path, maxSizeInBytes);
+
+        try {
+            if (writeOffset + recordBytes > maxSizeInBytes) {
+                compact();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to compact application error spool " + path, e);
+        }
+
+        var position = writeOffset;
+        var endOffsets = new ArrayList<Long>(records.size());
+        try {
+            for (var record : records) {
+                writeFully(ByteBuffer.wrap(record), position);
+                position += record.length;
+                endOffsets.add(position);
+            }
+
+            if (syncOnWrite) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write to application error spool " + path, e);
+        }
+
+        recordEndOffsets.addAll(endOffsets);
+        writeOffset = position;
+    }
+
+    /**
+     * @return the number of bytes used by the header and the errors that have not been discarded
+     */
+    private long liveBytes() {
+        return HEADER_BYTES + writeOffset - readOffset;
+    }
+
+    /**
+     * Move the errors that have not been discarded to just after the header, reclaiming the space used by discarded
+     * errors. The errors are copied to a temporary file, which then replaces the spool file, so that the spool is
+     * intact if the process stops while compacting.
+     */
+    private void compact() throws IOException {
+        var tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try (var tempChannel = FileChannel.open(tempPath,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+
+            var header = ByteBuffer.allocate((int) HEADER_BYTES).putLong(MAGIC).putLong(HEADER_BYTES).flip();
+            while (header.hasRemaining()) {
+                tempChannel.write(header);
+            }
+
+            var position = readOffset;
+            while (position < writeOffset) {
+                position += channel.transferTo(position, writeOffset - position, tempChannel);
+            }
+            tempChannel.force(true);
+        }
+
+        channel.close();
+        try {
+            Files.move(tempPath, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+
+        var shift = readOffset - HEADER_BYTES;
+        var shiftedEndOffsets = recordEndOffsets.stream().map(endOffset -> endOffset - shift).toList();
+        recordEndOffsets.clear();
+        recordEndOffsets.addAll(shiftedEndOffsets);
+        readOffset = HEADER_BYTES;
+        writeOffset -= shift;
+        compactedBytes += shift;
+
+        LOG.info("Compacted application error spool {}, reclaiming {} bytes", path, shift);
+    }
+
+    /**
+     * Read errors from the front of the spool without removing them.
+     *
+     * @param maxErrors the maximum number of errors to read
+     * @return the errors, oldest first, which is empty if the spool is empty
+     * @throws IllegalStateException if the spool is closed
+     * @throws UncheckedIOException  if the errors cannot be read
+     */
+    public synchronized List<SpooledError> peek(int maxErrors) {
+        checkOpen();
+
+        var errors = new ArrayList<SpooledError>(Math.min(maxErrors, recordEndOffsets.size()));
+        var position = readOffset;
+        try {
+            for (var endOffset : recordEndOffsets) {
+                if (errors.size() >= maxErrors) {
+                    break;
+                }
+
+                var record = ByteBuffer.allocate((int) (endOffset - position));
+                readFully(record, position);
+                errors.add(new SpooledError(decodeRecord(record.array()), endOffset + compactedBytes));
+                position = endOffset;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read from application error spool " + path, e);
+        }
+
+        return errors;
+    }
+
+    /**
+     * Remove the errors from the front of the spool up to and including the one whose record ends at the given
+     * offset.
+     *
+     * @param endOffset the {@link SpooledError#endOffset() end offset} of the last error to remove
+     * @throws IllegalStateException if the spool is closed
+     * @throws UncheckedIOException  if the spool cannot be updated
+     */
+    public synchronized void discardThrough(long endOffset) {
+        checkOpen();
+
+        var fileEndOffset = endOffset - compactedBytes;
+        var newReadOffset = readOffset;
+        while (!recordEndOffsets.isEmpty() && recordEndOffsets.peekFirst() <= fileEndOffset) {
+            newReadOffset = recordEndOffsets.removeFirst();
+        }
+
+        if (newReadOffset == readOffset) {
+            return;
+        }
+
+        try {
+            if (recordEndOffsets.isEmpty()) {
+                reset();
+            } else {
+                var offset = ByteBuffer.allocate(Long.BYTES).putLong(newReadOffset).flip();
+                writeFully(offset, READ_OFFSET_POSITION);
+                if (syncOnWrite) {
+                    channel.force(false);
+                }
+                readOffset = newReadOffset;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to update application error spool " + path, e);
+        }
+    }
+
+    /**
+     * @return the number of errors in the spool
+     */
+    public synchronized int size() {
+        return recordEndOffsets.size();
+    }
+
+    /**
+     * @return true if the spool contains no errors
+     */
+    public synchronized boolean isEmpty() {
+        return recordEndOffsets.isEmpty();
+    }
+
+    /**
+     * @return the number of bytes used by the header and the errors that have not been discarded, which is what is
+     * limited by the maximum size
+     */
+    @VisibleForTesting
+    synchronized long sizeInBytes() {
+        return liveBytes();
+    }
+
+    /**
+     * @return the path of the spool file
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Flush the spool to the storage device, and close it.
+     */
+    @Override
+    public synchronized void close() {
+        if (isNull(channel)) {
+            return;
+        }
+
+        try {
+            channel.force(true);
+        } catch (IOException e) {
+            LOG.warn("Error flushing application error spool {}", path, e);
+        } finally {
+            closeQuietly();
+        }
+    }
+
+    private void checkOpen() {
+        checkState(nonNull(channel), "application error spool %s is closed", path);
+    }
+
+    private void closeQuietly() {
+        if (isNull(channel)) {
+            return;
+        }
+
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LOG.warn("Error closing application error spool {}", path, e);
+        } finally {
+            channel = null;
+        }
+    }
+
+    private boolean readFully(ByteBuffer target, long position) throws IOException {
+        while (target.hasRemaining()) {
+            var bytesRead = channel.read(target, position + target.position());
+            if (bytesRead < 0) {
+                return false;
+            }
+        }
+        target.flip();
+        return true;
+    }
+
+    private void writeFully(ByteBuffer source, long position) throws IOException {
+        while (source.hasRemaining()) {
+            channel.write(source, position + source.position());
+        }
+    }
+
+    private static byte[] encodeRecord(ApplicationError error) {
+        var payload = encode(out -> writeError(out, error));
+        return ByteBuffer.allocate(RECORD_OVERHEAD_BYTES + payload.length)
+                .putInt(payload.length)
+                .put(payload)
+                .putInt(checksumOf(payload))
+                .array();
+    }
+
+    private static ApplicationError decodeRecord(byte[] record) throws IOException {
+        var length = ByteBuffer.wrap(record).getInt();
+        try (var in = new DataInputStream(new ByteArrayInputStream(record, Integer.BYTES, length))) {
+            return readError(in, null);
+        }
+    }
+
+    private static int checksumOf(byte[] payload) {
+        var crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+}
@@ -1,5 +1,6 @@
 package org.kiwiproject.dropwizard.error.dao.jdk;
 
+import static com.codahale.metrics.MetricRegistry.name;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static java.util.Objects.isNull;
@@ -7,41 +8,196 @@ import static java.util.Objects.nonNull;
 import static java.util.function.Predicate.not;
 import static org.kiwiproject.base.KiwiPreconditions.checkArgumentIsNull;
 import static org.kiwiproject.base.KiwiPreconditions.checkArgumentNotNull;
+import static org.kiwiproject.base.KiwiPreconditions.requireNotNull;
+import static org.kiwiproject.dropwizard.error.dao.ApplicationErrorDao.checkAllIncremented;
+import static org.kiwiproject.dropwizard.error.dao.ApplicationErrorDao.checkIncrementAmounts;
+import static org.kiwiproject.dropwizard.error.dao.ApplicationErrorDao.checkPageSize;
 import static org.kiwiproject.dropwizard.error.dao.ApplicationErrorDao.checkPagingArgumentsAndCalculateZeroBasedOffset;
+import static org.kiwiproject.validation.KiwiValidations.checkArgumentValid;
 
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Streams;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.kiwiproject.dropwizard.error.config.InMemoryCapacityConfig;
+import org.kiwiproject.dropwizard.error.config.InMemoryCapacityConfig.EvictionPolicy;
 import org.kiwiproject.dropwizard.error.dao.ApplicationErrorDao;
 import org.kiwiproject.dropwizard.error.dao.ApplicationErrorStatus;
 import org.kiwiproject.dropwizard.error.model.ApplicationError;
+import org.kiwiproject.dropwizard.error.model.ApplicationErrorCursor;
 
+import java.time.Instant;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 /**
  * Implementation of {@link ApplicationErrorDao} that uses a {@link ConcurrentMap} to store
  * application errors in-memory.
+ * <p>
+ * In addition to the errors themselves, this maintains the number of errors of each status, indexes of unresolved
+ * errors by description, host, and fingerprint, and a {@link ConcurrentSkipListMap} for each status that is ordered
+ * by {@code updatedAt} and then {@code id}, both descending. Counts, lookups by description, and paging use these
+ * instead of iterating all errors, so their cost depends on the size of the result rather than the number of errors.
+ * <p>
+ * Each change to an error and to the indexes happens atomically with respect to other changes to the same error.
+ * Reads are not blocked by changes, and like iteration of a {@link ConcurrentHashMap}, they may or may not reflect
+ * changes that are in progress.
+ * <p>
+ * When created with an {@link InMemoryCapacityConfig}, the number of errors and their estimated size are bounded.
+ * Inserting an error that exceeds either limit evicts errors according to the configured {@link EvictionPolicy}, and
+ * each eviction is recorded in the {@link #EVICTIONS_METRIC} meter. By default, only resolved errors are evicted, so
+ * the limits can be exceeded by unresolved errors. Otherwise, the capacity is unbounded.
  */
 public class ConcurrentMapApplicationErrorDao implements ApplicationErrorDao {
 
-    private static final Comparator<ApplicationError> UPDATED_AT_DESCENDING =
-            Comparator.comparing(ApplicationError::getUpdatedAt).reversed();
+    /**
+     * Name of the {@link Meter} that records evictions of errors when the capacity is exceeded.
+     */
+    public static final String EVICTIONS_METRIC = name(ConcurrentMapApplicationErrorDao.class, "evictions");
+
+    /**
+     * Estimated size of an error excluding its text, i.e. the error itself, its timestamps, and its entries in the
+     * map of errors and the indexes.
+     */
+    private static final long ERROR_OVERHEAD_BYTES = 512;
+
+    /**
+     * Estimated size of a String excluding its characters.
+     */
+    private static final long STRING_OVERHEAD_BYTES = 40;
+
+    /**
+     * The position of an error in the {@code updatedAt} ordered maps.
+     */
+    private record UpdatedAtKey(Instant updatedAt, long id) {
+
+        private static final Comparator<UpdatedAtKey> NEWEST_FIRST = Comparator.comparing(UpdatedAtKey::updatedAt)
+                .thenComparingLong(UpdatedAtKey::id)
+                .reversed();
+
+        static UpdatedAtKey of(ApplicationError error) {
+            return new UpdatedAtKey(toInstant(error.getUpdatedAt()), error.getId());
+        }
+
+        static UpdatedAtKey of(ApplicationErrorCursor cursor) {
+            return new UpdatedAtKey(cursor.getUpdatedAt().toInstant(), cursor.getId());
+        }
+
+        private static Instant toInstant(@Nullable ZonedDateTime dateTime) {
+            return isNull(dateTime) ? Instant.MIN : dateTime.toInstant();
+        }
+    }
+
+    private record DescriptionAndHost(String description, String hostName) {
+    }
 
     private final AtomicLong currentId;
 
     @VisibleForTesting final ConcurrentMap<Long, ApplicationError> errors;
 
+    private final LongAdder resolvedCount;
+    private final LongAdder unresolvedCount;
+    private final ConcurrentSkipListMap<UpdatedAtKey, ApplicationError> resolvedErrorsByUpdatedAt;
+    private final ConcurrentSkipListMap<UpdatedAtKey, ApplicationError> unresolvedErrorsByUpdatedAt;
+    private final ConcurrentMap<String, Set<Long>> unresolvedIdsByDescription;
+    private final ConcurrentMap<DescriptionAndHost, Set<Long>> unresolvedIdsByDescriptionAndHost;
+
+    /**
+     * For each fingerprint, the ID of the unresolved error that {@link #insertOrIncrementCount(ApplicationError)}
+     * increments. When there are several unresolved errors with the same fingerprint, this is the one indexed first.
+     */
+    private final ConcurrentMap<String, Long> unresolvedIdsByFingerprint;
+
+    private final int maxErrors;
+    private final long maxEstimatedSizeInBytes;
+    private final EvictionPolicy evictionPolicy;
+    private final AtomicLong estimatedSizeInBytes;
+    private final Meter evictions;
+
+    /**
+     * Create a new instance whose capacity is unbounded.
+     */
     public ConcurrentMapApplicationErrorDao() {
+        this(Integer.MAX_VALUE, Long.MAX_VALUE, EvictionPolicy.OLDEST_RESOLVED_FIRST, new Meter());
+    }
+
+    /**
+     * Create a new instance with bounded capacity, whose eviction metric is not registered in any externally visible
+     * registry.
+     *
+     * @param capacityConfig the capacity configuration
+     */
+    public ConcurrentMapApplicationErrorDao(InMemoryCapacityConfig capacityConfig) {
+        this(capacityConfig, new MetricRegistry());
+    }
+
+    /**
+     * Create a new instance with bounded capacity that registers its eviction metric in the given registry.
+     *
+     * @param capacityConfig the capacity configuration
+     * @param metrics        the registry in which to register metrics
+     */
+    public ConcurrentMapApplicationErrorDao(InMemoryCapacityConfig capacityConfig, MetricRegistry metrics) {
+        this(validMaxErrors(capacityConfig),
+                capacityConfig.getMaxEstimatedSize().toBytes(),
+                capacityConfig.getEvictionPolicy(),
+                requireNotNull(metrics, "metrics must not be null").meter(EVICTIONS_METRIC));
+    }
+
+    private static int validMaxErrors(InMemoryCapacityConfig capacityConfig) {
+        checkArgumentNotNull(capacityConfig, "capacityConfig must not be null");
+        checkArgumentValid(capacityConfig);
+        return capacityConfig.getMaxErrors();
+    }
+
+    private ConcurrentMapApplicationErrorDao(int maxErrors,
+                                             long maxEstimatedSizeInBytes,
+                                             EvictionPolicy evictionPolicy,
+                                             Meter evictions) {
+        this.maxErrors = maxErrors;
+        this.maxEstimatedSizeInBytes = maxEstimatedSizeInBytes;
+        this.evictionPolicy = evictionPolicy;
+        this.estimatedSizeInBytes = new AtomicLong();
+        this.evictions = evictions;
+
         currentId = new AtomicLong();
         errors = new ConcurrentHashMap<>();
+        resolvedCount = new LongAdder();
+        unresolvedCount = new LongAdder();
+        resolvedErrorsByUpdatedAt = new ConcurrentSkipListMap<>(UpdatedAtKey.NEWEST_FIRST);
+        unresolvedErrorsByUpdatedAt = new ConcurrentSkipListMap<>(UpdatedAtKey.NEWEST_FIRST);
+        unresolvedIdsByDescription = new ConcurrentHashMap<>();
+        unresolvedIdsByDescriptionAndHost = new ConcurrentHashMap<>();
+        unresolvedIdsByFingerprint = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * @return the estimated size of all errors, which is kept below the maximum estimated size when the capacity is
+     * bounded and the eviction policy permits evicting enough errors
+     */
+    public long getEstimatedSizeInBytes() {
+        return estimatedSizeInBytes.get();
     }
 
     @Override
@@ -51,18 +207,12 @@ public class ConcurrentMapApplicationErrorDao implements ApplicationErrorDao {
 
     @Override
     public long countResolvedErrors() {
-        return errors.values()
-                .stream()
-                .filter(byStatus(ApplicationErrorStatus.RESOLVED))
-                .count();
+        return resolvedCount.sum();
     }
 
     @Override
     public long countUnresolvedErrors() {
-        return errors.values()
-                .stream()
-                .filter(byStatus(ApplicationErrorStatus.UNRESOLVED))
-                .count();
+        return unresolvedCount.sum();
     }
 
     @Override
@@ -70,60 +220,138 @@ public class ConcurrentMapApplicationErrorDao implements ApplicationErrorDao {
         return errors.size();
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @implNote Only the unresolved errors updated after {@code since} are visited.
+     */
     @Override
     public long countUnresolvedErrorsSince(ZonedDateTime since) {
-        return errors.values()
-                .stream()
-                .filter(byStatus(ApplicationErrorStatus.UNRESOLVED))
-                .filter(error -> error.getUpdatedAt().isAfter(since))
-                .count();
+        return unresolvedErrorsUpdatedAfter(since).count();
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @implNote Only the unresolved errors updated after {@code since} are visited.
+     */
     @Override
     public long countUnresolvedErrorsOnHostSince(ZonedDateTime since, String hostName, String ipAddress) {
-        return errors.values()
-                .stream()
-                .filter(byStatus(ApplicationErrorStatus.UNRESOLVED))
-                .filter(error -> error.getHostName().equals(hostName))
-                .filter(error -> error.getIpAddress().equals(ipAddress))
-                .filter(error -> error.getUpdatedAt().isAfter(since))
+        return unresolvedErrorsUpdatedAfter(since)
+                .filter(error -> Objects.equals(error.getHostName(), hostName))
+                .filter(error -> Objects.equals(error.getIpAddress(), ipAddress))
                 .count();
     }
 
+    private Stream<ApplicationError> unresolvedErrorsUpdatedAfter(ZonedDateTime since) {
+        // The newest errors come first, so these are the errors before any error updated at or before since
+        var sinceKey = new UpdatedAtKey(since.toInstant(), Long.MAX_VALUE);
+        return unresolvedErrorsByUpdatedAt.headMap(sinceKey, false).values().stream();
+    }
+
     @Override
     public List<ApplicationError> getAllErrors(int pageNumber, int pageSize) {
         return getErrors(ApplicationErrorStatus.ALL, pageNumber, pageSize);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @implNote The errors are already ordered, so this skips to the offset rather than sorting all errors. The cost
+     * therefore depends on how far into the results the page is; prefer
+     * {@link #getErrors(ApplicationErrorStatus, ApplicationErrorCursor, int)} to page through many errors.
+     */
     @Override
     public List<ApplicationError> getErrors(ApplicationErrorStatus status, int pageNumber, int pageSize) {
         int offset = checkPagingArgumentsAndCalculateZeroBasedOffset(pageNumber, pageSize);
 
-        return errors.values()
-                .stream()
-                .filter(byStatus(status))
-                .sorted(UPDATED_AT_DESCENDING)
+        return Streams.stream(errorsNewestFirst(status, null))
                 .skip(offset)
                 .limit(pageSize)
                 .toList();
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @implNote The errors are already ordered, so this starts at the cursor and reads only the errors on the page.
+     */
     @Override
-    public List<ApplicationError> getUnresolvedErrorsByDescription(String description) {
-        return errors.values()
-                .stream()
-                .filter(byStatus(ApplicationErrorStatus.UNRESOLVED))
-                .filter(error -> error.getDescription().equals(description))
+    public List<ApplicationError> getErrors(ApplicationErrorStatus status,
+                                            @Nullable ApplicationErrorCursor cursor,
+                                            int pageSize) {
+        checkArgumentNotNull(status, "status cannot be null");
+        checkPageSize(pageSize);
+
+        return Streams.stream(errorsNewestFirst(status, cursor))
+                .limit(pageSize)
                 .toList();
     }
 
+    /**
+     * Returns an iterator over the errors having the given status, newest first, starting after the cursor if there
+     * is one. For {@link ApplicationErrorStatus#ALL}, the resolved and unresolved errors are merged as they are read.
+     */
+    private Iterator<ApplicationError> errorsNewestFirst(ApplicationErrorStatus status,
+                                                        @Nullable ApplicationErrorCursor cursor) {
+        return switch (status) {
+            case ALL -> {
+                var mergedEntries = Iterators.mergeSorted(
+                        List.of(
+                                errorsAfter(resolvedErrorsByUpdatedAt, cursor).entrySet().iterator(),
+                                errorsAfter(unresolvedErrorsByUpdatedAt, cursor).entrySet().iterator()),
+                        Map.Entry.comparingByKey(UpdatedAtKey.NEWEST_FIRST));
+                yield Iterators.transform(mergedEntries, Map.Entry::getValue);
+            }
+            case RESOLVED -> errorsAfter(resolvedErrorsByUpdatedAt, cursor).values().iterator();
+            case UNRESOLVED -> errorsAfter(unresolvedErrorsByUpdatedAt, cursor).values().iterator();
+        };
+    }
+
+    private static ConcurrentNavigableMap<UpdatedAtKey, ApplicationError> errorsAfter(
+            ConcurrentSkipListMap<UpdatedAtKey, ApplicationError> errorsByUpdatedAt,
+            @Nullable ApplicationErrorCursor cursor) {
+
+        return isNull(cursor) ? errorsByUpdatedAt : errorsByUpdatedAt.tailMap(UpdatedAtKey.of(cursor), false);
+    }
+
+    @Override
+    public List<ApplicationError> getUnresolvedErrorsByDescription(String description) {
+        if (isNull(description)) {
+            return List.of();
+        }
+
+        return unresolvedErrorsWithIds(unresolvedIdsByDescription.get(description));
+    }
+
     @Override
     public List<ApplicationError> getUnresolvedErrorsByDescriptionAndHost(String description, String hostName) {
-        return errors.values()
-                .stream()
-                .filter(byStatus(ApplicationErrorStatus.UNRESOLVED))
-                .filter(error -> error.getHostName().equals(hostName))
-                .filter(error -> error.getDescription().equals(description))
+        return unresolvedErrorsWithIds(
+                unresolvedIdsByDescriptionAndHost.get(new DescriptionAndHost(description, hostName)));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @implNote When there are several unresolved errors with the same fingerprint, e.g. because they were inserted
+     * using {@link #insertError(ApplicationError)}, this is the one that was stored first.
+     */
+    @Override
+    public OptionalLong getUnresolvedErrorIdByFingerprint(String fingerprint) {
+        var id = unresolvedIdsByFingerprint.get(fingerprint);
+        return isNull(id) ? OptionalLong.empty() : OptionalLong.of(id);
+    }
+
+    private List<ApplicationError> unresolvedErrorsWithIds(@Nullable Set<Long> ids) {
+        if (isNull(ids)) {
+            return List.of();
+        }
+
+        // Re-check the status, since an error may be resolved while reading its ID from the index
+        return ids.stream()
+                .map(errors::get)
+                .filter(Objects::nonNull)
+                .filter(not(ApplicationError::isResolved))
                 .toList();
     }
 
@@ -137,60 +365,243 @@ public class ConcurrentMapApplicationErrorDao implements ApplicationErrorDao {
         // Ensure it is unresolved
         var unresolvedError = errorWithId.isResolved() ?
                 updateWith(errorWithId, errorWithId.getNumTimesOccurred(), false) : errorWithId;
-        errors.put(newId, unresolvedError);
+        put(unresolvedError);
 
         return newId;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @implNote The IDs of all errors are reserved using a single atomic operation, and capacity is enforced once
+     * after all errors are stored rather than after each one.
+     */
+    @Override
+    public List<Long> insertErrors(List<ApplicationError> newErrors) {
+        checkArgumentNotNull(newErrors, "newErrors must not be null");
+        newErrors.forEach(newError ->
+                checkArgumentIsNull(newError.getId(), "Cannot insert an ApplicationError that has an id"));
+
+        var firstId = currentId.getAndAdd(newErrors.size()) + 1;
+        var ids = new ArrayList<Long>(newErrors.size());
+
+        for (var i = 0; i < newErrors.size(); i++) {
+            var newId = firstId + i;
+            var errorWithId = newErrors.get(i).withId(newId);
+
+            // Ensure it is unresolved
+            var unresolvedError = errorWithId.isResolved() ?
+                    updateWith(errorWithId, errorWithId.getNumTimesOccurred(), false) : errorWithId;
+            errors.compute(newId, (key, oldError) -> reindex(oldError, unresolvedError));
+            ids.add(newId);
+        }
+
+        evictIfOverCapacity();
+        return ids;
+    }
+
+    /**
+     * Stores the given error exactly as it is, replacing any existing error having the same ID. Unlike
+     * {@link #insertError(ApplicationError)}, the error must already have an ID, and it may be resolved.
+     *
+     * @param error the error to store
+     */
+    void put(ApplicationError error) {
+        var id = error.getId();
+        checkArgumentNotNull(id, "Cannot put an ApplicationError that does not have an id");
+
+        // Ensure IDs assigned later by insertError do not collide with this one
+        currentId.accumulateAndGet(id, Math::max);
+
+        errors.compute(id, (key, oldError) -> reindex(oldError, error));
+        evictIfOverCapacity();
+    }
+
+    /**
+     * Evicts errors until neither the maximum number of errors nor the maximum estimated size is exceeded, or until
+     * the eviction policy permits no more evictions. An error that alone exceeds the maximum estimated size is kept,
+     * since evicting it would leave no errors at all.
+     */
+    private void evictIfOverCapacity() {
+        while (isOverCapacity()) {
+            var oldestEntry = oldestEntryToEvict();
+            if (isNull(oldestEntry)) {
+                return;
+            }
+
+            var oldestKey = oldestEntry.getKey();
+            errors.computeIfPresent(oldestKey.id(), (id, error) -> {
+                // Keep the error if it changed (e.g. was incremented) after it was chosen; the next oldest is chosen
+                if (!UpdatedAtKey.of(error).equals(oldestKey)) {
+                    return error;
+                }
+
+                evictions.mark();
+                return reindex(error, null);
+            });
+        }
+    }
+
+    private boolean isOverCapacity() {
+        var errorCount = errors.size();
+        return errorCount > maxErrors || (errorCount > 1 && estimatedSizeInBytes.get() > maxEstimatedSizeInBytes);
+    }
+
+    private Map.@Nullable Entry<UpdatedAtKey, ApplicationError> oldestEntryToEvict() {
+        var oldestResolved = resolvedErrorsByUpdatedAt.lastEntry();
+        var oldestUnresolved = unresolvedErrorsByUpdatedAt.lastEntry();
+
+        return switch (evictionPolicy) {
+            case RESOLVED_ONLY -> oldestResolved;
+            case OLDEST_RESOLVED_FIRST -> isNull(oldestResolved) ? oldestUnresolved : oldestResolved;
+            case LEAST_RECENTLY_UPDATED -> leastRecentlyUpdated(oldestResolved, oldestUnresolved);
+        };
+    }
+
+    private static Map.@Nullable Entry<UpdatedAtKey, ApplicationError> leastRecentlyUpdated(
+            Map.@Nullable Entry<UpdatedAtKey, ApplicationError> oldestResolved,
+            Map.@Nullable Entry<UpdatedAtKey, ApplicationError> oldestUnresolved) {
+
+        if (isNull(oldestResolved) || isNull(oldestUnresolved)) {
+            return isNull(oldestResolved) ? oldestUnresolved : oldestResolved;
+        }
+
+        return UpdatedAtKey.NEWEST_FIRST.compare(oldestResolved.getKey(), oldestUnresolved.getKey()) > 0 ?
+                oldestResolved : oldestUnresolved;
+    }
+
     @Override
     public void incrementCount(long id) {
-        var error = errors.get(id);
-        checkState(nonNull(error), "Unable to increment count. No ApplicationError found with id %s", id);
+        incrementCount(id, 1);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @implNote The increment is atomic, so concurrent increments of the same error are never lost. It does not block
+     * increments of other errors, and only replaces the error's position in the {@code updatedAt} ordered map.
+     */
+    @Override
+    public void incrementCount(long id, int amount) {
+        checkArgument(amount > 0, "amount must be positive");
 
-        var updatedError = incrementNumTimesOccurred(error);
-        errors.put(id, updatedError);
+        var updatedError = errors.computeIfPresent(id,
+                (key, error) -> reindex(error, incrementNumTimesOccurred(error, amount)));
+        checkState(nonNull(updatedError), "Unable to increment count. No ApplicationError found with id %s", id);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @implNote Each increment is atomic as in {@link #incrementCount(long, int)}, but the increments as a whole are
+     * not, so other threads may observe some of them before the others are complete.
+     */
+    @Override
+    public void incrementCounts(Map<Long, Integer> amounts) {
+        checkIncrementAmounts(amounts);
+
+        var missingIds = new ArrayList<Long>();
+        amounts.forEach((id, amount) -> {
+            var updatedError = errors.computeIfPresent(id,
+                    (key, error) -> reindex(error, incrementNumTimesOccurred(error, amount)));
+            if (isNull(updatedError)) {
+                missingIds.add(id);
+            }
+        });
+        checkAllIncremented(missingIds);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @implNote An unresolved error without an ID is matched by fingerprint against the unresolved errors having the
+     * same description and host, like the database implementations and
+     * {@link ApplicationErrorDao#insertOrIncrementCounts(java.util.Collection) insertOrIncrementCounts}. It is found
+     * using an index of unresolved errors by fingerprint, without locking. A new error claims its fingerprint in the
+     * index in the same atomic operation that stores it, so concurrent occurrences of a new error insert it only once;
+     * the others retry and increment its count. An occurrence that loses this race skips the ID it reserved.
+     */
     @Override
     public long insertOrIncrementCount(ApplicationError error) {
         var id = error.getId();
-        if (isNull(id)) {
+        if (nonNull(id)) {
+            incrementCount(id);
+            return id;
+        }
+
+        if (error.isResolved()) {
             return insertError(error);
         }
 
-        incrementCount(id);
-        return id;
+        var fingerprint = error.getFingerprint();
+        while (true) {
+            var existingId = unresolvedIdsByFingerprint.get(fingerprint);
+            if (nonNull(existingId) && incrementCountIfUnresolvedInternal(existingId)) {
+                return existingId;
+            }
+
+            if (isNull(existingId)) {
+                var newId = currentId.incrementAndGet();
+                if (insertIfFingerprintUnclaimed(error.withId(newId))) {
+                    evictIfOverCapacity();
+                    return newId;
+                }
+            }
+
+            // The existing error was resolved or removed, or another thread inserted an error with the same
+            // fingerprint first. Either way, the index has changed, so look again.
+        }
+    }
+
+    /**
+     * Stores the given unresolved error only if no other unresolved error has its fingerprint, claiming the
+     * fingerprint in the index while the error's entry in {@link #errors} is being computed. So any thread that
+     * finds the ID in the index and then increments the error waits until it is stored.
+     */
+    private boolean insertIfFingerprintUnclaimed(ApplicationError newError) {
+        var insertedError = errors.compute(newError.getId(), (key, oldError) -> {
+            var claimedId = unresolvedIdsByFingerprint.putIfAbsent(newError.getFingerprint(), newError.getId());
+            return isNull(claimedId) ? reindex(oldError, newError) : oldError;
+        });
+        return insertedError == newError;
+    }
+
+    private boolean incrementCountIfUnresolvedInternal(long id) {
+        var incremented = new AtomicBoolean();
+        errors.computeIfPresent(id, (key, error) -> {
+            if (error.isResolved()) {
+                return error;
+            }
+            incremented.set(true);
+            return reindex(error, incrementNumTimesOccurred(error, 1));
+        });
+        return incremented.get();
     }
 
     @Override
     public ApplicationError resolve(long id) {
-        var error = errors.get(id);
+        var resolvedError = errors.computeIfPresent(id, (key, error) -> reindex(error, resolve(error)));
 
-        checkState(nonNull(error), "Unable to resolve. No ApplicationError found with id %s", id);
-
-        var resolvedError = resolve(error);
-        errors.put(id, resolvedError);
+        checkState(nonNull(resolvedError), "Unable to resolve. No ApplicationError found with id %s", id);
 
         return resolvedError;
     }
 
     @Override
     public int resolveAllUnresolvedErrors() {
-        var count = errors.values()
-                .stream()
-                .filter(byStatus(ApplicationErrorStatus.UNRESOLVED))
-                .map(applicationError -> resolve(applicationError.getId()))
-                .count();
-
-        return Math.toIntExact(count);
-    }
+        var resolveCount = new AtomicInteger();
+
+        for (var key : unresolvedErrorsByUpdatedAt.keySet()) {
+            errors.computeIfPresent(key.id(), (id, error) -> {
+                if (error.isResolved()) {
+                    return error;
+                }
+                resolveCount.incrementAndGet();
+                return reindex(error, resolve(error));
+            });
+        }
 
-    private static Predicate<ApplicationError> byStatus(ApplicationErrorStatus status) {
-        return switch (status) {
-            case ALL -> applicationError -> true;
-            case RESOLVED -> ApplicationError::isResolved;
-            case UNRESOLVED -> not(ApplicationError::isResolved);
-        };
+        return resolveCount.get();
     }
 
     @Override
@@ -203,42 +614,258 @@ public class ConcurrentMapApplicationErrorDao implements ApplicationErrorDao {
         return deleteErrorsWithStatusAndBefore(ApplicationErrorStatus.UNRESOLVED, expirationDate);
     }
 
+    @Override
+    public int deleteResolvedErrorsBefore(ZonedDateTime expirationDate, int limit) {
+        return deleteErrorsWithStatusAndBefore(ApplicationErrorStatus.RESOLVED, expirationDate, limit);
+    }
+
+    @Override
+    public int deleteUnresolvedErrorsBefore(ZonedDateTime expirationDate, int limit) {
+        return deleteErrorsWithStatusAndBefore(ApplicationErrorStatus.UNRESOLVED, expirationDate, limit);
+    }
+
+    private int deleteErrorsWithStatusAndBefore(ApplicationErrorStatus status,
+                                                ZonedDateTime referenceDate,
+                                                int limit) {
+        checkArgument(isResolvedOrUnresolved(status));
+        ApplicationErrorDao.checkDeleteLimit(limit);
+
+        // Visit the least recently updated errors first, since they are the most likely to have expired
+        var removeCount = new AtomicInteger();
+        var keys = errorsByUpdatedAt(status).descendingMap().keySet().iterator();
+
+        while (keys.hasNext() && removeCount.get() < limit) {
+            errors.computeIfPresent(keys.next().id(),
+                    (id, error) -> removeIfMatchesStatusAndBeforeDate(error, status, referenceDate, removeCount));
+        }
+
+        return removeCount.get();
+    }
+
     private int deleteErrorsWithStatusAndBefore(ApplicationErrorStatus status, ZonedDateTime referenceDate) {
         checkArgument(isResolvedOrUnresolved(status));
 
         var removeCount = new AtomicInteger();
-        errors.entrySet().removeIf(entry -> matchesStatusAndBeforeDate(entry, status, referenceDate, removeCount));
+        for (var key : errorsByUpdatedAt(status).keySet()) {
+            errors.computeIfPresent(key.id(),
+                    (id, error) -> removeIfMatchesStatusAndBeforeDate(error, status, referenceDate, removeCount));
+        }
 
         return removeCount.get();
     }
 
+    /**
+     * @return all errors, in no particular order
+     */
+    Stream<ApplicationError> allErrors() {
+        return errors.values().stream();
+    }
+
+    /**
+     * Removes the error having the given ID, if there is one.
+     *
+     * @param id the error ID
+     * @return true if an error was removed
+     */
+    boolean remove(long id) {
+        var removed = new AtomicInteger();
+        errors.computeIfPresent(id, (key, error) -> {
+            removed.incrementAndGet();
+            return reindex(error, null);
+        });
+
+        return removed.get() > 0;
+    }
+
+    /**
+     * Finds the IDs of errors having the given status that match the given predicate, visiting the least recently
+     * updated errors first.
+     *
+     * @param status    the status, which must be resolved or unresolved
+     * @param predicate the predicate the errors must match
+     * @param limit     the maximum number of IDs to return
+     * @return the matching IDs
+     */
+    List<Long> findIds(ApplicationErrorStatus status, Predicate<ApplicationError> predicate, int limit) {
+        checkArgument(isResolvedOrUnresolved(status));
+
+        return errorsByUpdatedAt(status).descendingMap()
+                .values()
+                .stream()
+                .filter(predicate)
+                .limit(limit)
+                .map(ApplicationError::getId)
+                .toList();
+    }
+
+    private ConcurrentSkipListMap<UpdatedAtKey, ApplicationError> errorsByUpdatedAt(ApplicationErrorStatus status) {
+        return status == ApplicationErrorStatus.RESOLVED ? resolvedErrorsByUpdatedAt : unresolvedErrorsByUpdatedAt;
+    }
+
     @VisibleForTesting
     static boolean isResolvedOrUnresolved(ApplicationErrorStatus status) {
         return status == ApplicationErrorStatus.RESOLVED || status == ApplicationErrorStatus.UNRESOLVED;
     }
 
-    private static boolean matchesStatusAndBeforeDate(Map.Entry<Long, ApplicationError> entry,
-                                                      ApplicationErrorStatus status,
-                                                      ZonedDateTime referenceDate,
-                                                      AtomicInteger removeCount) {
-        var error = entry.getValue();
+    /**
+     * Returns null, which removes the error when called from one of the compute methods of {@link #errors}, if the
+     * error has the given status and was created before the reference date. Otherwise, returns the error.
+     */
+    @Nullable
+    private ApplicationError removeIfMatchesStatusAndBeforeDate(ApplicationError error,
+                                                                ApplicationErrorStatus status,
+                                                                ZonedDateTime referenceDate,
+                                                                AtomicInteger removeCount) {
         var shouldRemove = matchesStatus(error, status) && error.getCreatedAt().isBefore(referenceDate);
-        if (shouldRemove) {
-            removeCount.incrementAndGet();
+        if (!shouldRemove) {
+            return error;
         }
-        return shouldRemove;
+
+        removeCount.incrementAndGet();
+        return reindex(error, null);
     }
 
     private static boolean matchesStatus(ApplicationError error, ApplicationErrorStatus status) {
         return (status == ApplicationErrorStatus.RESOLVED) == error.isResolved();
     }
 
+    /**
+     * Updates the counts and indexes to reflect replacing {@code oldError} with {@code newError}. Must be called only
+     * from one of the compute methods of {@link #errors}, so that changes to the same error are not interleaved.
+     *
+     * @param oldError the error being replaced, or null if there is none
+     * @param newError the replacement error, or null if the error is being removed
+     * @return {@code newError}, for convenience returning it from the compute method
+     */
+    @Nullable
+    private ApplicationError reindex(@Nullable ApplicationError oldError, @Nullable ApplicationError newError) {
+        if (nonNull(oldError) && nonNull(newError) && hasSameIndexKeys(oldError, newError)) {
+            reorder(oldError, newError);
+            return newError;
+        }
+
+        if (nonNull(oldError)) {
+            removeFromIndexes(oldError);
+        }
+
+        if (nonNull(newError)) {
+            addToIndexes(newError);
+        }
+
+        return newError;
+    }
+
+    private static boolean hasSameIndexKeys(ApplicationError oldError, ApplicationError newError) {
+        return oldError.isResolved() == newError.isResolved() &&
+                Objects.equals(oldError.getDescription(), newError.getDescription()) &&
+                Objects.equals(oldError.getHostName(), newError.getHostName()) &&
+                Objects.equals(oldError.getFingerprint(), newError.getFingerprint());
+    }
+
+    /**
+     * Moves an error whose status, description, host, and fingerprint have not changed, e.g. when its count is
+     * incremented. The counts and the other indexes stay as they are, so only the ordered map is changed.
+     */
+    private void reorder(ApplicationError oldError, ApplicationError newError) {
+        var errorsByUpdatedAt = newError.isResolved() ? resolvedErrorsByUpdatedAt : unresolvedErrorsByUpdatedAt;
+        var oldKey = UpdatedAtKey.of(oldError);
+        var newKey = UpdatedAtKey.of(newError);
+
+        // Add before removing, so that a concurrent reader may briefly see the error twice, but never misses it
+        errorsByUpdatedAt.put(newKey, newError);
+        if (!newKey.equals(oldKey)) {
+            errorsByUpdatedAt.remove(oldKey);
+        }
+
+        if (oldError != newError) {
+            estimatedSizeInBytes.addAndGet(estimateSizeInBytes(newError) - estimateSizeInBytes(oldError));
+        }
+    }
+
+    private void addToIndexes(ApplicationError error) {
+        estimatedSizeInBytes.addAndGet(estimateSizeInBytes(error));
+
+        if (error.isResolved()) {
+            resolvedCount.increment();
+            resolvedErrorsByUpdatedAt.put(UpdatedAtKey.of(error), error);
+            return;
+        }
+
+        unresolvedCount.increment();
+        unresolvedErrorsByUpdatedAt.put(UpdatedAtKey.of(error), error);
+
+        var id = error.getId();
+        if (nonNull(error.getDescription())) {
+            addId(unresolvedIdsByDescription, error.getDescription(), id);
+        }
+        addId(unresolvedIdsByDescriptionAndHost,
+                new DescriptionAndHost(error.getDescription(), error.getHostName()), id);
+        unresolvedIdsByFingerprint.putIfAbsent(error.getFingerprint(), id);
+    }
+
+    private void removeFromIndexes(ApplicationError error) {
+        estimatedSizeInBytes.addAndGet(-estimateSizeInBytes(error));
+
+        if (error.isResolved()) {
+            resolvedCount.decrement();
+            resolvedErrorsByUpdatedAt.remove(UpdatedAtKey.of(error));
+            return;
+        }
+
+        unresolvedCount.decrement();
+        unresolvedErrorsByUpdatedAt.remove(UpdatedAtKey.of(error));
+
+        var id = error.getId();
+        if (nonNull(error.getDescription())) {
+            removeId(unresolvedIdsByDescription, error.getDescription(), id);
+        }
+        removeId(unresolvedIdsByDescriptionAndHost,
+                new DescriptionAndHost(error.getDescription(), error.getHostName()), id);
+
+        // Only remove the fingerprint's entry if this error is the one it refers to
+        unresolvedIdsByFingerprint.remove(error.getFingerprint(), id);
+    }
+
+    @VisibleForTesting
+    static long estimateSizeInBytes(ApplicationError error) {
+        return ERROR_OVERHEAD_BYTES +
+                estimateSizeInBytes(error.getDescription()) +
+                estimateSizeInBytes(error.getExceptionType()) +
+                estimateSizeInBytes(error.getExceptionMessage()) +
+                estimateSizeInBytes(error.getExceptionCauseType()) +
+                estimateSizeInBytes(error.getExceptionCauseMessage()) +
+                estimateSizeInBytes(error.getStackTrace()) +
+                estimateSizeInBytes(error.getHostName()) +
+                estimateSizeInBytes(error.getIpAddress());
+    }
+
+    private static long estimateSizeInBytes(@Nullable String value) {
+        // Assumes one byte per character, as in the compact strings used for Latin-1 text
+        return isNull(value) ? 0 : STRING_OVERHEAD_BYTES + value.length();
+    }
+
+    private static <K> void addId(ConcurrentMap<K, Set<Long>> index, K key, long id) {
+        index.compute(key, (ignoredKey, ids) -> {
+            var idSet = isNull(ids) ? ConcurrentHashMap.<Long>newKeySet() : ids;
+            idSet.add(id);
+            return idSet;
+        });
+    }
+
+    private static <K> void removeId(ConcurrentMap<K, Set<Long>> index, K key, long id) {
+        // Remove the key when its last ID is removed, so that the index does not grow without bound
+        index.computeIfPresent(key, (ignoredKey, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
     private static ApplicationError resolve(ApplicationError original) {
         return updateWith(original, original.getNumTimesOccurred(), true);
     }
 
-    private static ApplicationError incrementNumTimesOccurred(ApplicationError original) {
-        var newNumTimesOccurred = 1 + original.getNumTimesOccurred();
+    private static ApplicationError incrementNumTimesOccurred(ApplicationError original, int amount) {
+        var newNumTimesOccurred = amount + original.getNumTimesOccurred();
         return updateWith(original, newNumTimesOccurred, original.isResolved());
     }
 
@@ -0,0 +1,125 @@
+package org.kiwiproject.dropwizard.error.dao.jdk;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.kiwiproject.dropwizard.error.model.ApplicationError;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+/**
+ * The binary encoding of application errors used in the records of {@link MappedErrorLog} and
+ * {@link ApplicationErrorSpool}.
+ */
+final class ErrorLogEncoding {
+
+    private static final int NULL_STRING_LENGTH = -1;
+
+    private ErrorLogEncoding() {
+        // utility class
+    }
+
+    @FunctionalInterface
+    interface Encoder {
+        void encode(DataOutputStream out) throws IOException;
+    }
+
+    static byte[] encode(Encoder encoder) {
+        var bytes = new ByteArrayOutputStream();
+        try (var out = new DataOutputStream(bytes)) {
+            encoder.encode(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Write all properties of the error except its ID and fingerprint, which is recomputed when read.
+     */
+    static void writeError(DataOutputStream out, ApplicationError error) throws IOException {
+        writeDateTime(out, error.getCreatedAt());
+        writeDateTime(out, error.getUpdatedAt());
+        out.writeInt(error.getNumTimesOccurred());
+        out.writeBoolean(error.isResolved());
+        writeString(out, error.getDescription());
+        writeString(out, error.getExceptionType());
+        writeString(out, error.getExceptionMessage());
+        writeString(out, error.getExceptionCauseType());
+        writeString(out, error.getExceptionCauseMessage());
+        writeString(out, error.getStackTrace());
+        writeString(out, error.getHostName());
+        writeString(out, error.getIpAddress());
+        out.writeInt(error.getPort());
+    }
+
+    /**
+     * Read an error written by {@link #writeError(DataOutputStream, ApplicationError)}.
+     */
+    static ApplicationError readError(DataInputStream in, @Nullable Long id) throws IOException {
+        return ApplicationError.builder()
+                .id(id)
+                .createdAt(readDateTime(in))
+                .updatedAt(readDateTime(in))
+                .numTimesOccurred(in.readInt())
+                .resolved(in.readBoolean())
+                .description(readString(in))
+                .exceptionType(readString(in))
+                .exceptionMessage(readString(in))
+                .exceptionCauseType(readString(in))
+                .exceptionCauseMessage(readString(in))
+                .stackTrace(readString(in))
+                .hostName(readString(in))
+                .ipAddress(readString(in))
+                .port(in.readInt())
+                .build();
+    }
+
+    static void writeDateTime(DataOutputStream out, @Nullable ZonedDateTime dateTime) throws IOException {
+        out.writeBoolean(nonNull(dateTime));
+        if (nonNull(dateTime)) {
+            var instant = dateTime.toInstant();
+            out.writeLong(instant.getEpochSecond());
+            out.writeInt(instant.getNano());
+        }
+    }
+
+    @Nullable
+    static ZonedDateTime readDateTime(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+
+        return Instant.ofEpochSecond(in.readLong(), in.readInt()).atZone(ZoneOffset.UTC);
+    }
+
+    static void writeString(DataOutputStream out, @Nullable String value) throws IOException {
+        if (isNull(value)) {
+            out.writeInt(NULL_STRING_LENGTH);
+            return;
+        }
+
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    @Nullable
+    static String readString(DataInputStream in) throws IOException {
+        var length = in.readInt();
+        if (length == NULL_STRING_LENGTH) {
+            return null;
+        }
+
+        return new String(in.readNBytes(length), StandardCharsets.UTF_8);
+    }
+}
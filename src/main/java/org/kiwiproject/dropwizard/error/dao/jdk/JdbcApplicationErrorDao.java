@@ -1,18 +1,34 @@
 package org.kiwiproject.dropwizard.error.dao.jdk;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 import static org.kiwiproject.base.KiwiPreconditions.checkArgumentIsNull;
+import static org.kiwiproject.base.KiwiPreconditions.checkArgumentNotNull;
+import static org.kiwiproject.base.KiwiPreconditions.requireNotNull;
 import static org.kiwiproject.base.KiwiStrings.f;
-import static org.kiwiproject.collect.KiwiLists.first;
+import static org.kiwiproject.dropwizard.error.dao.ApplicationErrorDao.checkAllIncremented;
+import static org.kiwiproject.dropwizard.error.dao.ApplicationErrorDao.checkIncrementAmounts;
+import static org.kiwiproject.dropwizard.error.dao.ApplicationErrorDao.checkPageSize;
 import static org.kiwiproject.dropwizard.error.dao.ApplicationErrorDao.checkPagingArgumentsAndCalculateZeroBasedOffset;
+import static org.kiwiproject.dropwizard.error.dao.ApplicationErrorJdbc.UNUSED_STACK_TRACE_GRACE_PERIOD;
+import static org.kiwiproject.dropwizard.error.dao.ApplicationErrorJdbc.unresolvedKeyOf;
 import static org.kiwiproject.jdbc.KiwiJdbc.nextOrThrow;
 import static org.kiwiproject.jdbc.KiwiJdbc.timestampFromZonedDateTime;
 
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.kiwiproject.dropwizard.error.dao.ApplicationErrorDao;
 import org.kiwiproject.dropwizard.error.dao.ApplicationErrorJdbc;
+import org.kiwiproject.dropwizard.error.dao.ApplicationErrorJdbc.UpsertDialect;
 import org.kiwiproject.dropwizard.error.dao.ApplicationErrorStatus;
+import org.kiwiproject.dropwizard.error.dao.StackTraceCompression;
 import org.kiwiproject.dropwizard.error.model.ApplicationError;
+import org.kiwiproject.dropwizard.error.model.ApplicationErrorCursor;
+import org.kiwiproject.dropwizard.error.model.ApplicationErrorPage;
+import org.kiwiproject.dropwizard.error.model.ApplicationErrorSummary;
+import org.kiwiproject.dropwizard.error.model.ApplicationErrorSummaryPage;
 import org.kiwiproject.jdbc.UncheckedSQLException;
 
 import java.sql.Connection;
@@ -20,11 +36,21 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
 
 import javax.sql.DataSource;
 
@@ -38,16 +64,96 @@ import javax.sql.DataSource;
 public class JdbcApplicationErrorDao implements ApplicationErrorDao {
 
     private static final int DEFAULT_PAGE_SIZE = 10;
+
+    private static final String INSERT_COLUMNS = "description, exception_type, exception_message," +
+            " exception_cause_type, exception_cause_message, stack_trace_hash, host_name, ip_address, port," +
+            " fingerprint, created_at";
+
+    private static final String UPSERT_COLUMNS = INSERT_COLUMNS + ", unresolved_key";
+
+    private static final String INSERT_SQL = "insert into application_errors (" + INSERT_COLUMNS + ")" +
+            " values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, coalesce(?, current_timestamp))";
+
+    private static final String INSERT_WITH_UNRESOLVED_KEY_SQL =
+            "insert into application_errors (" + UPSERT_COLUMNS + ")" +
+                    " values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, coalesce(?, current_timestamp), ?)";
+
+    private static final String INCREMENT_COUNT_SQL = "update application_errors" +
+            " set num_times_occurred = num_times_occurred + ?, updated_at = current_timestamp" +
+            " where id = ?";
+
+    private static final String INCREMENT_COUNT_IF_UNRESOLVED_SQL = INCREMENT_COUNT_SQL + " and resolved = false";
+
+    private static final String ON_CONFLICT_UPSERT_SQL = "insert into application_errors (" + UPSERT_COLUMNS + ")" +
+            " values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, coalesce(?, current_timestamp), ?)" +
+            " on conflict (unresolved_key) do update" +
+            " set num_times_occurred = application_errors.num_times_occurred + 1, updated_at = current_timestamp" +
+            " returning id";
+
+    private static final String H2_UPSERT_SQL = "select id from final table (" +
+            "merge into application_errors e" +
+            " using (select cast(? as varchar(64)) as unresolved_key) k" +
+            " on e.unresolved_key = k.unresolved_key" +
+            " when matched then update" +
+            " set num_times_occurred = e.num_times_occurred + 1, updated_at = current_timestamp" +
+            " when not matched then insert (" + UPSERT_COLUMNS + ")" +
+            " values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, coalesce(?, current_timestamp), k.unresolved_key))";
+
+    private static final String INCREMENT_UNRESOLVED_COUNT_SQL = "update application_errors" +
+            " set num_times_occurred = num_times_occurred + 1, updated_at = current_timestamp" +
+            " where unresolved_key = ?";
+
+    private static final String RETURNING_INCREMENT_UNRESOLVED_COUNT_SQL =
+            INCREMENT_UNRESOLVED_COUNT_SQL + " returning id";
+
+    private static final String H2_INCREMENT_UNRESOLVED_COUNT_SQL =
+            "select id from final table (" + INCREMENT_UNRESOLVED_COUNT_SQL + ")";
+
+    private static final String INSERT_STACK_TRACE_SQL = "insert into application_error_stack_traces" +
+            " (stack_trace_hash, last_used_at, stack_trace, compressed_stack_trace) values (?, ?, ?, ?)";
+
+    private static final String ON_CONFLICT_INSERT_STACK_TRACE_SQL = INSERT_STACK_TRACE_SQL +
+            " on conflict (stack_trace_hash) do update set last_used_at = excluded.last_used_at";
+
+    private static final String H2_INSERT_STACK_TRACE_SQL = "merge into application_error_stack_traces t" +
+            " using (select cast(? as varchar(64)) as stack_trace_hash, cast(? as timestamp) as last_used_at) h" +
+            " on t.stack_trace_hash = h.stack_trace_hash" +
+            " when matched then update set last_used_at = h.last_used_at" +
+            " when not matched then insert (stack_trace_hash, last_used_at, stack_trace, compressed_stack_trace)" +
+            " values (h.stack_trace_hash, h.last_used_at, ?, ?)";
+
+    private static final String TOUCH_STACK_TRACE_SQL =
+            "update application_error_stack_traces set last_used_at = ? where stack_trace_hash = ?";
+
     private final DataSource dataSource;
+    private final StackTraceCompression stackTraceCompression;
+    private volatile UpsertDialect upsertDialect;
 
+    /**
+     * Create a new instance that stores stack traces as text.
+     *
+     * @param dataSource the DataSource
+     */
     public JdbcApplicationErrorDao(DataSource dataSource) {
+        this(dataSource, StackTraceCompression.NONE);
+    }
+
+    /**
+     * Create a new instance that stores new stack traces using the given compression.
+     *
+     * @param dataSource            the DataSource
+     * @param stackTraceCompression how to store new stack traces
+     */
+    public JdbcApplicationErrorDao(DataSource dataSource, StackTraceCompression stackTraceCompression) {
         this.dataSource = dataSource;
+        this.stackTraceCompression = requireNotNull(stackTraceCompression, "stackTraceCompression must not be null");
     }
 
     @Override
     public Optional<ApplicationError> getById(long id) {
-        try (var conn = connection();
-             var ps = conn.prepareStatement("select * from application_errors where id = ?")) {
+        var sql = ApplicationErrorJdbc.SELECT_ERRORS_SQL + " where e.id = ?";
+
+        try (var conn = connection(); var ps = conn.prepareStatement(sql)) {
 
             ps.setLong(1, id);
 
@@ -124,48 +230,181 @@ public class JdbcApplicationErrorDao implements ApplicationErrorDao {
 
     @Override
     public List<ApplicationError> getAllErrors(int pageNumber, int pageSize) {
+        return getErrors(ApplicationErrorStatus.ALL, pageNumber, pageSize);
+    }
+
+    @Override
+    public List<ApplicationError> getErrors(ApplicationErrorStatus status, int pageNumber, int pageSize) {
+        return getPage(ApplicationErrorJdbc.ALL_COLUMNS, ApplicationErrorJdbc::mapFrom, status, pageNumber, pageSize);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @implNote Selects all columns except {@code stack_trace}.
+     */
+    @Override
+    public List<ApplicationErrorSummary> getErrorSummaries(ApplicationErrorStatus status,
+                                                           int pageNumber,
+                                                           int pageSize) {
+        return getPage(ApplicationErrorJdbc.SUMMARY_COLUMNS, ApplicationErrorJdbc::mapSummaryFrom,
+                status, pageNumber, pageSize);
+    }
+
+    private <T> List<T> getPage(String columns,
+                                ResultSetMapper<T> mapper,
+                                ApplicationErrorStatus status,
+                                int pageNumber,
+                                int pageSize) {
+        checkNotNull(status, "status cannot be null");
+
         int offset = checkPagingArgumentsAndCalculateZeroBasedOffset(pageNumber, pageSize);
-        var sql = "select * from application_errors order by updated_at desc" +
-                paginationClause(pageSize, offset);
+        var sql = "select " + columns + " from " + ApplicationErrorJdbc.tablesFor(columns) + statusWhereClause(status) +
+                " order by updated_at desc" + paginationClause(pageSize, offset);
 
-        try (var conn = connection(); var stmt = conn.createStatement(); var rs = stmt.executeQuery(sql)) {
-            return collectErrors(rs, pageSize);
+        try (var conn = connection(); var ps = conn.prepareStatement(sql)) {
+            setStatusParameter(ps, status);
+            return collect(ps, mapper, pageSize);
         } catch (SQLException e) {
             throw new UncheckedSQLException(e);
         }
     }
 
+    private static String statusWhereClause(ApplicationErrorStatus status) {
+        return (status == ApplicationErrorStatus.ALL) ? "" : " where resolved = ?";
+    }
+
+    private static void setStatusParameter(PreparedStatement ps, ApplicationErrorStatus status) throws SQLException {
+        if (status != ApplicationErrorStatus.ALL) {
+            ps.setBoolean(1, status == ApplicationErrorStatus.RESOLVED);
+        }
+    }
+
+    private static String paginationClause(int pageSize, int offset) {
+        return f(" limit {} offset {}", pageSize, offset);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @implNote Gets the page and the total count in a single query using a {@code count(*) over ()} window
+     * function. Only when the requested page is past the last page (so that there are no rows from which to read the
+     * total count) does this make a second query to count the errors.
+     */
     @Override
-    public List<ApplicationError> getErrors(ApplicationErrorStatus status, int pageNumber, int pageSize) {
-        checkNotNull(status, "status cannot be null");
+    public ApplicationErrorPage getErrorPage(ApplicationErrorStatus status, int pageNumber, int pageSize) {
+        var page = getPageWithTotalCount(ApplicationErrorJdbc.ALL_COLUMNS, ApplicationErrorJdbc::mapPageFrom,
+                status, pageNumber, pageSize);
 
-        return switch (status) {
-            case ALL -> getAllErrors(pageNumber, pageSize);
-            case RESOLVED -> getErrors(true, pageNumber, pageSize);
-            case UNRESOLVED -> getErrors(false, pageNumber, pageSize);
-        };
+        if (page.getItems().isEmpty()) {
+            return ApplicationErrorPage.of(page.getItems(), count(status), pageNumber, pageSize);
+        }
+        return page;
     }
 
-    private List<ApplicationError> getErrors(boolean resolved, int pageNumber, int pageSize) {
+    /**
+     * {@inheritDoc}
+     *
+     * @implNote Selects all columns except {@code stack_trace}. Gets the page and the total count in a single query,
+     * in the same way as {@link #getErrorPage(ApplicationErrorStatus, int, int)}.
+     */
+    @Override
+    public ApplicationErrorSummaryPage getErrorSummaryPage(ApplicationErrorStatus status,
+                                                           int pageNumber,
+                                                           int pageSize) {
+        var page = getPageWithTotalCount(ApplicationErrorJdbc.SUMMARY_COLUMNS,
+                ApplicationErrorJdbc::mapSummaryPageFrom, status, pageNumber, pageSize);
+
+        if (page.getItems().isEmpty()) {
+            return ApplicationErrorSummaryPage.of(page.getItems(), count(status), pageNumber, pageSize);
+        }
+        return page;
+    }
+
+    private <P> P getPageWithTotalCount(String columns,
+                                        PageMapper<P> pageMapper,
+                                        ApplicationErrorStatus status,
+                                        int pageNumber,
+                                        int pageSize) {
+        checkNotNull(status, "status cannot be null");
+
         int offset = checkPagingArgumentsAndCalculateZeroBasedOffset(pageNumber, pageSize);
-        var sql = "select * from application_errors where resolved = ? order by updated_at desc"
-                + paginationClause(pageSize, offset);
+        var sql = ApplicationErrorJdbc.errorPageSql(columns, statusWhereClause(status), pageSize, offset);
 
         try (var conn = connection(); var ps = conn.prepareStatement(sql)) {
-            ps.setBoolean(1, resolved);
-            return collectErrors(ps, pageSize);
+            setStatusParameter(ps, status);
+            try (var rs = ps.executeQuery()) {
+                return pageMapper.map(rs, pageNumber, pageSize);
+            }
         } catch (SQLException e) {
             throw new UncheckedSQLException(e);
         }
     }
 
-    private static String paginationClause(int pageSize, int offset) {
-        return f(" limit {} offset {}", pageSize, offset);
+    @Override
+    public List<ApplicationError> getErrors(ApplicationErrorStatus status,
+                                            @Nullable ApplicationErrorCursor cursor,
+                                            int pageSize) {
+        return getPageAfterCursor(ApplicationErrorJdbc.ALL_COLUMNS, ApplicationErrorJdbc::mapFrom,
+                status, cursor, pageSize);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @implNote Selects all columns except {@code stack_trace}.
+     */
+    @Override
+    public List<ApplicationErrorSummary> getErrorSummaries(ApplicationErrorStatus status,
+                                                           @Nullable ApplicationErrorCursor cursor,
+                                                           int pageSize) {
+        return getPageAfterCursor(ApplicationErrorJdbc.SUMMARY_COLUMNS, ApplicationErrorJdbc::mapSummaryFrom,
+                status, cursor, pageSize);
+    }
+
+    private <T> List<T> getPageAfterCursor(String columns,
+                                           ResultSetMapper<T> mapper,
+                                           ApplicationErrorStatus status,
+                                           @Nullable ApplicationErrorCursor cursor,
+                                           int pageSize) {
+        checkNotNull(status, "status cannot be null");
+        checkPageSize(pageSize);
+
+        var sql = "select " + columns + " from " + ApplicationErrorJdbc.tablesFor(columns) +
+                keysetWhereClause(status, cursor) +
+                " order by updated_at desc, id desc limit " + pageSize;
+
+        try (var conn = connection(); var ps = conn.prepareStatement(sql)) {
+            var index = 1;
+            if (status != ApplicationErrorStatus.ALL) {
+                ps.setBoolean(index++, status == ApplicationErrorStatus.RESOLVED);
+            }
+            if (nonNull(cursor)) {
+                var cursorUpdatedAt = timestampFromZonedDateTime(cursor.getUpdatedAt());
+                ps.setTimestamp(index++, cursorUpdatedAt);
+                ps.setTimestamp(index++, cursorUpdatedAt);
+                ps.setLong(index, cursor.getId());
+            }
+            return collect(ps, mapper, pageSize);
+        } catch (SQLException e) {
+            throw new UncheckedSQLException(e);
+        }
+    }
+
+    private static String keysetWhereClause(ApplicationErrorStatus status, @Nullable ApplicationErrorCursor cursor) {
+        var conditions = new ArrayList<String>();
+        if (status != ApplicationErrorStatus.ALL) {
+            conditions.add("resolved = ?");
+        }
+        if (nonNull(cursor)) {
+            conditions.add("(updated_at < ? or (updated_at = ? and id < ?))");
+        }
+        return conditions.isEmpty() ? "" : " where " + String.join(" and ", conditions);
     }
 
     @Override
     public List<ApplicationError> getUnresolvedErrorsByDescription(String description) {
-        var sql = "select * from application_errors" +
+        var sql = ApplicationErrorJdbc.SELECT_ERRORS_SQL +
                 " where resolved = false and description = ? order by updated_at desc";
 
         try (var conn = connection(); var ps = conn.prepareStatement(sql)) {
@@ -178,7 +417,7 @@ public class JdbcApplicationErrorDao implements ApplicationErrorDao {
 
     @Override
     public List<ApplicationError> getUnresolvedErrorsByDescriptionAndHost(String description, String hostName) {
-        var sql = "select * from application_errors" +
+        var sql = ApplicationErrorJdbc.SELECT_ERRORS_SQL +
                 " where resolved = false and description = ? and host_name = ? order by updated_at desc";
 
         try (var conn = connection(); var ps = conn.prepareStatement(sql)) {
@@ -190,40 +429,73 @@ public class JdbcApplicationErrorDao implements ApplicationErrorDao {
         }
     }
 
+    @Override
+    public OptionalLong getUnresolvedErrorIdByFingerprint(String fingerprint) {
+        var sql = "select id from application_errors" +
+                " where fingerprint = ? and resolved = false order by updated_at desc";
+
+        try (var conn = connection(); var ps = conn.prepareStatement(sql)) {
+            ps.setString(1, fingerprint);
+            ps.setMaxRows(1);
+
+            try (var rs = ps.executeQuery()) {
+                return rs.next() ? OptionalLong.of(rs.getLong(1)) : OptionalLong.empty();
+            }
+        } catch (SQLException e) {
+            throw new UncheckedSQLException(e);
+        }
+    }
+
     private static List<ApplicationError> collectErrors(PreparedStatement ps, int pageSize) throws SQLException {
+        return collect(ps, ApplicationErrorJdbc::mapFrom, pageSize);
+    }
+
+    private static <T> List<T> collect(PreparedStatement ps, ResultSetMapper<T> mapper, int pageSize)
+            throws SQLException {
+
         try (var rs = ps.executeQuery()) {
-            return collectErrors(rs, pageSize);
+            var items = new ArrayList<T>(pageSize);
+            while (rs.next()) {
+                items.add(mapper.map(rs));
+            }
+            return Collections.unmodifiableList(items);
         }
     }
 
-    private static List<ApplicationError> collectErrors(ResultSet rs, int pageSize) throws SQLException {
-        var errors = new ArrayList<ApplicationError>(pageSize);
-        while (rs.next()) {
-            var error = ApplicationErrorJdbc.mapFrom(rs);
-            errors.add(error);
-        }
-        return Collections.unmodifiableList(errors);
+    @FunctionalInterface
+    private interface ResultSetMapper<T> {
+        T map(ResultSet rs) throws SQLException;
     }
 
+    @FunctionalInterface
+    private interface PageMapper<P> {
+        P map(ResultSet rs, int pageNumber, int pageSize) throws SQLException;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @implNote The stack trace is stored in {@code application_error_stack_traces} unless an identical stack trace
+     * is already stored there, and the new error references it by its hash. It is stored using the
+     * {@link StackTraceCompression} given to the constructor. A non-null {@code createdAt} is kept, so that an error
+     * saved after it occurred keeps the time it occurred; otherwise it is the current timestamp. The
+     * {@code unresolved_key} is left null, so an unresolved error having the same fingerprint may already exist.
+     */
     @Override
     public long insertError(ApplicationError newError) {
-        checkArgumentIsNull(newError.getId(), "Cannot insert an ApplicationError that has an id");
+        return insertError(newError, null);
+    }
 
-        var sql = "insert into application_errors" +
-                " (description, exception_type, exception_message, exception_cause_type, exception_cause_message," +
-                " stack_trace, host_name, ip_address, port)" +
-                " values (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private long insertError(ApplicationError newError, @Nullable String unresolvedKey) {
+        checkArgumentIsNull(newError.getId(), "Cannot insert an ApplicationError that has an id");
 
+        var sql = isNull(unresolvedKey) ? INSERT_SQL : INSERT_WITH_UNRESOLVED_KEY_SQL;
         try (var conn = connection(); var ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            ps.setString(1, newError.getDescription());
-            ps.setString(2, newError.getExceptionType());
-            ps.setString(3, newError.getExceptionMessage());
-            ps.setString(4, newError.getExceptionCauseType());
-            ps.setString(5, newError.getExceptionCauseMessage());
-            ps.setString(6, newError.getStackTrace());
-            ps.setString(7, newError.getHostName());
-            ps.setString(8, newError.getIpAddress());
-            ps.setInt(9, newError.getPort());
+            insertStackTraceIfAbsent(conn, newError.getStackTrace());
+            setInsertParameters(ps, 1, newError);
+            if (nonNull(unresolvedKey)) {
+                ps.setString(12, unresolvedKey);
+            }
 
             var count = ps.executeUpdate();
             checkState(count == 1, "Insert count should be one, but is: %s", count);
@@ -237,14 +509,81 @@ public class JdbcApplicationErrorDao implements ApplicationErrorDao {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @implNote The distinct stack traces are stored first, and then the errors are inserted using a single JDBC
+     * batch. For SQLite, whose driver returns only the last generated key of a batch, the errors are inserted one at
+     * a time using the same connection and statement. The inserts are not performed in a transaction, so if one
+     * fails, the errors before it might have been inserted.
+     */
+    @Override
+    public List<Long> insertErrors(List<ApplicationError> newErrors) {
+        checkArgumentNotNull(newErrors, "newErrors must not be null");
+        newErrors.forEach(newError ->
+                checkArgumentIsNull(newError.getId(), "Cannot insert an ApplicationError that has an id"));
+
+        if (newErrors.isEmpty()) {
+            return List.of();
+        }
+
+        try (var conn = connection(); var ps = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            insertStackTracesIfAbsent(conn, newErrors.stream().map(ApplicationError::getStackTrace).toList());
+
+            if (upsertDialect(conn) == UpsertDialect.SQLITE) {
+                return insertErrorsOneAtATime(ps, newErrors);
+            }
+
+            for (var newError : newErrors) {
+                setInsertParameters(ps, 1, newError);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+
+            var ids = new ArrayList<Long>(newErrors.size());
+            try (ResultSet generatedKeys = ps.getGeneratedKeys()) {
+                while (generatedKeys.next()) {
+                    ids.add(generatedKeys.getLong(1));
+                }
+            }
+            checkState(ids.size() == newErrors.size(),
+                    "Generated key count should be %s, but is: %s", newErrors.size(), ids.size());
+            return ids;
+        } catch (SQLException e) {
+            throw new UncheckedSQLException(e);
+        }
+    }
+
+    private static List<Long> insertErrorsOneAtATime(PreparedStatement ps, List<ApplicationError> newErrors)
+            throws SQLException {
+
+        var ids = new ArrayList<Long>(newErrors.size());
+        for (var newError : newErrors) {
+            setInsertParameters(ps, 1, newError);
+
+            var count = ps.executeUpdate();
+            checkState(count == 1, "Insert count should be one, but is: %s", count);
+
+            try (ResultSet generatedKeys = ps.getGeneratedKeys()) {
+                nextOrThrow(generatedKeys);
+                ids.add(generatedKeys.getLong(1));
+            }
+        }
+        return ids;
+    }
+
     @Override
     public void incrementCount(long id) {
-        var sql = "update application_errors" +
-                " set num_times_occurred = num_times_occurred + 1, updated_at = current_timestamp" +
-                " where id = ?";
+        incrementCount(id, 1);
+    }
 
-        try (var conn = connection(); var ps = conn.prepareStatement(sql)) {
-            ps.setLong(1, id);
+    @Override
+    public void incrementCount(long id, int amount) {
+        checkArgument(amount > 0, "amount must be positive");
+
+        try (var conn = connection(); var ps = conn.prepareStatement(INCREMENT_COUNT_SQL)) {
+            ps.setInt(1, amount);
+            ps.setLong(2, id);
 
             var count = ps.executeUpdate();
             checkState(count == 1, "Unable to increment count. No ApplicationError found with id %s", id);
@@ -253,24 +592,351 @@ public class JdbcApplicationErrorDao implements ApplicationErrorDao {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @implNote The counts are incremented using a single JDBC batch. The updates are not performed in a
+     * transaction, so if one fails, the updates before it might have been performed.
+     */
+    @Override
+    public void incrementCounts(Map<Long, Integer> amounts) {
+        checkIncrementAmounts(amounts);
+
+        if (amounts.isEmpty()) {
+            return;
+        }
+
+        var ids = new ArrayList<Long>(amounts.size());
+        try (var conn = connection(); var ps = conn.prepareStatement(INCREMENT_COUNT_SQL)) {
+            for (var entry : amounts.entrySet()) {
+                ps.setInt(1, entry.getValue());
+                ps.setLong(2, entry.getKey());
+                ps.addBatch();
+                ids.add(entry.getKey());
+            }
+
+            var counts = ps.executeBatch();
+
+            // A driver may return SUCCESS_NO_INFO instead of the count, so only a count of zero means it is missing
+            var missingIds = new ArrayList<Long>();
+            for (var i = 0; i < counts.length; i++) {
+                if (counts[i] == 0) {
+                    missingIds.add(ids.get(i));
+                }
+            }
+            checkAllIncremented(missingIds);
+        } catch (SQLException e) {
+            throw new UncheckedSQLException(e);
+        }
+    }
+
+    @Override
+    public boolean incrementCountIfUnresolved(long id) {
+        try (var conn = connection(); var ps = conn.prepareStatement(INCREMENT_COUNT_IF_UNRESOLVED_SQL)) {
+            ps.setInt(1, 1);
+            ps.setLong(2, id);
+            return ps.executeUpdate() == 1;
+        } catch (SQLException e) {
+            throw new UncheckedSQLException(e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @implNote The counts are incremented using a single JDBC batch. The updates are not performed in a
+     * transaction, so if one fails, the updates before it might have been performed.
+     */
+    @Override
+    public Set<Long> incrementCountsIfUnresolved(Map<Long, Integer> amounts) {
+        checkIncrementAmounts(amounts);
+
+        if (amounts.isEmpty()) {
+            return Set.of();
+        }
+
+        var ids = new ArrayList<Long>(amounts.size());
+        try (var conn = connection(); var ps = conn.prepareStatement(INCREMENT_COUNT_IF_UNRESOLVED_SQL)) {
+            for (var entry : amounts.entrySet()) {
+                ps.setInt(1, entry.getValue());
+                ps.setLong(2, entry.getKey());
+                ps.addBatch();
+                ids.add(entry.getKey());
+            }
+
+            var counts = ps.executeBatch();
+
+            // A driver may return SUCCESS_NO_INFO instead of the count, so only a count of zero means it was skipped
+            var incrementedIds = new HashSet<Long>();
+            for (var i = 0; i < counts.length; i++) {
+                if (counts[i] != 0) {
+                    incrementedIds.add(ids.get(i));
+                }
+            }
+            return incrementedIds;
+        } catch (SQLException e) {
+            throw new UncheckedSQLException(e);
+        }
+    }
+
+    private static void setInsertParameters(PreparedStatement ps, int firstIndex, ApplicationError error)
+            throws SQLException {
+
+        ps.setString(firstIndex, error.getDescription());
+        ps.setString(firstIndex + 1, error.getExceptionType());
+        ps.setString(firstIndex + 2, error.getExceptionMessage());
+        ps.setString(firstIndex + 3, error.getExceptionCauseType());
+        ps.setString(firstIndex + 4, error.getExceptionCauseMessage());
+        ps.setString(firstIndex + 5, ApplicationErrorJdbc.stackTraceHashOf(error.getStackTrace()));
+        ps.setString(firstIndex + 6, error.getHostName());
+        ps.setString(firstIndex + 7, error.getIpAddress());
+        ps.setInt(firstIndex + 8, error.getPort());
+        ps.setString(firstIndex + 9, error.getFingerprint());
+        ps.setTimestamp(firstIndex + 10, timestampFromZonedDateTimeOrNull(error.getCreatedAt()));
+    }
+
+    private static Timestamp timestampFromZonedDateTimeOrNull(@Nullable ZonedDateTime zonedDateTime) {
+        return isNull(zonedDateTime) ? null : timestampFromZonedDateTime(zonedDateTime);
+    }
+
+    private void insertStackTraceIfAbsent(Connection conn, @Nullable String stackTrace) throws SQLException {
+        if (isNull(stackTrace)) {
+            return;
+        }
+
+        var stackTraceHash = ApplicationErrorJdbc.stackTraceHashOf(stackTrace);
+        var lastUsedAt = now();
+        var dialect = upsertDialect(conn);
+        if (touchBeforeInserting(dialect) && touchStackTrace(conn, stackTraceHash, lastUsedAt)) {
+            return;
+        }
+
+        switch (dialect) {
+            case H2 -> insertStackTrace(conn, H2_INSERT_STACK_TRACE_SQL, stackTraceHash, lastUsedAt, stackTrace);
+            case POSTGRES, SQLITE ->
+                    insertStackTrace(conn, ON_CONFLICT_INSERT_STACK_TRACE_SQL, stackTraceHash, lastUsedAt, stackTrace);
+            case UNSUPPORTED -> insertStackTraceOrTouch(conn, stackTraceHash, lastUsedAt, stackTrace);
+        }
+    }
+
+    private void insertStackTracesIfAbsent(Connection conn, Collection<String> stackTraces) throws SQLException {
+        var distinctStackTraces = stackTraces.stream().filter(Objects::nonNull).distinct().toList();
+        if (distinctStackTraces.isEmpty()) {
+            return;
+        }
+
+        var lastUsedAt = now();
+        var dialect = upsertDialect(conn);
+        var absentStackTracesByHash = new LinkedHashMap<String, String>();
+        for (var stackTrace : distinctStackTraces) {
+            var stackTraceHash = ApplicationErrorJdbc.stackTraceHashOf(stackTrace);
+            if (!touchBeforeInserting(dialect) || !touchStackTrace(conn, stackTraceHash, lastUsedAt)) {
+                absentStackTracesByHash.put(stackTraceHash, stackTrace);
+            }
+        }
+
+        if (absentStackTracesByHash.isEmpty()) {
+            return;
+        }
+
+        if (dialect == UpsertDialect.UNSUPPORTED) {
+            for (var entry : absentStackTracesByHash.entrySet()) {
+                insertStackTraceOrTouch(conn, entry.getKey(), lastUsedAt, entry.getValue());
+            }
+            return;
+        }
+
+        var sql = dialect == UpsertDialect.H2 ? H2_INSERT_STACK_TRACE_SQL : ON_CONFLICT_INSERT_STACK_TRACE_SQL;
+        try (var ps = conn.prepareStatement(sql)) {
+            for (var entry : absentStackTracesByHash.entrySet()) {
+                setStackTraceParameters(ps, entry.getKey(), lastUsedAt, entry.getValue());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    /**
+     * Whether to mark a stored stack trace as used before trying to insert it. Compressing a stack trace costs much
+     * more than that, so when compressing, a stack trace is only compressed if it is not already stored. Without an
+     * upsert statement, this is also how to find whether the stack trace is stored.
+     */
+    private boolean touchBeforeInserting(UpsertDialect dialect) {
+        return stackTraceCompression == StackTraceCompression.DEFLATE || dialect == UpsertDialect.UNSUPPORTED;
+    }
+
+    private void insertStackTraceOrTouch(Connection conn,
+                                         String stackTraceHash,
+                                         Timestamp lastUsedAt,
+                                         String stackTrace) throws SQLException {
+
+        try {
+            insertStackTrace(conn, INSERT_STACK_TRACE_SQL, stackTraceHash, lastUsedAt, stackTrace);
+        } catch (SQLException e) {
+            // Another thread might have inserted the same stack trace after we checked whether it exists
+            if (!touchStackTrace(conn, stackTraceHash, lastUsedAt)) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Sets the time the stack trace was last used, so that {@link #deleteUnusedStackTraces()} does not delete it
+     * before the error using it is inserted.
+     *
+     * @return true if the stack trace exists
+     */
+    private static boolean touchStackTrace(Connection conn, String stackTraceHash, Timestamp lastUsedAt)
+            throws SQLException {
+
+        try (var ps = conn.prepareStatement(TOUCH_STACK_TRACE_SQL)) {
+            ps.setTimestamp(1, lastUsedAt);
+            ps.setString(2, stackTraceHash);
+            return ps.executeUpdate() > 0;
+        }
+    }
+
+    private void insertStackTrace(Connection conn,
+                                  String sql,
+                                  String stackTraceHash,
+                                  Timestamp lastUsedAt,
+                                  String stackTrace) throws SQLException {
+
+        try (var ps = conn.prepareStatement(sql)) {
+            setStackTraceParameters(ps, stackTraceHash, lastUsedAt, stackTrace);
+            ps.executeUpdate();
+        }
+    }
+
+    private void setStackTraceParameters(PreparedStatement ps,
+                                         String stackTraceHash,
+                                         Timestamp lastUsedAt,
+                                         String stackTrace) throws SQLException {
+
+        ps.setString(1, stackTraceHash);
+        ps.setTimestamp(2, lastUsedAt);
+        if (stackTraceCompression == StackTraceCompression.DEFLATE) {
+            ps.setNull(3, Types.VARCHAR);
+            ps.setBytes(4, ApplicationErrorJdbc.compressStackTrace(stackTrace));
+        } else {
+            ps.setString(3, stackTrace);
+            ps.setNull(4, Types.BINARY);
+        }
+    }
+
+    private static Timestamp now() {
+        return timestampFromZonedDateTime(ZonedDateTime.now(ZoneOffset.UTC));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @implNote For H2, Postgres, and SQLite, this first increments the count of the existing unresolved error using
+     * the unique index on the {@code unresolved_key} column, which is a single statement. Only if there is no such
+     * error is the stack trace stored, and the error inserted using an atomic "upsert" statement, which increments
+     * the count instead if the same error was inserted concurrently. For other databases, it finds an existing
+     * unresolved error using the index on the {@code fingerprint} and {@code resolved} columns, and then either
+     * increments its count or inserts a new error. If the insert violates the unique index because the same error was
+     * inserted concurrently, the count of that error is incremented instead. In all cases, the stack trace is only
+     * hashed and stored when inserting a new error.
+     */
     @Override
     public long insertOrIncrementCount(ApplicationError error) {
         checkNotNull(error.getDescription(), "Error description cannot be null");
 
-        var errors = getUnresolvedErrorsByDescriptionAndHost(error.getDescription(), error.getHostName());
+        return switch (upsertDialect()) {
+            case H2 -> upsert(H2_INCREMENT_UNRESOLVED_COUNT_SQL, H2_UPSERT_SQL, error, 1, 2);
+            case POSTGRES, SQLITE ->
+                    upsert(RETURNING_INCREMENT_UNRESOLVED_COUNT_SQL, ON_CONFLICT_UPSERT_SQL, error, 12, 1);
+            case UNSUPPORTED -> insertOrIncrementCountUsingSeparateStatements(error);
+        };
+    }
+
+    private UpsertDialect upsertDialect() {
+        if (isNull(upsertDialect)) {
+            try (var conn = connection()) {
+                return upsertDialect(conn);
+            } catch (SQLException e) {
+                throw new UncheckedSQLException(e);
+            }
+        }
+        return upsertDialect;
+    }
+
+    private UpsertDialect upsertDialect(Connection conn) {
+        if (isNull(upsertDialect)) {
+            upsertDialect = ApplicationErrorJdbc.upsertDialectOf(conn);
+        }
+        return upsertDialect;
+    }
+
+    private long upsert(String incrementSql,
+                        String upsertSql,
+                        ApplicationError error,
+                        int unresolvedKeyIndex,
+                        int firstInsertIndex) {
+
+        var unresolvedKey = unresolvedKeyOf(error);
+
+        try (var conn = connection()) {
+            var existingId = incrementUnresolvedCount(conn, incrementSql, unresolvedKey);
+            if (existingId.isPresent()) {
+                return existingId.getAsLong();
+            }
+
+            insertStackTraceIfAbsent(conn, error.getStackTrace());
+
+            try (var ps = conn.prepareStatement(upsertSql)) {
+                ps.setString(unresolvedKeyIndex, unresolvedKey);
+                setInsertParameters(ps, firstInsertIndex, error);
+
+                try (var rs = ps.executeQuery()) {
+                    nextOrThrow(rs);
+                    return rs.getLong(1);
+                }
+            }
+        } catch (SQLException e) {
+            throw new UncheckedSQLException(e);
+        }
+    }
+
+    private static OptionalLong incrementUnresolvedCount(Connection conn, String sql, String unresolvedKey)
+            throws SQLException {
+
+        try (var ps = conn.prepareStatement(sql)) {
+            ps.setString(1, unresolvedKey);
+
+            try (var rs = ps.executeQuery()) {
+                return rs.next() ? OptionalLong.of(rs.getLong(1)) : OptionalLong.empty();
+            }
+        }
+    }
+
+    private long insertOrIncrementCountUsingSeparateStatements(ApplicationError error) {
+        var existingId = getUnresolvedErrorIdByFingerprint(error.getFingerprint());
 
-        if (errors.isEmpty()) {
-            return insertError(error);
+        if (existingId.isEmpty()) {
+            try {
+                // Setting the unresolved key makes the insert fail if the same error was inserted concurrently
+                return insertError(error, unresolvedKeyOf(error));
+            } catch (UncheckedSQLException e) {
+                // Another thread or process might have inserted the same error after we looked for it
+                existingId = getUnresolvedErrorIdByFingerprint(error.getFingerprint());
+                if (!ApplicationErrorJdbc.isIntegrityConstraintViolation(e) || existingId.isEmpty()) {
+                    throw e;
+                }
+            }
         }
 
-        var existingError = first(errors);
-        incrementCount(existingError.getId());
-        return existingError.getId();
+        var id = existingId.getAsLong();
+        incrementCount(id);
+        return id;
     }
 
     @Override
     public ApplicationError resolve(long id) {
-        var sql = "update application_errors set resolved = true, updated_at = current_timestamp where id = ?";
+        var sql = "update application_errors" +
+                " set resolved = true, unresolved_key = null, updated_at = current_timestamp where id = ?";
 
         try (var conn = connection(); var ps = conn.prepareStatement(sql)) {
             ps.setLong(1, id);
@@ -286,7 +952,8 @@ public class JdbcApplicationErrorDao implements ApplicationErrorDao {
 
     @Override
     public int resolveAllUnresolvedErrors() {
-        var sql = "update application_errors set resolved = true, updated_at = current_timestamp where resolved = false";
+        var sql = "update application_errors" +
+                " set resolved = true, unresolved_key = null, updated_at = current_timestamp where resolved = false";
 
         try (var conn = connection(); var stmt = conn.createStatement()) {
             return stmt.executeUpdate(sql);
@@ -316,6 +983,85 @@ public class JdbcApplicationErrorDao implements ApplicationErrorDao {
         }
     }
 
+    @Override
+    public int deleteResolvedErrorsBefore(ZonedDateTime expirationDate, int limit) {
+        return deleteErrorsBeforeWithLimit(true, expirationDate, limit);
+    }
+
+    @Override
+    public int deleteUnresolvedErrorsBefore(ZonedDateTime expirationDate, int limit) {
+        return deleteErrorsBeforeWithLimit(false, expirationDate, limit);
+    }
+
+    private int deleteErrorsBeforeWithLimit(boolean resolved, ZonedDateTime expirationDate, int limit) {
+        ApplicationErrorDao.checkDeleteLimit(limit);
+
+        // The extra derived table is required by MySQL, which does not allow limit in an "in" subquery
+        // nor selecting from the table being deleted from
+        var sql = "delete from application_errors where id in (select id from" +
+                " (select id from application_errors where resolved = ? and created_at < ? limit ?) as expired)";
+
+        try (var conn = connection(); var ps = conn.prepareStatement(sql)) {
+            ps.setBoolean(1, resolved);
+            ps.setTimestamp(2, timestampFromZonedDateTime(expirationDate));
+            ps.setInt(3, limit);
+            return ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new UncheckedSQLException(e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @implNote Stack traces used within the last {@link ApplicationErrorJdbc#UNUSED_STACK_TRACE_GRACE_PERIOD} are
+     * not deleted, since storing a stack trace (or marking an existing one as used) and inserting the error that uses
+     * it are separate statements.
+     */
+    @Override
+    public int deleteUnusedStackTraces() {
+        var sql = "delete from application_error_stack_traces where last_used_at < ?" +
+                " and not exists (select 1 from application_errors e" +
+                " where e.stack_trace_hash = application_error_stack_traces.stack_trace_hash)";
+
+        try (var conn = connection(); var ps = conn.prepareStatement(sql)) {
+            ps.setTimestamp(1, timestampFromZonedDateTime(unusedStackTraceUsedSince()));
+            return ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new UncheckedSQLException(e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @implNote Like {@link #deleteUnusedStackTraces()}, stack traces used within the last
+     * {@link ApplicationErrorJdbc#UNUSED_STACK_TRACE_GRACE_PERIOD} are not deleted.
+     */
+    @Override
+    public int deleteUnusedStackTraces(int limit) {
+        ApplicationErrorDao.checkDeleteLimit(limit);
+
+        // The extra derived table is required by MySQL, which does not allow limit in an "in" subquery
+        // nor selecting from the table being deleted from
+        var sql = "delete from application_error_stack_traces where stack_trace_hash in" +
+                " (select stack_trace_hash from (select t.stack_trace_hash from application_error_stack_traces t" +
+                " where t.last_used_at < ? and not exists (select 1 from application_errors e" +
+                " where e.stack_trace_hash = t.stack_trace_hash) limit ?) as unused)";
+
+        try (var conn = connection(); var ps = conn.prepareStatement(sql)) {
+            ps.setTimestamp(1, timestampFromZonedDateTime(unusedStackTraceUsedSince()));
+            ps.setInt(2, limit);
+            return ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new UncheckedSQLException(e);
+        }
+    }
+
+    private static ZonedDateTime unusedStackTraceUsedSince() {
+        return ZonedDateTime.now(ZoneOffset.UTC).minus(UNUSED_STACK_TRACE_GRACE_PERIOD);
+    }
+
     private Connection connection() throws SQLException {
         return dataSource.getConnection();
     }
@@ -0,0 +1,342 @@
+package org.kiwiproject.dropwizard.error.dao.jdk;
+
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static org.kiwiproject.dropwizard.error.dao.jdk.ErrorLogEncoding.encode;
+import static org.kiwiproject.dropwizard.error.dao.jdk.ErrorLogEncoding.readDateTime;
+import static org.kiwiproject.dropwizard.error.dao.jdk.ErrorLogEncoding.writeDateTime;
+import static org.kiwiproject.dropwizard.error.dao.jdk.ErrorLogEncoding.writeError;
+
+import lombok.extern.slf4j.Slf4j;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.kiwiproject.dropwizard.error.model.ApplicationError;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.ZonedDateTime;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only log of changes to application errors, stored in a memory-mapped file.
+ * Used by {@link MappedFileApplicationErrorDao}.
+ * <p>
+ * The file starts with a header identifying its format. The header is followed by records. Each record consists of
+ * the length of its payload, its type, the payload, and a CRC32 checksum of the type and payload. A zero length, or
+ * a record whose checksum does not match, marks the end of the log; the latter happens when the process stopped
+ * while writing the record. A record is one of:
+ * <ul>
+ *     <li>PUT - the complete state of an error</li>
+ *     <li>UPDATE - the new count, resolved flag, and updatedAt timestamp of an error</li>
+ *     <li>REMOVE - the ID of a deleted error</li>
+ * </ul>
+ * When a record does not fit in the file, the log is compacted: a new file containing only a PUT record for each
+ * current error replaces the old file. The new file is twice as large as the current errors plus the new record,
+ * so that compaction happens less often as the number of errors grows.
+ * <p>
+ * Records are written only to the mapped memory, and are forced to the storage device only by compaction and
+ * {@link #close()}. Since the operating system writes changed pages of a mapped file eventually, records survive the
+ * process crashing, but records appended since the last force can be lost if the operating system crashes or the
+ * machine loses power.
+ * <p>
+ * This class is not thread-safe; callers must ensure that only one thread changes the log at a time.
+ */
+@Slf4j
+class MappedErrorLog implements Closeable {
+
+    /**
+     * Receives the changes read from an existing log when it is opened.
+     */
+    interface Replayer {
+
+        void put(ApplicationError error);
+
+        void update(long id, int numTimesOccurred, boolean resolved, ZonedDateTime updatedAt);
+
+        void remove(long id);
+    }
+
+    /**
+     * "AppErrL1" in ASCII.
+     */
+    private static final long MAGIC = 0x4170704572724C31L;
+
+    private static final int HEADER_BYTES = Long.BYTES;
+    private static final int RECORD_OVERHEAD_BYTES = Integer.BYTES + Byte.BYTES + Integer.BYTES;
+
+    /**
+     * The maximum size of a single mapping.
+     */
+    private static final long MAX_FILE_BYTES = Integer.MAX_VALUE;
+
+    private static final byte PUT = 1;
+    private static final byte UPDATE = 2;
+    private static final byte REMOVE = 3;
+
+    private final Path path;
+    private final long initialSizeInBytes;
+    private final Supplier<Stream<ApplicationError>> currentErrors;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+
+    /**
+     * Open the log in the given file, creating the file if it does not exist, and replay the existing records.
+     *
+     * @param path               the path of the log file
+     * @param initialSizeInBytes the size of a new log file
+     * @param currentErrors      supplies the current errors, when the log is compacted
+     * @param replayer           receives the existing records
+     * @throws UncheckedIOException if the file cannot be read or written, or is not a log file
+     */
+    MappedErrorLog(Path path,
+                   long initialSizeInBytes,
+                   Supplier<Stream<ApplicationError>> currentErrors,
+                   Replayer replayer) {
+        this.path = path;
+        this.initialSizeInBytes = initialSizeInBytes;
+        this.currentErrors = currentErrors;
+
+        try {
+            var isNew = !Files.exists(path) || Files.size(path) == 0;
+            channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            // Do not change the size of an existing file, in case it is not a log file
+            var size = isNew ? initialSizeInBytes : channel.size();
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+
+            if (isNew) {
+                buffer.putLong(MAGIC);
+            } else {
+                checkHeader();
+                replay(replayer);
+            }
+        } catch (IOException e) {
+            closeQuietly();
+            throw new UncheckedIOException("Unable to open application error log " + path, e);
+        } catch (RuntimeException e) {
+            closeQuietly();
+            throw e;
+        }
+    }
+
+    private void checkHeader() throws IOException {
+        if (buffer.capacity() < HEADER_BYTES || buffer.getLong() != MAGIC) {
+            throw new IOException(path + " is not an application error log");
+        }
+    }
+
+    private void replay(Replayer replayer) {
+        var recordCount = 0;
+
+        while (buffer.remaining() >= RECORD_OVERHEAD_BYTES) {
+            var start = buffer.position();
+            var length = buffer.getInt();
+            if (length == 0) {
+                buffer.position(start);
+                break;
+            }
+
+            if (length < 0 || length > buffer.remaining() - Byte.BYTES - Integer.BYTES) {
+                LOG.warn("Ignoring record with invalid length {} at offset {} of application error log {}",
+                        length, start, path);
+                buffer.position(start);
+                clearRemaining();
+                break;
+            }
+
+            var type = buffer.get();
+            var payload = new byte[length];
+            buffer.get(payload);
+            var checksum = buffer.getInt();
+
+            if (checksum != checksumOf(type, payload)) {
+                LOG.warn("Ignoring partially written record at offset {} of application error log {}", start, path);
+                buffer.position(start);
+                clearRemaining();
+                break;
+            }
+
+            apply(type, payload, replayer);
+            ++recordCount;
+        }
+
+        LOG.info("Replayed {} records from application error log {}", recordCount, path);
+    }
+
+    private void clearRemaining() {
+        var position = buffer.position();
+        while (buffer.hasRemaining()) {
+            buffer.put((byte) 0);
+        }
+        buffer.position(position);
+    }
+
+    private static void apply(byte type, byte[] payload, Replayer replayer) {
+        try (var in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            switch (type) {
+                case PUT -> replayer.put(readError(in));
+                case UPDATE -> replayer.update(in.readLong(), in.readInt(), in.readBoolean(), readDateTime(in));
+                case REMOVE -> replayer.remove(in.readLong());
+                default -> throw new IllegalStateException("Unknown application error log record type: " + type);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Invalid application error log record", e);
+        }
+    }
+
+    /**
+     * Append a record containing the complete state of the given error.
+     *
+     * @param error the error
+     */
+    void appendPut(ApplicationError error) {
+        append(PUT, encodePut(error));
+    }
+
+    /**
+     * Append a record containing the count, resolved flag, and updatedAt timestamp of the given error.
+     *
+     * @param error the error
+     */
+    void appendUpdate(ApplicationError error) {
+        append(UPDATE, encode(out -> {
+            out.writeLong(error.getId());
+            out.writeInt(error.getNumTimesOccurred());
+            out.writeBoolean(error.isResolved());
+            writeDateTime(out, error.getUpdatedAt());
+        }));
+    }
+
+    /**
+     * Append a record indicating that the error having the given ID was deleted.
+     *
+     * @param id the error ID
+     */
+    void appendRemove(long id) {
+        append(REMOVE, encode(out -> out.writeLong(id)));
+    }
+
+    private void append(byte type, byte[] payload) {
+        checkState(nonNull(channel), "application error log %s is closed", path);
+
+        var recordBytes = RECORD_OVERHEAD_BYTES + payload.length;
+        if (buffer.remaining() < recordBytes) {
+            compact(recordBytes);
+        }
+
+        putRecord(buffer, type, payload);
+    }
+
+    private static void putRecord(MappedByteBuffer target, byte type, byte[] payload) {
+        target.putInt(payload.length)
+                .put(type)
+                .put(payload)
+                .putInt(checksumOf(type, payload));
+    }
+
+    private void compact(int newRecordBytes) {
+        var records = currentErrors.get().map(MappedErrorLog::encodePut).toList();
+        var currentBytes = HEADER_BYTES +
+                records.stream().mapToLong(record -> RECORD_OVERHEAD_BYTES + record.length).sum();
+        var newSize = Math.max(initialSizeInBytes, 2 * (currentBytes + newRecordBytes));
+        checkState(newSize <= MAX_FILE_BYTES,
+                "application error log %s cannot grow beyond %s bytes", path, MAX_FILE_BYTES);
+
+        var compactingPath = path.resolveSibling(path.getFileName() + ".compacting");
+        FileChannel newChannel = null;
+        try {
+            newChannel = FileChannel.open(compactingPath, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            var newBuffer = newChannel.map(FileChannel.MapMode.READ_WRITE, 0, newSize);
+
+            newBuffer.putLong(MAGIC);
+            records.forEach(record -> putRecord(newBuffer, PUT, record));
+            newBuffer.force();
+
+            Files.move(compactingPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            // The old buffer is not explicitly unmapped, since Java has no supported API to do so; its mapping is
+            // released when the buffer is garbage collected. Dropping the only reference to it here is all that can
+            // be done, and since each compaction at least doubles the file size, few old mappings can be pending.
+            channel.close();
+            channel = newChannel;
+            buffer = newBuffer;
+        } catch (IOException e) {
+            closeQuietly(newChannel);
+            throw new UncheckedIOException("Unable to compact application error log " + path, e);
+        }
+
+        LOG.debug("Compacted application error log {} to {} errors in a file of {} bytes",
+                path, records.size(), newSize);
+    }
+
+    /**
+     * @return the number of bytes used by the header and records
+     */
+    long sizeInBytes() {
+        return buffer.position();
+    }
+
+    /**
+     * Flush the log to the storage device, and close it.
+     */
+    @Override
+    public void close() {
+        if (isNull(channel)) {
+            return;
+        }
+
+        try {
+            buffer.force();
+        } finally {
+            closeQuietly();
+        }
+    }
+
+    private void closeQuietly() {
+        closeQuietly(channel);
+        channel = null;
+    }
+
+    private void closeQuietly(@Nullable FileChannel fileChannel) {
+        if (isNull(fileChannel)) {
+            return;
+        }
+
+        try {
+            fileChannel.close();
+        } catch (IOException e) {
+            LOG.warn("Error closing application error log {}", path, e);
+        }
+    }
+
+    private static int checksumOf(byte type, byte[] payload) {
+        var crc = new CRC32();
+        crc.update(type);
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static byte[] encodePut(ApplicationError error) {
+        return encode(out -> {
+            out.writeLong(error.getId());
+            writeError(out, error);
+        });
+    }
+
+    private static ApplicationError readError(DataInputStream in) throws IOException {
+        var id = in.readLong();
+        return ErrorLogEncoding.readError(in, id);
+    }
+}
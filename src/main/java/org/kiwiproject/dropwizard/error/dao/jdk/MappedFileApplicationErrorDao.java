@@ -0,0 +1,323 @@
+package org.kiwiproject.dropwizard.error.dao.jdk;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static org.kiwiproject.base.KiwiPreconditions.checkArgumentNotNull;
+import static org.kiwiproject.base.KiwiPreconditions.checkPositive;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.dropwizard.lifecycle.Managed;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.kiwiproject.dropwizard.error.dao.ApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.dao.ApplicationErrorStatus;
+import org.kiwiproject.dropwizard.error.model.ApplicationError;
+import org.kiwiproject.dropwizard.error.model.ApplicationErrorCursor;
+
+import java.io.Closeable;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * Implementation of {@link ApplicationErrorDao} that stores application errors in an append-only, memory-mapped log
+ * file, so that they survive restarts without needing a database. This is only suitable when the data store is not
+ * shared, since only one process can use the file.
+ * <p>
+ * All errors are also kept in memory, in a {@link ConcurrentMapApplicationErrorDao} which serves all queries.
+ * Each change is applied in memory and then appended to the log. When an instance is created using an existing file,
+ * the log is replayed to restore the errors. The log is compacted when it fills up.
+ * <p>
+ * Changes are serialized, while queries do not wait for changes. Changes written to the memory-mapped file survive
+ * the process exiting unexpectedly, but are only guaranteed to be on the storage device after {@link #close()}.
+ * <p>
+ * This class is a Dropwizard {@link Managed} object; {@link #stop()} closes the log file. Changes after that fail
+ * with an {@link IllegalStateException}.
+ */
+public class MappedFileApplicationErrorDao implements ApplicationErrorDao, Managed, Closeable {
+
+    /**
+     * The size of a new log file, which is 1 MiB.
+     */
+    public static final long DEFAULT_INITIAL_FILE_SIZE_BYTES = 1_024 * 1_024;
+
+    private final ConcurrentMapApplicationErrorDao errors;
+    private final MappedErrorLog log;
+
+    /**
+     * Create a new instance using the given file, creating it if it does not exist.
+     *
+     * @param path the path of the log file
+     * @throws java.io.UncheckedIOException if the file cannot be read or written, or is not a log file
+     */
+    public MappedFileApplicationErrorDao(Path path) {
+        this(path, DEFAULT_INITIAL_FILE_SIZE_BYTES);
+    }
+
+    /**
+     * Create a new instance using the given file, creating it with the given size if it does not exist.
+     *
+     * @param path                   the path of the log file
+     * @param initialFileSizeInBytes the size of a new log file
+     * @throws java.io.UncheckedIOException if the file cannot be read or written, or is not a log file
+     */
+    public MappedFileApplicationErrorDao(Path path, long initialFileSizeInBytes) {
+        checkArgumentNotNull(path, "path must not be null");
+        checkPositive(initialFileSizeInBytes, "initialFileSizeInBytes must be positive");
+
+        this.errors = new ConcurrentMapApplicationErrorDao();
+        this.log = new MappedErrorLog(path, initialFileSizeInBytes, errors::allErrors, new MappedErrorLog.Replayer() {
+            @Override
+            public void put(ApplicationError error) {
+                errors.put(error);
+            }
+
+            @Override
+            public void update(long id, int numTimesOccurred, boolean resolved, ZonedDateTime updatedAt) {
+                errors.getById(id).ifPresent(error ->
+                        errors.put(updateWith(error, numTimesOccurred, resolved, updatedAt)));
+            }
+
+            @Override
+            public void remove(long id) {
+                errors.remove(id);
+            }
+        });
+    }
+
+    @Override
+    public Optional<ApplicationError> getById(long id) {
+        return errors.getById(id);
+    }
+
+    @Override
+    public long countResolvedErrors() {
+        return errors.countResolvedErrors();
+    }
+
+    @Override
+    public long countUnresolvedErrors() {
+        return errors.countUnresolvedErrors();
+    }
+
+    @Override
+    public long countAllErrors() {
+        return errors.countAllErrors();
+    }
+
+    @Override
+    public long countUnresolvedErrorsSince(ZonedDateTime since) {
+        return errors.countUnresolvedErrorsSince(since);
+    }
+
+    @Override
+    public long countUnresolvedErrorsOnHostSince(ZonedDateTime since, String hostName, String ipAddress) {
+        return errors.countUnresolvedErrorsOnHostSince(since, hostName, ipAddress);
+    }
+
+    @Override
+    public List<ApplicationError> getAllErrors(int pageNumber, int pageSize) {
+        return errors.getAllErrors(pageNumber, pageSize);
+    }
+
+    @Override
+    public List<ApplicationError> getErrors(ApplicationErrorStatus status, int pageNumber, int pageSize) {
+        return errors.getErrors(status, pageNumber, pageSize);
+    }
+
+    @Override
+    public List<ApplicationError> getErrors(ApplicationErrorStatus status,
+                                            @Nullable ApplicationErrorCursor cursor,
+                                            int pageSize) {
+        return errors.getErrors(status, cursor, pageSize);
+    }
+
+    @Override
+    public List<ApplicationError> getUnresolvedErrorsByDescription(String description) {
+        return errors.getUnresolvedErrorsByDescription(description);
+    }
+
+    @Override
+    public List<ApplicationError> getUnresolvedErrorsByDescriptionAndHost(String description, String hostName) {
+        return errors.getUnresolvedErrorsByDescriptionAndHost(description, hostName);
+    }
+
+    @Override
+    public OptionalLong getUnresolvedErrorIdByFingerprint(String fingerprint) {
+        return errors.getUnresolvedErrorIdByFingerprint(fingerprint);
+    }
+
+    @Override
+    public synchronized long insertError(ApplicationError newError) {
+        var id = errors.insertError(newError);
+        var error = errors.getById(id).orElseThrow();
+        appendOrRestore(id, null, () -> log.appendPut(error));
+        return id;
+    }
+
+    /**
+     * Stores the given error exactly as it is, replacing any existing error having the same ID.
+     *
+     * @param error the error to store, which must have an ID
+     */
+    @VisibleForTesting
+    synchronized void put(ApplicationError error) {
+        checkArgumentNotNull(error.getId(), "Cannot put an ApplicationError that does not have an id");
+
+        var original = errors.getById(error.getId()).orElse(null);
+        errors.put(error);
+        appendOrRestore(error.getId(), original, () -> log.appendPut(error));
+    }
+
+    @Override
+    public void incrementCount(long id) {
+        incrementCount(id, 1);
+    }
+
+    @Override
+    public synchronized void incrementCount(long id, int amount) {
+        var original = errors.getById(id).orElse(null);
+        errors.incrementCount(id, amount);
+        var error = errors.getById(id).orElseThrow();
+        appendOrRestore(id, original, () -> log.appendUpdate(error));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @implNote An unresolved error without an ID increments the count of the unresolved error having the same
+     * fingerprint, if there is one.
+     */
+    @Override
+    public synchronized long insertOrIncrementCount(ApplicationError error) {
+        var id = error.getId();
+        if (nonNull(id)) {
+            incrementCount(id);
+            return id;
+        }
+
+        var existingId = error.isResolved() ?
+                OptionalLong.empty() : errors.getUnresolvedErrorIdByFingerprint(error.getFingerprint());
+        if (existingId.isEmpty()) {
+            return insertError(error);
+        }
+
+        incrementCount(existingId.getAsLong());
+        return existingId.getAsLong();
+    }
+
+    @Override
+    public synchronized ApplicationError resolve(long id) {
+        var original = errors.getById(id).orElse(null);
+        var error = errors.resolve(id);
+        appendOrRestore(id, original, () -> log.appendUpdate(error));
+        return error;
+    }
+
+    @Override
+    public synchronized int resolveAllUnresolvedErrors() {
+        var ids = errors.findIds(ApplicationErrorStatus.UNRESOLVED, error -> true, Integer.MAX_VALUE);
+        ids.forEach(this::resolve);
+        return ids.size();
+    }
+
+    @Override
+    public int deleteResolvedErrorsBefore(ZonedDateTime expirationDate) {
+        return deleteErrorsBefore(ApplicationErrorStatus.RESOLVED, expirationDate, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int deleteUnresolvedErrorsBefore(ZonedDateTime expirationDate) {
+        return deleteErrorsBefore(ApplicationErrorStatus.UNRESOLVED, expirationDate, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int deleteResolvedErrorsBefore(ZonedDateTime expirationDate, int limit) {
+        ApplicationErrorDao.checkDeleteLimit(limit);
+        return deleteErrorsBefore(ApplicationErrorStatus.RESOLVED, expirationDate, limit);
+    }
+
+    @Override
+    public int deleteUnresolvedErrorsBefore(ZonedDateTime expirationDate, int limit) {
+        ApplicationErrorDao.checkDeleteLimit(limit);
+        return deleteErrorsBefore(ApplicationErrorStatus.UNRESOLVED, expirationDate, limit);
+    }
+
+    private synchronized int deleteErrorsBefore(ApplicationErrorStatus status,
+                                                ZonedDateTime expirationDate,
+                                                int limit) {
+        var ids = errors.findIds(status, error -> error.getCreatedAt().isBefore(expirationDate), limit);
+
+        for (var id : ids) {
+            var original = errors.getById(id).orElseThrow();
+            errors.remove(id);
+            appendOrRestore(id, original, () -> log.appendRemove(id));
+        }
+
+        return ids.size();
+    }
+
+    /**
+     * Appends to the log, and if that fails, restores the error in memory to how it was before the change, so that
+     * what is in memory does not differ from what will be replayed from the log.
+     */
+    private void appendOrRestore(long id, @Nullable ApplicationError original, Runnable append) {
+        try {
+            append.run();
+        } catch (RuntimeException e) {
+            if (isNull(original)) {
+                errors.remove(id);
+            } else {
+                errors.put(original);
+            }
+            throw e;
+        }
+    }
+
+    private static ApplicationError updateWith(ApplicationError original,
+                                               int numTimesOccurred,
+                                               boolean resolved,
+                                               ZonedDateTime updatedAt) {
+        return ApplicationError.builder()
+                .id(original.getId())
+                .createdAt(original.getCreatedAt())
+                .updatedAt(updatedAt)
+                .numTimesOccurred(numTimesOccurred)
+                .description(original.getDescription())
+                .exceptionType(original.getExceptionType())
+                .exceptionMessage(original.getExceptionMessage())
+                .exceptionCauseType(original.getExceptionCauseType())
+                .exceptionCauseMessage(original.getExceptionCauseMessage())
+                .stackTrace(original.getStackTrace())
+                .resolved(resolved)
+                .hostName(original.getHostName())
+                .ipAddress(original.getIpAddress())
+                .port(original.getPort())
+                .build();
+    }
+
+    /**
+     * Does nothing, since the log file is opened when this instance is created.
+     */
+    @Override
+    public void start() {
+        // nothing to do
+    }
+
+    /**
+     * Closes the log file.
+     */
+    @Override
+    public void stop() {
+        close();
+    }
+
+    /**
+     * Flushes the log file to the storage device and closes it.
+     */
+    @Override
+    public synchronized void close() {
+        log.close();
+    }
+}
@@ -1,13 +1,16 @@
 package org.kiwiproject.dropwizard.error.dao.jdk;
 
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.kiwiproject.dropwizard.error.dao.ApplicationErrorDao;
 import org.kiwiproject.dropwizard.error.dao.ApplicationErrorStatus;
 import org.kiwiproject.dropwizard.error.model.ApplicationError;
+import org.kiwiproject.dropwizard.error.model.ApplicationErrorCursor;
 
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
 
 /**
  * An implementation of {@link ApplicationErrorDao} that does nothing, i.e. is a "no-op".
@@ -60,6 +63,13 @@ public class NoOpApplicationErrorDao implements ApplicationErrorDao {
         return List.of();
     }
 
+    @Override
+    public List<ApplicationError> getErrors(ApplicationErrorStatus status,
+                                            @Nullable ApplicationErrorCursor cursor,
+                                            int pageSize) {
+        return List.of();
+    }
+
     @Override
     public List<ApplicationError> getUnresolvedErrorsByDescription(String description) {
         return List.of();
@@ -70,6 +80,11 @@ public class NoOpApplicationErrorDao implements ApplicationErrorDao {
         return List.of();
     }
 
+    @Override
+    public OptionalLong getUnresolvedErrorIdByFingerprint(String fingerprint) {
+        return OptionalLong.empty();
+    }
+
     @Override
     public long insertError(ApplicationError newError) {
         return 0;
@@ -80,6 +95,11 @@ public class NoOpApplicationErrorDao implements ApplicationErrorDao {
         // no-op
     }
 
+    @Override
+    public void incrementCount(long id, int amount) {
+        // no-op
+    }
+
     @Override
     public long insertOrIncrementCount(ApplicationError error) {
         return 0;
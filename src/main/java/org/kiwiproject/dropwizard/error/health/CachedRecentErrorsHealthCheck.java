@@ -0,0 +1,153 @@
+package org.kiwiproject.dropwizard.error.health;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static org.kiwiproject.base.KiwiPreconditions.requireNotNull;
+import static org.kiwiproject.metrics.health.HealthCheckResults.newUnhealthyResult;
+
+import com.google.common.annotations.VisibleForTesting;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.time.DurationFormatUtils;
+import org.kiwiproject.base.KiwiStrings;
+import org.kiwiproject.dropwizard.error.dao.ApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.model.ServiceDetails;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.TemporalUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A {@link RecentErrorsHealthCheck} that is evaluated by calling {@link #refresh()}, usually on a background
+ * schedule, instead of each time the health check is executed. Executing the health check returns the most recent
+ * cached result, along with the time it was evaluated and its age, without querying the errors data store.
+ * <p>
+ * If the health check is executed before it has ever been refreshed, it is evaluated once synchronously. If the
+ * cached result is older than the maximum result age, for example because the background refreshes are failing or
+ * taking too long, the health check reports unhealthy.
+ */
+@Slf4j
+public class CachedRecentErrorsHealthCheck extends RecentErrorsHealthCheck {
+
+    /**
+     * The result detail containing the date/time at which the cached result was evaluated.
+     */
+    public static final String EVALUATED_AT_DETAIL = "evaluatedAt";
+
+    /**
+     * The result detail containing the age of the cached result in milliseconds.
+     */
+    public static final String RESULT_AGE_MILLIS_DETAIL = "resultAgeMillis";
+
+    private final Duration maxResultAge;
+    private final Clock clock;
+    private final AtomicReference<CachedResult> cachedResult = new AtomicReference<>();
+
+    private record CachedResult(Result result, Instant evaluatedAt) {
+    }
+
+    /**
+     * Create with specified time window amount and unit, and maximum result age.
+     *
+     * @param errorDao         the application error DAO
+     * @param serviceDetails   the service/application information
+     * @param timeWindowAmount the time window amount
+     * @param timeWindowUnit   the time window unit
+     * @param maxResultAge     the maximum age of a cached result before the health check reports unhealthy
+     */
+    public CachedRecentErrorsHealthCheck(ApplicationErrorDao errorDao,
+                                         ServiceDetails serviceDetails,
+                                         long timeWindowAmount,
+                                         TemporalUnit timeWindowUnit,
+                                         Duration maxResultAge) {
+        this(errorDao, serviceDetails, timeWindowAmount, timeWindowUnit, maxResultAge, Clock.systemUTC());
+    }
+
+    @VisibleForTesting
+    CachedRecentErrorsHealthCheck(ApplicationErrorDao errorDao,
+                                  ServiceDetails serviceDetails,
+                                  long timeWindowAmount,
+                                  TemporalUnit timeWindowUnit,
+                                  Duration maxResultAge,
+                                  Clock clock) {
+        super(errorDao, serviceDetails, timeWindowAmount, timeWindowUnit);
+        this.maxResultAge = requireNotNull(maxResultAge, "maxResultAge must not be null");
+        this.clock = requireNotNull(clock, "clock must not be null");
+    }
+
+    /**
+     * @return the maximum age of a cached result before the health check reports unhealthy
+     */
+    public Duration getMaxResultAge() {
+        return maxResultAge;
+    }
+
+    /**
+     * Evaluate the health check, querying the errors data store, and cache the result.
+     * <p>
+     * This never throws an exception, so it is safe to call from a scheduled executor.
+     *
+     * @return the new result
+     */
+    public Result refresh() {
+        Result result;
+        try {
+            result = super.check();
+        } catch (Exception e) {
+            LOG.warn("Error evaluating recent errors health check", e);
+            result = newUnhealthyResult(e, "Error evaluating recent errors health check");
+        }
+
+        cachedResult.set(new CachedResult(result, clock.instant()));
+        return result;
+    }
+
+    /**
+     * Returns the cached result, with its evaluation time and age added as details.
+     *
+     * @return the cached result, or an unhealthy result if it is too old
+     */
+    @Override
+    protected Result check() {
+        var cached = cachedResult.get();
+        if (isNull(cached)) {
+            LOG.debug("No cached result yet; evaluating recent errors health check synchronously");
+            refresh();
+            cached = cachedResult.get();
+        }
+
+        var age = Duration.between(cached.evaluatedAt(), clock.instant());
+        if (age.compareTo(maxResultAge) > 0) {
+            var message = KiwiStrings.format("Recent errors health check result is stale; last evaluated {} ago",
+                    DurationFormatUtils.formatDurationWords(age.toMillis(), true, true));
+            return addEvaluationDetails(newUnhealthyResult(message), cached.evaluatedAt(), age);
+        }
+
+        return addEvaluationDetails(cached.result(), cached.evaluatedAt(), age);
+    }
+
+    private static Result addEvaluationDetails(Result result, Instant evaluatedAt, Duration age) {
+        var builder = Result.builder();
+
+        if (result.isHealthy()) {
+            builder.healthy();
+        } else if (nonNull(result.getError())) {
+            builder.unhealthy(result.getError());
+        } else {
+            builder.unhealthy();
+        }
+
+        builder.withMessage(result.getMessage());
+
+        var details = result.getDetails();
+        if (nonNull(details)) {
+            details.forEach(builder::withDetail);
+        }
+
+        return builder
+                .withDetail(EVALUATED_AT_DETAIL, evaluatedAt.toString())
+                .withDetail(RESULT_AGE_MILLIS_DETAIL, age.toMillis())
+                .build();
+    }
+}
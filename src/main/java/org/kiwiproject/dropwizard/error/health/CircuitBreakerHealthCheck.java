@@ -0,0 +1,36 @@
+package org.kiwiproject.dropwizard.error.health;
+
+import static org.kiwiproject.base.KiwiPreconditions.requireNotNull;
+import static org.kiwiproject.metrics.health.HealthCheckResults.newHealthyResult;
+import static org.kiwiproject.metrics.health.HealthCheckResults.newUnhealthyResult;
+
+import com.codahale.metrics.health.HealthCheck;
+import org.kiwiproject.dropwizard.error.dao.CircuitBreakingApplicationErrorDao;
+
+/**
+ * A health check that reports unhealthy while the circuit breaker of a {@link CircuitBreakingApplicationErrorDao} is
+ * not closed, i.e. while application errors are not being saved normally.
+ */
+public class CircuitBreakerHealthCheck extends HealthCheck {
+
+    private final CircuitBreakingApplicationErrorDao errorDao;
+
+    /**
+     * Create a new instance.
+     *
+     * @param errorDao the DAO whose circuit breaker state to check
+     */
+    public CircuitBreakerHealthCheck(CircuitBreakingApplicationErrorDao errorDao) {
+        this.errorDao = requireNotNull(errorDao, "errorDao must not be null");
+    }
+
+    @Override
+    protected Result check() {
+        return switch (errorDao.getState()) {
+            case CLOSED -> newHealthyResult("ApplicationError circuit breaker is CLOSED");
+            case OPEN -> newUnhealthyResult("ApplicationError circuit breaker is OPEN; errors are not being saved");
+            case HALF_OPEN -> newUnhealthyResult(
+                    "ApplicationError circuit breaker is HALF_OPEN; trying to save errors again");
+        };
+    }
+}
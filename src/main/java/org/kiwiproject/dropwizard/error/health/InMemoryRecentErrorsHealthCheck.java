@@ -0,0 +1,84 @@
+package org.kiwiproject.dropwizard.error.health;
+
+import static org.kiwiproject.base.KiwiPreconditions.requireNotNull;
+
+import lombok.extern.slf4j.Slf4j;
+import org.kiwiproject.dropwizard.error.dao.ApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.dao.RecentErrorCountingApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.model.ServiceDetails;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.TemporalUnit;
+
+/**
+ * A {@link RecentErrorsHealthCheck} that counts recent errors using a {@link SlidingWindowErrorCounter} instead of
+ * querying the errors data store, so that executing the health check is cheap regardless of how many errors there are.
+ * The counter is normally populated by a {@link RecentErrorCountingApplicationErrorDao}.
+ * <p>
+ * The counter counts each distinct error once, like {@link RecentErrorsHealthCheck}. After {@link #reconcile()}, an
+ * error that occurs again may briefly be counted twice, so the count can be higher than the number of errors in the
+ * data store, but whether it is healthy is the same.
+ * <p>
+ * When other processes write to or resolve errors in the same data store, call {@link #reconcile()} periodically to
+ * replace the in-memory count with the count from the data store.
+ */
+@Slf4j
+public class InMemoryRecentErrorsHealthCheck extends RecentErrorsHealthCheck {
+
+    private final SlidingWindowErrorCounter counter;
+
+    /**
+     * Create with specified time window amount and unit, and error counter.
+     *
+     * @param errorDao         the application error DAO, used only by {@link #reconcile()}
+     * @param serviceDetails   the service/application information
+     * @param timeWindowAmount the time window amount
+     * @param timeWindowUnit   the time window unit
+     * @param counter          the counter of recent errors, whose window should be the same as the time window
+     */
+    public InMemoryRecentErrorsHealthCheck(ApplicationErrorDao errorDao,
+                                           ServiceDetails serviceDetails,
+                                           long timeWindowAmount,
+                                           TemporalUnit timeWindowUnit,
+                                           SlidingWindowErrorCounter counter) {
+        super(errorDao, serviceDetails, timeWindowAmount, timeWindowUnit);
+        this.counter = requireNotNull(counter, "counter must not be null");
+    }
+
+    /**
+     * @return the counter of recent errors
+     */
+    public SlidingWindowErrorCounter getCounter() {
+        return counter;
+    }
+
+    /**
+     * Query the errors data store for the recent error count and replace the in-memory count with it. Errors recorded
+     * while the query is executing may not be counted.
+     * <p>
+     * This never throws an exception, so it is safe to call from a scheduled executor.
+     *
+     * @return true if the count was reconciled, false if the query failed
+     */
+    public boolean reconcile() {
+        try {
+            var since = ZonedDateTime.now(ZoneOffset.UTC).minus(getTimeWindowAmount(), getTimeWindowUnit());
+            var count = super.countRecentErrors(since);
+            LOG.trace("Reconciling recent error count to {} (was {})", count, counter.count());
+            counter.reconcile(count);
+            return true;
+        } catch (Exception e) {
+            LOG.warn("Error reconciling recent error count with the errors data store", e);
+            return false;
+        }
+    }
+
+    /**
+     * Returns the count from the in-memory counter. Does not query the errors data store.
+     */
+    @Override
+    protected long countRecentErrors(ZonedDateTime since) {
+        return counter.count();
+    }
+}
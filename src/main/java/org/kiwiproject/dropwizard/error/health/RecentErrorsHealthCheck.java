@@ -150,13 +150,25 @@ public class RecentErrorsHealthCheck extends HealthCheck {
 
     private Pair<Long, Exception> getRecentErrorCount(ZonedDateTime referenceDate) {
         try {
-            var count = errorDao.countUnresolvedErrorsOnHostSince(
-                    referenceDate,
-                    serviceDetails.getHostName(),
-                    serviceDetails.getIpAddress());
+            var count = countRecentErrors(referenceDate);
             return Pair.of(count, null);
         } catch (Exception e) {
             return Pair.of(null, e);
         }
     }
+
+    /**
+     * Count the unresolved errors on this host that were created or updated since the given date/time.
+     * <p>
+     * By default, this queries the errors data store. Subclasses may override to obtain the count in another way.
+     *
+     * @param since the start of the time window
+     * @return the number of recent errors
+     */
+    protected long countRecentErrors(ZonedDateTime since) {
+        return errorDao.countUnresolvedErrorsOnHostSince(
+                since,
+                serviceDetails.getHostName(),
+                serviceDetails.getIpAddress());
+    }
 }
@@ -0,0 +1,130 @@
+package org.kiwiproject.dropwizard.error.health;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static org.kiwiproject.base.KiwiPreconditions.checkArgumentNotNull;
+import static org.kiwiproject.base.KiwiPreconditions.requireNotNull;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A lock-free counter of the distinct errors that occurred in a sliding time window ending at the current time.
+ * <p>
+ * Each error is identified by a key, e.g. its ID or fingerprint, and is counted once no matter how many times it
+ * occurs, which is the same unit as the number of unresolved errors that
+ * {@link RecentErrorsHealthCheck} counts in the errors data store. An error remains counted for the window after
+ * its most recent occurrence, or until it is removed.
+ * <p>
+ * The count can also be {@link #reconcile(long) reconciled} with a count obtained from the errors data store. Since
+ * that count does not identify the errors, it is kept as a separate baseline that is counted for the window after
+ * reconciling. An error recorded after reconciling that was already included in the baseline is counted twice until
+ * the baseline expires, so the count is conservative.
+ */
+public class SlidingWindowErrorCounter {
+
+    /**
+     * The state of the counter, which is replaced as a whole when reconciling or resetting, so that a count never
+     * sees a partially replaced state.
+     */
+    private record State(long baselineCount, long baselineMillis, ConcurrentMap<String, Long> lastOccurrenceMillis) {
+
+        State(long baselineCount, long baselineMillis) {
+            this(baselineCount, baselineMillis, new ConcurrentHashMap<>());
+        }
+    }
+
+    private final Duration window;
+    private final long windowMillis;
+    private final AtomicReference<State> state;
+    private final Clock clock;
+
+    /**
+     * Create a new instance.
+     *
+     * @param window the length of the sliding window, which must be positive
+     */
+    public SlidingWindowErrorCounter(Duration window) {
+        this(window, Clock.systemUTC());
+    }
+
+    @VisibleForTesting
+    SlidingWindowErrorCounter(Duration window, Clock clock) {
+        checkArgumentNotNull(window, "window must not be null");
+        checkArgument(window.toMillis() > 0, "window must be positive");
+
+        this.window = window;
+        this.windowMillis = window.toMillis();
+        this.clock = requireNotNull(clock, "clock must not be null");
+        this.state = new AtomicReference<>(new State(0, clock.millis()));
+    }
+
+    /**
+     * @return the length of the sliding window
+     */
+    public Duration getWindow() {
+        return window;
+    }
+
+    /**
+     * Record an occurrence of the error having the given key at the current time. An error that is already counted
+     * is not counted again, but remains counted for the window after this occurrence.
+     *
+     * @param errorKey the key identifying the error
+     */
+    public void record(String errorKey) {
+        checkArgumentNotNull(errorKey, "errorKey must not be null");
+        state.get().lastOccurrenceMillis().put(errorKey, clock.millis());
+    }
+
+    /**
+     * Remove the error having the given key, e.g. because it was resolved. Does nothing if the error is not counted.
+     * <p>
+     * The baseline from {@link #reconcile(long)} is not changed, since it is not known whether it includes the error.
+     *
+     * @param errorKey the key identifying the error
+     */
+    public void remove(String errorKey) {
+        checkArgumentNotNull(errorKey, "errorKey must not be null");
+        state.get().lastOccurrenceMillis().remove(errorKey);
+    }
+
+    /**
+     * Count the distinct errors in the window, plus the baseline from {@link #reconcile(long)} if it is still in the
+     * window. Errors whose most recent occurrence is older than the window are discarded.
+     *
+     * @return the number of errors in the window
+     */
+    public long count() {
+        var currentState = state.get();
+        var windowStartMillis = clock.millis() - windowMillis;
+
+        // ConcurrentHashMap removes an entry only if it still has the value that was tested
+        currentState.lastOccurrenceMillis().values().removeIf(millis -> millis < windowStartMillis);
+
+        var baselineCount = currentState.baselineMillis() >= windowStartMillis ? currentState.baselineCount() : 0;
+        return baselineCount + currentState.lastOccurrenceMillis().size();
+    }
+
+    /**
+     * Replace the current count with the given count, e.g. a count obtained from the errors data store. The given
+     * count is counted for the window starting at the current time. The replacement is a single atomic swap, so
+     * {@link #count()} returns either the old or the new count.
+     *
+     * @param count the new count
+     */
+    public void reconcile(long count) {
+        state.set(new State(Math.max(0, count), clock.millis()));
+    }
+
+    /**
+     * Remove all errors.
+     */
+    public void reset() {
+        reconcile(0);
+    }
+}
@@ -1,54 +1,207 @@
 package org.kiwiproject.dropwizard.error.job;
 
+import static com.codahale.metrics.MetricRegistry.name;
+import static org.kiwiproject.base.KiwiPreconditions.checkArgumentNotNull;
 import static org.kiwiproject.base.KiwiPreconditions.checkPositive;
 
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.common.annotations.VisibleForTesting;
 import lombok.extern.slf4j.Slf4j;
 import org.kiwiproject.base.CatchingRunnable;
+import org.kiwiproject.base.DefaultEnvironment;
+import org.kiwiproject.base.KiwiEnvironment;
 import org.kiwiproject.dropwizard.error.config.CleanupConfig;
 import org.kiwiproject.dropwizard.error.config.CleanupConfig.CleanupStrategy;
 import org.kiwiproject.dropwizard.error.dao.ApplicationErrorDao;
 
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntUnaryOperator;
 
 /**
  * Job that can be configured to run on a regular interval that will delete expired application errors.
+ * <p>
+ * Expired errors are deleted in batches of at most {@link CleanupConfig#getBatchSize() batchSize} errors, pausing
+ * between batches. If a run takes longer than {@link CleanupConfig#getMaxRunDuration() maxRunDuration}, it stops after
+ * the current batch, and the remaining expired errors are deleted by subsequent runs.
+ * <p>
+ * When unresolved errors are also deleted, deleting resolved errors stops after half of the maximum run duration, so
+ * that a large backlog of expired resolved errors cannot keep expired unresolved errors from ever being deleted.
+ * Deleting unresolved errors may use the remainder of the maximum run duration.
+ * <p>
+ * Each batch is timed, and the number of deleted errors is recorded, using the metrics named by the constants in this
+ * class.
+ * <p>
+ * When any errors were deleted, stack traces that are no longer used by any error are deleted at the end of the run,
+ * in batches in the same way, and within the remainder of the maximum run duration.
  *
  * @see CleanupConfig configuration options on what will be deleted and when
  */
 @Slf4j
 public class CleanupApplicationErrorsJob implements CatchingRunnable {
 
+    /**
+     * Name of the {@link Timer} that times each batch delete.
+     */
+    public static final String BATCHES_METRIC = name(CleanupApplicationErrorsJob.class, "batches");
+
+    /**
+     * Name of the {@link Meter} that records the number of deleted resolved errors.
+     */
+    public static final String DELETED_RESOLVED_ERRORS_METRIC =
+            name(CleanupApplicationErrorsJob.class, "deletedResolvedErrors");
+
+    /**
+     * Name of the {@link Meter} that records the number of deleted unresolved errors.
+     */
+    public static final String DELETED_UNRESOLVED_ERRORS_METRIC =
+            name(CleanupApplicationErrorsJob.class, "deletedUnresolvedErrors");
+
+    /**
+     * Name of the {@link Meter} that records the number of deleted unused stack traces.
+     */
+    public static final String DELETED_STACK_TRACES_METRIC =
+            name(CleanupApplicationErrorsJob.class, "deletedStackTraces");
+
+    /**
+     * Name of the {@link Counter} of times that deleting resolved errors, unresolved errors, or unused stack traces
+     * stopped because it exceeded its share of the maximum run duration.
+     */
+    public static final String TIME_BUDGET_EXCEEDED_METRIC =
+            name(CleanupApplicationErrorsJob.class, "timeBudgetExceeded");
+
     private final CleanupConfig config;
     private final long resolvedErrorExpirationMinutes;
     private final long unresolvedErrorExpirationMinutes;
+    private final int batchSize;
+    private final long pauseBetweenBatchesMillis;
+    private final long maxRunNanos;
     private final ApplicationErrorDao errorDao;
+    private final KiwiEnvironment kiwiEnvironment;
+    private final Timer batchTimer;
+    private final Meter deletedResolvedErrors;
+    private final Meter deletedUnresolvedErrors;
+    private final Meter deletedStackTraces;
+    private final Counter timeBudgetExceeded;
 
+    /**
+     * Create a new instance whose metrics are not registered in any externally visible registry.
+     *
+     * @param config   the cleanup configuration
+     * @param errorDao the application error DAO
+     */
     public CleanupApplicationErrorsJob(CleanupConfig config, ApplicationErrorDao errorDao) {
+        this(config, errorDao, new MetricRegistry());
+    }
+
+    /**
+     * Create a new instance that registers its metrics in the given registry.
+     *
+     * @param config   the cleanup configuration
+     * @param errorDao the application error DAO
+     * @param metrics  the registry in which to register metrics
+     */
+    public CleanupApplicationErrorsJob(CleanupConfig config, ApplicationErrorDao errorDao, MetricRegistry metrics) {
+        this(config, errorDao, metrics, new DefaultEnvironment());
+    }
+
+    @VisibleForTesting
+    CleanupApplicationErrorsJob(CleanupConfig config,
+                                ApplicationErrorDao errorDao,
+                                MetricRegistry metrics,
+                                KiwiEnvironment kiwiEnvironment) {
         this.config = config;
         this.resolvedErrorExpirationMinutes = config.getResolvedErrorExpiration().toMinutes();
         this.unresolvedErrorExpirationMinutes = config.getUnresolvedErrorExpiration().toMinutes();
+        this.batchSize = config.getBatchSize();
+        this.pauseBetweenBatchesMillis = config.getPauseBetweenBatches().toMilliseconds();
+        this.maxRunNanos = config.getMaxRunDuration().toNanoseconds();
         this.errorDao = errorDao;
+        this.kiwiEnvironment = kiwiEnvironment;
 
         checkPositive(resolvedErrorExpirationMinutes, "resolvedErrorExpiration must be at least one minute");
         checkPositive(unresolvedErrorExpirationMinutes, "unresolvedErrorExpiration must be at least one minute");
+        checkPositive(batchSize, "batchSize must be positive");
+        checkArgumentNotNull(metrics, "metrics must not be null");
+
+        this.batchTimer = metrics.timer(BATCHES_METRIC);
+        this.deletedResolvedErrors = metrics.meter(DELETED_RESOLVED_ERRORS_METRIC);
+        this.deletedUnresolvedErrors = metrics.meter(DELETED_UNRESOLVED_ERRORS_METRIC);
+        this.deletedStackTraces = metrics.meter(DELETED_STACK_TRACES_METRIC);
+        this.timeBudgetExceeded = metrics.counter(TIME_BUDGET_EXCEEDED_METRIC);
     }
 
     @Override
     public void runSafely() {
         var now = ZonedDateTime.now(ZoneOffset.UTC);
+        var startNanos = kiwiEnvironment.nanoTime();
+        var deadlineNanos = startNanos + maxRunNanos;
+        var deleteUnresolvedErrors = config.getCleanupStrategy() == CleanupStrategy.ALL_ERRORS;
+        var resolvedDeadlineNanos = deleteUnresolvedErrors ? startNanos + (maxRunNanos / 2) : deadlineNanos;
 
         var resolvedErrorsExpiration = now.minusMinutes(resolvedErrorExpirationMinutes);
-        var resolvedDeletedCount = errorDao.deleteResolvedErrorsBefore(resolvedErrorsExpiration);
-        LOG.debug("Deleted {} expired resolved application errors before {}",
-                resolvedDeletedCount, resolvedErrorsExpiration);
+        var deletedCount = deleteInBatches(
+                limit -> errorDao.deleteResolvedErrorsBefore(resolvedErrorsExpiration, limit),
+                deletedResolvedErrors,
+                resolvedDeadlineNanos,
+                "resolved errors");
+        LOG.debug("Deleted {} expired resolved application errors before {}", deletedCount, resolvedErrorsExpiration);
 
-        if (config.getCleanupStrategy() == CleanupStrategy.ALL_ERRORS) {
+        if (deleteUnresolvedErrors) {
             var unresolvedErrorsExpiration = now.minusMinutes(unresolvedErrorExpirationMinutes);
-            var unresolvedDeletedCount = errorDao.deleteUnresolvedErrorsBefore(unresolvedErrorsExpiration);
+            var deletedUnresolvedCount = deleteInBatches(
+                    limit -> errorDao.deleteUnresolvedErrorsBefore(unresolvedErrorsExpiration, limit),
+                    deletedUnresolvedErrors,
+                    deadlineNanos,
+                    "unresolved errors");
             LOG.debug("Deleted {} expired but unresolved application errors before {}",
-                    unresolvedDeletedCount, unresolvedErrorsExpiration);
+                    deletedUnresolvedCount, unresolvedErrorsExpiration);
+            deletedCount += deletedUnresolvedCount;
+        }
+
+        if (deletedCount > 0) {
+            var deletedStackTraceCount = deleteInBatches(
+                    errorDao::deleteUnusedStackTraces,
+                    deletedStackTraces,
+                    deadlineNanos,
+                    "stack traces");
+            LOG.debug("Deleted {} stack traces no longer used by any application error", deletedStackTraceCount);
         }
     }
 
+    private long deleteInBatches(IntUnaryOperator batchDeleter,
+                                 Meter deletedMeter,
+                                 long deadlineNanos,
+                                 String deletedDescription) {
+        var deletedCount = 0L;
+
+        while (true) {
+            int batchDeletedCount;
+            try (var ignored = batchTimer.time()) {
+                batchDeletedCount = batchDeleter.applyAsInt(batchSize);
+            }
+            deletedMeter.mark(batchDeletedCount);
+            deletedCount += batchDeletedCount;
+
+            if (batchDeletedCount < batchSize) {
+                return deletedCount;
+            }
+
+            if (kiwiEnvironment.nanoTime() - deadlineNanos >= 0) {
+                LOG.info("Stopping deleting after {} {} because it exceeded its share of the maximum run" +
+                        " duration; the remaining ones will be deleted in the next run",
+                        deletedCount, deletedDescription);
+                timeBudgetExceeded.inc();
+                return deletedCount;
+            }
+
+            if (pauseBetweenBatchesMillis > 0) {
+                kiwiEnvironment.sleepQuietly(pauseBetweenBatchesMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
 }
@@ -6,18 +6,21 @@ import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 import static org.kiwiproject.base.KiwiPreconditions.checkArgumentNotBlank;
 import static org.kiwiproject.base.KiwiPreconditions.checkArgumentNotNull;
-import static org.kiwiproject.base.KiwiThrowables.EMPTY_THROWABLE_INFO;
+import static org.kiwiproject.base.KiwiThrowables.messageOfNullable;
 import static org.kiwiproject.base.KiwiThrowables.nextCauseOfNullable;
-import static org.kiwiproject.base.KiwiThrowables.throwableInfoOfNullable;
+import static org.kiwiproject.base.KiwiThrowables.stackTraceOf;
+import static org.kiwiproject.base.KiwiThrowables.typeOfNullable;
 
-import lombok.AccessLevel;
-import lombok.AllArgsConstructor;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import lombok.Builder;
 import lombok.Synchronized;
 import lombok.Value;
 import lombok.With;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+import java.beans.ConstructorProperties;
+import java.nio.charset.StandardCharsets;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 
@@ -36,8 +39,6 @@ import java.time.ZonedDateTime;
  * assuming most clients will simply use one of the factory methods, as that has been our own general usage pattern.
  */
 @Value
-@Builder
-@AllArgsConstructor(access = AccessLevel.PRIVATE)
 public class ApplicationError {
 
     /**
@@ -77,12 +78,72 @@ public class ApplicationError {
     String hostName;
     String ipAddress;
     int port;
+    String fingerprint;
 
     /**
      * Host information to be shared across all ApplicationError instances in this JVM.
      */
     private static PersistentHostInformation persistentHostInformation;
 
+    /**
+     * Policy used to capture stack traces in this JVM, or null to capture full stack traces.
+     */
+    private static StackTraceCapturePolicy stackTraceCapturePolicy;
+
+    @Builder
+    @ConstructorProperties({
+            "id", "createdAt", "updatedAt", "numTimesOccurred", "description", "exceptionType", "exceptionMessage",
+            "exceptionCauseType", "exceptionCauseMessage", "stackTrace", "resolved", "hostName", "ipAddress", "port",
+            "fingerprint"
+    })
+    @SuppressWarnings("java:S107")
+    private ApplicationError(Long id,
+                             ZonedDateTime createdAt,
+                             ZonedDateTime updatedAt,
+                             int numTimesOccurred,
+                             String description,
+                             String exceptionType,
+                             String exceptionMessage,
+                             String exceptionCauseType,
+                             String exceptionCauseMessage,
+                             String stackTrace,
+                             boolean resolved,
+                             String hostName,
+                             String ipAddress,
+                             int port,
+                             String fingerprint) {
+
+        this.id = id;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.numTimesOccurred = numTimesOccurred;
+        this.description = description;
+        this.exceptionType = exceptionType;
+        this.exceptionMessage = exceptionMessage;
+        this.exceptionCauseType = exceptionCauseType;
+        this.exceptionCauseMessage = exceptionCauseMessage;
+        this.stackTrace = stackTrace;
+        this.resolved = resolved;
+        this.hostName = hostName;
+        this.ipAddress = ipAddress;
+        this.port = port;
+
+        // Computed once here, since equals and hashCode use it and it is needed for every error that is saved
+        this.fingerprint = isNull(fingerprint) ? fingerprintOf(description, exceptionType, hostName) : fingerprint;
+    }
+
+    /**
+     * The fingerprint identifies duplicate errors; errors are considered duplicates when they have the same
+     * description, exception type, and host name. It is computed when an instance is created, unless it was
+     * supplied to the builder.
+     *
+     * @return the fingerprint, a SHA-256 hash as 64 hexadecimal characters
+     * @see #fingerprintOf(String, String, String)
+     */
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
     /**
      * @return the date/time created in milliseconds since the epoch
      */
@@ -164,6 +225,32 @@ public class ApplicationError {
         return persistentHostInformation;
     }
 
+    /**
+     * Sets the policy that limits the stack traces captured when new instances are created via the static factory
+     * methods. When not set, or set to null, the full stack trace is captured.
+     * <p>
+     * Like the persistent host information, this is intended to be called only <em>once</em> at initialization (see
+     * the "{@code build*}" methods in {@link org.kiwiproject.dropwizard.error.ErrorContextBuilder ErrorContextBuilder}).
+     *
+     * @param policy the policy to use, or null to capture full stack traces
+     */
+    @Synchronized
+    public static void setStackTraceCapturePolicy(@Nullable StackTraceCapturePolicy policy) {
+        stackTraceCapturePolicy = policy;
+    }
+
+    /**
+     * Return the currently set stack trace capture policy.
+     *
+     * @return the policy, or null if full stack traces are captured
+     * @implNote This is intentionally not synchronized, for the same reasons as
+     * {@link #getPersistentHostInformation()}.
+     */
+    @SuppressWarnings("java:S2886")
+    public static @Nullable StackTraceCapturePolicy getStackTraceCapturePolicy() {
+        return stackTraceCapturePolicy;
+    }
+
     /**
      * Create a new unresolved error with one occurrence using only the given description. The returned
      * ApplicationError will not have any exception-related information and those values will all be null.
@@ -249,20 +336,18 @@ public class ApplicationError {
         checkArgument(PersistentHostInformation.isValidPort(port), "port must be a valid port");
 
         var now = ZonedDateTime.now(ZoneOffset.UTC);
-        var throwableInfo = throwableInfoOfNullable(throwable).orElse(EMPTY_THROWABLE_INFO);
         var nextCause = nextCauseOfNullable(throwable).orElse(null);
-        var causeThrowableInfo = throwableInfoOfNullable(nextCause).orElse(EMPTY_THROWABLE_INFO);
 
         return ApplicationError.builder()
                 .createdAt(now)
                 .updatedAt(now)
                 .numTimesOccurred(1)
                 .description(description)
-                .exceptionType(throwableInfo.type)
-                .exceptionMessage(throwableInfo.getMessage().orElse(null))
-                .exceptionCauseType(causeThrowableInfo.type)
-                .exceptionCauseMessage(causeThrowableInfo.getMessage().orElse(null))
-                .stackTrace(throwableInfo.stackTrace)
+                .exceptionType(typeOfNullable(throwable).orElse(null))
+                .exceptionMessage(messageOfNullable(throwable).orElse(null))
+                .exceptionCauseType(typeOfNullable(nextCause).orElse(null))
+                .exceptionCauseMessage(messageOfNullable(nextCause).orElse(null))
+                .stackTrace(captureStackTrace(throwable))
                 .resolved(resolved.value)
                 .hostName(hostName)
                 .ipAddress(ipAddress)
@@ -270,6 +355,50 @@ public class ApplicationError {
                 .build();
     }
 
+    /**
+     * Only the stack trace of the given throwable is rendered, and only once, since rendering is by far the most
+     * expensive part of creating an error.
+     */
+    private static @Nullable String captureStackTrace(@Nullable Throwable throwable) {
+        if (isNull(throwable)) {
+            return null;
+        }
+
+        var policy = stackTraceCapturePolicy;
+        return isNull(policy) ? stackTraceOf(throwable) : policy.render(throwable);
+    }
+
+    /**
+     * Compute the fingerprint of an error having the given description, exception type, and host name.
+     *
+     * @param description   a description of the error
+     * @param exceptionType the type of the exception that caused the error, if any
+     * @param hostName      the host name on which the error occurred
+     * @return the SHA-256 hash (as 64 hexadecimal characters) of the arguments
+     * @implNote Each argument is hashed as its length in UTF-8 bytes followed by those bytes, and a null argument is
+     * hashed as a length of -1. So a null exception type does not have the same fingerprint as the exception type
+     * "null" or an empty one, and no two different combinations of arguments run together into the same bytes.
+     */
+    public static String fingerprintOf(@Nullable String description,
+                                       @Nullable String exceptionType,
+                                       @Nullable String hostName) {
+        var hasher = Hashing.sha256().newHasher();
+        putLengthPrefixed(hasher, description);
+        putLengthPrefixed(hasher, exceptionType);
+        putLengthPrefixed(hasher, hostName);
+        return hasher.hash().toString();
+    }
+
+    private static void putLengthPrefixed(Hasher hasher, @Nullable String value) {
+        if (isNull(value)) {
+            hasher.putInt(-1);
+            return;
+        }
+
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        hasher.putInt(bytes.length).putBytes(bytes);
+    }
+
     private static void checkPersistentHostState() {
         checkState(nonNull(persistentHostInformation),
                 "Persistent host properties have not been set. Please call setPersistentHostInformation first. " +
@@ -0,0 +1,152 @@
+package org.kiwiproject.dropwizard.error.model;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.isNull;
+import static org.kiwiproject.base.KiwiPreconditions.checkArgumentNotBlank;
+import static org.kiwiproject.base.KiwiPreconditions.checkArgumentNotNull;
+import static org.kiwiproject.collect.KiwiLists.last;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Identifies a position in a list of {@link ApplicationError}s ordered by {@code updatedAt} and then {@code id}, both
+ * descending. Used for keyset (cursor-based) pagination, in which the next page contains the errors that come after
+ * the last error on the current page.
+ * <p>
+ * Clients should treat the encoded form of a cursor as an opaque string.
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class ApplicationErrorCursor {
+
+    private static final String SEPARATOR = "|";
+
+    ZonedDateTime updatedAt;
+    long id;
+
+    /**
+     * Create a cursor positioned at the given updatedAt timestamp and ID.
+     *
+     * @param updatedAt the updatedAt timestamp
+     * @param id        the error ID
+     * @return a new instance
+     */
+    public static ApplicationErrorCursor of(ZonedDateTime updatedAt, long id) {
+        checkArgumentNotNull(updatedAt, "updatedAt must not be null");
+        return new ApplicationErrorCursor(updatedAt.withZoneSameInstant(ZoneOffset.UTC), id);
+    }
+
+    /**
+     * Create a cursor positioned at the given error, e.g. the last error on a page.
+     *
+     * @param error the error, which must have an ID and updatedAt timestamp
+     * @return a new instance
+     */
+    public static ApplicationErrorCursor after(ApplicationError error) {
+        checkArgumentNotNull(error, "error must not be null");
+        checkArgumentNotNull(error.getId(), "error must have an id");
+        return of(error.getUpdatedAt(), error.getId());
+    }
+
+    /**
+     * Create a cursor positioned at the given error summary, e.g. the last error summary on a page.
+     *
+     * @param summary the error summary, which must have an ID and updatedAt timestamp
+     * @return a new instance
+     */
+    public static ApplicationErrorCursor after(ApplicationErrorSummary summary) {
+        checkArgumentNotNull(summary, "summary must not be null");
+        checkArgumentNotNull(summary.getId(), "summary must have an id");
+        return of(summary.getUpdatedAt(), summary.getId());
+    }
+
+    /**
+     * Get the encoded cursor for the page after the given page of items, e.g. errors or error summaries.
+     *
+     * @param items        the items on the page
+     * @param pageSize     the page size
+     * @param idOf         a function that returns the ID of an item
+     * @param updatedAtOf  a function that returns the updatedAt timestamp of an item
+     * @param <T>          the type of item
+     * @return the encoded cursor for the last item on the page, or null if the page is not full (so there is no next
+     * page), or the last item does not have an ID and updatedAt timestamp
+     */
+    static <T> @Nullable String nextCursorOrNull(List<T> items,
+                                                 int pageSize,
+                                                 Function<T, Long> idOf,
+                                                 Function<T, ZonedDateTime> updatedAtOf) {
+        if (items.size() < pageSize) {
+            return null;
+        }
+
+        var lastItem = last(items);
+        var id = idOf.apply(lastItem);
+        var updatedAt = updatedAtOf.apply(lastItem);
+        if (isNull(id) || isNull(updatedAt)) {
+            return null;
+        }
+
+        return of(updatedAt, id).encode();
+    }
+
+    /**
+     * Determine whether the given error comes after this cursor in the ordering, i.e. whether it can be on the page
+     * that starts at this cursor.
+     *
+     * @param error the error, which must have an ID and updatedAt timestamp
+     * @return true if the error was updated before this cursor, or at the same time and it has a lower ID
+     */
+    public boolean precedes(ApplicationError error) {
+        checkArgumentNotNull(error, "error must not be null");
+        checkArgumentNotNull(error.getId(), "error must have an id");
+
+        var errorUpdatedAt = error.getUpdatedAt().toInstant();
+        var cursorUpdatedAt = updatedAt.toInstant();
+        return errorUpdatedAt.isBefore(cursorUpdatedAt) ||
+                (errorUpdatedAt.equals(cursorUpdatedAt) && error.getId() < id);
+    }
+
+    /**
+     * @return the opaque string representation of this cursor
+     * @see #decode(String)
+     */
+    public String encode() {
+        var value = updatedAt.toInstant() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Convert the string representation of a cursor that was created by {@link #encode()} back into a cursor.
+     *
+     * @param encodedCursor the opaque string representation of a cursor
+     * @return a new instance
+     * @throws IllegalArgumentException if the argument is not a valid cursor
+     */
+    public static ApplicationErrorCursor decode(String encodedCursor) {
+        checkArgumentNotBlank(encodedCursor, "encodedCursor must not be blank");
+
+        try {
+            var value = new String(Base64.getUrlDecoder().decode(encodedCursor), StandardCharsets.UTF_8);
+            var separatorIndex = value.indexOf(SEPARATOR);
+            checkArgument(separatorIndex > 0, "invalid cursor: %s", encodedCursor);
+
+            var updatedAt = Instant.parse(value.substring(0, separatorIndex)).atZone(ZoneOffset.UTC);
+            var id = Long.parseLong(value.substring(separatorIndex + 1));
+            return new ApplicationErrorCursor(updatedAt, id);
+        } catch (DateTimeException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("invalid cursor: " + encodedCursor, e);
+        }
+    }
+}
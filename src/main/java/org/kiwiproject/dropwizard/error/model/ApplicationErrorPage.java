@@ -16,9 +16,18 @@ import java.util.List;
 @ToString(exclude = "items")
 public class ApplicationErrorPage implements PaginatedResult {
 
+    /**
+     * The value of {@code totalCount} when the total count was not requested.
+     */
+    public static final long TOTAL_COUNT_NOT_INCLUDED = -1;
+
     @Getter
     private final List<ApplicationError> items;
 
+    /**
+     * The total number of errors matching the request, or {@link #TOTAL_COUNT_NOT_INCLUDED} if the total count
+     * was not requested.
+     */
     @Getter
     private final long totalCount;
 
@@ -27,4 +36,33 @@ public class ApplicationErrorPage implements PaginatedResult {
 
     @Getter
     private final int pageSize;
+
+    /**
+     * The opaque cursor to pass to get the next page of errors using keyset pagination, or null if this is the
+     * last page.
+     *
+     * @see ApplicationErrorCursor
+     */
+    @Getter
+    private final String nextCursor;
+
+    /**
+     * Create a page containing the given errors, setting the {@code nextCursor} when the page is full.
+     *
+     * @param items      the errors on the page
+     * @param totalCount the total number of errors, or {@link #TOTAL_COUNT_NOT_INCLUDED}
+     * @param pageNumber the page number
+     * @param pageSize   the page size
+     * @return a new instance
+     */
+    public static ApplicationErrorPage of(List<ApplicationError> items, long totalCount, int pageNumber, int pageSize) {
+        return ApplicationErrorPage.builder()
+                .items(items)
+                .totalCount(totalCount)
+                .pageNumber(pageNumber)
+                .pageSize(pageSize)
+                .nextCursor(ApplicationErrorCursor.nextCursorOrNull(
+                        items, pageSize, ApplicationError::getId, ApplicationError::getUpdatedAt))
+                .build();
+    }
 }
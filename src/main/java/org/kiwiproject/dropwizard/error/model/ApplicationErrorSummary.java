@@ -0,0 +1,78 @@
+package org.kiwiproject.dropwizard.error.model;
+
+import static java.util.Objects.isNull;
+import static org.kiwiproject.base.KiwiPreconditions.checkArgumentNotNull;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.ZonedDateTime;
+
+/**
+ * A lightweight view of an {@link ApplicationError} that omits the stack trace, which is often much larger than
+ * all the other properties combined. Used when listing errors; use the full {@link ApplicationError} to see the
+ * stack trace of a specific error.
+ */
+@Value
+@Builder
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class ApplicationErrorSummary {
+
+    Long id;
+    ZonedDateTime createdAt;
+    ZonedDateTime updatedAt;
+    int numTimesOccurred;
+    String description;
+    String exceptionType;
+    String exceptionMessage;
+    String exceptionCauseType;
+    String exceptionCauseMessage;
+    boolean resolved;
+    String hostName;
+    String ipAddress;
+    int port;
+    String fingerprint;
+
+    /**
+     * Create a summary of the given error.
+     *
+     * @param error the error to summarize
+     * @return a new instance containing all the properties of the error except its stack trace
+     */
+    public static ApplicationErrorSummary from(ApplicationError error) {
+        checkArgumentNotNull(error, "error must not be null");
+
+        return ApplicationErrorSummary.builder()
+                .id(error.getId())
+                .createdAt(error.getCreatedAt())
+                .updatedAt(error.getUpdatedAt())
+                .numTimesOccurred(error.getNumTimesOccurred())
+                .description(error.getDescription())
+                .exceptionType(error.getExceptionType())
+                .exceptionMessage(error.getExceptionMessage())
+                .exceptionCauseType(error.getExceptionCauseType())
+                .exceptionCauseMessage(error.getExceptionCauseMessage())
+                .resolved(error.isResolved())
+                .hostName(error.getHostName())
+                .ipAddress(error.getIpAddress())
+                .port(error.getPort())
+                .fingerprint(error.getFingerprint())
+                .build();
+    }
+
+    /**
+     * @return the date/time created in milliseconds since the epoch
+     */
+    public Long getCreatedAtMillis() {
+        return isNull(createdAt) ? null : createdAt.toInstant().toEpochMilli();
+    }
+
+    /**
+     * @return the date/time updated in milliseconds since the epoch
+     */
+    public Long getUpdatedAtMillis() {
+        return isNull(updatedAt) ? null : updatedAt.toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,67 @@
+package org.kiwiproject.dropwizard.error.model;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+import org.kiwiproject.search.PaginatedResult;
+
+import java.util.List;
+
+/**
+ * Represents a "page" of {@link ApplicationErrorSummary} results, e.g. when using pagination.
+ *
+ * @implNote This class is not intended to be compared using equals or hashCode.
+ * @see ApplicationErrorPage
+ */
+@Builder
+@ToString(exclude = "items")
+public class ApplicationErrorSummaryPage implements PaginatedResult {
+
+    @Getter
+    private final List<ApplicationErrorSummary> items;
+
+    /**
+     * The total number of errors matching the request, or {@link ApplicationErrorPage#TOTAL_COUNT_NOT_INCLUDED}
+     * if the total count was not requested.
+     */
+    @Getter
+    private final long totalCount;
+
+    @Getter
+    private final int pageNumber;
+
+    @Getter
+    private final int pageSize;
+
+    /**
+     * The opaque cursor to pass to get the next page of errors using keyset pagination, or null if this is the
+     * last page.
+     *
+     * @see ApplicationErrorCursor
+     */
+    @Getter
+    private final String nextCursor;
+
+    /**
+     * Create a page containing the given error summaries, setting the {@code nextCursor} when the page is full.
+     *
+     * @param items      the error summaries on the page
+     * @param totalCount the total number of errors, or {@link ApplicationErrorPage#TOTAL_COUNT_NOT_INCLUDED}
+     * @param pageNumber the page number
+     * @param pageSize   the page size
+     * @return a new instance
+     */
+    public static ApplicationErrorSummaryPage of(List<ApplicationErrorSummary> items,
+                                                 long totalCount,
+                                                 int pageNumber,
+                                                 int pageSize) {
+        return ApplicationErrorSummaryPage.builder()
+                .items(items)
+                .totalCount(totalCount)
+                .pageNumber(pageNumber)
+                .pageSize(pageSize)
+                .nextCursor(ApplicationErrorCursor.nextCursorOrNull(
+                        items, pageSize, ApplicationErrorSummary::getId, ApplicationErrorSummary::getUpdatedAt))
+                .build();
+    }
+}
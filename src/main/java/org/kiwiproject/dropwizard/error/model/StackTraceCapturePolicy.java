@@ -0,0 +1,249 @@
+package org.kiwiproject.dropwizard.error.model;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.nonNull;
+import static org.kiwiproject.base.KiwiPreconditions.checkArgumentNotNull;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Defines how much of the stack trace of an exception is captured when an {@link ApplicationError} is created.
+ * The stack trace is rendered in the same format as {@link Throwable#printStackTrace()}, but:
+ * <ul>
+ *     <li>frames of classes in excluded packages (including their subpackages) are omitted</li>
+ *     <li>a frame, or a sequence of frames, that repeats (e.g. from a recursive call) is included only once</li>
+ *     <li>at most {@code maxFrames} frames are included for each exception in the cause chain</li>
+ *     <li>the stack trace is truncated at {@code maxLength} characters</li>
+ * </ul>
+ * The policy is applied while rendering, so the full stack trace is never built.
+ *
+ * @see ApplicationError#setStackTraceCapturePolicy(StackTraceCapturePolicy)
+ */
+@Value
+public class StackTraceCapturePolicy {
+
+    private static final int MIN_MAX_LENGTH = 64;
+    private static final int MAX_INITIAL_CAPACITY = 4_096;
+    private static final int MAX_REPEATED_SEQUENCE_LENGTH = 8;
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+    private static final String TRUNCATED_LINE = "\t... truncated" + LINE_SEPARATOR;
+
+    int maxFrames;
+    int maxLength;
+    boolean collapseRepeatedFrames;
+    List<String> excludedPackages;
+
+    @Builder
+    private StackTraceCapturePolicy(int maxFrames,
+                                    int maxLength,
+                                    boolean collapseRepeatedFrames,
+                                    List<String> excludedPackages) {
+
+        checkArgument(maxFrames > 0, "maxFrames must be positive");
+        checkArgument(maxLength >= MIN_MAX_LENGTH, "maxLength must be at least %s", MIN_MAX_LENGTH);
+
+        this.maxFrames = maxFrames;
+        this.maxLength = maxLength;
+        this.collapseRepeatedFrames = collapseRepeatedFrames;
+        this.excludedPackages = nonNull(excludedPackages) ?
+                excludedPackages.stream().map(StackTraceCapturePolicy::withoutTrailingDot).toList() : List.of();
+    }
+
+    /**
+     * Render the stack trace of the given exception according to this policy.
+     *
+     * @param throwable the exception
+     * @return the stack trace, which is at most {@code maxLength} characters
+     */
+    public String render(Throwable throwable) {
+        checkArgumentNotNull(throwable, "throwable must not be null");
+
+        var renderer = new Renderer();
+        renderer.appendThrowable(throwable, new StackTraceElement[0], "", "");
+        return renderer.toString();
+    }
+
+    private static String withoutTrailingDot(String packageName) {
+        checkArgumentNotNull(packageName, "excluded package must not be null");
+        return packageName.endsWith(".") ? packageName.substring(0, packageName.length() - 1) : packageName;
+    }
+
+    /**
+     * A frame is excluded if its class is in an excluded package or one of its subpackages, or if its class name
+     * is exactly an excluded name, so that e.g. excluding {@code org.eclipse.jetty} does not exclude
+     * {@code org.eclipse.jettyx}.
+     */
+    private boolean isExcluded(StackTraceElement frame) {
+        var className = frame.getClassName();
+        return excludedPackages.stream().anyMatch(packageName -> isInPackage(className, packageName));
+    }
+
+    private static boolean isInPackage(String className, String packageName) {
+        return className.startsWith(packageName) &&
+                (className.length() == packageName.length() || className.charAt(packageName.length()) == '.');
+    }
+
+    /**
+     * @return the length of the shortest sequence of frames starting at {@code start} that is immediately repeated,
+     * or zero if there is none
+     */
+    private static int repeatedSequenceLength(StackTraceElement[] trace, int start, int end) {
+        for (var length = 1; length <= MAX_REPEATED_SEQUENCE_LENGTH && start + 2 * length <= end; length++) {
+            if (sequencesEqual(trace, start, start + length, length)) {
+                return length;
+            }
+        }
+        return 0;
+    }
+
+    private static int repetitionsOf(StackTraceElement[] trace, int start, int length, int end) {
+        var repetitions = 0;
+        var next = start + length;
+        while (next + length <= end && sequencesEqual(trace, start, next, length)) {
+            repetitions++;
+            next += length;
+        }
+        return repetitions;
+    }
+
+    private static boolean sequencesEqual(StackTraceElement[] trace, int first, int second, int length) {
+        for (var i = 0; i < length; i++) {
+            if (!trace[first + i].equals(trace[second + i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of frames at the end of the trace that are the same as those of the enclosing trace, which
+     * is how {@link Throwable#printStackTrace()} determines the number of frames in common with the enclosing trace
+     */
+    private static int framesInCommon(StackTraceElement[] trace, StackTraceElement[] enclosingTrace) {
+        var m = trace.length - 1;
+        var n = enclosingTrace.length - 1;
+        while (m >= 0 && n >= 0 && trace[m].equals(enclosingTrace[n])) {
+            m--;
+            n--;
+        }
+        return trace.length - 1 - m;
+    }
+
+    private static String plural(int count, String singular, String plural) {
+        return count == 1 ? singular : plural;
+    }
+
+    /**
+     * Renders a single stack trace, stopping once it has been truncated.
+     */
+    private class Renderer {
+
+        private final StringBuilder builder = new StringBuilder(Math.min(maxLength, MAX_INITIAL_CAPACITY));
+        private final Set<Throwable> rendered = Collections.newSetFromMap(new IdentityHashMap<>());
+        private boolean truncated;
+
+        void appendThrowable(Throwable throwable, StackTraceElement[] enclosingTrace, String caption, String prefix) {
+            if (truncated) {
+                return;
+            }
+
+            if (!rendered.add(throwable)) {
+                appendLine(prefix + caption + "[CIRCULAR REFERENCE: " + throwable + "]");
+                return;
+            }
+
+            appendLine(prefix + caption + throwable);
+
+            var trace = throwable.getStackTrace();
+            var commonFrames = framesInCommon(trace, enclosingTrace);
+            appendFrames(trace, trace.length - commonFrames, prefix);
+            if (commonFrames > 0) {
+                appendLine(prefix + "\t... " + commonFrames + " more");
+            }
+
+            for (var suppressed : throwable.getSuppressed()) {
+                appendThrowable(suppressed, trace, "Suppressed: ", prefix + "\t");
+            }
+
+            var cause = throwable.getCause();
+            if (nonNull(cause)) {
+                appendThrowable(cause, trace, "Caused by: ", prefix);
+            }
+        }
+
+        private void appendFrames(StackTraceElement[] trace, int end, String prefix) {
+            var appendedFrames = 0;
+            var omittedFrames = 0;
+            var i = 0;
+
+            while (i < end && appendedFrames < maxFrames && !truncated) {
+                if (isExcluded(trace[i])) {
+                    omittedFrames++;
+                    i++;
+                    continue;
+                }
+
+                var length = collapseRepeatedFrames ? repeatedSequenceLength(trace, i, end) : 0;
+                if (length == 0 || appendedFrames + length > maxFrames) {
+                    appendFrame(trace[i], prefix);
+                    appendedFrames++;
+                    i++;
+                    continue;
+                }
+
+                for (var j = i; j < i + length; j++) {
+                    appendFrame(trace[j], prefix);
+                }
+                appendedFrames += length;
+
+                var repetitions = repetitionsOf(trace, i, length, end);
+                appendLine(prefix + "\t... previous " +
+                        (length == 1 ? "frame" : (length + " frames")) +
+                        " repeated " + repetitions + plural(repetitions, " more time", " more times"));
+                i += length * (repetitions + 1);
+            }
+
+            omittedFrames += end - i;
+            if (omittedFrames > 0) {
+                appendLine(prefix + "\t... " + omittedFrames + plural(omittedFrames, " frame", " frames") + " omitted");
+            }
+        }
+
+        private void appendFrame(StackTraceElement frame, String prefix) {
+            appendLine(prefix + "\tat " + frame);
+        }
+
+        /**
+         * Appends the line, or as much of it as fits followed by a line indicating the stack trace was truncated.
+         */
+        private void appendLine(String line) {
+            if (truncated) {
+                return;
+            }
+
+            var remaining = maxLength - builder.length() - TRUNCATED_LINE.length();
+            if (line.length() + LINE_SEPARATOR.length() <= remaining) {
+                builder.append(line).append(LINE_SEPARATOR);
+                return;
+            }
+
+            var partialLength = Math.min(line.length(), remaining - LINE_SEPARATOR.length());
+            if (partialLength > 0) {
+                builder.append(line, 0, partialLength).append(LINE_SEPARATOR);
+            }
+            builder.append(TRUNCATED_LINE);
+            truncated = true;
+        }
+
+        @Override
+        public String toString() {
+            return builder.toString();
+        }
+    }
+}
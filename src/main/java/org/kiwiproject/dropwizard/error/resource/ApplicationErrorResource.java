@@ -1,6 +1,7 @@
 package org.kiwiproject.dropwizard.error.resource;
 
 import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
+import static org.apache.commons.lang3.StringUtils.isBlank;
 
 import com.codahale.metrics.annotation.ExceptionMetered;
 import com.codahale.metrics.annotation.Timed;
@@ -15,7 +16,10 @@ import jakarta.ws.rs.core.Response;
 import org.kiwiproject.dropwizard.error.dao.ApplicationErrorDao;
 import org.kiwiproject.dropwizard.error.dao.ApplicationErrorStatus;
 import org.kiwiproject.dropwizard.error.model.ApplicationError;
+import org.kiwiproject.dropwizard.error.model.ApplicationErrorCursor;
 import org.kiwiproject.dropwizard.error.model.ApplicationErrorPage;
+import org.kiwiproject.dropwizard.error.model.ApplicationErrorSummary;
+import org.kiwiproject.dropwizard.error.model.ApplicationErrorSummaryPage;
 import org.kiwiproject.jaxrs.KiwiStandardResponses;
 
 import java.util.Map;
@@ -53,10 +57,24 @@ public class ApplicationErrorResource {
 
     /**
      * GET endpoint to paginate application errors.
+     * <p>
+     * The page contains {@link ApplicationErrorSummary summaries} of the errors, which do not include stack traces.
+     * Use {@link #getById(OptionalLong)} to get the full error, including its stack trace.
+     * <p>
+     * Pages can be requested either by page number or by cursor. Each page contains a {@code nextCursor} when there
+     * might be more errors, which can be passed as the {@code cursor} query parameter to get the next page. Retrieving
+     * pages using a cursor costs the same no matter how deep the page is, whereas the cost of retrieving a page by
+     * number increases with the page number.
+     * <p>
+     * Clients that do not need the total count of errors can avoid counting them by passing {@code false} as the
+     * {@code includeTotal} query parameter.
      *
-     * @param statusParam status query parameter indicating which application errors to include
-     * @param pageNumber  the page number query parameter, starting from one
-     * @param pageSize    the page size query parameter
+     * @param statusParam  status query parameter indicating which application errors to include
+     * @param pageNumber   the page number query parameter, starting from one; ignored if a cursor is given
+     * @param pageSize     the page size query parameter
+     * @param cursor       the optional cursor query parameter, from the {@code nextCursor} of the previous page
+     * @param includeTotal whether to include the total count of errors; if false, the {@code totalCount} is
+     *                     {@link ApplicationErrorPage#TOTAL_COUNT_NOT_INCLUDED}
      * @return the Response
      * @see ApplicationErrorStatus
      */
@@ -65,20 +83,24 @@ public class ApplicationErrorResource {
     @ExceptionMetered
     public Response getErrors(@QueryParam("status") @DefaultValue("UNRESOLVED") String statusParam,
                               @QueryParam("pageNumber") @DefaultValue("1") OptionalInt pageNumber,
-                              @QueryParam("pageSize") @DefaultValue("25") OptionalInt pageSize) {
+                              @QueryParam("pageSize") @DefaultValue("25") OptionalInt pageSize,
+                              @QueryParam("cursor") String cursor,
+                              @QueryParam("includeTotal") @DefaultValue("true") boolean includeTotal) {
 
         var status = ApplicationErrorStatus.from(statusParam);
         var thePageNumber = pageNumber.orElseThrow();
         var thePageSize = pageSize.orElseThrow();
-        var errors = errorDao.getErrors(status, thePageNumber, thePageSize);
-        var count = errorDao.count(status);
 
-        var appErrors = ApplicationErrorPage.builder()
-                .pageNumber(thePageNumber)
-                .pageSize(thePageSize)
-                .totalCount(count)
-                .items(errors)
-                .build();
+        ApplicationErrorSummaryPage appErrors;
+        if (isBlank(cursor) && includeTotal) {
+            appErrors = errorDao.getErrorSummaryPage(status, thePageNumber, thePageSize);
+        } else {
+            var summaries = isBlank(cursor) ?
+                    errorDao.getErrorSummaries(status, thePageNumber, thePageSize) :
+                    errorDao.getErrorSummaries(status, ApplicationErrorCursor.decode(cursor), thePageSize);
+            var count = includeTotal ? errorDao.count(status) : ApplicationErrorPage.TOTAL_COUNT_NOT_INCLUDED;
+            appErrors = ApplicationErrorSummaryPage.of(summaries, count, thePageNumber, thePageSize);
+        }
 
         return Response.ok(appErrors).build();
     }
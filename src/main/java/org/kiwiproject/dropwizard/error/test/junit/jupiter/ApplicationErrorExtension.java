@@ -22,7 +22,8 @@ import java.net.InetAddress;
 
 /**
  * A JUnit Jupiter extension that ensures the {@link PersistentHostInformation} is set on {@link ApplicationError}
- * before all tests, and cleared after all tests have completed.
+ * before all tests, and cleared after all tests have completed. Any stack trace capture policy set by the tests is
+ * also cleared after all tests have completed.
  * <p>
  * If you need access to the underlying {@link PersistentHostInformation}, you can retrieve it via the {@link HostInfo}
  * annotation. You can get it using a {@link BeforeAll} annotated method:
@@ -105,8 +106,9 @@ public class ApplicationErrorExtension implements BeforeAllCallback, AfterAllCal
 
     @Override
     public void afterAll(ExtensionContext context) {
-        LOG.trace("Clearing persistent host information from ApplicationError");
+        LOG.trace("Clearing persistent host information and stack trace capture policy from ApplicationError");
         ApplicationError.clearPersistentHostInformation();
+        ApplicationError.setStackTraceCapturePolicy(null);
     }
 
     @Override
@@ -0,0 +1,296 @@
+package org.kiwiproject.dropwizard.error;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.kiwiproject.dropwizard.error.dao.ApplicationErrorDao.PENDING_ID;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import io.dropwizard.util.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.kiwiproject.dropwizard.error.config.RateLimitConfig;
+import org.kiwiproject.dropwizard.error.dao.ApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.model.ApplicationError;
+import org.kiwiproject.dropwizard.error.test.junit.jupiter.ApplicationErrorExtension;
+import org.slf4j.Logger;
+
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+
+@DisplayName("ApplicationErrorRateLimiter")
+@ExtendWith(ApplicationErrorExtension.class)
+class ApplicationErrorRateLimiterTest {
+
+    private static final String SAMPLED_LOG_TEMPLATE = "{} [rate limited; logging 1 of every {} occurrences]";
+
+    /**
+     * With two errors per second, one token is added every 500 milliseconds.
+     */
+    private static final long MILLIS_PER_TOKEN = 500;
+
+    private RateLimitConfig config;
+    private Clock clock;
+    private long nowMillis;
+    private Logger logger;
+    private ApplicationErrorDao errorDao;
+    private ApplicationErrorRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        config = new RateLimitConfig();
+        config.setMaxErrorsPerPeriod(2);
+        config.setPeriod(Duration.seconds(1));
+        config.setLogSampleRate(3);
+        config.setMaxTrackedErrors(2);
+
+        clock = mock(Clock.class);
+        nowMillis = 1_700_000_000_000L;
+        when(clock.millis()).thenAnswer(invocation -> nowMillis);
+
+        logger = mock(Logger.class);
+
+        // Like the database DAOs, return the same ID for errors having the same fingerprint
+        var idsByFingerprint = new HashMap<String, Long>();
+        errorDao = mock(ApplicationErrorDao.class);
+        when(errorDao.insertOrIncrementCount(any())).thenAnswer(invocation -> {
+            ApplicationError error = invocation.getArgument(0);
+            return idsByFingerprint.computeIfAbsent(error.getFingerprint(), key -> idsByFingerprint.size() + 1L);
+        });
+
+        rateLimiter = new ApplicationErrorRateLimiter(errorDao, config, clock);
+    }
+
+    @Test
+    void shouldRequireErrorDao() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new ApplicationErrorRateLimiter(null, config))
+                .withMessage("errorDao must not be null");
+    }
+
+    @Test
+    void shouldRequireValidConfig() {
+        config.setMaxErrorsPerPeriod(0);
+
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new ApplicationErrorRateLimiter(errorDao, config));
+    }
+
+    @Test
+    void shouldLogAndSave_UpToMaxErrorsPerPeriod() {
+        var throwable = new RuntimeException("oops");
+
+        var firstId = rateLimiter.logAndSaveApplicationError(errorDao, logger, throwable, "An error");
+        var secondId = rateLimiter.logAndSaveApplicationError(errorDao, logger, throwable, "An error");
+
+        assertThat(firstId).hasValue(1);
+        assertThat(secondId).hasValue(1);
+        verify(errorDao, times(2)).insertOrIncrementCount(any());
+        verify(logger, times(2)).error("An error", throwable);
+    }
+
+    @Test
+    void shouldCountRateLimitedOccurrences_AndAddThemToSavedError_WhenFlushed() {
+        var ids = callRepeatedly(5, "An error");
+
+        assertThat(ids).containsOnly(OptionalLong.of(1));
+        verify(logger, times(2)).error(eq("An error"), (Throwable) isNull());
+        verify(errorDao, times(2)).insertOrIncrementCount(any());
+
+        assertThat(rateLimiter.flush()).isOne();
+        verify(errorDao).incrementCounts(Map.of(1L, 3));
+
+        assertThat(rateLimiter.flush()).isZero();
+        verify(errorDao).incrementCounts(anyMap());
+    }
+
+    @Test
+    void shouldSampleLogging_OfRateLimitedOccurrences() {
+        var throwable = new IllegalStateException("bad state");
+
+        for (var i = 0; i < 9; i++) {
+            rateLimiter.logAndSaveApplicationError(errorDao, logger, throwable, "An error");
+        }
+
+        verify(logger, times(2)).error("An error", throwable);
+        verify(logger, times(3)).error(SAMPLED_LOG_TEMPLATE, "An error", 3, throwable);
+    }
+
+    @Test
+    void shouldNotLogRateLimitedOccurrences_WhenLogSampleRateIsZero() {
+        config.setLogSampleRate(0);
+        rateLimiter = new ApplicationErrorRateLimiter(errorDao, config, clock);
+        var throwable = new IllegalStateException("bad state");
+
+        for (var i = 0; i < 9; i++) {
+            rateLimiter.logAndSaveApplicationError(errorDao, logger, throwable, "An error");
+        }
+
+        verify(logger, times(2)).error("An error", throwable);
+        verifyNoMoreInteractions(logger);
+    }
+
+    @Test
+    void shouldPermitMoreErrors_AsTokensAreAdded() {
+        callRepeatedly(3, "An error");
+
+        nowMillis += MILLIS_PER_TOKEN;
+        callRepeatedly(2, "An error");
+
+        verify(errorDao, times(3)).insertOrIncrementCount(any());
+        assertThat(rateLimiter.flush()).isOne();
+        verify(errorDao).incrementCounts(Map.of(1L, 2));
+    }
+
+    @Test
+    void shouldRateLimitErrors_ByDescriptionAndExceptionType() {
+        config.setMaxTrackedErrors(3);
+        rateLimiter = new ApplicationErrorRateLimiter(errorDao, config, clock);
+
+        var ids = callRepeatedly(3, "An error");
+        var otherTypeId =
+                rateLimiter.logAndSaveApplicationError(errorDao, logger, new IllegalStateException(), "An error");
+        var otherDescriptionId = rateLimiter.logAndSaveApplicationError(errorDao, logger, null, "Another error");
+
+        assertThat(ids).containsOnly(OptionalLong.of(1));
+        assertThat(otherTypeId).hasValue(2);
+        assertThat(otherDescriptionId).hasValue(3);
+        verify(errorDao, times(4)).insertOrIncrementCount(any());
+        assertThat(rateLimiter.getTrackedErrorCount()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldNotRateLimitErrors_BeyondMaxTrackedErrors() {
+        callRepeatedly(1, "An error");
+        callRepeatedly(1, "Another error");
+
+        callRepeatedly(5, "Yet another error");
+
+        verify(errorDao, times(5))
+                .insertOrIncrementCount(argThat(error -> error.getDescription().equals("Yet another error")));
+        assertThat(rateLimiter.getTrackedErrorCount()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldStopTrackingErrors_ThatHaveNotOccurredRecently() {
+        callRepeatedly(3, "An error");
+
+        rateLimiter.flush();
+        assertThat(rateLimiter.getTrackedErrorCount()).isOne();
+
+        nowMillis += 2 * MILLIS_PER_TOKEN;
+        rateLimiter.flush();
+        assertThat(rateLimiter.getTrackedErrorCount()).isZero();
+    }
+
+    @Test
+    void shouldFlush_AndNotRateLimit_AfterStopped() {
+        callRepeatedly(3, "An error");
+
+        rateLimiter.stop();
+        verify(errorDao).incrementCounts(Map.of(1L, 1));
+
+        callRepeatedly(3, "An error");
+        verify(errorDao, times(5)).insertOrIncrementCount(any());
+    }
+
+    @Test
+    void shouldNotRateLimit_UntilIdIsKnown() {
+        doThrow(new IllegalStateException("Unable to acquire a database connection"))
+                .doThrow(new IllegalStateException("Unable to acquire a database connection"))
+                .doReturn(42L)
+                .when(errorDao).insertOrIncrementCount(any());
+
+        var ids = callRepeatedly(4, "An error");
+
+        assertThat(ids).containsExactly(OptionalLong.empty(), OptionalLong.empty(), OptionalLong.of(42),
+                OptionalLong.of(42));
+        verify(errorDao, times(3)).insertOrIncrementCount(any());
+        assertThat(rateLimiter.flush()).isOne();
+        verify(errorDao).incrementCounts(Map.of(42L, 1));
+    }
+
+    @Test
+    void shouldNotThrow_WhenIncrementingCountsFails() {
+        doThrow(new IllegalStateException("Unable to acquire a database connection"))
+                .when(errorDao).incrementCounts(anyMap());
+        callRepeatedly(3, "An error");
+
+        assertThatCode(() -> assertThat(rateLimiter.flush()).isZero()).doesNotThrowAnyException();
+    }
+
+    @Test
+    void shouldSaveEveryOccurrence_WhileIdOfSavedErrorIsNotKnown() {
+        doReturn(PENDING_ID).when(errorDao).insertOrIncrementCount(any());
+
+        var ids = callRepeatedly(3, "An error");
+
+        assertThat(ids).containsOnly(OptionalLong.empty());
+        verify(errorDao, times(3)).insertOrIncrementCount(any());
+    }
+
+    @Test
+    void shouldFindIdOfSavedError_WhenFlushed() {
+        doReturn(PENDING_ID).when(errorDao).insertOrIncrementCount(any());
+        var savedError = ApplicationError.newUnresolvedError("An error");
+        when(errorDao.getUnresolvedErrorIdByFingerprint(savedError.getFingerprint())).thenReturn(OptionalLong.of(42));
+        callRepeatedly(3, "An error");
+
+        assertThat(rateLimiter.flush()).isZero();
+
+        var ids = callRepeatedly(2, "An error");
+        assertThat(ids).containsOnly(OptionalLong.of(42));
+        verify(errorDao, times(3)).insertOrIncrementCount(any());
+        assertThat(rateLimiter.flush()).isOne();
+        verify(errorDao).incrementCounts(Map.of(42L, 2));
+    }
+
+    @Test
+    void shouldStopTrackingErrors_WhoseIdIsNotKnown_ThatHaveNotOccurredRecently() {
+        doReturn(PENDING_ID).when(errorDao).insertOrIncrementCount(any());
+        callRepeatedly(3, "An error");
+
+        nowMillis += 2 * MILLIS_PER_TOKEN;
+        rateLimiter.flush();
+
+        assertThat(rateLimiter.getTrackedErrorCount()).isZero();
+        verify(errorDao, never()).getUnresolvedErrorIdByFingerprint(any());
+    }
+
+    @Test
+    void shouldSaveUsingGivenErrorDao() {
+        var otherErrorDao = mock(ApplicationErrorDao.class);
+        when(otherErrorDao.insertOrIncrementCount(any())).thenReturn(7L);
+
+        rateLimiter.logAndSaveApplicationError(otherErrorDao, logger, null, "An error");
+        rateLimiter.logAndSaveApplicationError(otherErrorDao, logger, null, "Another error");
+        rateLimiter.logAndSaveApplicationError(otherErrorDao, logger, null, "Yet another error");
+
+        verify(otherErrorDao, times(3)).insertOrIncrementCount(any());
+        verify(errorDao, never()).insertOrIncrementCount(any());
+    }
+
+    private OptionalLong[] callRepeatedly(int times, String message) {
+        var ids = new OptionalLong[times];
+        for (var i = 0; i < times; i++) {
+            ids[i] = rateLimiter.logAndSaveApplicationError(errorDao, logger, null, message);
+        }
+        return ids;
+    }
+}
@@ -7,6 +7,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import lombok.extern.slf4j.Slf4j;
@@ -21,6 +22,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.kiwiproject.dropwizard.error.dao.ApplicationErrorDao;
 import org.kiwiproject.dropwizard.error.test.junit.jupiter.ApplicationErrorExtension;
 
+import java.util.OptionalLong;
+
 @DisplayName("ApplicationErrorThrower")
 @Slf4j
 @ExtendWith({ApplicationErrorExtension.class, SoftAssertionsExtension.class})
@@ -239,6 +242,65 @@ class ApplicationErrorThrowerTest {
         }
     }
 
+    @Nested
+    class WithRateLimiter {
+
+        private ApplicationErrorRateLimiter rateLimiter;
+
+        @BeforeEach
+        void setUp() {
+            rateLimiter = mock(ApplicationErrorRateLimiter.class);
+            when(rateLimiter.logAndSaveApplicationError(any(), any(), any(), any())).thenReturn(OptionalLong.of(42));
+            errorThrower = ApplicationErrorThrower.builder()
+                    .errorDao(errorDao)
+                    .logger(LOG)
+                    .rateLimiter(rateLimiter)
+                    .build();
+        }
+
+        @Test
+        void shouldUseRateLimiter_WithMessage() {
+            var optionalId = errorThrower.logAndSaveApplicationError("A simple message");
+
+            assertThat(optionalId).hasValue(42);
+            verify(rateLimiter).logAndSaveApplicationError(errorDao, LOG, null, "A simple message");
+            verifyNoInteractions(errorDao);
+        }
+
+        @Test
+        void shouldUseRateLimiter_WithParameterizedMessage() {
+            var optionalId = errorThrower.logAndSaveApplicationError(MESSAGE_TEMPLATE, 42, "perspicacious");
+
+            assertThat(optionalId).hasValue(42);
+            verify(rateLimiter).logAndSaveApplicationError(errorDao, LOG, null,
+                    "A parameterized message with answer 42 and random word perspicacious");
+            verifyNoInteractions(errorDao);
+        }
+
+        @Test
+        void shouldUseRateLimiter_WithThrowableAndMessage() {
+            var throwable = new RuntimeException("oopsy");
+
+            var optionalId = errorThrower.logAndSaveApplicationError(throwable, "A simple message");
+
+            assertThat(optionalId).hasValue(42);
+            verify(rateLimiter).logAndSaveApplicationError(errorDao, LOG, throwable, "A simple message");
+            verifyNoInteractions(errorDao);
+        }
+
+        @Test
+        void shouldUseRateLimiter_WithThrowableAndParameterizedMessage() {
+            var throwable = new RuntimeException("oopsy");
+
+            var optionalId = errorThrower.logAndSaveApplicationError(throwable, MESSAGE_TEMPLATE, 84, "laconic");
+
+            assertThat(optionalId).hasValue(42);
+            verify(rateLimiter).logAndSaveApplicationError(errorDao, LOG, throwable,
+                    "A parameterized message with answer 84 and random word laconic");
+            verifyNoInteractions(errorDao);
+        }
+    }
+
     // Words used in this test, for your own edification...
 
     // edification:
@@ -268,6 +330,14 @@ class ApplicationErrorThrowerTest {
     // (of a product) made or used as a substitute, typically an inferior one, for something else
     // - not real or genuine
 
+    // perspicacious:
+    // adjective
+    // having a ready insight into and understanding of things
+
+    // laconic:
+    // adjective
+    // (of a person, speech, or style of writing) using very few words
+
     // anodyne:
     // adjective
     // 1. serving to alleviate pain
@@ -1,5 +1,6 @@
 package org.kiwiproject.dropwizard.error;
 
+import static java.util.Objects.nonNull;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 import static org.junit.jupiter.api.Assertions.assertAll;
@@ -30,14 +31,28 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.kiwiproject.dropwizard.error.ErrorContextBuilder.DaoType;
+import org.kiwiproject.dropwizard.error.config.AsyncWriteConfig;
+import org.kiwiproject.dropwizard.error.config.CircuitBreakerConfig;
 import org.kiwiproject.dropwizard.error.config.CleanupConfig;
+import org.kiwiproject.dropwizard.error.config.InMemoryCapacityConfig;
+import org.kiwiproject.dropwizard.error.config.RateLimitConfig;
+import org.kiwiproject.dropwizard.error.config.SpoolConfig;
+import org.kiwiproject.dropwizard.error.config.StackTraceCaptureConfig;
+import org.kiwiproject.dropwizard.error.config.UnresolvedErrorCacheConfig;
 import org.kiwiproject.dropwizard.error.dao.ApplicationErrorJdbc;
+import org.kiwiproject.dropwizard.error.dao.CachingApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.dao.InstrumentedApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.dao.StackTraceCompression;
+import org.kiwiproject.dropwizard.error.dao.WriteBehindApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.dao.jdbi3.Jdbi3ApplicationErrorConfig;
 import org.kiwiproject.dropwizard.error.dao.jdbi3.Jdbi3ApplicationErrorDao;
 import org.kiwiproject.dropwizard.error.dao.jdk.ConcurrentMapApplicationErrorDao;
 import org.kiwiproject.dropwizard.error.dao.jdk.JdbcApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.dao.jdk.MappedFileApplicationErrorDao;
 import org.kiwiproject.dropwizard.error.dao.jdk.NoOpApplicationErrorDao;
 import org.kiwiproject.dropwizard.error.health.RecentErrorsHealthCheck;
 import org.kiwiproject.dropwizard.error.health.TimeWindow;
@@ -54,6 +69,7 @@ import org.kiwiproject.validation.KiwiConstraintViolations;
 import org.kiwiproject.validation.KiwiValidations;
 import org.postgresql.Driver;
 
+import java.nio.file.Path;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalUnit;
 import java.util.concurrent.ScheduledExecutorService;
@@ -94,6 +110,7 @@ class ErrorContextBuilderTest {
     @AfterEach
     void tearDown() {
         ApplicationError.clearPersistentHostInformation();
+        ApplicationError.setStackTraceCapturePolicy(null);
     }
 
     @Nested
@@ -394,6 +411,7 @@ class ErrorContextBuilderTest {
             var errorContext = ErrorContextBuilder.newInstance()
                     .environment(environment)
                     .serviceDetails(serviceDetails)
+                    .skipDaoMetrics()
                     .buildInMemoryH2();
 
             softly.assertThat(errorContext).isExactlyInstanceOf(Jdbi3ErrorContext.class);
@@ -447,6 +465,7 @@ class ErrorContextBuilderTest {
             var errorContext = ErrorContextBuilder.newInstance()
                     .environment(environment)
                     .serviceDetails(serviceDetails)
+                    .skipDaoMetrics()
                     .buildWithJdbc(dataSourceFactory);
 
             assertAll(
@@ -528,12 +547,36 @@ class ErrorContextBuilderTest {
             var errorContext = ErrorContextBuilder.newInstance()
                     .environment(environment)
                     .serviceDetails(serviceDetails)
+                    .skipDaoMetrics()
                     .buildWithJdbi3(jdbi);
 
             softly.assertThat(errorContext).isExactlyInstanceOf(Jdbi3ErrorContext.class);
             softly.assertThat(errorContext.errorDao()).isInstanceOf(Jdbi3ApplicationErrorDao.class);
         }
 
+        @Test
+        void shouldNotCompressStackTraces_ByDefault() {
+            ErrorContextBuilder.newInstance()
+                    .environment(environment)
+                    .serviceDetails(serviceDetails)
+                    .buildWithJdbi3(jdbi);
+
+            assertThat(jdbi.getConfig(Jdbi3ApplicationErrorConfig.class).getStackTraceCompression())
+                    .isEqualTo(StackTraceCompression.NONE);
+        }
+
+        @Test
+        void shouldConfigureStackTraceCompression() {
+            ErrorContextBuilder.newInstance()
+                    .environment(environment)
+                    .serviceDetails(serviceDetails)
+                    .compressStackTraces()
+                    .buildWithJdbi3(jdbi);
+
+            assertThat(jdbi.getConfig(Jdbi3ApplicationErrorConfig.class).getStackTraceCompression())
+                    .isEqualTo(StackTraceCompression.DEFLATE);
+        }
+
         @Test
         void shouldRegisterResources() {
             ErrorContextBuilder.newInstance()
@@ -614,6 +657,7 @@ class ErrorContextBuilderTest {
             var errorContext = ErrorContextBuilder.newInstance()
                     .environment(environment)
                     .serviceDetails(serviceDetails)
+                    .skipDaoMetrics()
                     .buildWithDataStoreFactoryOfType(dataSourceFactory, DaoType.JDBC);
 
             assertAll(
@@ -627,6 +671,7 @@ class ErrorContextBuilderTest {
             var errorContext = ErrorContextBuilder.newInstance()
                     .environment(environment)
                     .serviceDetails(serviceDetails)
+                    .skipDaoMetrics()
                     .buildWithDataStoreFactoryOfType(dataSourceFactory, DaoType.JDBI3);
 
             assertAll(
@@ -653,6 +698,7 @@ class ErrorContextBuilderTest {
             var errorContext = ErrorContextBuilder.newInstance()
                     .environment(environment)
                     .serviceDetails(serviceDetails)
+                    .skipDaoMetrics()
                     .buildWithNoOpDao();
 
             softly.assertThat(errorContext).isExactlyInstanceOf(SimpleErrorContext.class);
@@ -700,6 +746,7 @@ class ErrorContextBuilderTest {
             var errorContext = ErrorContextBuilder.newInstance()
                     .environment(environment)
                     .serviceDetails(serviceDetails)
+                    .skipDaoMetrics()
                     .buildWithConcurrentMapDao();
 
             softly.assertThat(errorContext).isExactlyInstanceOf(SimpleErrorContext.class);
@@ -737,6 +784,71 @@ class ErrorContextBuilderTest {
 
             assertThat(errorContext.dataStoreType()).isEqualTo(DataStoreType.NOT_SHARED);
         }
+
+        @Test
+        void shouldValidateCapacityConfig() {
+            var capacityConfig = new InMemoryCapacityConfig();
+            capacityConfig.setMaxErrors(0);
+
+            var builder = ErrorContextBuilder.newInstance()
+                    .environment(environment)
+                    .serviceDetails(serviceDetails);
+
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> builder.buildWithConcurrentMapDao(capacityConfig));
+        }
+    }
+
+    @Nested
+    class BuildWithMappedFileDao {
+
+        @TempDir
+        Path tempDir;
+
+        private MappedFileApplicationErrorDao errorDao;
+
+        @AfterEach
+        void tearDown() {
+            if (nonNull(errorDao)) {
+                errorDao.close();
+            }
+        }
+
+        @Test
+        void shouldBuildSimpleContext(SoftAssertions softly) {
+            var errorContext = ErrorContextBuilder.newInstance()
+                    .environment(environment)
+                    .serviceDetails(serviceDetails)
+                    .skipDaoMetrics()
+                    .dataStoreType(DataStoreType.SHARED)
+                    .buildWithMappedFileDao(tempDir.resolve("application-errors.log"));
+            errorDao = (MappedFileApplicationErrorDao) errorContext.errorDao();
+
+            softly.assertThat(errorContext).isExactlyInstanceOf(SimpleErrorContext.class);
+            softly.assertThat(errorContext.dataStoreType()).isEqualTo(DataStoreType.NOT_SHARED);
+            softly.assertThat(tempDir.resolve("application-errors.log")).isRegularFile();
+        }
+
+        @Test
+        void shouldManageDao() {
+            var errorContext = ErrorContextBuilder.newInstance()
+                    .environment(environment)
+                    .serviceDetails(serviceDetails)
+                    .skipDaoMetrics()
+                    .buildWithMappedFileDao(tempDir.resolve("application-errors.log"));
+            errorDao = (MappedFileApplicationErrorDao) errorContext.errorDao();
+
+            verify(environment.lifecycle()).manage(errorDao);
+        }
+
+        @Test
+        void shouldRequirePath() {
+            var builder = ErrorContextBuilder.newInstance()
+                    .environment(environment)
+                    .serviceDetails(serviceDetails);
+
+            assertThatIllegalArgumentException().isThrownBy(() -> builder.buildWithMappedFileDao(null));
+        }
     }
 
     @Nested
@@ -749,6 +861,7 @@ class ErrorContextBuilderTest {
                     .environment(environment)
                     .serviceDetails(serviceDetails)
                     .dataStoreType(DataStoreType.SHARED)
+                    .skipDaoMetrics()
                     .buildWithDao(errorDao);
 
             softly.assertThat(errorContext).isExactlyInstanceOf(SimpleErrorContext.class);
@@ -781,6 +894,301 @@ class ErrorContextBuilderTest {
         }
     }
 
+    @Nested
+    class UseAsyncWrites {
+
+        @Test
+        void shouldNotWrapDao_ByDefault() {
+            var errorDao = new NoOpApplicationErrorDao();
+            var errorContext = ErrorContextBuilder.newInstance()
+                    .environment(environment)
+                    .serviceDetails(serviceDetails)
+                    .dataStoreType(DataStoreType.NOT_SHARED)
+                    .skipDaoMetrics()
+                    .buildWithDao(errorDao);
+
+            assertThat(errorContext.errorDao()).isSameAs(errorDao);
+            verify(environment.lifecycle(), never()).manage(any(WriteBehindApplicationErrorDao.class));
+        }
+
+        @Test
+        void shouldWrapDaoAndManageIt(SoftAssertions softly) {
+            var errorDao = new NoOpApplicationErrorDao();
+            var errorContext = ErrorContextBuilder.newInstance()
+                    .environment(environment)
+                    .serviceDetails(serviceDetails)
+                    .dataStoreType(DataStoreType.NOT_SHARED)
+                    .useAsyncWrites()
+                    .skipDaoMetrics()
+                    .buildWithDao(errorDao);
+
+            softly.assertThat(errorContext.errorDao()).isExactlyInstanceOf(WriteBehindApplicationErrorDao.class);
+            softly.assertThat(((WriteBehindApplicationErrorDao) errorContext.errorDao()).delegate()).isSameAs(errorDao);
+
+            verify(environment.lifecycle()).manage((WriteBehindApplicationErrorDao) errorContext.errorDao());
+        }
+
+        @Test
+        void shouldWrapJdbi3Dao(SoftAssertions softly) {
+            var errorContext = ErrorContextBuilder.newInstance()
+                    .environment(environment)
+                    .serviceDetails(serviceDetails)
+                    .useAsyncWrites(new AsyncWriteConfig())
+                    .skipDaoMetrics()
+                    .buildInMemoryH2();
+
+            softly.assertThat(errorContext.errorDao()).isExactlyInstanceOf(WriteBehindApplicationErrorDao.class);
+            softly.assertThat(((WriteBehindApplicationErrorDao) errorContext.errorDao()).delegate())
+                    .isInstanceOf(Jdbi3ApplicationErrorDao.class);
+        }
+
+        @Test
+        void shouldValidateAsyncWriteConfig() {
+            var asyncWriteConfig = new AsyncWriteConfig();
+            asyncWriteConfig.setQueueCapacity(0);
+
+            var builder = ErrorContextBuilder.newInstance()
+                    .environment(environment)
+                    .serviceDetails(serviceDetails)
+                    .useAsyncWrites(asyncWriteConfig);
+
+            assertThatIllegalArgumentException()
+                    .isThrownBy(builder::buildWithConcurrentMapDao);
+        }
+    }
+
+    @Nested
+    class SpoolFailedWrites {
+
+        @Test
+        void shouldValidateSpoolConfig() {
+            var spoolConfig = new SpoolConfig();
+
+            var builder = ErrorContextBuilder.newInstance()
+                    .environment(environment)
+                    .serviceDetails(serviceDetails)
+                    .spoolFailedWrites(spoolConfig);
+
+            assertThatIllegalArgumentException()
+                    .isThrownBy(builder::buildWithNoOpDao);
+        }
+
+        @Test
+        void shouldRequirePath() {
+            var builder = ErrorContextBuilder.newInstance();
+
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> builder.spoolFailedWrites((Path) null))
+                    .withMessage("path must not be null");
+        }
+    }
+
+    @Nested
+    class UseCircuitBreaker {
+
+        @Test
+        void shouldValidateCircuitBreakerConfig() {
+            var circuitBreakerConfig = new CircuitBreakerConfig();
+            circuitBreakerConfig.setFailureRateThreshold(101);
+
+            var builder = ErrorContextBuilder.newInstance()
+                    .environment(environment)
+                    .serviceDetails(serviceDetails)
+                    .useCircuitBreaker(circuitBreakerConfig);
+
+            assertThatIllegalArgumentException()
+                    .isThrownBy(builder::buildWithNoOpDao);
+        }
+    }
+
+    @Nested
+    class RateLimitErrors {
+
+        @Test
+        void shouldValidateRateLimitConfig() {
+            var rateLimitConfig = new RateLimitConfig();
+            rateLimitConfig.setMaxErrorsPerPeriod(0);
+
+            var builder = ErrorContextBuilder.newInstance()
+                    .environment(environment)
+                    .serviceDetails(serviceDetails)
+                    .rateLimitErrors(rateLimitConfig);
+
+            assertThatIllegalArgumentException()
+                    .isThrownBy(builder::buildWithNoOpDao);
+        }
+
+        @Test
+        void shouldProvideRateLimiter() {
+            var context = ErrorContextBuilder.newInstance()
+                    .environment(environment)
+                    .serviceDetails(serviceDetails)
+                    .rateLimitErrors()
+                    .buildWithNoOpDao();
+
+            assertThat(context.rateLimiter()).isPresent();
+        }
+
+        @Test
+        void shouldNotProvideRateLimiter_ByDefault() {
+            var context = ErrorContextBuilder.newInstance()
+                    .environment(environment)
+                    .serviceDetails(serviceDetails)
+                    .buildWithNoOpDao();
+
+            assertThat(context.rateLimiter()).isEmpty();
+        }
+    }
+
+    @Nested
+    class DaoMetrics {
+
+        @Test
+        void shouldWrapDao_ByDefault(SoftAssertions softly) {
+            var errorDao = new NoOpApplicationErrorDao();
+            var errorContext = ErrorContextBuilder.newInstance()
+                    .environment(environment)
+                    .serviceDetails(serviceDetails)
+                    .dataStoreType(DataStoreType.NOT_SHARED)
+                    .buildWithDao(errorDao);
+
+            softly.assertThat(errorContext.errorDao()).isExactlyInstanceOf(InstrumentedApplicationErrorDao.class);
+            softly.assertThat(((InstrumentedApplicationErrorDao) errorContext.errorDao()).delegate())
+                    .isSameAs(errorDao);
+        }
+
+        @Test
+        void shouldNotWrapDao_WhenSkipped() {
+            var errorDao = new NoOpApplicationErrorDao();
+            var errorContext = ErrorContextBuilder.newInstance()
+                    .environment(environment)
+                    .serviceDetails(serviceDetails)
+                    .dataStoreType(DataStoreType.NOT_SHARED)
+                    .skipDaoMetrics()
+                    .buildWithDao(errorDao);
+
+            assertThat(errorContext.errorDao()).isSameAs(errorDao);
+        }
+
+        @Test
+        void shouldWrapJdbi3Dao_InsideOtherDecorators(SoftAssertions softly) {
+            var errorContext = ErrorContextBuilder.newInstance()
+                    .environment(environment)
+                    .serviceDetails(serviceDetails)
+                    .cacheUnresolvedErrorIds()
+                    .buildInMemoryH2();
+
+            var cachingDao = (CachingApplicationErrorDao) errorContext.errorDao();
+            softly.assertThat(cachingDao.delegate()).isExactlyInstanceOf(InstrumentedApplicationErrorDao.class);
+            softly.assertThat(((InstrumentedApplicationErrorDao) cachingDao.delegate()).delegate())
+                    .isInstanceOf(Jdbi3ApplicationErrorDao.class);
+        }
+    }
+
+    @Nested
+    class CacheUnresolvedErrorIds {
+
+        @Test
+        void shouldWrapDao(SoftAssertions softly) {
+            var errorDao = new NoOpApplicationErrorDao();
+            var errorContext = ErrorContextBuilder.newInstance()
+                    .environment(environment)
+                    .serviceDetails(serviceDetails)
+                    .dataStoreType(DataStoreType.NOT_SHARED)
+                    .cacheUnresolvedErrorIds()
+                    .skipDaoMetrics()
+                    .buildWithDao(errorDao);
+
+            softly.assertThat(errorContext.errorDao()).isExactlyInstanceOf(CachingApplicationErrorDao.class);
+            softly.assertThat(((CachingApplicationErrorDao) errorContext.errorDao()).delegate()).isSameAs(errorDao);
+        }
+
+        @Test
+        void shouldWrapJdbi3Dao_InsideOtherDecorators(SoftAssertions softly) {
+            var errorContext = ErrorContextBuilder.newInstance()
+                    .environment(environment)
+                    .serviceDetails(serviceDetails)
+                    .cacheUnresolvedErrorIds(new UnresolvedErrorCacheConfig())
+                    .useAsyncWrites()
+                    .skipDaoMetrics()
+                    .buildInMemoryH2();
+
+            var writeBehindDao = (WriteBehindApplicationErrorDao) errorContext.errorDao();
+            softly.assertThat(writeBehindDao.delegate()).isExactlyInstanceOf(CachingApplicationErrorDao.class);
+            softly.assertThat(((CachingApplicationErrorDao) writeBehindDao.delegate()).delegate())
+                    .isInstanceOf(Jdbi3ApplicationErrorDao.class);
+        }
+
+        @Test
+        void shouldValidateUnresolvedErrorCacheConfig() {
+            var cacheConfig = new UnresolvedErrorCacheConfig();
+            cacheConfig.setMaxSize(0);
+
+            var builder = ErrorContextBuilder.newInstance()
+                    .environment(environment)
+                    .serviceDetails(serviceDetails)
+                    .cacheUnresolvedErrorIds(cacheConfig);
+
+            assertThatIllegalArgumentException()
+                    .isThrownBy(builder::buildWithNoOpDao);
+        }
+    }
+
+    @Nested
+    class LimitCapturedStackTraces {
+
+        @Test
+        void shouldNotSetCapturePolicy_ByDefault() {
+            ErrorContextBuilder.newInstance()
+                    .environment(environment)
+                    .serviceDetails(serviceDetails)
+                    .buildWithNoOpDao();
+
+            assertThat(ApplicationError.getStackTraceCapturePolicy()).isNull();
+        }
+
+        @Test
+        void shouldSetCapturePolicy(SoftAssertions softly) {
+            var captureConfig = new StackTraceCaptureConfig();
+            captureConfig.setMaxFrames(25);
+
+            ErrorContextBuilder.newInstance()
+                    .environment(environment)
+                    .serviceDetails(serviceDetails)
+                    .limitCapturedStackTraces(captureConfig)
+                    .buildWithNoOpDao();
+
+            var policy = ApplicationError.getStackTraceCapturePolicy();
+            softly.assertThat(policy).isNotNull();
+            softly.assertThat(policy.getMaxFrames()).isEqualTo(25);
+        }
+
+        @Test
+        void shouldSetCapturePolicy_ForJdbi3() {
+            ErrorContextBuilder.newInstance()
+                    .environment(environment)
+                    .serviceDetails(serviceDetails)
+                    .limitCapturedStackTraces()
+                    .buildInMemoryH2();
+
+            assertThat(ApplicationError.getStackTraceCapturePolicy()).isNotNull();
+        }
+
+        @Test
+        void shouldValidateStackTraceCaptureConfig() {
+            var captureConfig = new StackTraceCaptureConfig();
+            captureConfig.setMaxLength(0);
+
+            var builder = ErrorContextBuilder.newInstance()
+                    .environment(environment)
+                    .serviceDetails(serviceDetails)
+                    .limitCapturedStackTraces(captureConfig);
+
+            assertThatIllegalArgumentException()
+                    .isThrownBy(builder::buildWithNoOpDao);
+        }
+    }
+
     private void verifyRegistersJerseyResources() {
         var jersey = environment.jersey();
 
@@ -27,7 +27,13 @@ class ErrorContextOptionsTest {
             () -> assertThat(options.getTimeWindowValue()).isEqualTo(TimeWindow.DEFAULT_TIME_WINDOW_MINUTES),
             () -> assertThat(options.getTimeWindowUnit()).isEqualTo(ChronoUnit.MINUTES),
             () -> assertThat(options.isAddCleanupJob()).isTrue(),
-            () -> assertThat(options.getCleanupConfig()).usingRecursiveComparison().isEqualTo(new CleanupConfig())
+            () -> assertThat(options.getCleanupConfig()).usingRecursiveComparison().isEqualTo(new CleanupConfig()),
+            () -> assertThat(options.isAddDaoMetrics()).isTrue(),
+            () -> assertThat(options.getAsyncWriteConfig()).isNull(),
+            () -> assertThat(options.getCoalescingConfig()).isNull(),
+            () -> assertThat(options.getSpoolConfig()).isNull(),
+            () -> assertThat(options.getCircuitBreakerConfig()).isNull(),
+            () -> assertThat(options.getRateLimitConfig()).isNull()
         );
     }
 
@@ -13,6 +13,7 @@ import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import com.codahale.metrics.Gauge;
 import com.codahale.metrics.health.HealthCheckRegistry;
 import io.dropwizard.core.setup.Environment;
 import io.dropwizard.jersey.setup.JerseyEnvironment;
@@ -23,11 +24,29 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
+import org.kiwiproject.dropwizard.error.config.AsyncWriteConfig;
+import org.kiwiproject.dropwizard.error.config.BackgroundHealthCheckConfig;
+import org.kiwiproject.dropwizard.error.config.CircuitBreakerConfig;
 import org.kiwiproject.dropwizard.error.config.CleanupConfig;
+import org.kiwiproject.dropwizard.error.config.CoalescingConfig;
+import org.kiwiproject.dropwizard.error.config.RateLimitConfig;
+import org.kiwiproject.dropwizard.error.config.RecentErrorCounterConfig;
+import org.kiwiproject.dropwizard.error.config.SpoolConfig;
 import org.kiwiproject.dropwizard.error.dao.ApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.dao.CircuitBreakingApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.dao.CoalescingApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.dao.InstrumentedApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.dao.RecentErrorCountingApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.dao.SpoolingApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.dao.WriteBehindApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.health.CachedRecentErrorsHealthCheck;
+import org.kiwiproject.dropwizard.error.health.CircuitBreakerHealthCheck;
+import org.kiwiproject.dropwizard.error.health.InMemoryRecentErrorsHealthCheck;
 import org.kiwiproject.dropwizard.error.health.RecentErrorsHealthCheck;
+import org.kiwiproject.dropwizard.error.health.SlidingWindowErrorCounter;
 import org.kiwiproject.dropwizard.error.job.CleanupApplicationErrorsJob;
 import org.kiwiproject.dropwizard.error.model.ApplicationError;
 import org.kiwiproject.dropwizard.error.model.DataStoreType;
@@ -36,7 +55,9 @@ import org.kiwiproject.dropwizard.error.resource.ApplicationErrorResource;
 import org.kiwiproject.dropwizard.error.resource.GotErrorsResource;
 import org.kiwiproject.test.dropwizard.mockito.DropwizardMockitoMocks;
 
+import java.nio.file.Path;
 import java.time.Duration;
+import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -150,6 +171,236 @@ class ErrorContextUtilitiesTest {
         }
     }
 
+    @Nested
+    class DecorateErrorDao {
+
+        private ApplicationErrorDao errorDao;
+
+        @BeforeEach
+        void setUp() {
+            errorDao = mock(ApplicationErrorDao.class);
+        }
+
+        @Test
+        void shouldReturnSameDao_WhenNoDecoratorsAreRequested() {
+            var options = ErrorContextOptions.builder()
+                    .addDaoMetrics(false)
+                    .build();
+
+            var decoratedDao = ErrorContextUtilities.decorateErrorDao(environment, errorDao, options);
+
+            assertThat(decoratedDao).isSameAs(errorDao);
+            verifyNoInteractions(environment.lifecycle());
+        }
+
+        @Test
+        void shouldWrapWithInstrumentedDao_ByDefault() {
+            var options = ErrorContextOptions.builder().build();
+
+            var decoratedDao = ErrorContextUtilities.decorateErrorDao(environment, errorDao, options);
+
+            assertThat(decoratedDao).isExactlyInstanceOf(InstrumentedApplicationErrorDao.class);
+            assertThat(((InstrumentedApplicationErrorDao) decoratedDao).delegate()).isSameAs(errorDao);
+            verifyNoInteractions(environment.lifecycle());
+        }
+
+        @Test
+        void shouldWrapWithInstrumentedDao_Innermost() {
+            var options = ErrorContextOptions.builder()
+                    .asyncWriteConfig(new AsyncWriteConfig())
+                    .build();
+
+            var decoratedDao = ErrorContextUtilities.decorateErrorDao(environment, errorDao, options);
+
+            assertThat(decoratedDao).isExactlyInstanceOf(WriteBehindApplicationErrorDao.class);
+            var instrumentedDao = ((WriteBehindApplicationErrorDao) decoratedDao).delegate();
+            assertThat(instrumentedDao).isExactlyInstanceOf(InstrumentedApplicationErrorDao.class);
+            assertThat(((InstrumentedApplicationErrorDao) instrumentedDao).delegate()).isSameAs(errorDao);
+        }
+
+        @Test
+        void shouldWrapWithWriteBehindDao_WhenAsyncWritesAreRequested() {
+            var options = ErrorContextOptions.builder()
+                    .addDaoMetrics(false)
+                    .asyncWriteConfig(new AsyncWriteConfig())
+                    .build();
+
+            var decoratedDao = ErrorContextUtilities.decorateErrorDao(environment, errorDao, options);
+
+            assertThat(decoratedDao).isExactlyInstanceOf(WriteBehindApplicationErrorDao.class);
+            assertThat(((WriteBehindApplicationErrorDao) decoratedDao).delegate()).isSameAs(errorDao);
+            verify(environment.lifecycle()).manage((WriteBehindApplicationErrorDao) decoratedDao);
+        }
+
+        @Test
+        void shouldWrapWithCoalescingDao_AndScheduleFlush_WhenCoalescingIsRequested() {
+            var coalescingConfig = new CoalescingConfig();
+            var executor = mock(ScheduledExecutorService.class);
+            var executorBuilder = mock(ScheduledExecutorServiceBuilder.class);
+            when(executorBuilder.build()).thenReturn(executor);
+            var lifecycle = environment.lifecycle();
+            when(lifecycle.scheduledExecutorService(coalescingConfig.getFlushJobName(), true))
+                    .thenReturn(executorBuilder);
+
+            var options = ErrorContextOptions.builder()
+                    .addDaoMetrics(false)
+                    .coalescingConfig(coalescingConfig)
+                    .build();
+
+            var decoratedDao = ErrorContextUtilities.decorateErrorDao(environment, errorDao, options);
+
+            assertThat(decoratedDao).isExactlyInstanceOf(CoalescingApplicationErrorDao.class);
+            assertThat(((CoalescingApplicationErrorDao) decoratedDao).delegate()).isSameAs(errorDao);
+            verify(lifecycle).manage((CoalescingApplicationErrorDao) decoratedDao);
+
+            var windowMillis = coalescingConfig.getWindow().toMilliseconds();
+            verify(executor).scheduleWithFixedDelay(any(Runnable.class),
+                    eq(windowMillis), eq(windowMillis), eq(TimeUnit.MILLISECONDS));
+        }
+
+        @Test
+        void shouldWrapWithSpoolingDao_AndScheduleReplay_WhenSpoolingIsRequested(@TempDir Path tempDir) {
+            var spoolConfig = new SpoolConfig();
+            spoolConfig.setPath(tempDir.resolve("application-errors.spool").toString());
+            var executor = mock(ScheduledExecutorService.class);
+            var executorBuilder = mock(ScheduledExecutorServiceBuilder.class);
+            when(executorBuilder.build()).thenReturn(executor);
+            var lifecycle = environment.lifecycle();
+            when(lifecycle.scheduledExecutorService(spoolConfig.getReplayJobName(), true))
+                    .thenReturn(executorBuilder);
+
+            var options = ErrorContextOptions.builder()
+                    .addDaoMetrics(false)
+                    .spoolConfig(spoolConfig)
+                    .asyncWriteConfig(new AsyncWriteConfig())
+                    .build();
+
+            var decoratedDao = ErrorContextUtilities.decorateErrorDao(environment, errorDao, options);
+
+            assertThat(decoratedDao).isExactlyInstanceOf(WriteBehindApplicationErrorDao.class);
+            var spoolingDao = ((WriteBehindApplicationErrorDao) decoratedDao).delegate();
+            assertThat(spoolingDao).isExactlyInstanceOf(SpoolingApplicationErrorDao.class);
+            assertThat(((SpoolingApplicationErrorDao) spoolingDao).delegate()).isSameAs(errorDao);
+            verify(lifecycle).manage((SpoolingApplicationErrorDao) spoolingDao);
+
+            var replayMillis = spoolConfig.getReplayInterval().toMilliseconds();
+            verify(executor).scheduleWithFixedDelay(any(Runnable.class),
+                    eq(replayMillis), eq(replayMillis), eq(TimeUnit.MILLISECONDS));
+
+            ((SpoolingApplicationErrorDao) spoolingDao).stop();
+        }
+
+        @Test
+        void shouldWrapWithCircuitBreakingDao_AndRegisterGaugeAndHealthCheck_WhenCircuitBreakerIsRequested() {
+            var options = ErrorContextOptions.builder()
+                    .circuitBreakerConfig(new CircuitBreakerConfig())
+                    .asyncWriteConfig(new AsyncWriteConfig())
+                    .build();
+
+            var decoratedDao = ErrorContextUtilities.decorateErrorDao(environment, errorDao, options);
+
+            assertThat(decoratedDao).isExactlyInstanceOf(WriteBehindApplicationErrorDao.class);
+            var circuitBreakingDao = ((WriteBehindApplicationErrorDao) decoratedDao).delegate();
+            assertThat(circuitBreakingDao).isExactlyInstanceOf(CircuitBreakingApplicationErrorDao.class);
+            var instrumentedDao = ((CircuitBreakingApplicationErrorDao) circuitBreakingDao).delegate();
+            assertThat(instrumentedDao).isExactlyInstanceOf(InstrumentedApplicationErrorDao.class);
+
+            verify(environment.metrics())
+                    .register(eq(CircuitBreakingApplicationErrorDao.STATE_METRIC), any(Gauge.class));
+            verify(environment.healthChecks())
+                    .register(eq("applicationErrorsCircuitBreaker"), isA(CircuitBreakerHealthCheck.class));
+        }
+
+        @Test
+        void shouldNotRegisterCircuitBreakerHealthCheck_WhenHealthCheckIsSkipped() {
+            var options = ErrorContextOptions.builder()
+                    .addDaoMetrics(false)
+                    .addHealthCheck(false)
+                    .circuitBreakerConfig(new CircuitBreakerConfig())
+                    .build();
+
+            var decoratedDao = ErrorContextUtilities.decorateErrorDao(environment, errorDao, options);
+
+            assertThat(decoratedDao).isExactlyInstanceOf(CircuitBreakingApplicationErrorDao.class);
+            assertThat(((CircuitBreakingApplicationErrorDao) decoratedDao).delegate()).isSameAs(errorDao);
+            verifyNoInteractions(environment.healthChecks());
+        }
+
+        @Test
+        void shouldWrapWithRecentErrorCountingDao_Outermost_WhenCountingInMemoryIsRequested() {
+            var options = ErrorContextOptions.builder()
+                    .timeWindowValue(20)
+                    .asyncWriteConfig(new AsyncWriteConfig())
+                    .recentErrorCounterConfig(new RecentErrorCounterConfig())
+                    .build();
+
+            var decoratedDao = ErrorContextUtilities.decorateErrorDao(environment, errorDao, options);
+
+            assertThat(decoratedDao).isExactlyInstanceOf(RecentErrorCountingApplicationErrorDao.class);
+            var countingDao = (RecentErrorCountingApplicationErrorDao) decoratedDao;
+            assertThat(countingDao.delegate()).isExactlyInstanceOf(WriteBehindApplicationErrorDao.class);
+            assertThat(countingDao.getCounter().getWindow()).isEqualTo(Duration.ofMinutes(20));
+        }
+
+        @Test
+        void shouldNotCountInMemory_WhenHealthCheckIsSkipped() {
+            var options = ErrorContextOptions.builder()
+                    .addDaoMetrics(false)
+                    .addHealthCheck(false)
+                    .recentErrorCounterConfig(new RecentErrorCounterConfig())
+                    .build();
+
+            var decoratedDao = ErrorContextUtilities.decorateErrorDao(environment, errorDao, options);
+
+            assertThat(decoratedDao).isSameAs(errorDao);
+        }
+    }
+
+    @Nested
+    class RegisterRateLimiterOrNull {
+
+        private ApplicationErrorDao errorDao;
+
+        @BeforeEach
+        void setUp() {
+            errorDao = mock(ApplicationErrorDao.class);
+        }
+
+        @Test
+        void shouldReturnNull_WhenRateLimitingIsNotRequested() {
+            var options = ErrorContextOptions.builder().build();
+
+            var rateLimiter = ErrorContextUtilities.registerRateLimiterOrNull(environment, errorDao, options);
+
+            assertThat(rateLimiter).isNull();
+            verifyNoInteractions(environment.lifecycle());
+        }
+
+        @Test
+        void shouldRegisterRateLimiter_AndScheduleFlush_WhenRateLimitingIsRequested() {
+            var rateLimitConfig = new RateLimitConfig();
+            var executor = mock(ScheduledExecutorService.class);
+            var executorBuilder = mock(ScheduledExecutorServiceBuilder.class);
+            when(executorBuilder.build()).thenReturn(executor);
+            var lifecycle = environment.lifecycle();
+            when(lifecycle.scheduledExecutorService(rateLimitConfig.getFlushJobName(), true))
+                    .thenReturn(executorBuilder);
+
+            var options = ErrorContextOptions.builder()
+                    .rateLimitConfig(rateLimitConfig)
+                    .build();
+
+            var rateLimiter = ErrorContextUtilities.registerRateLimiterOrNull(environment, errorDao, options);
+
+            assertThat(rateLimiter).isNotNull();
+            verify(lifecycle).manage(rateLimiter);
+
+            var flushMillis = rateLimitConfig.getFlushInterval().toMilliseconds();
+            verify(executor).scheduleWithFixedDelay(any(Runnable.class),
+                    eq(flushMillis), eq(flushMillis), eq(TimeUnit.MILLISECONDS));
+        }
+    }
+
     @Nested
     class RegisterResources {
 
@@ -219,6 +470,90 @@ class ErrorContextUtilitiesTest {
             verifyNoMoreInteractions(healthChecks);
         }
 
+        @Test
+        void shouldRegisterCachedHealthCheck_AndScheduleRefresh_WhenBackgroundEvaluationIsRequested() {
+            var backgroundConfig = new BackgroundHealthCheckConfig();
+            var executor = mock(ScheduledExecutorService.class);
+            var executorBuilder = mock(ScheduledExecutorServiceBuilder.class);
+            when(executorBuilder.build()).thenReturn(executor);
+            when(environment.lifecycle().scheduledExecutorService(backgroundConfig.getRefreshJobName(), true))
+                    .thenReturn(executorBuilder);
+
+            options = ErrorContextOptions.builder()
+                    .timeWindowValue(timeWindowAmount)
+                    .backgroundHealthCheckConfig(backgroundConfig)
+                    .build();
+            var healthCheck = ErrorContextUtilities.registerRecentErrorsHealthCheckOrNull(
+                    environment, serviceDetails, errorDao, options);
+
+            assertThat(healthCheck).isExactlyInstanceOf(CachedRecentErrorsHealthCheck.class);
+            assertThat(healthCheck.getTimeWindow()).isEqualTo(Duration.of(timeWindowAmount, timeWindowUnit));
+            assertThat(((CachedRecentErrorsHealthCheck) healthCheck).getMaxResultAge())
+                    .isEqualTo(backgroundConfig.getMaxResultAge().toJavaDuration());
+
+            verify(healthChecks).register("recentApplicationErrors", healthCheck);
+            verifyNoMoreInteractions(healthChecks);
+
+            var refreshMillis = backgroundConfig.getRefreshInterval().toMilliseconds();
+            verify(executor).scheduleWithFixedDelay(any(Runnable.class),
+                    eq(0L), eq(refreshMillis), eq(TimeUnit.MILLISECONDS));
+            verifyNoInteractions(errorDao);
+        }
+
+        @Test
+        void shouldRegisterInMemoryHealthCheck_AndScheduleReconciliation_WhenCountingInMemory_WithSharedDataStore() {
+            var counterConfig = new RecentErrorCounterConfig();
+            var executor = mock(ScheduledExecutorService.class);
+            var executorBuilder = mock(ScheduledExecutorServiceBuilder.class);
+            when(executorBuilder.build()).thenReturn(executor);
+            when(environment.lifecycle().scheduledExecutorService(counterConfig.getReconciliationJobName(), true))
+                    .thenReturn(executorBuilder);
+
+            options = ErrorContextOptions.builder()
+                    .dataStoreType(DataStoreType.SHARED)
+                    .timeWindowValue(timeWindowAmount)
+                    .recentErrorCounterConfig(counterConfig)
+                    .backgroundHealthCheckConfig(new BackgroundHealthCheckConfig())
+                    .build();
+            var counter = new SlidingWindowErrorCounter(Duration.of(timeWindowAmount, timeWindowUnit));
+            var countingDao = new RecentErrorCountingApplicationErrorDao(errorDao, counter);
+
+            var healthCheck = ErrorContextUtilities.registerRecentErrorsHealthCheckOrNull(
+                    environment, serviceDetails, countingDao, options);
+
+            assertThat(healthCheck).isExactlyInstanceOf(InMemoryRecentErrorsHealthCheck.class);
+            assertThat(((InMemoryRecentErrorsHealthCheck) healthCheck).getCounter()).isSameAs(counter);
+
+            verify(healthChecks).register("recentApplicationErrors", healthCheck);
+            verifyNoMoreInteractions(healthChecks);
+
+            verify(errorDao).countUnresolvedErrorsOnHostSince(
+                    any(ZonedDateTime.class), eq(serviceDetails.getHostName()), eq(serviceDetails.getIpAddress()));
+
+            var reconcileMillis = counterConfig.getReconciliationInterval().toMilliseconds();
+            verify(executor).scheduleWithFixedDelay(any(Runnable.class),
+                    eq(reconcileMillis), eq(reconcileMillis), eq(TimeUnit.MILLISECONDS));
+        }
+
+        @Test
+        void shouldReconcileOnce_ButNotScheduleReconciliation_WhenCountingInMemory_WithNotSharedDataStore() {
+            options = ErrorContextOptions.builder()
+                    .dataStoreType(DataStoreType.NOT_SHARED)
+                    .timeWindowValue(timeWindowAmount)
+                    .recentErrorCounterConfig(new RecentErrorCounterConfig())
+                    .build();
+            var counter = new SlidingWindowErrorCounter(Duration.of(timeWindowAmount, timeWindowUnit));
+            var countingDao = new RecentErrorCountingApplicationErrorDao(errorDao, counter);
+
+            var healthCheck = ErrorContextUtilities.registerRecentErrorsHealthCheckOrNull(
+                    environment, serviceDetails, countingDao, options);
+
+            assertThat(healthCheck).isExactlyInstanceOf(InMemoryRecentErrorsHealthCheck.class);
+            verify(errorDao).countUnresolvedErrorsOnHostSince(
+                    any(ZonedDateTime.class), eq(serviceDetails.getHostName()), eq(serviceDetails.getIpAddress()));
+            verifyNoInteractions(environment.lifecycle());
+        }
+
         @Test
         void shouldSkipRegisteringHealthCheck() {
             options = ErrorContextOptions.builder()
@@ -17,7 +17,9 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
+import org.kiwiproject.dropwizard.error.config.RecentErrorCounterConfig;
 import org.kiwiproject.dropwizard.error.dao.ApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.dao.jdk.ConcurrentMapApplicationErrorDao;
 import org.kiwiproject.dropwizard.error.dao.jdk.NoOpApplicationErrorDao;
 import org.kiwiproject.dropwizard.error.health.RecentErrorsHealthCheck;
 import org.kiwiproject.dropwizard.error.model.ApplicationError;
@@ -26,9 +28,11 @@ import org.kiwiproject.dropwizard.error.model.ServiceDetails;
 import org.kiwiproject.dropwizard.error.resource.ApplicationErrorResource;
 import org.kiwiproject.dropwizard.error.resource.GotErrorsResource;
 import org.kiwiproject.test.dropwizard.mockito.DropwizardMockitoMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.verification.VerificationMode;
 
 import java.time.temporal.ChronoUnit;
+import java.util.OptionalLong;
 
 @DisplayName("SimpleErrorContext")
 class SimpleErrorContextTest {
@@ -118,6 +122,7 @@ class SimpleErrorContextTest {
             .addHealthCheck(addHealthCheck)
             .timeWindowValue(timeWindowAmount)
             .addCleanupJob(false)
+            .addDaoMetrics(false)
             .build();
 
         return new SimpleErrorContext(environment, serviceDetails, errorDao, options);
@@ -147,6 +152,43 @@ class SimpleErrorContextTest {
         }
     }
 
+    @Nested
+    class RecentErrorCounting {
+
+        @Test
+        void shouldRecoverHealthCheck_WhenErrorsAreResolvedUsingResource() {
+            var options = ErrorContextOptions.builder()
+                    .dataStoreType(dataStoreType)
+                    .addGotErrorsResource(false)
+                    .timeWindowValue(timeWindowAmount)
+                    .timeWindowUnit(timeWindowUnit)
+                    .addCleanupJob(false)
+                    .addDaoMetrics(false)
+                    .recentErrorCounterConfig(new RecentErrorCounterConfig())
+                    .build();
+            context = new SimpleErrorContext(environment, serviceDetails, new ConcurrentMapApplicationErrorDao(), options);
+
+            var id = context.errorDao().insertOrIncrementCount(ApplicationError.newUnresolvedError("an error"));
+            context.errorDao().insertOrIncrementCount(ApplicationError.newUnresolvedError("another error"));
+
+            var healthCheck = context.recentErrorsHealthCheck().orElseThrow();
+            assertThat(healthCheck.execute().isHealthy()).isFalse();
+
+            var resource = registeredErrorsResource();
+            resource.resolve(OptionalLong.of(id));
+            assertThat(healthCheck.execute().isHealthy()).isFalse();
+
+            resource.resolveAllUnresolved();
+            assertThat(healthCheck.execute().isHealthy()).isTrue();
+        }
+
+        private ApplicationErrorResource registeredErrorsResource() {
+            var captor = ArgumentCaptor.forClass(Object.class);
+            verify(environment.jersey()).register(captor.capture());
+            return (ApplicationErrorResource) captor.getValue();
+        }
+    }
+
     private SimpleErrorContext newContextWithAddResourceOptionsOf(boolean addErrorsResource,
                                                                   boolean addGotErrorsResource) {
 
@@ -0,0 +1,77 @@
+package org.kiwiproject.dropwizard.error.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.kiwiproject.test.validation.ValidationTestHelper.assertNoViolations;
+import static org.kiwiproject.test.validation.ValidationTestHelper.assertOnePropertyViolation;
+
+import io.dropwizard.util.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.kiwiproject.reflect.KiwiReflection;
+
+@DisplayName("AsyncWriteConfig")
+class AsyncWriteConfigTest {
+
+    private AsyncWriteConfig config;
+
+    @BeforeEach
+    void setUp() {
+        config = new AsyncWriteConfig();
+    }
+
+    @Test
+    void shouldHaveDefaults() {
+        assertAll(
+            () -> assertThat(config.getQueueCapacity()).isEqualTo(1_000),
+            () -> assertThat(config.getMaxBatchSize()).isEqualTo(100),
+            () -> assertThat(config.getWriterThreadName()).isEqualTo("Application-Errors-Async-Writer"),
+            () -> assertThat(config.getShutdownTimeout()).isEqualTo(Duration.seconds(10))
+        );
+    }
+
+    @Test
+    void shouldValidateRequiredFields() {
+        KiwiReflection.invokeMutatorMethodsWithNull(config);
+
+        assertAll(
+            () -> assertOnePropertyViolation(config, "writerThreadName"),
+            () -> assertOnePropertyViolation(config, "shutdownTimeout")
+        );
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {-1, 0})
+    void shouldRequirePositiveQueueCapacity(int capacity) {
+        config.setQueueCapacity(capacity);
+
+        assertOnePropertyViolation(config, "queueCapacity");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {-1, 0})
+    void shouldRequirePositiveMaxBatchSize(int maxBatchSize) {
+        config.setMaxBatchSize(maxBatchSize);
+
+        assertOnePropertyViolation(config, "maxBatchSize");
+    }
+
+    @Test
+    void shouldRequirePositiveShutdownTimeout() {
+        config.setShutdownTimeout(Duration.milliseconds(0));
+
+        assertOnePropertyViolation(config, "shutdownTimeout");
+    }
+
+    @Test
+    void shouldPassValidation_WithMinimumValues() {
+        config.setQueueCapacity(1);
+        config.setMaxBatchSize(1);
+        config.setShutdownTimeout(Duration.milliseconds(1));
+
+        assertNoViolations(config);
+    }
+}
@@ -0,0 +1,92 @@
+package org.kiwiproject.dropwizard.error.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.kiwiproject.test.validation.ValidationTestHelper.assertNoViolations;
+import static org.kiwiproject.test.validation.ValidationTestHelper.assertOnePropertyViolation;
+
+import io.dropwizard.util.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.kiwiproject.reflect.KiwiReflection;
+
+@DisplayName("CircuitBreakerConfig")
+class CircuitBreakerConfigTest {
+
+    private CircuitBreakerConfig config;
+
+    @BeforeEach
+    void setUp() {
+        config = new CircuitBreakerConfig();
+    }
+
+    @Test
+    void shouldHaveDefaults() {
+        assertAll(
+            () -> assertThat(config.getSlidingWindowSize()).isEqualTo(50),
+            () -> assertThat(config.getMinimumNumberOfCalls()).isEqualTo(10),
+            () -> assertThat(config.getFailureRateThreshold()).isEqualTo(50),
+            () -> assertThat(config.getSlowCallRateThreshold()).isEqualTo(100),
+            () -> assertThat(config.getSlowCallDuration()).isEqualTo(Duration.seconds(2)),
+            () -> assertThat(config.getWaitDurationInOpenState()).isEqualTo(Duration.seconds(30)),
+            () -> assertThat(config.getPermittedCallsInHalfOpenState()).isEqualTo(5)
+        );
+    }
+
+    @Test
+    void shouldValidateRequiredFields() {
+        KiwiReflection.invokeMutatorMethodsWithNull(config);
+
+        assertAll(
+            () -> assertOnePropertyViolation(config, "slowCallDuration"),
+            () -> assertOnePropertyViolation(config, "waitDurationInOpenState")
+        );
+    }
+
+    @Test
+    void shouldValidateRateThresholds() {
+        config.setFailureRateThreshold(0);
+        assertOnePropertyViolation(config, "failureRateThreshold");
+
+        config.setFailureRateThreshold(101);
+        assertOnePropertyViolation(config, "failureRateThreshold");
+
+        config.setFailureRateThreshold(100);
+        config.setSlowCallRateThreshold(0);
+        assertOnePropertyViolation(config, "slowCallRateThreshold");
+
+        config.setSlowCallRateThreshold(1);
+        assertNoViolations(config);
+    }
+
+    @Test
+    void shouldValidateMinimumCallCounts() {
+        config.setSlidingWindowSize(0);
+        assertOnePropertyViolation(config, "slidingWindowSize");
+
+        config.setSlidingWindowSize(1);
+        config.setMinimumNumberOfCalls(0);
+        assertOnePropertyViolation(config, "minimumNumberOfCalls");
+
+        config.setMinimumNumberOfCalls(1);
+        config.setPermittedCallsInHalfOpenState(0);
+        assertOnePropertyViolation(config, "permittedCallsInHalfOpenState");
+
+        config.setPermittedCallsInHalfOpenState(1);
+        assertNoViolations(config);
+    }
+
+    @Test
+    void shouldValidateMinimumDurations() {
+        config.setSlowCallDuration(Duration.milliseconds(0));
+        assertOnePropertyViolation(config, "slowCallDuration");
+
+        config.setSlowCallDuration(Duration.milliseconds(1));
+        config.setWaitDurationInOpenState(Duration.milliseconds(0));
+        assertOnePropertyViolation(config, "waitDurationInOpenState");
+
+        config.setWaitDurationInOpenState(Duration.milliseconds(1));
+        assertNoViolations(config);
+    }
+}
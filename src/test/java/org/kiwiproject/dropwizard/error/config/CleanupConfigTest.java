@@ -33,7 +33,10 @@ class CleanupConfigTest {
             () -> assertThat(config.getUnresolvedErrorExpiration()).isEqualTo(Duration.days(60)),
             () -> assertThat(config.getCleanupJobName()).isEqualTo("Application-Errors-Cleanup-Job-%d"),
             () -> assertThat(config.getInitialJobDelay()).isEqualTo(Duration.minutes(1)),
-            () -> assertThat(config.getJobInterval()).isEqualTo(Duration.days(1))
+            () -> assertThat(config.getJobInterval()).isEqualTo(Duration.days(1)),
+            () -> assertThat(config.getBatchSize()).isEqualTo(1_000),
+            () -> assertThat(config.getPauseBetweenBatches()).isEqualTo(Duration.milliseconds(100)),
+            () -> assertThat(config.getMaxRunDuration()).isEqualTo(Duration.minutes(10))
         );
     }
 
@@ -47,10 +50,27 @@ class CleanupConfigTest {
             () -> assertOnePropertyViolation(config, "unresolvedErrorExpiration"),
             () -> assertOnePropertyViolation(config, "cleanupJobName"),
             () -> assertOnePropertyViolation(config, "initialJobDelay"),
-            () -> assertOnePropertyViolation(config, "jobInterval")
+            () -> assertOnePropertyViolation(config, "jobInterval"),
+            () -> assertOnePropertyViolation(config, "pauseBetweenBatches"),
+            () -> assertOnePropertyViolation(config, "maxRunDuration")
         );
     }
 
+    @ParameterizedTest
+    @ValueSource(ints = {-1, 0})
+    void shouldRequirePositiveBatchSize(int batchSize) {
+        config.setBatchSize(batchSize);
+
+        assertOnePropertyViolation(config, "batchSize");
+    }
+
+    @Test
+    void shouldAllowNoPauseBetweenBatches() {
+        config.setPauseBetweenBatches(Duration.milliseconds(0));
+
+        assertNoViolations(config);
+    }
+
     @ParameterizedTest
     @ValueSource(longs = {60, 61, 90, 120})
     void shouldPassValidationWhenDurationsAreAtOrAboveTheMinimumAllowed(long seconds) {
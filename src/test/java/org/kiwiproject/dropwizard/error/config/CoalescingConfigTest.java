@@ -0,0 +1,60 @@
+package org.kiwiproject.dropwizard.error.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.kiwiproject.test.validation.ValidationTestHelper.assertNoViolations;
+import static org.kiwiproject.test.validation.ValidationTestHelper.assertOnePropertyViolation;
+
+import io.dropwizard.util.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.kiwiproject.reflect.KiwiReflection;
+
+@DisplayName("CoalescingConfig")
+class CoalescingConfigTest {
+
+    private CoalescingConfig config;
+
+    @BeforeEach
+    void setUp() {
+        config = new CoalescingConfig();
+    }
+
+    @Test
+    void shouldHaveDefaults() {
+        assertAll(
+            () -> assertThat(config.getWindow()).isEqualTo(Duration.seconds(1)),
+            () -> assertThat(config.getFlushJobName()).isEqualTo("Application-Errors-Coalescing-Flush-Job-%d"),
+            () -> assertThat(config.getMaxFlushAttempts()).isEqualTo(3)
+        );
+    }
+
+    @Test
+    void shouldValidateRequiredFields() {
+        KiwiReflection.invokeMutatorMethodsWithNull(config);
+
+        assertAll(
+            () -> assertOnePropertyViolation(config, "window"),
+            () -> assertOnePropertyViolation(config, "flushJobName")
+        );
+    }
+
+    @Test
+    void shouldValidateMinimumWindow() {
+        config.setWindow(Duration.milliseconds(0));
+        assertOnePropertyViolation(config, "window");
+
+        config.setWindow(Duration.milliseconds(1));
+        assertNoViolations(config);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {-1, 0})
+    void shouldRequirePositiveMaxFlushAttempts(int value) {
+        config.setMaxFlushAttempts(value);
+        assertOnePropertyViolation(config, "maxFlushAttempts");
+    }
+}
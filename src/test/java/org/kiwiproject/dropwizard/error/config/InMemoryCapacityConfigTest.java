@@ -0,0 +1,61 @@
+package org.kiwiproject.dropwizard.error.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.kiwiproject.test.validation.ValidationTestHelper.assertNoViolations;
+import static org.kiwiproject.test.validation.ValidationTestHelper.assertOnePropertyViolation;
+
+import io.dropwizard.util.DataSize;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.kiwiproject.dropwizard.error.config.InMemoryCapacityConfig.EvictionPolicy;
+
+@DisplayName("InMemoryCapacityConfig")
+class InMemoryCapacityConfigTest {
+
+    private InMemoryCapacityConfig config;
+
+    @BeforeEach
+    void setUp() {
+        config = new InMemoryCapacityConfig();
+    }
+
+    @Test
+    void shouldHaveDefaults() {
+        assertAll(
+            () -> assertThat(config.getMaxErrors()).isEqualTo(10_000),
+            () -> assertThat(config.getMaxEstimatedSize()).isEqualTo(DataSize.mebibytes(64)),
+            () -> assertThat(config.getEvictionPolicy()).isEqualTo(EvictionPolicy.RESOLVED_ONLY)
+        );
+    }
+
+    @Test
+    void shouldValidateRequiredFields() {
+        config.setMaxEstimatedSize(null);
+        config.setEvictionPolicy(null);
+
+        assertAll(
+            () -> assertOnePropertyViolation(config, "maxEstimatedSize"),
+            () -> assertOnePropertyViolation(config, "evictionPolicy")
+        );
+    }
+
+    @Test
+    void shouldValidateMinimumMaxErrors() {
+        config.setMaxErrors(0);
+        assertOnePropertyViolation(config, "maxErrors");
+
+        config.setMaxErrors(1);
+        assertNoViolations(config);
+    }
+
+    @Test
+    void shouldValidateMinimumMaxEstimatedSize() {
+        config.setMaxEstimatedSize(DataSize.bytes(1_023));
+        assertOnePropertyViolation(config, "maxEstimatedSize");
+
+        config.setMaxEstimatedSize(DataSize.kibibytes(1));
+        assertNoViolations(config);
+    }
+}
@@ -0,0 +1,76 @@
+package org.kiwiproject.dropwizard.error.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.kiwiproject.test.validation.ValidationTestHelper.assertNoViolations;
+import static org.kiwiproject.test.validation.ValidationTestHelper.assertOnePropertyViolation;
+
+import io.dropwizard.util.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.kiwiproject.reflect.KiwiReflection;
+
+@DisplayName("RateLimitConfig")
+class RateLimitConfigTest {
+
+    private RateLimitConfig config;
+
+    @BeforeEach
+    void setUp() {
+        config = new RateLimitConfig();
+    }
+
+    @Test
+    void shouldHaveDefaults() {
+        assertAll(
+            () -> assertThat(config.getMaxErrorsPerPeriod()).isEqualTo(10),
+            () -> assertThat(config.getPeriod()).isEqualTo(Duration.minutes(1)),
+            () -> assertThat(config.getLogSampleRate()).isEqualTo(1_000),
+            () -> assertThat(config.getMaxTrackedErrors()).isEqualTo(10_000),
+            () -> assertThat(config.getFlushInterval()).isEqualTo(Duration.seconds(10)),
+            () -> assertThat(config.getFlushJobName()).isEqualTo("Application-Errors-Rate-Limit-Flush-Job-%d")
+        );
+    }
+
+    @Test
+    void shouldValidateRequiredFields() {
+        KiwiReflection.invokeMutatorMethodsWithNull(config);
+
+        assertAll(
+            () -> assertOnePropertyViolation(config, "period"),
+            () -> assertOnePropertyViolation(config, "flushInterval"),
+            () -> assertOnePropertyViolation(config, "flushJobName")
+        );
+    }
+
+    @Test
+    void shouldValidateMinimumValues() {
+        config.setMaxErrorsPerPeriod(0);
+        assertOnePropertyViolation(config, "maxErrorsPerPeriod");
+
+        config.setMaxErrorsPerPeriod(1);
+        config.setLogSampleRate(-1);
+        assertOnePropertyViolation(config, "logSampleRate");
+
+        config.setLogSampleRate(0);
+        config.setMaxTrackedErrors(0);
+        assertOnePropertyViolation(config, "maxTrackedErrors");
+
+        config.setMaxTrackedErrors(1);
+        assertNoViolations(config);
+    }
+
+    @Test
+    void shouldValidateMinimumDurations() {
+        config.setPeriod(Duration.milliseconds(0));
+        assertOnePropertyViolation(config, "period");
+
+        config.setPeriod(Duration.milliseconds(1));
+        config.setFlushInterval(Duration.milliseconds(0));
+        assertOnePropertyViolation(config, "flushInterval");
+
+        config.setFlushInterval(Duration.milliseconds(1));
+        assertNoViolations(config);
+    }
+}
@@ -0,0 +1,52 @@
+package org.kiwiproject.dropwizard.error.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.kiwiproject.test.validation.ValidationTestHelper.assertNoViolations;
+import static org.kiwiproject.test.validation.ValidationTestHelper.assertOnePropertyViolation;
+
+import io.dropwizard.util.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("RecentErrorCounterConfig")
+class RecentErrorCounterConfigTest {
+
+    private RecentErrorCounterConfig config;
+
+    @BeforeEach
+    void setUp() {
+        config = new RecentErrorCounterConfig();
+    }
+
+    @Test
+    void shouldHaveDefaults() {
+        assertAll(
+            () -> assertThat(config.isReconcileSharedDataStore()).isTrue(),
+            () -> assertThat(config.getReconciliationInterval()).isEqualTo(Duration.minutes(1)),
+            () -> assertThat(config.getReconciliationJobName())
+                    .isEqualTo("Application-Errors-Recent-Error-Count-Reconciliation-Job-%d")
+        );
+    }
+
+    @Test
+    void shouldValidateRequiredFields() {
+        config.setReconciliationInterval(null);
+        config.setReconciliationJobName(null);
+
+        assertAll(
+            () -> assertOnePropertyViolation(config, "reconciliationInterval"),
+            () -> assertOnePropertyViolation(config, "reconciliationJobName")
+        );
+    }
+
+    @Test
+    void shouldValidateMinimumReconciliationInterval() {
+        config.setReconciliationInterval(Duration.milliseconds(0));
+        assertOnePropertyViolation(config, "reconciliationInterval");
+
+        config.setReconciliationInterval(Duration.milliseconds(1));
+        assertNoViolations(config);
+    }
+}
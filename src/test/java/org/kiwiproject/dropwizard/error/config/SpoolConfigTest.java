@@ -0,0 +1,83 @@
+package org.kiwiproject.dropwizard.error.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.kiwiproject.test.validation.ValidationTestHelper.assertNoViolations;
+import static org.kiwiproject.test.validation.ValidationTestHelper.assertOnePropertyViolation;
+
+import io.dropwizard.util.DataSize;
+import io.dropwizard.util.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.kiwiproject.reflect.KiwiReflection;
+
+@DisplayName("SpoolConfig")
+class SpoolConfigTest {
+
+    private SpoolConfig config;
+
+    @BeforeEach
+    void setUp() {
+        config = new SpoolConfig();
+        config.setPath("/var/spool/app/application-errors.spool");
+    }
+
+    @Test
+    void shouldHaveDefaults() {
+        var defaultConfig = new SpoolConfig();
+
+        assertAll(
+            () -> assertThat(defaultConfig.getPath()).isNull(),
+            () -> assertThat(defaultConfig.getMaxSize()).isEqualTo(DataSize.mebibytes(64)),
+            () -> assertThat(defaultConfig.isSyncOnWrite()).isTrue(),
+            () -> assertThat(defaultConfig.getReplayInterval()).isEqualTo(Duration.seconds(30)),
+            () -> assertThat(defaultConfig.getReplayBatchSize()).isEqualTo(100),
+            () -> assertThat(defaultConfig.getReplayJobName()).isEqualTo("Application-Errors-Spool-Replay-Job-%d")
+        );
+    }
+
+    @Test
+    void shouldRequirePath() {
+        assertOnePropertyViolation(new SpoolConfig(), "path");
+    }
+
+    @Test
+    void shouldValidateRequiredFields() {
+        KiwiReflection.invokeMutatorMethodsWithNull(config);
+
+        assertAll(
+            () -> assertOnePropertyViolation(config, "path"),
+            () -> assertOnePropertyViolation(config, "maxSize"),
+            () -> assertOnePropertyViolation(config, "replayInterval"),
+            () -> assertOnePropertyViolation(config, "replayJobName")
+        );
+    }
+
+    @Test
+    void shouldValidateMinimumMaxSize() {
+        config.setMaxSize(DataSize.bytes(1_023));
+        assertOnePropertyViolation(config, "maxSize");
+
+        config.setMaxSize(DataSize.kibibytes(1));
+        assertNoViolations(config);
+    }
+
+    @Test
+    void shouldValidateMinimumReplayInterval() {
+        config.setReplayInterval(Duration.milliseconds(0));
+        assertOnePropertyViolation(config, "replayInterval");
+
+        config.setReplayInterval(Duration.milliseconds(1));
+        assertNoViolations(config);
+    }
+
+    @Test
+    void shouldValidateMinimumReplayBatchSize() {
+        config.setReplayBatchSize(0);
+        assertOnePropertyViolation(config, "replayBatchSize");
+
+        config.setReplayBatchSize(1);
+        assertNoViolations(config);
+    }
+}
@@ -0,0 +1,75 @@
+package org.kiwiproject.dropwizard.error.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.kiwiproject.test.validation.ValidationTestHelper.assertNoViolations;
+import static org.kiwiproject.test.validation.ValidationTestHelper.assertOnePropertyViolation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+@DisplayName("StackTraceCaptureConfig")
+class StackTraceCaptureConfigTest {
+
+    private StackTraceCaptureConfig config;
+
+    @BeforeEach
+    void setUp() {
+        config = new StackTraceCaptureConfig();
+    }
+
+    @Test
+    void shouldHaveDefaults() {
+        assertAll(
+            () -> assertThat(config.getMaxFrames()).isEqualTo(100),
+            () -> assertThat(config.getMaxLength()).isEqualTo(32_768),
+            () -> assertThat(config.isCollapseRepeatedFrames()).isTrue(),
+            () -> assertThat(config.getExcludedPackages())
+                    .containsExactly("java.lang.reflect", "jdk.internal.reflect", "sun.reflect")
+        );
+    }
+
+    @Test
+    void shouldValidateRequiredFields() {
+        config.setExcludedPackages(null);
+        assertOnePropertyViolation(config, "excludedPackages");
+    }
+
+    @Test
+    void shouldValidateMinimumMaxFrames() {
+        config.setMaxFrames(0);
+        assertOnePropertyViolation(config, "maxFrames");
+
+        config.setMaxFrames(1);
+        assertNoViolations(config);
+    }
+
+    @Test
+    void shouldValidateMinimumMaxLength() {
+        config.setMaxLength(255);
+        assertOnePropertyViolation(config, "maxLength");
+
+        config.setMaxLength(256);
+        assertNoViolations(config);
+    }
+
+    @Test
+    void shouldCreateCapturePolicy() {
+        config.setMaxFrames(25);
+        config.setMaxLength(4_096);
+        config.setCollapseRepeatedFrames(false);
+        config.setExcludedPackages(List.of("org.eclipse.jetty."));
+
+        var policy = config.toCapturePolicy();
+
+        assertAll(
+            () -> assertThat(policy.getMaxFrames()).isEqualTo(25),
+            () -> assertThat(policy.getMaxLength()).isEqualTo(4_096),
+            () -> assertThat(policy.isCollapseRepeatedFrames()).isFalse(),
+            () -> assertThat(policy.getExcludedPackages()).containsExactly("org.eclipse.jetty.")
+        );
+    }
+}
@@ -5,6 +5,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 import static org.kiwiproject.collect.KiwiLists.first;
+import static org.kiwiproject.collect.KiwiLists.last;
 import static org.kiwiproject.test.util.DateTimeTestHelper.assertTimeDifferenceWithinTolerance;
 
 import lombok.extern.slf4j.Slf4j;
@@ -15,9 +16,14 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.kiwiproject.base.DefaultEnvironment;
 import org.kiwiproject.dropwizard.error.model.ApplicationError;
 import org.kiwiproject.dropwizard.error.model.ApplicationError.Resolved;
+import org.kiwiproject.dropwizard.error.model.ApplicationErrorCursor;
+import org.kiwiproject.dropwizard.error.model.ApplicationErrorSummary;
 import org.kiwiproject.dropwizard.error.test.junit.jupiter.ApplicationErrorExtension;
 
 import java.io.IOException;
@@ -27,9 +33,15 @@ import java.net.UnknownHostException;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * Base test class for testing {@link ApplicationErrorDao} implementations.
@@ -39,6 +51,8 @@ import java.util.stream.IntStream;
 @Slf4j
 public abstract class AbstractApplicationErrorDaoTest<T extends ApplicationErrorDao> {
 
+    private static final AtomicInteger ERROR_NUMBER = new AtomicInteger();
+
     private T errorDao;
     private ThreadLocalRandom random;
     private String description;
@@ -156,6 +170,18 @@ public abstract class AbstractApplicationErrorDaoTest<T extends ApplicationError
             assertThat(retrievedError.isResolved()).isFalse();
         }
 
+        @Test
+        void shouldInsertNewError_WhenUnresolvedErrorWithSameFingerprintExists() {
+            var existingId = insertApplicationError(defaultApplicationError());
+
+            var id = errorDao.insertError(defaultApplicationError());
+
+            assertThat(id).isNotEqualTo(existingId);
+            assertThat(errorDao.getUnresolvedErrorsByDescriptionAndHost(description, hostName))
+                    .extracting("id")
+                    .containsExactlyInAnyOrder(existingId, id);
+        }
+
         @Test
         void shouldInsertNewApplicationErrorRecord(SoftAssertions softly) {
             var beforeInsert = ZonedDateTime.now(ZoneOffset.UTC);
@@ -187,6 +213,46 @@ public abstract class AbstractApplicationErrorDaoTest<T extends ApplicationError
         }
     }
 
+    @Nested
+    class InsertErrors {
+
+        @Test
+        void shouldThrowIllegalArgumentException_WhenAnyErrorContainsAnId() {
+            var errors = List.of(randomUnresolvedApplicationError(), ApplicationError.builder().id(42L).build());
+
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> errorDao.insertErrors(errors))
+                    .withMessage("Cannot insert an ApplicationError that has an id");
+        }
+
+        @Test
+        void shouldReturnEmptyList_WhenGivenNoErrors() {
+            assertThat(errorDao.insertErrors(List.of())).isEmpty();
+        }
+
+        @Test
+        void shouldInsertAllErrors_AndReturnIdsInSameOrder(SoftAssertions softly) {
+            var sharedThrowable = newThrowable("shared message", "shared cause message");
+            var errors = List.of(
+                    randomUnresolvedApplicationError(),
+                    ApplicationError.newError(description + " A", resolved, hostName, ipAddress, port, sharedThrowable),
+                    ApplicationError.newError(description + " B", resolved, hostName, ipAddress, port, sharedThrowable),
+                    newApplicationError(description + " C", Resolved.NO));
+
+            var ids = errorDao.insertErrors(errors);
+
+            assertThat(ids).hasSize(errors.size()).doesNotHaveDuplicates();
+            for (var i = 0; i < errors.size(); i++) {
+                var error = errors.get(i);
+                var retrievedError = getErrorOrThrow(ids.get(i));
+                softly.assertThat(retrievedError.getDescription()).isEqualTo(error.getDescription());
+                softly.assertThat(retrievedError.getStackTrace()).isEqualTo(error.getStackTrace());
+                softly.assertThat(retrievedError.getNumTimesOccurred()).isOne();
+                softly.assertThat(retrievedError.isResolved()).isFalse();
+            }
+        }
+    }
+
     @Nested
     class Resolve {
 
@@ -297,6 +363,59 @@ public abstract class AbstractApplicationErrorDaoTest<T extends ApplicationError
         assertThat(errorDao.getById(unresolvedId2)).isPresent();
     }
 
+    @Test
+    void shouldDeleteResolvedErrors_BeforeReferenceDate_UpToLimit() {
+        var resolvedId1 = insertApplicationError(randomResolvedApplicationError());
+        var resolvedId2 = insertApplicationError(randomResolvedApplicationError());
+        var resolvedId3 = insertApplicationError(randomResolvedApplicationError());
+        var unresolvedId1 = insertApplicationError(randomUnresolvedApplicationError());
+
+        sleep5ms();
+
+        var timeInBetween = ZonedDateTime.now(ZoneOffset.UTC);
+        var resolvedId4 = insertApplicationError(randomResolvedApplicationError());
+
+        assertThat(errorDao.deleteResolvedErrorsBefore(timeInBetween, 2)).isEqualTo(2);
+        assertThat(errorDao.deleteResolvedErrorsBefore(timeInBetween, 2)).isOne();
+        assertThat(errorDao.deleteResolvedErrorsBefore(timeInBetween, 2)).isZero();
+
+        assertThat(errorDao.getById(resolvedId1)).isEmpty();
+        assertThat(errorDao.getById(resolvedId2)).isEmpty();
+        assertThat(errorDao.getById(resolvedId3)).isEmpty();
+        assertThat(errorDao.getById(unresolvedId1)).isPresent();
+        assertThat(errorDao.getById(resolvedId4)).isPresent();
+    }
+
+    @Test
+    void shouldDeleteUnresolvedErrors_BeforeReferenceDate_UpToLimit() {
+        var resolvedId1 = insertApplicationError(randomResolvedApplicationError());
+        var unresolvedId1 = insertApplicationError(randomUnresolvedApplicationError());
+        var unresolvedId2 = insertApplicationError(randomUnresolvedApplicationError());
+
+        sleep5ms();
+
+        var timeInBetween = ZonedDateTime.now(ZoneOffset.UTC);
+        var unresolvedId3 = insertApplicationError(randomUnresolvedApplicationError());
+
+        assertThat(errorDao.deleteUnresolvedErrorsBefore(timeInBetween, 1)).isOne();
+        assertThat(errorDao.deleteUnresolvedErrorsBefore(timeInBetween, 1)).isOne();
+        assertThat(errorDao.deleteUnresolvedErrorsBefore(timeInBetween, 1)).isZero();
+
+        assertThat(errorDao.getById(resolvedId1)).isPresent();
+        assertThat(errorDao.getById(unresolvedId1)).isEmpty();
+        assertThat(errorDao.getById(unresolvedId2)).isEmpty();
+        assertThat(errorDao.getById(unresolvedId3)).isPresent();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {-1, 0})
+    void shouldRequirePositiveLimit_WhenDeletingErrors(int limit) {
+        var now = ZonedDateTime.now(ZoneOffset.UTC);
+
+        assertThatIllegalArgumentException().isThrownBy(() -> errorDao.deleteResolvedErrorsBefore(now, limit));
+        assertThatIllegalArgumentException().isThrownBy(() -> errorDao.deleteUnresolvedErrorsBefore(now, limit));
+    }
+
     private static void sleep5ms() {
         new DefaultEnvironment().sleepQuietly(5);
     }
@@ -517,6 +636,200 @@ public abstract class AbstractApplicationErrorDaoTest<T extends ApplicationError
         }
     }
 
+    @Nested
+    class GetErrorPage {
+
+        @Test
+        void shouldThrowIllegalArgumentException_WhenGivenInvalidPageNumber() {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> errorDao.getErrorPage(ApplicationErrorStatus.RESOLVED, 0, 100))
+                    .withMessage("pageNumber starts at 1");
+        }
+
+        @ParameterizedTest
+        @EnumSource(ApplicationErrorStatus.class)
+        void shouldGetPageWithTotalCount(ApplicationErrorStatus status) {
+            var resolvedIds = insertErrorsWithResolvedAs(5, Resolved.YES);
+            var unresolvedIds = insertErrorsWithResolvedAs(7, Resolved.NO);
+            var expectedIds = switch (status) {
+                case ALL -> Stream.concat(resolvedIds.stream(), unresolvedIds.stream()).toList();
+                case RESOLVED -> resolvedIds;
+                case UNRESOLVED -> unresolvedIds;
+            };
+
+            var page = errorDao.getErrorPage(status, 1, 3);
+
+            assertThat(page.getTotalCount()).isEqualTo(expectedIds.size());
+            assertThat(page.getPageNumber()).isOne();
+            assertThat(page.getPageSize()).isEqualTo(3);
+            assertThat(page.getItems())
+                    .extracting(ApplicationError::getId)
+                    .hasSize(3)
+                    .isSubsetOf(expectedIds);
+            assertThat(page.getNextCursor()).isNotNull();
+        }
+
+        @Test
+        void shouldGetLastPage() {
+            insertErrorsWithResolvedAs(7, Resolved.NO);
+
+            var page = errorDao.getErrorPage(ApplicationErrorStatus.UNRESOLVED, 2, 5);
+
+            assertThat(page.getTotalCount()).isEqualTo(7);
+            assertThat(page.getItems()).hasSize(2);
+            assertThat(page.getNextCursor()).isNull();
+        }
+
+        @Test
+        void shouldGetTotalCount_WhenPageIsPastTheLastPage() {
+            insertErrorsWithResolvedAs(4, Resolved.YES);
+
+            var page = errorDao.getErrorPage(ApplicationErrorStatus.RESOLVED, 3, 5);
+
+            assertThat(page.getTotalCount()).isEqualTo(4);
+            assertThat(page.getItems()).isEmpty();
+            assertThat(page.getNextCursor()).isNull();
+        }
+    }
+
+    @Nested
+    class GetErrorSummaries {
+
+        @Test
+        void shouldThrowIllegalArgumentException_WhenGivenInvalidPageNumber() {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> errorDao.getErrorSummaries(ApplicationErrorStatus.RESOLVED, 0, 100))
+                    .withMessage("pageNumber starts at 1");
+        }
+
+        @ParameterizedTest
+        @EnumSource(ApplicationErrorStatus.class)
+        void shouldGetSummariesOfErrors(ApplicationErrorStatus status) {
+            insertErrorsWithResolvedAs(5, Resolved.YES);
+            insertErrorsWithResolvedAs(7, Resolved.NO);
+
+            var errors = errorDao.getErrors(status, 1, 100);
+            var summaries = errorDao.getErrorSummaries(status, 1, 100);
+
+            assertThat(summaries)
+                    .usingRecursiveFieldByFieldElementComparator()
+                    .containsExactlyInAnyOrderElementsOf(errors.stream().map(ApplicationErrorSummary::from).toList());
+        }
+
+        @Test
+        void shouldGetSummaryPageWithTotalCount() {
+            insertErrorsWithResolvedAs(5, Resolved.YES);
+            var unresolvedIds = insertErrorsWithResolvedAs(7, Resolved.NO);
+
+            var page = errorDao.getErrorSummaryPage(ApplicationErrorStatus.UNRESOLVED, 2, 5);
+
+            assertThat(page.getTotalCount()).isEqualTo(7);
+            assertThat(page.getItems())
+                    .extracting(ApplicationErrorSummary::getId)
+                    .hasSize(2)
+                    .isSubsetOf(unresolvedIds);
+            assertThat(page.getNextCursor()).isNull();
+        }
+
+        @Test
+        void shouldGetTotalCount_WhenSummaryPageIsPastTheLastPage() {
+            insertErrorsWithResolvedAs(4, Resolved.YES);
+
+            var page = errorDao.getErrorSummaryPage(ApplicationErrorStatus.RESOLVED, 3, 5);
+
+            assertThat(page.getTotalCount()).isEqualTo(4);
+            assertThat(page.getItems()).isEmpty();
+        }
+
+        @ParameterizedTest
+        @EnumSource(ApplicationErrorStatus.class)
+        void shouldPageThroughAllSummaries_UsingCursor(ApplicationErrorStatus status) {
+            var resolvedIds = insertErrorsWithResolvedAs(5, Resolved.YES);
+            var unresolvedIds = insertErrorsWithResolvedAs(7, Resolved.NO);
+            var expectedIds = switch (status) {
+                case ALL -> Stream.concat(resolvedIds.stream(), unresolvedIds.stream()).toList();
+                case RESOLVED -> resolvedIds;
+                case UNRESOLVED -> unresolvedIds;
+            };
+
+            var pageSize = 3;
+            var pagedSummaries = new ArrayList<ApplicationErrorSummary>();
+            ApplicationErrorCursor cursor = null;
+            List<ApplicationErrorSummary> page;
+            do {
+                page = errorDao.getErrorSummaries(status, cursor, pageSize);
+                pagedSummaries.addAll(page);
+                cursor = page.isEmpty() ? null : ApplicationErrorCursor.after(last(page));
+            } while (page.size() == pageSize);
+
+            assertThat(pagedSummaries)
+                    .extracting(ApplicationErrorSummary::getId)
+                    .doesNotHaveDuplicates()
+                    .containsExactlyInAnyOrderElementsOf(expectedIds);
+        }
+    }
+
+    @Nested
+    class GetErrorsUsingCursor {
+
+        @Test
+        void shouldThrowIllegalArgumentException_WhenGivenInvalidPageSize() {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> errorDao.getErrors(ApplicationErrorStatus.RESOLVED, null, 0))
+                    .withMessage("pageSize must be positive");
+        }
+
+        @Test
+        void shouldGetFirstPage_WhenCursorIsNull() {
+            insertErrorsWithResolvedAs(5, Resolved.YES);
+            insertErrorsWithResolvedAs(7, Resolved.NO);
+
+            var errors = errorDao.getErrors(ApplicationErrorStatus.ALL, null, 10);
+
+            assertThat(errors).hasSize(10);
+        }
+
+        @ParameterizedTest
+        @EnumSource(ApplicationErrorStatus.class)
+        void shouldPageThroughAllErrors_WithoutDuplicates(ApplicationErrorStatus status) {
+            var resolvedIds = insertErrorsWithResolvedAs(5, Resolved.YES);
+            var unresolvedIds = insertErrorsWithResolvedAs(7, Resolved.NO);
+            var expectedIds = switch (status) {
+                case ALL -> Stream.concat(resolvedIds.stream(), unresolvedIds.stream()).toList();
+                case RESOLVED -> resolvedIds;
+                case UNRESOLVED -> unresolvedIds;
+            };
+
+            var pageSize = 3;
+            var pagedErrors = new ArrayList<ApplicationError>();
+            ApplicationErrorCursor cursor = null;
+            List<ApplicationError> page;
+            do {
+                page = errorDao.getErrors(status, cursor, pageSize);
+                assertThat(page).hasSizeLessThanOrEqualTo(pageSize);
+                pagedErrors.addAll(page);
+                cursor = page.isEmpty() ? null : ApplicationErrorCursor.after(last(page));
+            } while (page.size() == pageSize);
+
+            assertThat(pagedErrors)
+                    .extracting(ApplicationError::getId)
+                    .doesNotHaveDuplicates()
+                    .containsExactlyInAnyOrderElementsOf(expectedIds);
+        }
+
+        @Test
+        void shouldReturnErrorsInDescendingUpdatedAtAndIdOrder() {
+            insertErrorsWithResolvedAs(8, Resolved.NO);
+
+            var errors = errorDao.getErrors(ApplicationErrorStatus.UNRESOLVED, null, 100);
+
+            assertThat(errors).isSortedAccordingTo(
+                    Comparator.comparing(ApplicationError::getUpdatedAt)
+                            .thenComparing(ApplicationError::getId)
+                            .reversed());
+        }
+    }
+
     @Nested
     class GetAllErrors {
 
@@ -577,7 +890,7 @@ public abstract class AbstractApplicationErrorDaoTest<T extends ApplicationError
             var unresolvedId1 = insertApplicationError(unresolvedError1);
 
             var unresolvedError2 = newApplicationError(desc, Resolved.NO);
-            var unresolvedId2 = insertApplicationError(unresolvedError2);
+            var unresolvedId2 = errorDao.insertError(unresolvedError2);
 
             var errors = errorDao.getUnresolvedErrorsByDescription(desc);
             assertThat(errors)
@@ -642,6 +955,43 @@ public abstract class AbstractApplicationErrorDaoTest<T extends ApplicationError
         }
     }
 
+    @Nested
+    class GetUnresolvedErrorIdByFingerprint {
+
+        @Test
+        void shouldFindIdOfUnresolvedError_WithFingerprint() {
+            var desc = description + random.nextInt(100_000);
+            insertApplicationError(newApplicationError(desc, Resolved.YES));
+            var unresolvedError = newApplicationError(desc, Resolved.NO);
+            var unresolvedId = insertApplicationError(unresolvedError);
+            insertApplicationError(newApplicationError(desc, Resolved.NO, "other-host"));
+
+            assertThat(errorDao.getUnresolvedErrorIdByFingerprint(unresolvedError.getFingerprint()))
+                    .hasValue(unresolvedId);
+        }
+
+        @Test
+        void shouldBeEmpty_WhenErrorWithFingerprintIsResolved() {
+            var desc = description + random.nextInt(100_000);
+            var resolvedError = newApplicationError(desc, Resolved.YES);
+            insertApplicationError(resolvedError);
+
+            assertThat(errorDao.getUnresolvedErrorIdByFingerprint(resolvedError.getFingerprint())).isEmpty();
+        }
+
+        @Test
+        void shouldFindIdOfError_InsertedByInsertOrIncrementCount() {
+            var error = newApplicationError(description, Resolved.NO);
+            var id = errorDao.insertOrIncrementCount(error);
+
+            assertThat(errorDao.getUnresolvedErrorIdByFingerprint(error.getFingerprint())).hasValue(id);
+
+            errorDao.resolve(id);
+
+            assertThat(errorDao.getUnresolvedErrorIdByFingerprint(error.getFingerprint())).isEmpty();
+        }
+    }
+
     @Nested
     class IncrementCount {
 
@@ -655,6 +1005,34 @@ public abstract class AbstractApplicationErrorDaoTest<T extends ApplicationError
             softlyAssertNumTimesOccurred(softly, id, 2);
         }
 
+        @Test
+        void shouldIncrementCountByAmount_WhenUpdatesOneRow(SoftAssertions softly) {
+            var unresolvedError = newApplicationError(description, Resolved.NO);
+            var id = insertApplicationError(unresolvedError);
+
+            softlyAssertNumTimesOccurred(softly, id, 1);
+            errorDao.incrementCount(id, 41);
+            softlyAssertNumTimesOccurred(softly, id, 42);
+        }
+
+        @ParameterizedTest
+        @ValueSource(ints = {-1, 0})
+        void shouldThrowIllegalArgumentException_WhenAmountIsNotPositive(int amount) {
+            var id = insertApplicationError(newApplicationError(description, Resolved.NO));
+
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> errorDao.incrementCount(id, amount))
+                    .withMessage("amount must be positive");
+        }
+
+        @Test
+        void shouldThrowIllegalStateException_WhenIncrementingByAmount_AndErrorWithIdDoesNotExist() {
+            var id = Long.MIN_VALUE;
+            assertThatIllegalStateException()
+                    .isThrownBy(() -> errorDao.incrementCount(id, 5))
+                    .withMessage("Unable to increment count. No ApplicationError found with id " + id);
+        }
+
         @Test
         void shouldThrowIllegalStateException_WhenErrorWithIdDoesNotExist() {
             var id = Long.MIN_VALUE;
@@ -664,6 +1042,121 @@ public abstract class AbstractApplicationErrorDaoTest<T extends ApplicationError
         }
     }
 
+    @Nested
+    class IncrementCounts {
+
+        @Test
+        void shouldIncrementEachCountByItsAmount(SoftAssertions softly) {
+            var id1 = insertApplicationError(randomUnresolvedApplicationError());
+            var id2 = insertApplicationError(randomUnresolvedApplicationError());
+            var id3 = insertApplicationError(randomUnresolvedApplicationError());
+
+            errorDao.incrementCounts(Map.of(id1, 1, id2, 41));
+
+            softlyAssertNumTimesOccurred(softly, id1, 2);
+            softlyAssertNumTimesOccurred(softly, id2, 42);
+            softlyAssertNumTimesOccurred(softly, id3, 1);
+        }
+
+        @Test
+        void shouldDoNothing_WhenGivenNoAmounts() {
+            var id = insertApplicationError(randomUnresolvedApplicationError());
+
+            errorDao.incrementCounts(Map.of());
+
+            assertThat(getErrorOrThrow(id).getNumTimesOccurred()).isOne();
+        }
+
+        @ParameterizedTest
+        @ValueSource(ints = {-1, 0})
+        void shouldThrowIllegalArgumentException_WhenAnyAmountIsNotPositive(int amount) {
+            var id1 = insertApplicationError(randomUnresolvedApplicationError());
+            var id2 = insertApplicationError(randomUnresolvedApplicationError());
+
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> errorDao.incrementCounts(Map.of(id1, 1, id2, amount)))
+                    .withMessage("amounts must all be positive");
+
+            assertThat(getErrorOrThrow(id1).getNumTimesOccurred()).isOne();
+        }
+
+        @Test
+        void shouldIncrementExistingErrors_AndThrowIllegalStateException_WhenSomeErrorsDoNotExist() {
+            var id = insertApplicationError(randomUnresolvedApplicationError());
+            var missingId = Long.MIN_VALUE;
+
+            var amounts = new LinkedHashMap<Long, Integer>();
+            amounts.put(id, 2);
+            amounts.put(missingId, 3);
+
+            assertThatIllegalStateException()
+                    .isThrownBy(() -> errorDao.incrementCounts(amounts))
+                    .withMessage("Unable to increment count. No ApplicationError found with ids [" + missingId + "]");
+
+            assertThat(getErrorOrThrow(id).getNumTimesOccurred()).isEqualTo(3);
+        }
+    }
+
+    @Nested
+    class IncrementCountIfUnresolved {
+
+        @Test
+        void shouldIncrementCount_WhenErrorIsUnresolved(SoftAssertions softly) {
+            var id = insertApplicationError(newApplicationError(description, Resolved.NO));
+
+            softly.assertThat(errorDao.incrementCountIfUnresolved(id)).isTrue();
+            softlyAssertNumTimesOccurred(softly, id, 2);
+        }
+
+        @Test
+        void shouldNotIncrementCount_WhenErrorIsResolved(SoftAssertions softly) {
+            var id = insertApplicationError(newApplicationError(description, Resolved.YES));
+
+            softly.assertThat(errorDao.incrementCountIfUnresolved(id)).isFalse();
+            softlyAssertNumTimesOccurred(softly, id, 1);
+        }
+
+        @Test
+        void shouldReturnFalse_WhenErrorWithIdDoesNotExist() {
+            assertThat(errorDao.incrementCountIfUnresolved(Long.MIN_VALUE)).isFalse();
+        }
+    }
+
+    @Nested
+    class IncrementCountsIfUnresolved {
+
+        @Test
+        void shouldIncrementOnlyUnresolvedErrors(SoftAssertions softly) {
+            var unresolvedId = insertApplicationError(newApplicationError(description, Resolved.NO));
+            var resolvedId = insertApplicationError(newApplicationError(description, Resolved.YES));
+            var missingId = Long.MIN_VALUE;
+
+            var incrementedIds = errorDao.incrementCountsIfUnresolved(
+                    Map.of(unresolvedId, 41, resolvedId, 5, missingId, 3));
+
+            softly.assertThat(incrementedIds).containsExactly(unresolvedId);
+            softlyAssertNumTimesOccurred(softly, unresolvedId, 42);
+            softlyAssertNumTimesOccurred(softly, resolvedId, 1);
+        }
+
+        @Test
+        void shouldReturnEmptySet_WhenGivenNoAmounts() {
+            assertThat(errorDao.incrementCountsIfUnresolved(Map.of())).isEmpty();
+        }
+
+        @ParameterizedTest
+        @ValueSource(ints = {-1, 0})
+        void shouldThrowIllegalArgumentException_WhenAnyAmountIsNotPositive(int amount) {
+            var id = insertApplicationError(randomUnresolvedApplicationError());
+
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> errorDao.incrementCountsIfUnresolved(Map.of(id, amount)))
+                    .withMessage("amounts must all be positive");
+
+            assertThat(getErrorOrThrow(id).getNumTimesOccurred()).isOne();
+        }
+    }
+
     @Nested
     class InsertOrIncrementCount {
 
@@ -692,6 +1185,37 @@ public abstract class AbstractApplicationErrorDaoTest<T extends ApplicationError
             softly.assertThat(result.getDescription()).isEqualTo(error.getDescription());
         }
 
+        @Test
+        void shouldIncrementCount_WhenUnresolvedErrorWithSameFingerprintExists(SoftAssertions softly) {
+            var error = randomUnresolvedApplicationError();
+            var id = errorDao.insertOrIncrementCount(error);
+
+            var idOfIncremented = errorDao.insertOrIncrementCount(error);
+            assertThat(idOfIncremented).isEqualTo(id);
+
+            softlyAssertNumTimesOccurred(softly, id, 2);
+            softly.assertThat(errorDao.countUnresolvedErrors()).isOne();
+        }
+
+        @Test
+        void shouldKeepCreatedAt_WhenInsertingNewError(SoftAssertions softly) {
+            var oneHourAgo = ZonedDateTime.now(ZoneOffset.UTC).minusHours(1);
+            var error = ApplicationError.builder()
+                    .createdAt(oneHourAgo)
+                    .updatedAt(oneHourAgo)
+                    .description("error that occurred earlier " + ERROR_NUMBER.incrementAndGet())
+                    .hostName(hostName)
+                    .ipAddress(ipAddress)
+                    .port(port)
+                    .build();
+
+            var id = errorDao.insertOrIncrementCount(error);
+
+            var oneSecondInMillis = 1_000;
+            assertTimeDifferenceWithinTolerance(softly, "createdAt", oneHourAgo, getErrorOrThrow(id).getCreatedAt(),
+                    oneSecondInMillis);
+        }
+
         @Test
         void shouldNotChangeOtherFields_OnExistingError(SoftAssertions softly) {
             var desc = "uh oh uh oh";
@@ -714,6 +1238,42 @@ public abstract class AbstractApplicationErrorDaoTest<T extends ApplicationError
         }
     }
 
+    @Nested
+    class InsertOrIncrementCounts {
+
+        @Test
+        void shouldReturnEmptyList_WhenGivenNoErrors() {
+            assertThat(errorDao.insertOrIncrementCounts(List.of())).isEmpty();
+        }
+
+        @Test
+        void shouldInsertDistinctErrors_AndIncrementCountsOfDuplicates(SoftAssertions softly) {
+            var error1 = randomUnresolvedApplicationError();
+            var error2 = randomUnresolvedApplicationError();
+
+            var ids = errorDao.insertOrIncrementCounts(List.of(error1, error2, error1, error1));
+
+            assertThat(ids).hasSize(4);
+            var id1 = first(ids);
+            var id2 = ids.get(1);
+            softly.assertThat(id2).isNotEqualTo(id1);
+            softly.assertThat(ids).containsExactly(id1, id2, id1, id1);
+            softlyAssertNumTimesOccurred(softly, id1, 3);
+            softlyAssertNumTimesOccurred(softly, id2, 1);
+        }
+
+        @Test
+        void shouldIncrementCounts_WhenErrorsExist(SoftAssertions softly) {
+            var id = insertApplicationError(randomUnresolvedApplicationError());
+            var existingError = getErrorOrThrow(id);
+
+            var ids = errorDao.insertOrIncrementCounts(List.of(existingError, existingError));
+
+            softly.assertThat(ids).containsExactly(id, id);
+            softlyAssertNumTimesOccurred(softly, id, 3);
+        }
+    }
+
     private void softlyAssertNumTimesOccurred(SoftAssertions softly, long id, int numTimesOccurred) {
         var applicationError = getErrorOrThrow(id);
         softly.assertThat(applicationError.getNumTimesOccurred()).isEqualTo(numTimesOccurred);
@@ -750,7 +1310,8 @@ public abstract class AbstractApplicationErrorDaoTest<T extends ApplicationError
     }
 
     private ApplicationError randomApplicationErrorWithResolvedAndHost(Resolved resolved, String hostName) {
-        var number = random.nextInt(100_000);
+        // Unresolved errors must have a unique description and host, so this ensures there aren't any collisions
+        var number = ERROR_NUMBER.incrementAndGet();
         var error = newThrowable("message " + number, "cause message " + number);
         return ApplicationError.newError(description + " " + number, resolved, hostName, ipAddress, port, error);
     }
@@ -1,11 +1,30 @@
 package org.kiwiproject.dropwizard.error.dao;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.kiwiproject.dropwizard.error.model.ApplicationError;
+import org.kiwiproject.dropwizard.error.model.ApplicationError.Resolved;
+import org.kiwiproject.dropwizard.error.model.ApplicationErrorCursor;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
 
 class ApplicationErrorDaoTest {
 
@@ -39,4 +58,150 @@ class ApplicationErrorDaoTest {
                     .isExactlyInstanceOf(IllegalArgumentException.class);
         }
     }
+
+    @Nested
+    class CheckPageSize {
+
+        @ParameterizedTest
+        @ValueSource(ints = { 1, 10, 25, 1_000 })
+        void shouldAcceptPositivePageSize(int pageSize) {
+            assertThatCode(() -> ApplicationErrorDao.checkPageSize(pageSize)).doesNotThrowAnyException();
+        }
+
+        @ParameterizedTest
+        @ValueSource(ints = { -1, 0 })
+        void shouldRejectInvalidPageSize(int pageSize) {
+            assertThatThrownBy(() -> ApplicationErrorDao.checkPageSize(pageSize))
+                    .isExactlyInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("pageSize must be positive");
+        }
+    }
+
+    @Nested
+    class CheckIncrementAmounts {
+
+        @Test
+        void shouldAcceptPositiveAmounts() {
+            assertThatCode(() -> ApplicationErrorDao.checkIncrementAmounts(Map.of(1L, 1, 2L, 42)))
+                    .doesNotThrowAnyException();
+        }
+
+        @ParameterizedTest
+        @ValueSource(ints = { -1, 0 })
+        void shouldRejectAmountsThatAreNotPositive(int amount) {
+            assertThatThrownBy(() -> ApplicationErrorDao.checkIncrementAmounts(Map.of(1L, 1, 2L, amount)))
+                    .isExactlyInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("amounts must all be positive");
+        }
+
+        @Test
+        void shouldRejectNullAmounts() {
+            assertThatThrownBy(() -> ApplicationErrorDao.checkIncrementAmounts(null))
+                    .isExactlyInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("amounts must not be null");
+        }
+    }
+
+    @Nested
+    class DefaultInsertOrIncrementCounts {
+
+        @Test
+        void shouldWriteDistinctErrorsOnce_AndIncrementDuplicatesInSingleCall() {
+            var errorDao = mock(ApplicationErrorDao.class, CALLS_REAL_METHODS);
+            var error1 = newUnresolvedError("an error");
+            var error2 = newUnresolvedError("another error");
+            doReturn(1L).when(errorDao).insertOrIncrementCount(error1);
+            doReturn(2L).when(errorDao).insertOrIncrementCount(error2);
+            doNothing().when(errorDao).incrementCounts(anyMap());
+
+            var ids = errorDao.insertOrIncrementCounts(List.of(error1, error2, error1, error1));
+
+            assertThat(ids).containsExactly(1L, 2L, 1L, 1L);
+            verify(errorDao).insertOrIncrementCount(error1);
+            verify(errorDao).insertOrIncrementCount(error2);
+            verify(errorDao).incrementCounts(Map.of(1L, 2));
+        }
+
+        @Test
+        void shouldWriteEachDuplicate_WhenIdIsPending() {
+            var errorDao = mock(ApplicationErrorDao.class, CALLS_REAL_METHODS);
+            var error = newUnresolvedError("an error");
+            doReturn(ApplicationErrorDao.PENDING_ID).when(errorDao).insertOrIncrementCount(error);
+
+            var ids = errorDao.insertOrIncrementCounts(List.of(error, error));
+
+            assertThat(ids).containsExactly(ApplicationErrorDao.PENDING_ID,
+                    ApplicationErrorDao.PENDING_ID);
+            verify(errorDao, times(2)).insertOrIncrementCount(error);
+            verify(errorDao, never()).incrementCounts(anyMap());
+        }
+
+        @Test
+        void shouldNotCombineResolvedErrors() {
+            var errorDao = mock(ApplicationErrorDao.class, CALLS_REAL_METHODS);
+            var resolvedError = ApplicationError.newError("an error", Resolved.YES, "host-1", "127.0.0.1", 8080, null);
+            doReturn(1L, 2L).when(errorDao).insertOrIncrementCount(resolvedError);
+
+            var ids = errorDao.insertOrIncrementCounts(List.of(resolvedError, resolvedError));
+
+            assertThat(ids).containsExactly(1L, 2L);
+            verify(errorDao, never()).incrementCounts(anyMap());
+        }
+
+        private static ApplicationError newUnresolvedError(String description) {
+            return ApplicationError.newUnresolvedError(description, "host-1", "127.0.0.1", 8080, null);
+        }
+    }
+
+    @Nested
+    class GetErrorsWithCursor {
+
+        private final ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+
+        @Test
+        void shouldGetErrorsAfterCursor() {
+            var errorDao = mock(ApplicationErrorDao.class, CALLS_REAL_METHODS);
+            var error5 = newError(5, now);
+            var error4 = newError(4, now.minusMinutes(1));
+            var error3 = newError(3, now.minusMinutes(2));
+            var error2 = newError(2, now.minusMinutes(3));
+            var error1 = newError(1, now.minusMinutes(4));
+            doReturn(List.of(error5, error4)).when(errorDao).getErrors(ApplicationErrorStatus.ALL, 1, 2);
+            doReturn(List.of(error3, error2)).when(errorDao).getErrors(ApplicationErrorStatus.ALL, 2, 2);
+            doReturn(List.of(error1)).when(errorDao).getErrors(ApplicationErrorStatus.ALL, 3, 2);
+
+            assertThat(errorDao.getErrors(ApplicationErrorStatus.ALL, (ApplicationErrorCursor) null, 2))
+                    .containsExactly(error5, error4);
+            assertThat(errorDao.getErrors(ApplicationErrorStatus.ALL, ApplicationErrorCursor.after(error4), 2))
+                    .containsExactly(error3, error2);
+            assertThat(errorDao.getErrors(ApplicationErrorStatus.ALL, ApplicationErrorCursor.after(error2), 2))
+                    .containsExactly(error1);
+            assertThat(errorDao.getErrors(ApplicationErrorStatus.ALL, ApplicationErrorCursor.after(error1), 2))
+                    .isEmpty();
+        }
+
+        @Test
+        void shouldOrderErrorsUpdatedAtSameTime_ById() {
+            var errorDao = mock(ApplicationErrorDao.class, CALLS_REAL_METHODS);
+            var error1 = newError(1, now);
+            var error3 = newError(3, now);
+            var error2 = newError(2, now);
+            var error0 = newError(0, now.minusMinutes(1));
+            doReturn(List.of(error1, error3)).when(errorDao).getErrors(ApplicationErrorStatus.UNRESOLVED, 1, 2);
+            doReturn(List.of(error2, error0)).when(errorDao).getErrors(ApplicationErrorStatus.UNRESOLVED, 2, 2);
+
+            assertThat(errorDao.getErrors(ApplicationErrorStatus.UNRESOLVED, (ApplicationErrorCursor) null, 2))
+                    .containsExactly(error3, error2);
+            verify(errorDao, never()).getErrors(ApplicationErrorStatus.UNRESOLVED, 3, 2);
+        }
+
+        private static ApplicationError newError(long id, ZonedDateTime updatedAt) {
+            return ApplicationError.builder()
+                    .id(id)
+                    .description("error " + id)
+                    .createdAt(updatedAt)
+                    .updatedAt(updatedAt)
+                    .build();
+        }
+    }
 }
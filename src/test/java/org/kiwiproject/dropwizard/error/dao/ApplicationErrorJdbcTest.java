@@ -19,13 +19,19 @@ import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.NullAndEmptySource;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.kiwiproject.dropwizard.error.dao.ApplicationErrorJdbc.ApplicationErrorJdbcException;
+import org.kiwiproject.dropwizard.error.dao.ApplicationErrorJdbc.UpsertDialect;
+import org.kiwiproject.dropwizard.error.model.ApplicationError;
 import org.kiwiproject.dropwizard.error.model.DataStoreType;
 import org.kiwiproject.jdbc.UncheckedSQLException;
 import org.kiwiproject.test.junit.jupiter.ClearBoxTest;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
 
 @DisplayName("ApplicationErrorJdbc")
 @SuppressWarnings({ "SqlDialectInspection", "SqlNoDataSourceInspection" })
@@ -111,6 +117,163 @@ class ApplicationErrorJdbcTest {
         }
     }
 
+    @Nested
+    class UpsertDialectOf {
+
+        @Test
+        void shouldReturnH2_ForInMemoryH2Database() throws SQLException {
+            dataSourceFactory = ApplicationErrorJdbc.createInMemoryH2Database();
+
+            var url = dataSourceFactory.getUrl();
+            var user = dataSourceFactory.getUser();
+            var password = dataSourceFactory.getPassword();
+
+            try (var conn = DriverManager.getConnection(url, user, password)) {
+                assertThat(ApplicationErrorJdbc.upsertDialectOf(conn)).isEqualTo(UpsertDialect.H2);
+            }
+        }
+
+        @ParameterizedTest
+        @CsvSource(textBlock = """
+            H2, H2
+            PostgreSQL, POSTGRES
+            SQLite, SQLITE
+            MySQL, UNSUPPORTED
+            Oracle, UNSUPPORTED
+            [Unknown Error], UNSUPPORTED
+            """)
+        void shouldDetermineDialectFromProductName(String productName, UpsertDialect expectedDialect) {
+            assertThat(UpsertDialect.fromDatabaseProductName(productName)).isEqualTo(expectedDialect);
+        }
+
+        @Test
+        void shouldReturnUnsupported_ForNullProductName() {
+            assertThat(UpsertDialect.fromDatabaseProductName(null)).isEqualTo(UpsertDialect.UNSUPPORTED);
+        }
+    }
+
+    @Nested
+    class UnresolvedKeyOf {
+
+        @Test
+        void shouldBeTheFingerprint() {
+            var error = ApplicationError.newUnresolvedError("An error", "host-1", "10.0.0.1", 8080, new IOException());
+
+            assertThat(ApplicationErrorJdbc.unresolvedKeyOf(error)).isEqualTo(error.getFingerprint());
+        }
+    }
+
+    @Nested
+    class StackTraceHashOf {
+
+        @Test
+        void shouldBeNull_WhenStackTraceIsNull() {
+            assertThat(ApplicationErrorJdbc.stackTraceHashOf(null)).isNull();
+        }
+
+        @Test
+        void shouldBeSha256HashOfStackTrace() {
+            var hash = ApplicationErrorJdbc.stackTraceHashOf("java.io.IOException: oops");
+
+            assertAll(
+                () -> assertThat(hash).hasSize(64).matches("[0-9a-f]+"),
+                () -> assertThat(ApplicationErrorJdbc.stackTraceHashOf("java.io.IOException: oops")).isEqualTo(hash),
+                () -> assertThat(ApplicationErrorJdbc.stackTraceHashOf("java.io.IOException: oh no")).isNotEqualTo(hash)
+            );
+        }
+    }
+
+    @Nested
+    class IsIntegrityConstraintViolation {
+
+        @Test
+        void shouldBeTrue_ForIntegrityConstraintViolationSqlState() {
+            var e = new SQLException("duplicate key", "23505");
+
+            assertThat(ApplicationErrorJdbc.isIntegrityConstraintViolation(e)).isTrue();
+        }
+
+        @Test
+        void shouldBeTrue_ForSQLIntegrityConstraintViolationException() {
+            var e = new SQLIntegrityConstraintViolationException("Duplicate entry");
+
+            assertThat(ApplicationErrorJdbc.isIntegrityConstraintViolation(e)).isTrue();
+        }
+
+        @Test
+        void shouldBeTrue_WhenCauseIsIntegrityConstraintViolation() {
+            var e = new UncheckedSQLException(new SQLException("duplicate key", "23000"));
+
+            assertThat(ApplicationErrorJdbc.isIntegrityConstraintViolation(e)).isTrue();
+        }
+
+        @Test
+        void shouldBeFalse_ForOtherSqlStates() {
+            var e = new UncheckedSQLException(new SQLException("connection refused", "08001"));
+
+            assertThat(ApplicationErrorJdbc.isIntegrityConstraintViolation(e)).isFalse();
+        }
+
+        @Test
+        void shouldBeFalse_ForNonSqlExceptions() {
+            assertAll(
+                () -> assertThat(ApplicationErrorJdbc.isIntegrityConstraintViolation(null)).isFalse(),
+                () -> assertThat(ApplicationErrorJdbc.isIntegrityConstraintViolation(new IOException())).isFalse(),
+                () -> assertThat(ApplicationErrorJdbc.isIntegrityConstraintViolation(new SQLException())).isFalse()
+            );
+        }
+    }
+
+    @Nested
+    class CompressStackTrace {
+
+        @Test
+        void shouldCompressAndDecompress() {
+            var stackTrace = "java.io.IOException: oops\n" + "\tat Example.main(Example.java:42)\n".repeat(100);
+
+            var compressed = ApplicationErrorJdbc.compressStackTrace(stackTrace);
+
+            assertAll(
+                () -> assertThat(compressed.length).isLessThan(stackTrace.length() / 10),
+                () -> assertThat(ApplicationErrorJdbc.decompressStackTrace(compressed)).isEqualTo(stackTrace)
+            );
+        }
+
+        @Test
+        void shouldPreserveNonAsciiCharacters() {
+            var stackTrace = "java.lang.IllegalStateException: caf\u00e9 \u2603";
+
+            var compressed = ApplicationErrorJdbc.compressStackTrace(stackTrace);
+
+            assertThat(ApplicationErrorJdbc.decompressStackTrace(compressed)).isEqualTo(stackTrace);
+        }
+
+        @Test
+        void shouldThrowUncheckedIOException_WhenDecompressingInvalidBytes() {
+            var invalidBytes = "not compressed".getBytes(StandardCharsets.UTF_8);
+
+            assertThatThrownBy(() -> ApplicationErrorJdbc.decompressStackTrace(invalidBytes))
+                    .isExactlyInstanceOf(UncheckedIOException.class)
+                    .hasMessage("Unable to decompress stack trace");
+        }
+    }
+
+    @Nested
+    class TablesFor {
+
+        @Test
+        void shouldJoinStackTraces_ForAllColumns() {
+            assertThat(ApplicationErrorJdbc.tablesFor(ApplicationErrorJdbc.ALL_COLUMNS))
+                    .isEqualTo(ApplicationErrorJdbc.ERRORS_WITH_STACK_TRACES);
+        }
+
+        @Test
+        void shouldNotJoinStackTraces_ForSummaryColumns() {
+            assertThat(ApplicationErrorJdbc.tablesFor(ApplicationErrorJdbc.SUMMARY_COLUMNS))
+                    .isEqualTo("application_errors e");
+        }
+    }
+
     @Nested
     class DataStoreTypeOf {
 
@@ -0,0 +1,100 @@
+package org.kiwiproject.dropwizard.error.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.kiwiproject.jdbc.KiwiJdbc.nextOrThrow;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.kiwiproject.dropwizard.error.model.ApplicationError;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+@DisplayName("BackfillFingerprintsChange")
+@SuppressWarnings({ "SqlDialectInspection", "SqlNoDataSourceInspection" })
+class BackfillFingerprintsChangeTest {
+
+    private Connection conn;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:h2:mem:backfill-test;DB_CLOSE_DELAY=-1", "backfill", "backfill");
+        ApplicationErrorJdbc.migrateDatabase(conn);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (var stmt = conn.createStatement()) {
+            stmt.executeUpdate("delete from application_errors");
+        }
+        conn.close();
+    }
+
+    @Test
+    void shouldSetFingerprintOfErrorsWithoutOne() throws SQLException {
+        var id = insertErrorWithoutFingerprint("An error", "java.io.IOException", true);
+        var id2 = insertErrorWithoutFingerprint("Another error", null, false);
+
+        assertThat(BackfillFingerprintsChange.backfillFingerprints(conn)).isEqualTo(2);
+
+        assertThat(fingerprintOf(id))
+                .isEqualTo(ApplicationError.fingerprintOf("An error", "java.io.IOException", "host-1"));
+        assertThat(fingerprintOf(id2)).isEqualTo(ApplicationError.fingerprintOf("Another error", null, "host-1"));
+    }
+
+    @Test
+    void shouldSetFingerprintsInBatches() throws SQLException {
+        var errorCount = BackfillFingerprintsChange.BATCH_SIZE + 1;
+        long lastId = 0;
+        for (var i = 0; i < errorCount; i++) {
+            lastId = insertErrorWithoutFingerprint("Error " + i, null, true);
+        }
+
+        assertThat(BackfillFingerprintsChange.backfillFingerprints(conn)).isEqualTo(errorCount);
+
+        assertThat(fingerprintOf(lastId)).isEqualTo(ApplicationError.fingerprintOf("Error 1000", null, "host-1"));
+    }
+
+    @Test
+    void shouldDoNothing_WhenAllErrorsHaveFingerprint() throws SQLException {
+        insertErrorWithoutFingerprint("An error", "java.io.IOException", false);
+        BackfillFingerprintsChange.backfillFingerprints(conn);
+
+        assertThat(BackfillFingerprintsChange.backfillFingerprints(conn)).isZero();
+    }
+
+    private long insertErrorWithoutFingerprint(String description, String exceptionType, boolean resolved)
+            throws SQLException {
+
+        var sql = "insert into application_errors" +
+                " (description, exception_type, resolved, host_name, ip_address, port)" +
+                " values (?, ?, ?, 'host-1', '10.0.0.1', 8080)";
+
+        try (var ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            ps.setString(1, description);
+            ps.setString(2, exceptionType);
+            ps.setBoolean(3, resolved);
+            ps.executeUpdate();
+
+            try (var rs = ps.getGeneratedKeys()) {
+                nextOrThrow(rs);
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    private String fingerprintOf(long id) throws SQLException {
+        try (var ps = conn.prepareStatement("select fingerprint from application_errors where id = ?")) {
+            ps.setLong(1, id);
+
+            try (var rs = ps.executeQuery()) {
+                nextOrThrow(rs);
+                return rs.getString(1);
+            }
+        }
+    }
+}
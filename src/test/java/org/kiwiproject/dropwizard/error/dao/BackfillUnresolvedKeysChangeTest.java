@@ -0,0 +1,119 @@
+package org.kiwiproject.dropwizard.error.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.kiwiproject.jdbc.KiwiJdbc.nextOrThrow;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.kiwiproject.dropwizard.error.model.ApplicationError;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+
+@DisplayName("BackfillUnresolvedKeysChange")
+@SuppressWarnings({ "SqlDialectInspection", "SqlNoDataSourceInspection" })
+class BackfillUnresolvedKeysChangeTest {
+
+    private Connection conn;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:h2:mem:backfill-test;DB_CLOSE_DELAY=-1", "backfill", "backfill");
+        ApplicationErrorJdbc.migrateDatabase(conn);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (var stmt = conn.createStatement()) {
+            stmt.executeUpdate("delete from application_errors");
+        }
+        conn.close();
+    }
+
+    @Test
+    void shouldSetKeyOfUnresolvedErrors() throws SQLException {
+        var id = insertErrorWithoutKey("An error", "java.io.IOException", false, 1_000);
+        var id2 = insertErrorWithoutKey("Another error", null, false, 1_000);
+
+        assertThat(BackfillUnresolvedKeysChange.backfillUnresolvedKeys(conn)).isEqualTo(2);
+
+        assertThat(unresolvedKeyOf(id))
+                .isEqualTo(ApplicationError.fingerprintOf("An error", "java.io.IOException", "host-1"));
+        assertThat(unresolvedKeyOf(id2)).isEqualTo(ApplicationError.fingerprintOf("Another error", null, "host-1"));
+    }
+
+    @Test
+    void shouldNotSetKeyOfResolvedErrors() throws SQLException {
+        var id = insertErrorWithoutKey("An error", "java.io.IOException", true, 1_000);
+
+        assertThat(BackfillUnresolvedKeysChange.backfillUnresolvedKeys(conn)).isZero();
+
+        assertThat(unresolvedKeyOf(id)).isNull();
+    }
+
+    @Test
+    void shouldSetKeyOfOnlyMostRecentlyUpdatedDuplicate() throws SQLException {
+        var olderId = insertErrorWithoutKey("An error", "java.io.IOException", false, 1_000);
+        var newerId = insertErrorWithoutKey("An error", "java.io.IOException", false, 2_000);
+
+        assertThat(BackfillUnresolvedKeysChange.backfillUnresolvedKeys(conn)).isOne();
+
+        assertThat(unresolvedKeyOf(olderId)).isNull();
+        assertThat(unresolvedKeyOf(newerId)).isNotNull();
+    }
+
+    @Test
+    void shouldSetKeysInBatches() throws SQLException {
+        var batchSize = BackfillUnresolvedKeysChange.BATCH_SIZE;
+        var newestId = insertErrorWithoutKey("Newest error", null, false, 20_000);
+        for (var i = 1; i < batchSize; i++) {
+            insertErrorWithoutKey("Error " + i, null, false, 10_000 + i);
+        }
+        var olderDuplicateId = insertErrorWithoutKey("Newest error", null, false, 5_000);
+        var oldestId = insertErrorWithoutKey("Oldest error", null, false, 1_000);
+
+        assertThat(BackfillUnresolvedKeysChange.backfillUnresolvedKeys(conn)).isEqualTo(batchSize + 1);
+
+        assertThat(unresolvedKeyOf(newestId)).isEqualTo(ApplicationError.fingerprintOf("Newest error", null, "host-1"));
+        assertThat(unresolvedKeyOf(olderDuplicateId)).isNull();
+        assertThat(unresolvedKeyOf(oldestId)).isEqualTo(ApplicationError.fingerprintOf("Oldest error", null, "host-1"));
+    }
+
+    private long insertErrorWithoutKey(String description, String exceptionType, boolean resolved, long updatedAt)
+            throws SQLException {
+
+        var sql = "insert into application_errors" +
+                " (description, exception_type, resolved, updated_at, host_name, ip_address, port)" +
+                " values (?, ?, ?, ?, 'host-1', '10.0.0.1', 8080)";
+
+        try (var ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            ps.setString(1, description);
+            ps.setString(2, exceptionType);
+            ps.setBoolean(3, resolved);
+            ps.setTimestamp(4, Timestamp.from(Instant.ofEpochMilli(updatedAt)));
+            ps.executeUpdate();
+
+            try (var rs = ps.getGeneratedKeys()) {
+                nextOrThrow(rs);
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    private String unresolvedKeyOf(long id) throws SQLException {
+        try (var ps = conn.prepareStatement("select unresolved_key from application_errors where id = ?")) {
+            ps.setLong(1, id);
+
+            try (var rs = ps.executeQuery()) {
+                nextOrThrow(rs);
+                return rs.getString(1);
+            }
+        }
+    }
+}
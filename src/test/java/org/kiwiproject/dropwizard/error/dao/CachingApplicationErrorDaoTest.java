@@ -0,0 +1,249 @@
+package org.kiwiproject.dropwizard.error.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.kiwiproject.dropwizard.error.util.TestHelpers.newError;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.kiwiproject.dropwizard.error.config.UnresolvedErrorCacheConfig;
+import org.kiwiproject.dropwizard.error.dao.jdk.ConcurrentMapApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.model.ApplicationError;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+@DisplayName("CachingApplicationErrorDao")
+class CachingApplicationErrorDaoTest {
+
+    private ConcurrentMapApplicationErrorDao delegate;
+    private CachingApplicationErrorDao errorDao;
+
+    @BeforeEach
+    void setUp() {
+        delegate = new ConcurrentMapApplicationErrorDao();
+        errorDao = new CachingApplicationErrorDao(delegate);
+    }
+
+    @Test
+    void shouldRequireConfig() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new CachingApplicationErrorDao(delegate, null))
+                .withMessage("config must not be null");
+    }
+
+    @Nested
+    class InsertOrIncrementCount {
+
+        @Test
+        void shouldWriteFirstOccurrence_AndCacheId() {
+            var id = errorDao.insertOrIncrementCount(newError("an error", "host-1"));
+
+            assertThat(delegate.getById(id)).isPresent();
+            assertThat(errorDao.getCachedErrorCount()).isOne();
+        }
+
+        @Test
+        void shouldIncrementCount_UsingCachedId() {
+            var mockDelegate = mock(ApplicationErrorDao.class);
+            when(mockDelegate.insertOrIncrementCount(any(ApplicationError.class))).thenReturn(42L);
+            when(mockDelegate.incrementCountIfUnresolved(42L)).thenReturn(true);
+            var dao = new CachingApplicationErrorDao(mockDelegate);
+
+            var error = newError("an error", "host-1");
+            var id = dao.insertOrIncrementCount(error);
+            var id2 = dao.insertOrIncrementCount(error);
+            var id3 = dao.insertOrIncrementCount(error);
+
+            assertThat(id).isEqualTo(42L);
+            assertThat(id2).isEqualTo(42L);
+            assertThat(id3).isEqualTo(42L);
+            verify(mockDelegate).insertOrIncrementCount(error);
+            verify(mockDelegate, times(2)).incrementCountIfUnresolved(42L);
+        }
+
+        @Test
+        void shouldUpdateCount_InDelegate() {
+            var error = newError("an error", "host-1");
+            var id = errorDao.insertOrIncrementCount(error);
+            errorDao.insertOrIncrementCount(error);
+            errorDao.insertOrIncrementCount(error);
+
+            assertThat(delegate.countAllErrors()).isOne();
+            assertThat(delegate.getById(id).orElseThrow().getNumTimesOccurred()).isEqualTo(3);
+        }
+
+        @Test
+        void shouldNotShareId_ForErrorsOnDifferentHosts() {
+            var id = errorDao.insertOrIncrementCount(newError("an error", "host-1"));
+            var id2 = errorDao.insertOrIncrementCount(newError("an error", "host-2"));
+
+            assertThat(id2).isNotEqualTo(id);
+            assertThat(errorDao.getCachedErrorCount()).isEqualTo(2);
+        }
+
+        @Test
+        void shouldFallBackToDelegate_WhenCachedErrorNoLongerUnresolved() {
+            var error = newError("an error", "host-1");
+            var id = errorDao.insertOrIncrementCount(error);
+
+            // Resolve without using the caching DAO, e.g. as another service instance would
+            delegate.resolve(id);
+
+            var newId = errorDao.insertOrIncrementCount(error);
+
+            assertThat(newId).isNotEqualTo(id);
+            assertThat(delegate.getById(id).orElseThrow().getNumTimesOccurred()).isOne();
+            assertThat(delegate.getById(newId).orElseThrow().isResolved()).isFalse();
+
+            assertThat(errorDao.insertOrIncrementCount(error)).isEqualTo(newId);
+        }
+
+        @Test
+        void shouldFallBackToDelegate_WhenCachedErrorNoLongerExists() {
+            var error = newError("an error", "host-1");
+            var id = errorDao.insertOrIncrementCount(error);
+
+            delegate.deleteUnresolvedErrorsBefore(ZonedDateTime.now().plusDays(1));
+
+            var newId = errorDao.insertOrIncrementCount(error);
+
+            assertThat(newId).isNotEqualTo(id);
+            assertThat(delegate.getById(newId)).isPresent();
+        }
+
+        @Test
+        void shouldNotCacheId_OfResolvedErrors() {
+            var resolvedError = ApplicationError.newError("an error", ApplicationError.Resolved.YES,
+                    "host-1", "127.0.0.1", 8080, null);
+
+            errorDao.insertOrIncrementCount(resolvedError);
+
+            assertThat(errorDao.getCachedErrorCount()).isZero();
+        }
+
+        @Test
+        void shouldEvictIds_WhenFull() {
+            var config = new UnresolvedErrorCacheConfig();
+            config.setMaxSize(2);
+            var dao = new CachingApplicationErrorDao(delegate, config);
+
+            for (var i = 0; i < 10; i++) {
+                dao.insertOrIncrementCount(newError("error " + i, "host-1"));
+            }
+
+            assertThat(dao.getCachedErrorCount()).isLessThanOrEqualTo(2);
+        }
+    }
+
+    @Nested
+    class InsertOrIncrementCounts {
+
+        @Test
+        void shouldWriteUncachedErrors_InSingleCall_AndCacheIds() {
+            var mockDelegate = mock(ApplicationErrorDao.class);
+            var dao = new CachingApplicationErrorDao(mockDelegate);
+            var error1 = newError("an error", "host-1");
+            var error2 = newError("another error", "host-1");
+            when(mockDelegate.insertOrIncrementCounts(List.of(error1, error2, error1))).thenReturn(List.of(1L, 2L, 1L));
+
+            var ids = dao.insertOrIncrementCounts(List.of(error1, error2, error1));
+
+            assertThat(ids).containsExactly(1L, 2L, 1L);
+            assertThat(dao.getCachedErrorCount()).isEqualTo(2);
+            verify(mockDelegate, never()).insertOrIncrementCount(any(ApplicationError.class));
+        }
+
+        @Test
+        void shouldIncrementCounts_UsingCachedIds() {
+            var error1 = newError("an error", "host-1");
+            var error2 = newError("another error", "host-1");
+            var id1 = errorDao.insertOrIncrementCount(error1);
+
+            var ids = errorDao.insertOrIncrementCounts(List.of(error2, error1, error1));
+
+            assertThat(ids).hasSize(3);
+            assertThat(ids.get(1)).isEqualTo(id1);
+            assertThat(ids.get(2)).isEqualTo(id1);
+            assertThat(delegate.getById(id1).orElseThrow().getNumTimesOccurred()).isEqualTo(3);
+            assertThat(delegate.getById(ids.get(0)).orElseThrow().getDescription()).isEqualTo("another error");
+            assertThat(errorDao.getCachedErrorCount()).isEqualTo(2);
+        }
+    }
+
+    @Nested
+    class Invalidation {
+
+        private ApplicationErrorDao mockDelegate;
+        private CachingApplicationErrorDao dao;
+        private ApplicationError error;
+
+        @BeforeEach
+        void setUp() {
+            mockDelegate = mock(ApplicationErrorDao.class);
+            when(mockDelegate.insertOrIncrementCount(any(ApplicationError.class))).thenReturn(42L);
+            when(mockDelegate.incrementCountIfUnresolved(42L)).thenReturn(true);
+            dao = new CachingApplicationErrorDao(mockDelegate);
+            error = newError("an error", "host-1");
+            dao.insertOrIncrementCount(error);
+        }
+
+        @Test
+        void shouldInvalidate_WhenResolved() {
+            dao.resolve(42L);
+
+            assertThat(dao.getCachedErrorCount()).isZero();
+            dao.insertOrIncrementCount(error);
+            verify(mockDelegate, never()).incrementCountIfUnresolved(42L);
+            verify(mockDelegate, times(2)).insertOrIncrementCount(error);
+        }
+
+        @Test
+        void shouldNotInvalidateOtherIds_WhenResolved() {
+            dao.resolve(84L);
+
+            assertThat(dao.getCachedErrorCount()).isOne();
+        }
+
+        @Test
+        void shouldInvalidate_WhenAllResolved() {
+            dao.resolveAllUnresolvedErrors();
+
+            assertThat(dao.getCachedErrorCount()).isZero();
+            verify(mockDelegate).resolveAllUnresolvedErrors();
+        }
+
+        @Test
+        void shouldInvalidate_WhenUnresolvedErrorsDeleted() {
+            var expirationDate = ZonedDateTime.now();
+            dao.deleteUnresolvedErrorsBefore(expirationDate);
+
+            assertThat(dao.getCachedErrorCount()).isZero();
+            verify(mockDelegate).deleteUnresolvedErrorsBefore(expirationDate);
+        }
+
+        @Test
+        void shouldInvalidate_WhenUnresolvedErrorsDeletedWithLimit() {
+            var expirationDate = ZonedDateTime.now();
+            dao.deleteUnresolvedErrorsBefore(expirationDate, 100);
+
+            assertThat(dao.getCachedErrorCount()).isZero();
+            verify(mockDelegate).deleteUnresolvedErrorsBefore(expirationDate, 100);
+        }
+
+        @Test
+        void shouldNotInvalidate_WhenResolvedErrorsDeleted() {
+            dao.deleteResolvedErrorsBefore(ZonedDateTime.now());
+
+            assertThat(dao.getCachedErrorCount()).isOne();
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package org.kiwiproject.dropwizard.error.dao;
+
+import static java.util.Objects.nonNull;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.kiwiproject.dropwizard.error.util.TestHelpers.newError;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.dropwizard.util.Duration;
+import org.jdbi.v3.core.ConnectionException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.kiwiproject.dropwizard.error.config.CircuitBreakerConfig;
+import org.kiwiproject.dropwizard.error.dao.CircuitBreakingApplicationErrorDao.State;
+import org.kiwiproject.dropwizard.error.dao.jdk.ConcurrentMapApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.model.ApplicationError;
+import org.kiwiproject.jdbc.UncheckedSQLException;
+
+import java.sql.SQLException;
+import java.time.Clock;
+import java.util.Collection;
+import java.util.List;
+
+@DisplayName("CircuitBreakingApplicationErrorDao")
+class CircuitBreakingApplicationErrorDaoTest {
+
+    private static final long WAIT_MILLIS_IN_OPEN_STATE = 30_000;
+
+    private CircuitBreakerConfig config;
+    private Clock clock;
+    private long nowMillis;
+    private UnreliableApplicationErrorDao delegate;
+    private CircuitBreakingApplicationErrorDao errorDao;
+
+    @BeforeEach
+    void setUp() {
+        config = new CircuitBreakerConfig();
+        config.setSlidingWindowSize(10);
+        config.setMinimumNumberOfCalls(4);
+        config.setFailureRateThreshold(50);
+        config.setSlowCallRateThreshold(75);
+        config.setSlowCallDuration(Duration.seconds(1));
+        config.setWaitDurationInOpenState(Duration.milliseconds(WAIT_MILLIS_IN_OPEN_STATE));
+        config.setPermittedCallsInHalfOpenState(2);
+
+        clock = mock(Clock.class);
+        nowMillis = 1_700_000_000_000L;
+        when(clock.millis()).thenAnswer(invocation -> nowMillis);
+
+        delegate = new UnreliableApplicationErrorDao(new ConcurrentMapApplicationErrorDao());
+        errorDao = new CircuitBreakingApplicationErrorDao(delegate, config, clock);
+    }
+
+    @Test
+    void shouldRequireValidConfig() {
+        var invalidConfig = new CircuitBreakerConfig();
+        invalidConfig.setSlidingWindowSize(0);
+
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new CircuitBreakingApplicationErrorDao(delegate, invalidConfig));
+    }
+
+    @Test
+    void shouldBeClosed_Initially() {
+        assertThat(errorDao.getState()).isEqualTo(State.CLOSED);
+    }
+
+    @Nested
+    class WhenClosed {
+
+        @Test
+        void shouldWriteToDelegate() {
+            var id = errorDao.insertOrIncrementCount(newError("an error"));
+
+            assertThat(delegate.getById(id)).isPresent();
+        }
+
+        @Test
+        void shouldStayClosed_BeforeMinimumNumberOfCalls() {
+            fail(3);
+
+            assertThat(errorDao.getState()).isEqualTo(State.CLOSED);
+        }
+
+        @Test
+        void shouldOpen_WhenFailureRateReachesThreshold() {
+            succeed(2);
+            fail(2);
+
+            assertThat(errorDao.getState()).isEqualTo(State.OPEN);
+        }
+
+        @Test
+        void shouldStayClosed_WhenFailureRateIsBelowThreshold() {
+            succeed(6);
+            fail(4);
+
+            assertThat(errorDao.getState()).isEqualTo(State.CLOSED);
+        }
+
+        @Test
+        void shouldOnlyConsiderMostRecentCalls() {
+            succeed(1);
+            fail(1);
+            succeed(9);
+            fail(4);
+
+            assertThat(errorDao.getState()).isEqualTo(State.CLOSED);
+
+            fail(1);
+
+            assertThat(errorDao.getState()).isEqualTo(State.OPEN);
+        }
+
+        @Test
+        void shouldOpen_WhenSlowCallRateReachesThreshold() {
+            delegate.delayMillis = 1_000;
+            succeed(3);
+            delegate.delayMillis = 0;
+            succeed(1);
+
+            assertThat(errorDao.getState()).isEqualTo(State.OPEN);
+        }
+
+        @Test
+        void shouldNotCountIllegalArgumentException_AsFailure() {
+            delegate.failure = new IllegalArgumentException("error must not be null");
+            for (var i = 0; i < 4; i++) {
+                var error = newError("an error");
+                assertThatIllegalArgumentException().isThrownBy(() -> errorDao.insertOrIncrementCount(error));
+            }
+
+            assertThat(errorDao.getState()).isEqualTo(State.CLOSED);
+        }
+
+        @Test
+        void shouldNotCountIllegalStateException_AsFailure() {
+            delegate.failure = new IllegalStateException("No ApplicationError found with id 42");
+            for (var i = 0; i < 4; i++) {
+                var error = newError("an error");
+                assertThatIllegalStateException().isThrownBy(() -> errorDao.insertOrIncrementCount(error));
+            }
+
+            assertThat(errorDao.getState()).isEqualTo(State.CLOSED);
+        }
+
+        @Test
+        void shouldNotCountRejectedData_AsFailure() {
+            delegate.failure = new UncheckedSQLException(new SQLException("Value too long for column", "22001"));
+            for (var i = 0; i < 4; i++) {
+                var error = newError("an error");
+                assertThatThrownBy(() -> errorDao.insertOrIncrementCount(error))
+                        .isInstanceOf(UncheckedSQLException.class);
+            }
+
+            assertThat(errorDao.getState()).isEqualTo(State.CLOSED);
+        }
+
+        @Test
+        void shouldCountConnectionException_AsFailure() {
+            delegate.failure = new ConnectionException(new SQLException("Connection refused", "08001"));
+            for (var i = 0; i < 4; i++) {
+                var error = newError("an error");
+                assertThatThrownBy(() -> errorDao.insertOrIncrementCount(error))
+                        .isInstanceOf(ConnectionException.class);
+            }
+
+            assertThat(errorDao.getState()).isEqualTo(State.OPEN);
+        }
+
+        @Test
+        void shouldGuardBatchWrites() {
+            delegate.failure = newDataStoreFailure();
+            var errors = List.of(newError("an error"), newError("another error"));
+
+            for (var i = 0; i < 4; i++) {
+                assertThatThrownBy(() -> errorDao.insertOrIncrementCounts(errors))
+                        .isInstanceOf(UncheckedSQLException.class);
+            }
+
+            assertThat(errorDao.getState()).isEqualTo(State.OPEN);
+        }
+
+        @Test
+        void shouldNotGuardReads() {
+            fail(4);
+
+            assertThat(errorDao.countAllErrors()).isZero();
+        }
+    }
+
+    @Nested
+    class WhenOpen {
+
+        @BeforeEach
+        void setUp() {
+            fail(4);
+            delegate.attemptCount = 0;
+        }
+
+        @Test
+        void shouldRejectWrites_WithoutCallingDelegate() {
+            var error = newError("an error");
+
+            assertThatThrownBy(() -> errorDao.insertOrIncrementCount(error))
+                    .isExactlyInstanceOf(CircuitBreakerOpenException.class)
+                    .hasMessage("ApplicationError circuit breaker is OPEN; not performing insertOrIncrementCount");
+
+            assertThat(delegate.attemptCount).isZero();
+        }
+
+        @Test
+        void shouldBecomeHalfOpen_AfterWaitDuration() {
+            nowMillis += WAIT_MILLIS_IN_OPEN_STATE - 1;
+            assertThatThrownBy(() -> errorDao.insertOrIncrementCount(newError("an error")))
+                    .isInstanceOf(CircuitBreakerOpenException.class);
+
+            nowMillis += 1;
+            succeed(1);
+
+            assertThat(errorDao.getState()).isEqualTo(State.HALF_OPEN);
+            assertThat(delegate.attemptCount).isOne();
+        }
+    }
+
+    @Nested
+    class WhenHalfOpen {
+
+        @BeforeEach
+        void setUp() {
+            fail(4);
+            nowMillis += WAIT_MILLIS_IN_OPEN_STATE;
+        }
+
+        @Test
+        void shouldClose_WhenTrialCallsSucceed() {
+            succeed(2);
+
+            assertThat(errorDao.getState()).isEqualTo(State.CLOSED);
+        }
+
+        @Test
+        void shouldOpenAgain_WhenTrialCallsFail() {
+            succeed(1);
+            fail(1);
+
+            assertThat(errorDao.getState()).isEqualTo(State.OPEN);
+            assertThatThrownBy(() -> errorDao.insertOrIncrementCount(newError("an error")))
+                    .isInstanceOf(CircuitBreakerOpenException.class);
+        }
+
+        @Test
+        void shouldRejectWrites_BeyondPermittedTrialCalls() {
+            // The first trial call is still in progress when the others are attempted
+            config.setPermittedCallsInHalfOpenState(1);
+            errorDao = new CircuitBreakingApplicationErrorDao(delegate, config, clock);
+            fail(4);
+            nowMillis += WAIT_MILLIS_IN_OPEN_STATE;
+
+            // Another write is attempted while the only trial write is still in progress
+            delegate.onWrite = () -> {
+                var error = newError("another error");
+                assertThatThrownBy(() -> errorDao.insertOrIncrementCount(error))
+                        .isExactlyInstanceOf(CircuitBreakerOpenException.class)
+                        .hasMessageStartingWith("ApplicationError circuit breaker is HALF_OPEN");
+            };
+
+            succeed(1);
+
+            assertThat(errorDao.getState()).isEqualTo(State.CLOSED);
+        }
+    }
+
+    private void succeed(int count) {
+        for (var i = 0; i < count; i++) {
+            errorDao.insertOrIncrementCount(newError("an error"));
+        }
+    }
+
+    private void fail(int count) {
+        delegate.failure = newDataStoreFailure();
+        for (var i = 0; i < count; i++) {
+            var error = newError("an error");
+            assertThatThrownBy(() -> errorDao.insertOrIncrementCount(error))
+                    .isInstanceOf(UncheckedSQLException.class);
+        }
+        delegate.failure = null;
+    }
+
+    private static RuntimeException newDataStoreFailure() {
+        return new UncheckedSQLException(new SQLException("Unable to acquire a database connection", "08001"));
+    }
+
+    /**
+     * Writes to a real DAO unless given a failure to throw, and advances the clock by the configured delay.
+     */
+    private class UnreliableApplicationErrorDao extends ForwardingApplicationErrorDao {
+
+        RuntimeException failure;
+        long delayMillis;
+        int attemptCount;
+        Runnable onWrite = () -> { };
+
+        UnreliableApplicationErrorDao(ApplicationErrorDao delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public long insertOrIncrementCount(ApplicationError error) {
+            checkAvailable();
+            return delegate().insertOrIncrementCount(error);
+        }
+
+        @Override
+        public List<Long> insertOrIncrementCounts(Collection<ApplicationError> errors) {
+            checkAvailable();
+            return delegate().insertOrIncrementCounts(errors);
+        }
+
+        private void checkAvailable() {
+            ++attemptCount;
+            nowMillis += delayMillis;
+            var callback = onWrite;
+            onWrite = () -> { };
+            callback.run();
+
+            if (nonNull(failure)) {
+                throw failure;
+            }
+        }
+    }
+}
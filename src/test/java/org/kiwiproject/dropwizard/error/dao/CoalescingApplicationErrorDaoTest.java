@@ -0,0 +1,287 @@
+package org.kiwiproject.dropwizard.error.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.kiwiproject.dropwizard.error.util.TestHelpers.newError;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.kiwiproject.dropwizard.error.config.CoalescingConfig;
+import org.kiwiproject.dropwizard.error.dao.jdk.ConcurrentMapApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.model.ApplicationError;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@DisplayName("CoalescingApplicationErrorDao")
+class CoalescingApplicationErrorDaoTest {
+
+    private ConcurrentMapApplicationErrorDao delegate;
+    private CoalescingApplicationErrorDao errorDao;
+
+    @BeforeEach
+    void setUp() {
+        delegate = new ConcurrentMapApplicationErrorDao();
+        errorDao = new CoalescingApplicationErrorDao(delegate);
+    }
+
+    @Nested
+    class InsertOrIncrementCount {
+
+        @Test
+        void shouldWriteFirstOccurrence_Immediately() {
+            var id = errorDao.insertOrIncrementCount(newError("an error", "host-1"));
+
+            assertThat(delegate.getById(id)).isPresent();
+            assertThat(errorDao.getPendingErrorCount()).isOne();
+        }
+
+        @Test
+        void shouldCoalesceDuplicates_IntoPendingCount() {
+            var id = errorDao.insertOrIncrementCount(newError("an error", "host-1"));
+            var id2 = errorDao.insertOrIncrementCount(newError("an error", "host-1"));
+            var id3 = errorDao.insertOrIncrementCount(newError("an error", "host-1"));
+
+            assertThat(id2).isEqualTo(id);
+            assertThat(id3).isEqualTo(id);
+            assertThat(delegate.countAllErrors()).isOne();
+            assertThat(delegate.getById(id).orElseThrow().getNumTimesOccurred()).isOne();
+        }
+
+        @Test
+        void shouldNotCoalesce_ErrorsOnDifferentHosts() {
+            var id = errorDao.insertOrIncrementCount(newError("an error", "host-1"));
+            var id2 = errorDao.insertOrIncrementCount(newError("an error", "host-2"));
+
+            assertThat(id2).isNotEqualTo(id);
+            assertThat(errorDao.getPendingErrorCount()).isEqualTo(2);
+        }
+
+        @Test
+        void shouldNotCoalesce_ErrorsWithDifferentDescriptions() {
+            var id = errorDao.insertOrIncrementCount(newError("an error", "host-1"));
+            var id2 = errorDao.insertOrIncrementCount(newError("another error", "host-1"));
+
+            assertThat(id2).isNotEqualTo(id);
+        }
+
+        @Test
+        void shouldCoalesceBatches_SameAsSingleErrors() {
+            var error = newError("an error", "host-1");
+            var id = errorDao.insertOrIncrementCount(error);
+
+            var ids = errorDao.insertOrIncrementCounts(List.of(error, newError("another error", "host-1"), error));
+
+            assertThat(ids).hasSize(3);
+            assertThat(ids.get(0)).isEqualTo(id);
+            assertThat(ids.get(2)).isEqualTo(id);
+            assertThat(delegate.countAllErrors()).isEqualTo(2);
+            assertThat(errorDao.getPendingErrorCount()).isEqualTo(2);
+        }
+
+        @Test
+        void shouldWriteThrough_AfterStopped() {
+            errorDao.stop();
+
+            errorDao.insertOrIncrementCount(newError("an error", "host-1"));
+
+            assertThat(errorDao.getPendingErrorCount()).isZero();
+            assertThat(delegate.countAllErrors()).isOne();
+        }
+    }
+
+    @Nested
+    class Flush {
+
+        @Test
+        void shouldIncrementByPendingCount_InSingleCall() {
+            var mockDelegate = mock(ApplicationErrorDao.class);
+            when(mockDelegate.incrementCountsIfUnresolved(Map.of(0L, 4))).thenReturn(Set.of(0L));
+            var dao = new CoalescingApplicationErrorDao(mockDelegate);
+
+            var error = newError("an error", "host-1");
+            for (var i = 0; i < 5; i++) {
+                dao.insertOrIncrementCount(error);
+            }
+
+            var flushCount = dao.flush();
+
+            assertThat(flushCount).isOne();
+            verify(mockDelegate).insertOrIncrementCount(error);
+            verify(mockDelegate).incrementCountsIfUnresolved(Map.of(0L, 4));
+            verify(mockDelegate, never()).incrementCount(anyLong());
+            verify(mockDelegate, never()).incrementCount(anyLong(), anyInt());
+        }
+
+        @Test
+        void shouldIncrementAllPendingCounts_InSingleCall() {
+            var id = errorDao.insertOrIncrementCount(newError("an error", "host-1"));
+            var id2 = errorDao.insertOrIncrementCount(newError("another error", "host-1"));
+            errorDao.insertOrIncrementCount(newError("an error", "host-1"));
+            errorDao.insertOrIncrementCount(newError("another error", "host-1"));
+            errorDao.insertOrIncrementCount(newError("another error", "host-1"));
+
+            var flushCount = errorDao.flush();
+
+            assertThat(flushCount).isEqualTo(2);
+            assertThat(delegate.getById(id).orElseThrow().getNumTimesOccurred()).isEqualTo(2);
+            assertThat(delegate.getById(id2).orElseThrow().getNumTimesOccurred()).isEqualTo(3);
+        }
+
+        @Test
+        void shouldUpdateCount_AndStartNewWindow() {
+            var error = newError("an error", "host-1");
+            var id = errorDao.insertOrIncrementCount(error);
+            errorDao.insertOrIncrementCount(error);
+            errorDao.insertOrIncrementCount(error);
+
+            errorDao.flush();
+
+            assertThat(delegate.getById(id).orElseThrow().getNumTimesOccurred()).isEqualTo(3);
+            assertThat(errorDao.getPendingErrorCount()).isZero();
+        }
+
+        @Test
+        void shouldNotIncrement_WhenNoDuplicates() {
+            var mockDelegate = mock(ApplicationErrorDao.class);
+            var dao = new CoalescingApplicationErrorDao(mockDelegate);
+            dao.insertOrIncrementCount(newError("an error", "host-1"));
+
+            assertThat(dao.flush()).isZero();
+            verify(mockDelegate, never()).incrementCountsIfUnresolved(anyMap());
+        }
+
+        @Test
+        void shouldNotIncrement_ErrorsResolvedSinceFirstOccurrence() {
+            var error = newError("an error", "host-1");
+            var id = errorDao.insertOrIncrementCount(error);
+            errorDao.insertOrIncrementCount(error);
+            errorDao.insertOrIncrementCount(error);
+
+            delegate.resolve(id);
+
+            assertThat(errorDao.flush()).isZero();
+            assertThat(delegate.getById(id).orElseThrow().getNumTimesOccurred()).isOne();
+        }
+
+        @Test
+        void shouldRetryOnNextFlush_WhenDelegateThrows() {
+            var mockDelegate = mock(ApplicationErrorDao.class);
+            when(mockDelegate.incrementCountsIfUnresolved(anyMap()))
+                    .thenThrow(new UncheckedIOException(new IOException("connection refused")))
+                    .thenReturn(Set.of(0L));
+            var dao = new CoalescingApplicationErrorDao(mockDelegate);
+
+            var error = newError("an error", "host-1");
+            dao.insertOrIncrementCount(error);
+            dao.insertOrIncrementCount(error);
+
+            assertThat(dao.flush()).isZero();
+            assertThat(dao.getPendingErrorCount()).isZero();
+            assertThat(dao.getFailedErrorCount()).isOne();
+
+            dao.insertOrIncrementCount(error);
+            dao.insertOrIncrementCount(error);
+
+            assertThat(dao.flush()).isOne();
+            assertThat(dao.getFailedErrorCount()).isZero();
+            verify(mockDelegate).incrementCountsIfUnresolved(Map.of(0L, 1));
+            verify(mockDelegate).incrementCountsIfUnresolved(Map.of(0L, 2));
+        }
+
+        @Test
+        void shouldDiscardCounts_AfterMaxFlushAttempts() {
+            var mockDelegate = mock(ApplicationErrorDao.class);
+            when(mockDelegate.incrementCountsIfUnresolved(anyMap()))
+                    .thenThrow(new UncheckedIOException(new IOException("connection refused")));
+            var config = new CoalescingConfig();
+            config.setMaxFlushAttempts(2);
+            var dao = new CoalescingApplicationErrorDao(mockDelegate, config);
+
+            var error = newError("an error", "host-1");
+            dao.insertOrIncrementCount(error);
+            dao.insertOrIncrementCount(error);
+
+            assertThat(dao.flush()).isZero();
+            assertThat(dao.getFailedErrorCount()).isOne();
+
+            assertThat(dao.flush()).isZero();
+            assertThat(dao.getFailedErrorCount()).isZero();
+
+            assertThat(dao.flush()).isZero();
+            verify(mockDelegate, times(2)).incrementCountsIfUnresolved(Map.of(0L, 1));
+        }
+
+        @Test
+        void shouldFlush_WhenStopped() {
+            var error = newError("an error", "host-1");
+            var id = errorDao.insertOrIncrementCount(error);
+            errorDao.insertOrIncrementCount(error);
+
+            errorDao.stop();
+
+            assertThat(delegate.getById(id).orElseThrow().getNumTimesOccurred()).isEqualTo(2);
+        }
+    }
+
+    @Nested
+    class ResolvingAndDeleting {
+
+        private ApplicationErrorDao mockDelegate;
+        private CoalescingApplicationErrorDao dao;
+        private ApplicationError error;
+
+        @BeforeEach
+        void setUp() {
+            mockDelegate = mock(ApplicationErrorDao.class);
+            dao = new CoalescingApplicationErrorDao(mockDelegate);
+            error = newError("an error", "host-1");
+            dao.insertOrIncrementCount(error);
+            dao.insertOrIncrementCount(error);
+        }
+
+        @Test
+        void shouldFlushBeforeResolving() {
+            dao.resolve(0L);
+
+            var inOrder = inOrder(mockDelegate);
+            inOrder.verify(mockDelegate).incrementCountsIfUnresolved(Map.of(0L, 1));
+            inOrder.verify(mockDelegate).resolve(0L);
+        }
+
+        @Test
+        void shouldFlushBeforeResolvingAll() {
+            dao.resolveAllUnresolvedErrors();
+
+            var inOrder = inOrder(mockDelegate);
+            inOrder.verify(mockDelegate).incrementCountsIfUnresolved(Map.of(0L, 1));
+            inOrder.verify(mockDelegate).resolveAllUnresolvedErrors();
+        }
+
+        @Test
+        void shouldFlushBeforeDeleting() {
+            var expirationDate = ZonedDateTime.now();
+            dao.deleteResolvedErrorsBefore(expirationDate);
+            dao.deleteUnresolvedErrorsBefore(expirationDate);
+
+            var inOrder = inOrder(mockDelegate);
+            inOrder.verify(mockDelegate).incrementCountsIfUnresolved(Map.of(0L, 1));
+            inOrder.verify(mockDelegate).deleteResolvedErrorsBefore(expirationDate);
+            inOrder.verify(mockDelegate).deleteUnresolvedErrorsBefore(expirationDate);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package org.kiwiproject.dropwizard.error.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.jdbi.v3.core.ConnectionException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.kiwiproject.jdbc.UncheckedSQLException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+
+@DisplayName("DataStoreFailures")
+class DataStoreFailuresTest {
+
+    @Test
+    void shouldBeTrue_ForConnectionException() {
+        var e = new ConnectionException(new SQLException("connection refused", "08001"));
+
+        assertThat(DataStoreFailures.isDataStoreFailure(e)).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "08001", "08S01", "57P01", "HYT00" })
+    void shouldBeTrue_WhenCauseIsSQLException(String sqlState) {
+        var e = new UncheckedSQLException(new SQLException("database unavailable", sqlState));
+
+        assertThat(DataStoreFailures.isDataStoreFailure(e)).isTrue();
+    }
+
+    @Test
+    void shouldBeTrue_ForSQLExceptionWithoutSqlState() {
+        var e = new UncheckedSQLException(new SQLException("Connection is closed"));
+
+        assertThat(DataStoreFailures.isDataStoreFailure(e)).isTrue();
+    }
+
+    @Test
+    void shouldBeTrue_ForUncheckedIOException() {
+        var e = new UncheckedIOException(new ConnectException("Connection refused"));
+
+        assertThat(DataStoreFailures.isDataStoreFailure(e)).isTrue();
+    }
+
+    @Test
+    void shouldBeTrue_WhenCauseIsIOException() {
+        var e = new RuntimeException(new IOException("Broken pipe"));
+
+        assertThat(DataStoreFailures.isDataStoreFailure(e)).isTrue();
+    }
+
+    @Test
+    void shouldBeTrue_ForCircuitBreakerOpenException() {
+        var e = new CircuitBreakerOpenException("circuit is open");
+
+        assertThat(DataStoreFailures.isDataStoreFailure(e)).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "22001", "23505" })
+    void shouldBeFalse_WhenDataIsRejected(String sqlState) {
+        var e = new UncheckedSQLException(new SQLException("data rejected", sqlState));
+
+        assertThat(DataStoreFailures.isDataStoreFailure(e)).isFalse();
+    }
+
+    @Test
+    void shouldBeFalse_ForSQLIntegrityConstraintViolationException() {
+        var e = new UncheckedSQLException(new SQLIntegrityConstraintViolationException("Duplicate entry"));
+
+        assertThat(DataStoreFailures.isDataStoreFailure(e)).isFalse();
+    }
+
+    @Test
+    void shouldBeFalse_ForOtherExceptions() {
+        assertThat(DataStoreFailures.isDataStoreFailure(new IllegalStateException("No ApplicationError found")))
+                .isFalse();
+        assertThat(DataStoreFailures.isDataStoreFailure(new IllegalArgumentException("error must not be null")))
+                .isFalse();
+    }
+
+    @Test
+    void shouldBeFalse_ForNull() {
+        assertThat(DataStoreFailures.isDataStoreFailure(null)).isFalse();
+    }
+}
@@ -0,0 +1,171 @@
+package org.kiwiproject.dropwizard.error.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.kiwiproject.dropwizard.error.util.TestHelpers.newError;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.kiwiproject.dropwizard.error.dao.jdk.ConcurrentMapApplicationErrorDao;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+
+@DisplayName("InstrumentedApplicationErrorDao")
+class InstrumentedApplicationErrorDaoTest {
+
+    private ConcurrentMapApplicationErrorDao delegate;
+    private MetricRegistry metrics;
+    private InstrumentedApplicationErrorDao errorDao;
+
+    @BeforeEach
+    void setUp() {
+        delegate = new ConcurrentMapApplicationErrorDao();
+        metrics = new MetricRegistry();
+        errorDao = new InstrumentedApplicationErrorDao(delegate, metrics);
+    }
+
+    @Test
+    void shouldRequireMetrics() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new InstrumentedApplicationErrorDao(delegate, null))
+                .withMessage("metrics must not be null");
+    }
+
+    @Test
+    void shouldRegisterMeters() {
+        assertThat(metrics.getMeters()).containsOnlyKeys(
+                InstrumentedApplicationErrorDao.INSERTS_METRIC,
+                InstrumentedApplicationErrorDao.INCREMENTS_METRIC,
+                InstrumentedApplicationErrorDao.INSERTS_OR_INCREMENTS_METRIC);
+    }
+
+    @Nested
+    class Timers {
+
+        @Test
+        void shouldTimeEachCall() {
+            var id = errorDao.insertError(newError("an error"));
+            errorDao.getById(id);
+            errorDao.getById(id);
+            errorDao.countUnresolvedErrors();
+
+            assertThat(timerCount("insertError")).isOne();
+            assertThat(timerCount("getById")).isEqualTo(2);
+            assertThat(timerCount("countUnresolvedErrors")).isOne();
+        }
+
+        @Test
+        void shouldShareTimer_ForOverloadedMethods() {
+            var expirationDate = ZonedDateTime.now();
+            errorDao.deleteResolvedErrorsBefore(expirationDate);
+            errorDao.deleteResolvedErrorsBefore(expirationDate, 100);
+
+            assertThat(timerCount("deleteResolvedErrorsBefore")).isEqualTo(2);
+        }
+
+        @Test
+        void shouldNotRegisterTimers_ForMethodsNotCalled() {
+            errorDao.countAllErrors();
+
+            assertThat(metrics.getTimers())
+                    .containsOnlyKeys(InstrumentedApplicationErrorDao.timerName("countAllErrors"));
+        }
+
+        @Test
+        void shouldReturnResultOfDelegate() {
+            var id = errorDao.insertError(newError("an error"));
+
+            assertThat(errorDao.getById(id)).contains(delegate.getById(id).orElseThrow());
+            assertThat(errorDao.countAllErrors()).isOne();
+        }
+    }
+
+    @Nested
+    class Failures {
+
+        @Test
+        void shouldCountFailures_AndRethrow() {
+            var mockDelegate = mock(ApplicationErrorDao.class);
+            doThrow(new IllegalStateException("no error with id 42")).when(mockDelegate).incrementCount(42);
+            var dao = new InstrumentedApplicationErrorDao(mockDelegate, metrics);
+
+            assertThatIllegalStateException()
+                    .isThrownBy(() -> dao.incrementCount(42))
+                    .withMessage("no error with id 42");
+
+            assertThat(failureCount("incrementCount")).isOne();
+            assertThat(timerCount("incrementCount")).isOne();
+            assertThat(meterCount(InstrumentedApplicationErrorDao.INCREMENTS_METRIC)).isZero();
+        }
+
+        @Test
+        void shouldNotCountFailures_WhenSuccessful() {
+            errorDao.countAllErrors();
+
+            assertThat(failureCount("countAllErrors")).isZero();
+        }
+    }
+
+    @Nested
+    class Meters {
+
+        @Test
+        void shouldMarkInserts() {
+            errorDao.insertError(newError("an error"));
+            errorDao.insertErrors(List.of(newError("another error"), newError("yet another error")));
+
+            assertThat(meterCount(InstrumentedApplicationErrorDao.INSERTS_METRIC)).isEqualTo(3);
+        }
+
+        @Test
+        void shouldMarkIncrements() {
+            var id = errorDao.insertError(newError("an error"));
+            var id2 = errorDao.insertError(newError("another error"));
+
+            errorDao.incrementCount(id);
+            errorDao.incrementCount(id, 3);
+            errorDao.incrementCounts(Map.of(id, 2, id2, 4));
+
+            assertThat(meterCount(InstrumentedApplicationErrorDao.INCREMENTS_METRIC)).isEqualTo(10);
+        }
+
+        @Test
+        void shouldMarkIncrements_OnlyWhenIncrementedIfUnresolved() {
+            var id = errorDao.insertError(newError("an error"));
+            errorDao.incrementCountIfUnresolved(id);
+            errorDao.resolve(id);
+            errorDao.incrementCountIfUnresolved(id);
+
+            assertThat(meterCount(InstrumentedApplicationErrorDao.INCREMENTS_METRIC)).isOne();
+        }
+
+        @Test
+        void shouldMarkInsertsOrIncrements() {
+            var error = newError("an error");
+            errorDao.insertOrIncrementCount(error);
+            errorDao.insertOrIncrementCounts(List.of(newError("another error"), newError("yet another error")));
+
+            assertThat(meterCount(InstrumentedApplicationErrorDao.INSERTS_OR_INCREMENTS_METRIC)).isEqualTo(3);
+        }
+    }
+
+    private long timerCount(String operation) {
+        return metrics.timer(InstrumentedApplicationErrorDao.timerName(operation)).getCount();
+    }
+
+    private long failureCount(String operation) {
+        return metrics.counter(InstrumentedApplicationErrorDao.failuresName(operation)).getCount();
+    }
+
+    private long meterCount(String name) {
+        return metrics.meter(name).getCount();
+    }
+}
@@ -0,0 +1,168 @@
+package org.kiwiproject.dropwizard.error.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.kiwiproject.dropwizard.error.util.TestHelpers.newError;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.kiwiproject.dropwizard.error.dao.jdk.ConcurrentMapApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.health.SlidingWindowErrorCounter;
+import org.kiwiproject.dropwizard.error.model.ApplicationError;
+import org.kiwiproject.dropwizard.error.model.ApplicationError.Resolved;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+@DisplayName("RecentErrorCountingApplicationErrorDao")
+class RecentErrorCountingApplicationErrorDaoTest {
+
+    private ConcurrentMapApplicationErrorDao delegate;
+    private SlidingWindowErrorCounter counter;
+    private RecentErrorCountingApplicationErrorDao errorDao;
+
+    @BeforeEach
+    void setUp() {
+        delegate = new ConcurrentMapApplicationErrorDao();
+        counter = new SlidingWindowErrorCounter(Duration.ofMinutes(15));
+        errorDao = new RecentErrorCountingApplicationErrorDao(delegate, counter);
+    }
+
+    @Test
+    void shouldRequireCounter() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new RecentErrorCountingApplicationErrorDao(delegate, null));
+    }
+
+    @Nested
+    class Recording {
+
+        @Test
+        void shouldCountInsertedErrors() {
+            var id = errorDao.insertError(newError("an error"));
+
+            assertThat(delegate.getById(id)).isPresent();
+            assertThat(counter.count()).isOne();
+        }
+
+        @Test
+        void shouldNotCountResolvedErrors() {
+            errorDao.insertError(newResolvedError(null, "an error"));
+
+            assertThat(counter.count()).isZero();
+        }
+
+        @Test
+        void shouldCountEachErrorOnce_WhenInsertingOrIncrementing() {
+            var id = errorDao.insertOrIncrementCount(newError("an error"));
+            var id2 = errorDao.insertOrIncrementCount(delegate.getById(id).orElseThrow());
+
+            assertThat(id2).isEqualTo(id);
+            assertThat(delegate.getById(id).orElseThrow().getNumTimesOccurred()).isEqualTo(2);
+            assertThat(counter.count()).isOne();
+        }
+
+        @Test
+        void shouldCountEachErrorOnce_WhenIncrementing() {
+            var id = errorDao.insertError(newError("an error"));
+
+            errorDao.incrementCount(id);
+            errorDao.incrementCount(id, 3);
+
+            assertThat(delegate.getById(id).orElseThrow().getNumTimesOccurred()).isEqualTo(5);
+            assertThat(counter.count()).isOne();
+        }
+
+        @Test
+        void shouldCountEachErrorOnce_InBatches() {
+            var ids = errorDao.insertErrors(List.of(newError("an error"), newError("another error")));
+            errorDao.incrementCounts(Map.of(ids.get(0), 2, ids.get(1), 3));
+            var error = newError("a third error");
+            errorDao.insertOrIncrementCounts(List.of(error, error));
+
+            assertThat(counter.count()).isEqualTo(3);
+        }
+
+        @Test
+        void shouldCountErrorsByFingerprint_WhenIdIsPending() {
+            var pendingDelegate = mock(ApplicationErrorDao.class);
+            when(pendingDelegate.insertOrIncrementCount(any(ApplicationError.class)))
+                    .thenReturn(ApplicationErrorDao.PENDING_ID);
+            var pendingErrorDao = new RecentErrorCountingApplicationErrorDao(pendingDelegate, counter);
+
+            pendingErrorDao.insertOrIncrementCount(newError("an error"));
+            pendingErrorDao.insertOrIncrementCount(newError("an error"));
+            pendingErrorDao.insertOrIncrementCount(newError("another error"));
+
+            assertThat(counter.count()).isEqualTo(2);
+        }
+    }
+
+    @Nested
+    class Resolving {
+
+        @Test
+        void shouldRemoveResolvedError() {
+            var id = errorDao.insertOrIncrementCount(newError("an error"));
+            errorDao.insertOrIncrementCount(delegate.getById(id).orElseThrow());
+            errorDao.insertOrIncrementCount(newError("another error"));
+
+            var resolvedError = errorDao.resolve(id);
+
+            assertThat(resolvedError.isResolved()).isTrue();
+            assertThat(counter.count()).isOne();
+        }
+
+        @Test
+        void shouldRemoveResolvedError_RecordedWhileIdWasPending() {
+            var pendingDelegate = mock(ApplicationErrorDao.class);
+            when(pendingDelegate.insertOrIncrementCount(any(ApplicationError.class)))
+                    .thenReturn(ApplicationErrorDao.PENDING_ID);
+            when(pendingDelegate.resolve(42L)).thenReturn(newResolvedError(42L, "an error"));
+            var pendingErrorDao = new RecentErrorCountingApplicationErrorDao(pendingDelegate, counter);
+            pendingErrorDao.insertOrIncrementCount(newError("an error"));
+
+            pendingErrorDao.resolve(42L);
+
+            assertThat(counter.count()).isZero();
+            verify(pendingDelegate, never()).getById(anyLong());
+        }
+
+        @Test
+        void shouldNotQueryTheError() {
+            var spyDelegate = spy(delegate);
+            var spyErrorDao = new RecentErrorCountingApplicationErrorDao(spyDelegate, counter);
+            var id = spyErrorDao.insertOrIncrementCount(newError("an error"));
+
+            spyErrorDao.resolve(id);
+
+            assertThat(counter.count()).isZero();
+            verify(spyDelegate, never()).getById(anyLong());
+        }
+
+        @Test
+        void shouldResetCount_WhenResolvingAllErrors() {
+            errorDao.insertOrIncrementCount(newError("an error"));
+            errorDao.insertOrIncrementCount(newError("another error"));
+
+            var count = errorDao.resolveAllUnresolvedErrors();
+
+            assertThat(count).isEqualTo(2);
+            assertThat(counter.count()).isZero();
+        }
+    }
+
+    private static ApplicationError newResolvedError(Long id, String description) {
+        return ApplicationError.newError(description, Resolved.YES, "host-1", "127.0.0.1", 8080, null).withId(id);
+    }
+}
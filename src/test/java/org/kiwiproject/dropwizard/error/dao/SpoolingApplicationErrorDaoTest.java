@@ -0,0 +1,379 @@
+package org.kiwiproject.dropwizard.error.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.kiwiproject.dropwizard.error.util.TestHelpers.newError;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.kiwiproject.dropwizard.error.config.SpoolConfig;
+import org.kiwiproject.dropwizard.error.dao.jdk.ApplicationErrorSpool;
+import org.kiwiproject.dropwizard.error.dao.jdk.ConcurrentMapApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.model.ApplicationError;
+import org.kiwiproject.jdbc.UncheckedSQLException;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@DisplayName("SpoolingApplicationErrorDao")
+class SpoolingApplicationErrorDaoTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ConcurrentMapApplicationErrorDao store;
+    private UnreliableApplicationErrorDao delegate;
+    private SpoolingApplicationErrorDao errorDao;
+
+    @BeforeEach
+    void setUp() {
+        store = new ConcurrentMapApplicationErrorDao();
+        delegate = new UnreliableApplicationErrorDao(store);
+        errorDao = newSpoolingDao();
+    }
+
+    @AfterEach
+    void tearDown() {
+        errorDao.stop();
+    }
+
+    private SpoolingApplicationErrorDao newSpoolingDao() {
+        var config = new SpoolConfig();
+        config.setPath(tempDir.resolve("application-errors.spool").toString());
+        config.setReplayBatchSize(2);
+        return new SpoolingApplicationErrorDao(delegate, config);
+    }
+
+    @Test
+    void shouldRequireValidConfig() {
+        var config = new SpoolConfig();
+
+        assertThatIllegalArgumentException().isThrownBy(() -> new SpoolingApplicationErrorDao(delegate, config));
+    }
+
+    @Nested
+    class InsertOrIncrementCount {
+
+        @Test
+        void shouldWriteToDelegate_WhenItIsAvailable() {
+            var id = errorDao.insertOrIncrementCount(newError("an error"));
+
+            assertThat(id).isNotEqualTo(ApplicationErrorDao.PENDING_ID);
+            assertThat(store.getById(id)).isPresent();
+            assertThat(errorDao.getSpooledErrorCount()).isZero();
+        }
+
+        @Test
+        void shouldSpoolError_WhenDelegateFails() {
+            delegate.available = false;
+
+            var id = errorDao.insertOrIncrementCount(newError("an error"));
+
+            assertThat(id).isEqualTo(ApplicationErrorDao.PENDING_ID);
+            assertThat(errorDao.getSpooledErrorCount()).isOne();
+            assertThat(store.countAllErrors()).isZero();
+        }
+
+        @Test
+        void shouldSpoolError_WithoutTryingDelegate_WhenSpoolIsNotEmpty() {
+            delegate.available = false;
+            errorDao.insertOrIncrementCount(newError("an error"));
+            delegate.available = true;
+            delegate.attemptCount = 0;
+
+            var id = errorDao.insertOrIncrementCount(newError("another error"));
+
+            assertThat(id).isEqualTo(ApplicationErrorDao.PENDING_ID);
+            assertThat(delegate.attemptCount).isZero();
+            assertThat(errorDao.getSpooledErrorCount()).isEqualTo(2);
+        }
+
+        @Test
+        void shouldRejectError_WhenSpoolIsFull() {
+            errorDao.stop();
+            var spool = new ApplicationErrorSpool(tempDir.resolve("small.spool"), 1_024, false);
+            errorDao = new SpoolingApplicationErrorDao(delegate, spool, 10);
+            delegate.available = false;
+
+            var error = newError("an error");
+            assertThatIllegalStateException().isThrownBy(() -> {
+                for (var i = 0; i < 100; i++) {
+                    errorDao.insertOrIncrementCount(error);
+                }
+            }).withMessageContaining("is full");
+        }
+
+        @Test
+        void shouldWriteDirectlyToDelegate_AfterStopping() {
+            errorDao.stop();
+            delegate.available = false;
+
+            var error = newError("an error");
+            assertThatThrownBy(() -> errorDao.insertOrIncrementCount(error)).isInstanceOf(UncheckedSQLException.class);
+        }
+
+        @Test
+        void shouldNotSpoolError_ThatIsRejected() {
+            delegate.rejectedDescriptions.add("bad error");
+
+            var error = newError("bad error");
+            assertThatThrownBy(() -> errorDao.insertOrIncrementCount(error)).isInstanceOf(UncheckedSQLException.class);
+
+            assertThat(errorDao.getSpooledErrorCount()).isZero();
+        }
+    }
+
+    @Nested
+    class InsertOrIncrementCounts {
+
+        @Test
+        void shouldWriteToDelegate_WhenItIsAvailable() {
+            var ids = errorDao.insertOrIncrementCounts(List.of(newError("an error"), newError("another error")));
+
+            assertThat(ids).doesNotContain(ApplicationErrorDao.PENDING_ID);
+            assertThat(store.countAllErrors()).isEqualTo(2);
+        }
+
+        @Test
+        void shouldSpoolAllErrors_WhenDelegateFails() {
+            delegate.available = false;
+
+            var ids = errorDao.insertOrIncrementCounts(List.of(newError("an error"), newError("another error")));
+
+            assertThat(ids).containsExactly(ApplicationErrorDao.PENDING_ID,
+                    ApplicationErrorDao.PENDING_ID);
+            assertThat(errorDao.getSpooledErrorCount()).isEqualTo(2);
+        }
+
+        @Test
+        void shouldSpoolAllErrors_WhenSpoolIsNotEmpty() {
+            delegate.available = false;
+            errorDao.insertOrIncrementCount(newError("an error"));
+            delegate.available = true;
+
+            var ids = errorDao.insertOrIncrementCounts(List.of(newError("error 2"), newError("error 3")));
+
+            assertThat(ids).containsOnly(ApplicationErrorDao.PENDING_ID);
+            assertThat(errorDao.getSpooledErrorCount()).isEqualTo(3);
+            assertThat(store.countAllErrors()).isZero();
+        }
+
+        @Test
+        void shouldNotSpoolErrors_ThatAreRejected() {
+            delegate.rejectedDescriptions.add("bad error");
+
+            var errors = List.of(newError("an error"), newError("bad error"));
+            assertThatThrownBy(() -> errorDao.insertOrIncrementCounts(errors))
+                    .isInstanceOf(UncheckedSQLException.class);
+
+            assertThat(errorDao.getSpooledErrorCount()).isZero();
+        }
+    }
+
+    @Nested
+    class ReplaySpooledErrors {
+
+        @Test
+        void shouldDoNothing_WhenSpoolIsEmpty() {
+            assertThat(errorDao.replaySpooledErrors()).isZero();
+        }
+
+        @Test
+        void shouldReplayAllErrors_InOrder_WhenDelegateRecovers() {
+            delegate.available = false;
+            errorDao.insertOrIncrementCount(newError("error 1"));
+            errorDao.insertOrIncrementCount(newError("error 2"));
+            errorDao.insertOrIncrementCount(newError("error 3"));
+            delegate.available = true;
+
+            assertThat(errorDao.replaySpooledErrors()).isEqualTo(3);
+
+            assertThat(errorDao.getSpooledErrorCount()).isZero();
+            assertThat(delegate.writtenDescriptions).containsExactly("error 1", "error 2", "error 3");
+        }
+
+        @Test
+        void shouldReplayEachOccurrence_OfDuplicateErrors() {
+            delegate.available = false;
+            errorDao.insertOrIncrementCount(newError("an error"));
+            errorDao.insertOrIncrementCount(newError("an error"));
+            delegate.available = true;
+
+            assertThat(errorDao.replaySpooledErrors()).isEqualTo(2);
+
+            // The delegate, not the spool, is responsible for incrementing the count of an existing error
+            assertThat(delegate.writtenDescriptions).containsExactly("an error", "an error");
+        }
+
+        @Test
+        void shouldKeepCreatedAt_OfReplayedErrors() {
+            var oneHourAgo = ZonedDateTime.now(ZoneOffset.UTC).minusHours(1).truncatedTo(ChronoUnit.MILLIS);
+            var error = ApplicationError.builder()
+                    .createdAt(oneHourAgo)
+                    .updatedAt(oneHourAgo)
+                    .description("error 1")
+                    .hostName("host-1")
+                    .ipAddress("127.0.0.1")
+                    .port(8080)
+                    .build();
+            delegate.available = false;
+            errorDao.insertOrIncrementCount(error);
+            delegate.available = true;
+
+            errorDao.replaySpooledErrors();
+
+            assertThat(store.getAllErrors(1, 10))
+                    .extracting(ApplicationError::getCreatedAt)
+                    .containsExactly(oneHourAgo);
+        }
+
+        @Test
+        void shouldDiscardError_ThatIsRejected_AtEndOfBatch() {
+            delegate.available = false;
+            errorDao.insertOrIncrementCount(newError("error 1"));
+            errorDao.insertOrIncrementCount(newError("error 2"));
+            errorDao.insertOrIncrementCount(newError("bad error"));
+            errorDao.insertOrIncrementCount(newError("error 4"));
+            delegate.available = true;
+            delegate.rejectedDescriptions.add("bad error");
+
+            assertThat(errorDao.replaySpooledErrors()).isEqualTo(3);
+
+            assertThat(errorDao.getSpooledErrorCount()).isZero();
+            assertThat(delegate.writtenDescriptions).containsExactly("error 1", "error 2", "error 4");
+        }
+
+        @Test
+        void shouldKeepErrors_WhenDelegateIsStillUnavailable() {
+            delegate.available = false;
+            errorDao.insertOrIncrementCount(newError("error 1"));
+            errorDao.insertOrIncrementCount(newError("error 2"));
+
+            assertThat(errorDao.replaySpooledErrors()).isZero();
+
+            assertThat(errorDao.getSpooledErrorCount()).isEqualTo(2);
+        }
+
+        @Test
+        void shouldKeepError_WhenOnlyErrorCannotBeWritten() {
+            delegate.available = false;
+            errorDao.insertOrIncrementCount(newError("error 1"));
+
+            assertThat(errorDao.replaySpooledErrors()).isZero();
+
+            assertThat(errorDao.getSpooledErrorCount()).isOne();
+        }
+
+        @Test
+        void shouldKeepErrors_StartingWithError_ThatCannotBeWritten_WhenDataStoreFailsDuringReplay() {
+            delegate.available = false;
+            errorDao.insertOrIncrementCount(newError("error 1"));
+            errorDao.insertOrIncrementCount(newError("error 2"));
+            errorDao.insertOrIncrementCount(newError("error 3"));
+            delegate.available = true;
+            delegate.unavailableDescriptions.add("error 2");
+
+            assertThat(errorDao.replaySpooledErrors()).isOne();
+
+            assertThat(errorDao.getSpooledErrorCount()).isEqualTo(2);
+            assertThat(delegate.writtenDescriptions).containsExactly("error 1");
+
+            delegate.unavailableDescriptions.clear();
+
+            assertThat(errorDao.replaySpooledErrors()).isEqualTo(2);
+
+            assertThat(errorDao.getSpooledErrorCount()).isZero();
+            assertThat(delegate.writtenDescriptions).containsExactly("error 1", "error 2", "error 3");
+        }
+
+        @Test
+        void shouldDiscardError_ThatIsRejected() {
+            delegate.available = false;
+            errorDao.insertOrIncrementCount(newError("error 1"));
+            errorDao.insertOrIncrementCount(newError("bad error"));
+            errorDao.insertOrIncrementCount(newError("error 3"));
+            delegate.available = true;
+            delegate.rejectedDescriptions.add("bad error");
+
+            assertThat(errorDao.replaySpooledErrors()).isEqualTo(2);
+
+            assertThat(errorDao.getSpooledErrorCount()).isZero();
+            assertThat(delegate.writtenDescriptions).containsExactly("error 1", "error 3");
+        }
+
+        @Test
+        void shouldReplayErrors_SpooledBeforeRestarting() {
+            delegate.available = false;
+            errorDao.insertOrIncrementCount(newError("error 1"));
+            errorDao.stop();
+            delegate.available = true;
+
+            errorDao = newSpoolingDao();
+
+            assertThat(errorDao.getSpooledErrorCount()).isOne();
+            assertThat(errorDao.replaySpooledErrors()).isOne();
+            assertThat(delegate.writtenDescriptions).containsExactly("error 1");
+        }
+
+        @Test
+        void shouldNotReplay_AfterStopping() {
+            delegate.available = false;
+            errorDao.insertOrIncrementCount(newError("error 1"));
+            delegate.available = true;
+            errorDao.stop();
+
+            assertThat(errorDao.replaySpooledErrors()).isZero();
+        }
+    }
+
+    /**
+     * Writes to a real DAO, unless made unavailable, or given an error whose description it rejects or for which it
+     * is unavailable.
+     */
+    private static class UnreliableApplicationErrorDao extends ForwardingApplicationErrorDao {
+
+        boolean available = true;
+        int attemptCount;
+        final Set<String> rejectedDescriptions = new HashSet<>();
+        final Set<String> unavailableDescriptions = new HashSet<>();
+        final List<String> writtenDescriptions = new ArrayList<>();
+
+        UnreliableApplicationErrorDao(ApplicationErrorDao delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public long insertOrIncrementCount(ApplicationError error) {
+            ++attemptCount;
+            if (!available || unavailableDescriptions.contains(error.getDescription())) {
+                throw new UncheckedSQLException(new SQLException("Unable to acquire a database connection", "08001"));
+            }
+
+            if (rejectedDescriptions.contains(error.getDescription())) {
+                throw new UncheckedSQLException(new SQLException("Value too long for column", "22001"));
+            }
+
+            writtenDescriptions.add(error.getDescription());
+            return delegate().insertOrIncrementCount(error);
+        }
+
+        @Override
+        public List<Long> insertOrIncrementCounts(Collection<ApplicationError> errors) {
+            return errors.stream().map(this::insertOrIncrementCount).toList();
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package org.kiwiproject.dropwizard.error.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.kiwiproject.dropwizard.error.config.AsyncWriteConfig;
+import org.kiwiproject.dropwizard.error.dao.jdk.ConcurrentMapApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.model.ApplicationError;
+import org.kiwiproject.dropwizard.error.test.junit.jupiter.ApplicationErrorExtension;
+
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@DisplayName("WriteBehindApplicationErrorDao")
+@ExtendWith(ApplicationErrorExtension.class)
+class WriteBehindApplicationErrorDaoTest {
+
+    private ConcurrentMapApplicationErrorDao delegate;
+    private AsyncWriteConfig config;
+    private WriteBehindApplicationErrorDao errorDao;
+
+    @BeforeEach
+    void setUp() {
+        delegate = new ConcurrentMapApplicationErrorDao();
+        config = new AsyncWriteConfig();
+        config.setQueueCapacity(5);
+        errorDao = new WriteBehindApplicationErrorDao(delegate, config);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        errorDao.stop();
+    }
+
+    @Test
+    void shouldValidateConfig() {
+        config.setQueueCapacity(0);
+
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new WriteBehindApplicationErrorDao(delegate, config));
+    }
+
+    @Nested
+    class InsertOrIncrementCount {
+
+        @Test
+        void shouldQueueErrors_AndReturnPendingId() {
+            var id = errorDao.insertOrIncrementCount(ApplicationError.newUnresolvedError("an error"));
+
+            assertThat(id).isEqualTo(ApplicationErrorDao.PENDING_ID);
+            assertThat(errorDao.getQueuedErrorCount()).isOne();
+            assertThat(delegate.countAllErrors()).isZero();
+        }
+
+        @Test
+        void shouldThrowIllegalStateException_WhenQueueIsFull() {
+            for (var i = 0; i < config.getQueueCapacity(); i++) {
+                errorDao.insertOrIncrementCount(ApplicationError.newUnresolvedError("error " + i));
+            }
+
+            var error = ApplicationError.newUnresolvedError("one too many");
+            assertThatIllegalStateException()
+                    .isThrownBy(() -> errorDao.insertOrIncrementCount(error))
+                    .withMessageContaining("queue is full");
+        }
+
+        @Test
+        void shouldWriteThrough_AfterStopped() throws InterruptedException {
+            errorDao.start();
+            errorDao.stop();
+
+            var id = errorDao.insertOrIncrementCount(ApplicationError.newUnresolvedError("an error"));
+
+            assertThat(id).isNotEqualTo(ApplicationErrorDao.PENDING_ID);
+            assertThat(delegate.getById(id)).isPresent();
+        }
+    }
+
+    @Nested
+    class Lifecycle {
+
+        @Test
+        void shouldWriteAllQueuedErrors_WhenStopped() throws InterruptedException {
+            errorDao.insertOrIncrementCount(ApplicationError.newUnresolvedError("error 1"));
+            errorDao.insertOrIncrementCount(ApplicationError.newUnresolvedError("error 2"));
+            errorDao.insertOrIncrementCount(ApplicationError.newUnresolvedError("error 3"));
+
+            errorDao.start();
+            errorDao.stop();
+
+            assertThat(errorDao.getQueuedErrorCount()).isZero();
+            assertThat(delegate.countAllErrors()).isEqualTo(3);
+        }
+
+        @Test
+        void shouldWriteQueuedErrors_WhenStoppedWithoutBeingStarted() throws InterruptedException {
+            errorDao.insertOrIncrementCount(ApplicationError.newUnresolvedError("error 1"));
+
+            errorDao.stop();
+
+            assertThat(delegate.countAllErrors()).isOne();
+        }
+
+        @Test
+        void shouldWriteQueuedErrors_InBatches() throws InterruptedException {
+            var mockDelegate = mock(ApplicationErrorDao.class);
+            config.setMaxBatchSize(2);
+            var dao = new WriteBehindApplicationErrorDao(mockDelegate, config);
+
+            var error1 = ApplicationError.newUnresolvedError("error 1");
+            var error2 = ApplicationError.newUnresolvedError("error 2");
+            var error3 = ApplicationError.newUnresolvedError("error 3");
+            dao.insertOrIncrementCount(error1);
+            dao.insertOrIncrementCount(error2);
+            dao.insertOrIncrementCount(error3);
+            dao.stop();
+
+            verify(mockDelegate).insertOrIncrementCounts(List.of(error1, error2));
+            verify(mockDelegate).insertOrIncrementCounts(List.of(error3));
+            verify(mockDelegate, never()).insertOrIncrementCount(any(ApplicationError.class));
+        }
+
+        @Test
+        void shouldContinueWriting_WhenDelegateThrows() throws InterruptedException {
+            var failingDelegate = mock(ApplicationErrorDao.class);
+            when(failingDelegate.insertOrIncrementCounts(anyCollection()))
+                    .thenThrow(new RuntimeException("database is down"))
+                    .thenReturn(List.of(42L));
+            config.setMaxBatchSize(1);
+            var dao = new WriteBehindApplicationErrorDao(failingDelegate, config);
+
+            dao.insertOrIncrementCount(ApplicationError.newUnresolvedError("error 1"));
+            dao.insertOrIncrementCount(ApplicationError.newUnresolvedError("error 2"));
+            dao.start();
+            dao.stop();
+
+            verify(failingDelegate, times(2)).insertOrIncrementCounts(anyCollection());
+            assertThat(dao.getQueuedErrorCount()).isZero();
+        }
+
+        @Test
+        void shouldWriteEachErrorSeparately_WhenWritingBatchFails() throws InterruptedException {
+            var badError = ApplicationError.newUnresolvedError("bad error");
+            var failingDelegate = new ConcurrentMapApplicationErrorDao() {
+                @Override
+                public long insertOrIncrementCount(ApplicationError error) {
+                    if (error == badError) {
+                        throw new IllegalArgumentException("bad error");
+                    }
+                    return super.insertOrIncrementCount(error);
+                }
+
+                @Override
+                public List<Long> insertOrIncrementCounts(Collection<ApplicationError> errors) {
+                    if (errors.contains(badError)) {
+                        throw new IllegalArgumentException("batch contains bad error");
+                    }
+                    return super.insertOrIncrementCounts(errors);
+                }
+            };
+            var dao = new WriteBehindApplicationErrorDao(failingDelegate, config);
+
+            dao.insertOrIncrementCount(ApplicationError.newUnresolvedError("error 1"));
+            dao.insertOrIncrementCount(badError);
+            dao.insertOrIncrementCount(ApplicationError.newUnresolvedError("error 3"));
+            dao.stop();
+
+            assertThat(failingDelegate.countAllErrors()).isEqualTo(2);
+            assertThat(failingDelegate.getUnresolvedErrorsByDescription("error 1")).hasSize(1);
+            assertThat(failingDelegate.getUnresolvedErrorsByDescription("error 3")).hasSize(1);
+        }
+    }
+
+    @Nested
+    class OtherMethods {
+
+        @Test
+        void shouldDelegateSynchronously() {
+            var mockDelegate = mock(ApplicationErrorDao.class);
+            when(mockDelegate.countUnresolvedErrors()).thenReturn(7L);
+            var dao = new WriteBehindApplicationErrorDao(mockDelegate, config);
+
+            assertThat(dao.countUnresolvedErrors()).isEqualTo(7);
+            verify(mockDelegate).countUnresolvedErrors();
+        }
+
+        @Test
+        void shouldNotQueueDeletes() {
+            var mockDelegate = mock(ApplicationErrorDao.class);
+            var dao = new WriteBehindApplicationErrorDao(mockDelegate, config);
+            var expirationDate = ZonedDateTime.now();
+
+            dao.deleteResolvedErrorsBefore(expirationDate);
+
+            verify(mockDelegate).deleteResolvedErrorsBefore(expirationDate);
+            assertThat(dao.getQueuedErrorCount()).isZero();
+        }
+    }
+
+    @Test
+    void shouldRequireDelegate() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new WriteBehindApplicationErrorDao(null, config));
+    }
+}
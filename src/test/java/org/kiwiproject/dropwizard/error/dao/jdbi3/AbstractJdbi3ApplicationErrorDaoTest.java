@@ -1,16 +1,25 @@
 package org.kiwiproject.dropwizard.error.dao.jdbi3;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.kiwiproject.test.jdbi.Jdbi3GeneratedKeys.executeAndGenerateId;
 
 import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
 import org.jdbi.v3.core.Handle;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.kiwiproject.dropwizard.error.dao.AbstractApplicationErrorDaoTest;
+import org.kiwiproject.dropwizard.error.dao.ApplicationErrorJdbc;
+import org.kiwiproject.dropwizard.error.dao.ApplicationErrorStatus;
+import org.kiwiproject.dropwizard.error.dao.StackTraceCompression;
 import org.kiwiproject.dropwizard.error.model.ApplicationError;
 import org.kiwiproject.dropwizard.error.test.junit.jupiter.ApplicationErrorExtension;
 import org.kiwiproject.test.junit.jupiter.Jdbi3DaoExtension;
 
+import java.io.IOException;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 import java.util.Objects;
 
 /**
@@ -45,8 +54,9 @@ abstract class AbstractJdbi3ApplicationErrorDaoTest extends AbstractApplicationE
     protected long insertApplicationError(ApplicationError error) {
         var sql = "INSERT INTO application_errors"
                 + " (description, created_at, updated_at, exception_type, exception_message, exception_cause_type,"
-                + " exception_cause_message, stack_trace, resolved, host_name, ip_address, port)"
-                + " VALUES (?,?,?,?,?,?,?,?,?,?,?,?)";
+                + " exception_cause_message, stack_trace, resolved, host_name, ip_address, port, fingerprint,"
+                + " unresolved_key)"
+                + " VALUES (?,?,?,?,?,?,?,?,?,?,?,?,?,?)";
         var update = handle.createUpdate(sql)
                 .bind(0, error.getDescription())
                 .bind(1, error.getCreatedAt())
@@ -59,7 +69,9 @@ abstract class AbstractJdbi3ApplicationErrorDaoTest extends AbstractApplicationE
                 .bind(8, error.isResolved())
                 .bind(9, error.getHostName())
                 .bind(10, error.getIpAddress())
-                .bind(11, error.getPort());
+                .bind(11, error.getPort())
+                .bind(12, error.getFingerprint())
+                .bind(13, error.isResolved() ? null : ApplicationErrorJdbc.unresolvedKeyOf(error));
         return executeAndGenerateId(update, "id");
     }
 
@@ -70,12 +82,198 @@ abstract class AbstractJdbi3ApplicationErrorDaoTest extends AbstractApplicationE
 
     @Override
     protected ApplicationError getErrorOrThrow(long id) {
-        return handle.createQuery("select * from application_errors where id = ?")
+        return handle.createQuery(ApplicationErrorJdbc.SELECT_ERRORS_SQL + " where e.id = ?")
                 .bind(0, id)
                 .map(new Jdbi3ApplicationErrorRowMapper())
                 .one();
     }
 
+    @Nested
+    class InsertOrIncrementCountUsingUnresolvedKey {
+
+        @Test
+        void shouldIncrementExistingError_HavingSameDescriptionAndHost() {
+            var id = getErrorDao().insertOrIncrementCount(newUnresolvedError("Upsert error", "host-1"));
+            var id2 = getErrorDao().insertOrIncrementCount(newUnresolvedError("Upsert error", "host-1"));
+            var id3 = getErrorDao().insertOrIncrementCount(newUnresolvedError("Upsert error", "host-1"));
+
+            assertThat(id2).isEqualTo(id);
+            assertThat(id3).isEqualTo(id);
+            assertThat(getErrorOrThrow(id).getNumTimesOccurred()).isEqualTo(3);
+            assertThat(countApplicationErrors()).isOne();
+        }
+
+        @Test
+        void shouldInsertNewError_WhenHostIsDifferent() {
+            var id = getErrorDao().insertOrIncrementCount(newUnresolvedError("Upsert error", "host-1"));
+            var id2 = getErrorDao().insertOrIncrementCount(newUnresolvedError("Upsert error", "host-2"));
+
+            assertThat(id2).isNotEqualTo(id);
+            assertThat(countApplicationErrors()).isEqualTo(2);
+        }
+
+        @Test
+        void shouldInsertNewError_WhenExceptionTypeIsDifferent() {
+            var id = getErrorDao().insertOrIncrementCount(
+                    newUnresolvedError("Upsert error", "host-1", new IOException("I/O error")));
+            var id2 = getErrorDao().insertOrIncrementCount(
+                    newUnresolvedError("Upsert error", "host-1", new IllegalStateException("illegal state")));
+
+            assertThat(id2).isNotEqualTo(id);
+            assertThat(countApplicationErrors()).isEqualTo(2);
+        }
+
+        @Test
+        void shouldStoreFingerprint() {
+            var error = newUnresolvedError("Upsert error", "host-1");
+            var id = getErrorDao().insertOrIncrementCount(error);
+
+            assertThat(getErrorOrThrow(id).getFingerprint()).isEqualTo(error.getFingerprint());
+        }
+
+        @Test
+        void shouldInsertNewError_WhenExistingErrorIsResolved() {
+            var id = getErrorDao().insertOrIncrementCount(newUnresolvedError("Upsert error", "host-1"));
+            getErrorDao().resolve(id);
+
+            var id2 = getErrorDao().insertOrIncrementCount(newUnresolvedError("Upsert error", "host-1"));
+
+            assertThat(id2).isNotEqualTo(id);
+            assertThat(getErrorOrThrow(id).getNumTimesOccurred()).isOne();
+            assertThat(getErrorOrThrow(id2).getNumTimesOccurred()).isOne();
+        }
+
+        @Test
+        void shouldInsertNewErrors_AfterResolvingAll() {
+            var id = getErrorDao().insertOrIncrementCount(newUnresolvedError("Upsert error", "host-1"));
+            getErrorDao().resolveAllUnresolvedErrors();
+
+            var id2 = getErrorDao().insertOrIncrementCount(newUnresolvedError("Upsert error", "host-1"));
+
+            assertThat(id2).isNotEqualTo(id);
+        }
+
+        private static ApplicationError newUnresolvedError(String description, String hostName) {
+            return newUnresolvedError(description, hostName, null);
+        }
+
+        private static ApplicationError newUnresolvedError(String description,
+                                                           String hostName,
+                                                           Throwable throwable) {
+            return ApplicationError.newUnresolvedError(description, hostName, "10.0.0.1", 8080, throwable);
+        }
+    }
+
+    @Nested
+    class StackTraceDeduplication {
+
+        @Test
+        void shouldStoreIdenticalStackTracesOnce() {
+            var stackTrace = "java.io.IOException: oops\n\tat Example.main(Example.java:42)";
+            var id = getErrorDao().insertError(newErrorWithStackTrace("error 1", stackTrace));
+            var id2 = getErrorDao().insertError(newErrorWithStackTrace("error 2", stackTrace));
+            var id3 = getErrorDao().insertOrIncrementCount(newErrorWithStackTrace("error 3", stackTrace));
+
+            assertThat(countStackTraces()).isOne();
+            assertThat(getErrorDao().getById(id).orElseThrow().getStackTrace()).isEqualTo(stackTrace);
+            assertThat(getErrorDao().getById(id2).orElseThrow().getStackTrace()).isEqualTo(stackTrace);
+            assertThat(getErrorDao().getById(id3).orElseThrow().getStackTrace()).isEqualTo(stackTrace);
+        }
+
+        @Test
+        void shouldNotStoreNullStackTraces() {
+            var id = getErrorDao().insertError(newErrorWithStackTrace("error 1", null));
+
+            assertThat(countStackTraces()).isZero();
+            assertThat(getErrorDao().getById(id).orElseThrow().getStackTrace()).isNull();
+        }
+
+        @Test
+        void shouldDeleteUnusedStackTraces() {
+            var id = getErrorDao().insertError(newErrorWithStackTrace("error 1", "stack trace 1"));
+            getErrorDao().insertError(newErrorWithStackTrace("error 2", "stack trace 2"));
+            // Delete directly, since comparing timestamps differs among databases, e.g. SQLite stores them as text
+            handle.execute("delete from application_errors where id = ?", id);
+            handle.createUpdate("update application_error_stack_traces set last_used_at = :lastUsedAt")
+                    .bind("lastUsedAt", ZonedDateTime.now(ZoneOffset.UTC).minusDays(1))
+                    .execute();
+
+            assertThat(getErrorDao().deleteUnusedStackTraces()).isOne();
+            assertThat(countStackTraces()).isOne();
+        }
+
+        @Test
+        void shouldDeleteUnusedStackTraces_UpToLimit() {
+            var id = getErrorDao().insertError(newErrorWithStackTrace("error 1", "stack trace 1"));
+            var id2 = getErrorDao().insertError(newErrorWithStackTrace("error 2", "stack trace 2"));
+            getErrorDao().insertError(newErrorWithStackTrace("error 3", "stack trace 3"));
+            handle.execute("delete from application_errors where id in (?, ?)", id, id2);
+            handle.createUpdate("update application_error_stack_traces set last_used_at = :lastUsedAt")
+                    .bind("lastUsedAt", ZonedDateTime.now(ZoneOffset.UTC).minusDays(1))
+                    .execute();
+
+            assertThat(getErrorDao().deleteUnusedStackTraces(1)).isOne();
+            assertThat(getErrorDao().deleteUnusedStackTraces(1)).isOne();
+            assertThat(getErrorDao().deleteUnusedStackTraces(1)).isZero();
+            assertThat(countStackTraces()).isOne();
+        }
+
+        @Test
+        void shouldNotDeleteUnusedStackTraces_ThatWereRecentlyUsed() {
+            var id = getErrorDao().insertError(newErrorWithStackTrace("error 1", "stack trace 1"));
+            handle.execute("delete from application_errors where id = ?", id);
+
+            assertThat(getErrorDao().deleteUnusedStackTraces()).isZero();
+            assertThat(countStackTraces()).isOne();
+        }
+
+        @Test
+        void shouldNotStoreStackTrace_WhenIncrementingCount() {
+            var id = getErrorDao().insertOrIncrementCount(newErrorWithStackTrace("error 1", "stack trace 1"));
+            var id2 = getErrorDao().insertOrIncrementCount(newErrorWithStackTrace("error 1", "stack trace 2"));
+
+            assertThat(id2).isEqualTo(id);
+            assertThat(countStackTraces()).isOne();
+            assertThat(getErrorDao().getById(id).orElseThrow().getStackTrace()).isEqualTo("stack trace 1");
+        }
+
+        @Test
+        void shouldStoreCompressedStackTraces() {
+            var stackTrace = "java.io.IOException: oops\n" + "\tat Example.main(Example.java:42)\n".repeat(100);
+            handle.getConfig(Jdbi3ApplicationErrorConfig.class).setStackTraceCompression(StackTraceCompression.DEFLATE);
+
+            // The configuration is copied when a DAO is attached, so attach a new one
+            var errorDao = handle.attach(Jdbi3ApplicationErrorDao.class);
+            var id = errorDao.insertError(newErrorWithStackTrace("error 1", stackTrace));
+
+            assertThat(countCompressedStackTraces()).isOne();
+            assertThat(errorDao.getById(id).orElseThrow().getStackTrace()).isEqualTo(stackTrace);
+            assertThat(errorDao.getErrorSummaries(ApplicationErrorStatus.ALL, 1, 10)).hasSize(1);
+        }
+
+        private static ApplicationError newErrorWithStackTrace(String description, String stackTrace) {
+            return ApplicationError.builder()
+                    .description(description)
+                    .exceptionType("java.io.IOException")
+                    .stackTrace(stackTrace)
+                    .hostName("host-1")
+                    .ipAddress("10.0.0.1")
+                    .port(8080)
+                    .build();
+        }
+
+        private long countCompressedStackTraces() {
+            return handle.createQuery("select count(*) from application_error_stack_traces" +
+                            " where stack_trace is null and compressed_stack_trace is not null")
+                    .mapTo(Long.class)
+                    .one();
+        }
+
+        private long countStackTraces() {
+            return handle.createQuery("select count(*) from application_error_stack_traces").mapTo(Long.class).one();
+        }
+    }
+
     /**
      * This should return the same instance every time it is called.
      */
@@ -1,23 +1,31 @@
 package org.kiwiproject.dropwizard.error.dao.jdk;
 
 import static com.google.common.base.Preconditions.checkState;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.kiwiproject.jdbc.KiwiJdbc.nextOrThrow;
 import static org.kiwiproject.jdbc.KiwiJdbc.timestampFromZonedDateTime;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.kiwiproject.dropwizard.error.dao.AbstractApplicationErrorDaoTest;
 import org.kiwiproject.dropwizard.error.dao.ApplicationErrorJdbc;
+import org.kiwiproject.dropwizard.error.dao.ApplicationErrorStatus;
+import org.kiwiproject.dropwizard.error.dao.StackTraceCompression;
 import org.kiwiproject.dropwizard.error.model.ApplicationError;
 import org.kiwiproject.dropwizard.error.test.junit.jupiter.ApplicationErrorExtension;
 import org.kiwiproject.jdbc.UncheckedSQLException;
 import org.kiwiproject.test.jdbc.SimpleSingleConnectionDataSource;
 
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 
 /**
  * Base test class for testing {@link JdbcApplicationErrorDao}. Used to test against different databases, currently
@@ -57,8 +65,9 @@ public abstract class AbstractJdbcApplicationErrorDaoTest extends AbstractApplic
     protected long insertApplicationError(ApplicationError error) {
         var sql = "INSERT INTO application_errors"
                 + " (description, created_at, updated_at, exception_type, exception_message, exception_cause_type,"
-                + " exception_cause_message, stack_trace, resolved, host_name, ip_address, port)"
-                + " VALUES (?,?,?,?,?,?,?,?,?,?,?,?)";
+                + " exception_cause_message, stack_trace, resolved, host_name, ip_address, port, fingerprint,"
+                + " unresolved_key)"
+                + " VALUES (?,?,?,?,?,?,?,?,?,?,?,?,?,?)";
 
         try (var conn = connection(); var ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
@@ -74,6 +83,8 @@ public abstract class AbstractJdbcApplicationErrorDaoTest extends AbstractApplic
             ps.setString(10, error.getHostName());
             ps.setString(11, error.getIpAddress());
             ps.setInt(12, error.getPort());
+            ps.setString(13, error.getFingerprint());
+            ps.setString(14, error.isResolved() ? null : ApplicationErrorJdbc.unresolvedKeyOf(error));
 
             var count = ps.executeUpdate();
             checkState(count == 1);
@@ -104,7 +115,7 @@ public abstract class AbstractJdbcApplicationErrorDaoTest extends AbstractApplic
     @Override
     protected ApplicationError getErrorOrThrow(long id) {
         try (var conn = connection();
-             var ps = conn.prepareStatement("select * from application_errors where id  = ?")) {
+             var ps = conn.prepareStatement(ApplicationErrorJdbc.SELECT_ERRORS_SQL + " where e.id = ?")) {
 
             ps.setLong(1, id);
 
@@ -117,6 +128,222 @@ public abstract class AbstractJdbcApplicationErrorDaoTest extends AbstractApplic
         }
     }
 
+    @Nested
+    class InsertOrIncrementCountUsingUnresolvedKey {
+
+        @Test
+        void shouldIncrementExistingError_HavingSameDescriptionAndHost() {
+            var id = getErrorDao().insertOrIncrementCount(newUnresolvedError("Upsert error", "host-1"));
+            var id2 = getErrorDao().insertOrIncrementCount(newUnresolvedError("Upsert error", "host-1"));
+            var id3 = getErrorDao().insertOrIncrementCount(newUnresolvedError("Upsert error", "host-1"));
+
+            assertThat(id2).isEqualTo(id);
+            assertThat(id3).isEqualTo(id);
+            assertThat(getErrorOrThrow(id).getNumTimesOccurred()).isEqualTo(3);
+            assertThat(countApplicationErrors()).isOne();
+        }
+
+        @Test
+        void shouldInsertNewError_WhenHostIsDifferent() {
+            var id = getErrorDao().insertOrIncrementCount(newUnresolvedError("Upsert error", "host-1"));
+            var id2 = getErrorDao().insertOrIncrementCount(newUnresolvedError("Upsert error", "host-2"));
+
+            assertThat(id2).isNotEqualTo(id);
+            assertThat(countApplicationErrors()).isEqualTo(2);
+        }
+
+        @Test
+        void shouldInsertNewError_WhenExceptionTypeIsDifferent() {
+            var id = getErrorDao().insertOrIncrementCount(
+                    newUnresolvedError("Upsert error", "host-1", new IOException("I/O error")));
+            var id2 = getErrorDao().insertOrIncrementCount(
+                    newUnresolvedError("Upsert error", "host-1", new IllegalStateException("illegal state")));
+
+            assertThat(id2).isNotEqualTo(id);
+            assertThat(countApplicationErrors()).isEqualTo(2);
+        }
+
+        @Test
+        void shouldStoreFingerprint() {
+            var error = newUnresolvedError("Upsert error", "host-1");
+            var id = getErrorDao().insertOrIncrementCount(error);
+
+            assertThat(getErrorOrThrow(id).getFingerprint()).isEqualTo(error.getFingerprint());
+        }
+
+        @Test
+        void shouldInsertNewError_WhenExistingErrorIsResolved() {
+            var id = getErrorDao().insertOrIncrementCount(newUnresolvedError("Upsert error", "host-1"));
+            getErrorDao().resolve(id);
+
+            var id2 = getErrorDao().insertOrIncrementCount(newUnresolvedError("Upsert error", "host-1"));
+
+            assertThat(id2).isNotEqualTo(id);
+            assertThat(getErrorOrThrow(id).getNumTimesOccurred()).isOne();
+            assertThat(getErrorOrThrow(id2).getNumTimesOccurred()).isOne();
+        }
+
+        @Test
+        void shouldInsertNewErrors_AfterResolvingAll() {
+            var id = getErrorDao().insertOrIncrementCount(newUnresolvedError("Upsert error", "host-1"));
+            getErrorDao().resolveAllUnresolvedErrors();
+
+            var id2 = getErrorDao().insertOrIncrementCount(newUnresolvedError("Upsert error", "host-1"));
+
+            assertThat(id2).isNotEqualTo(id);
+        }
+
+        private static ApplicationError newUnresolvedError(String description, String hostName) {
+            return newUnresolvedError(description, hostName, null);
+        }
+
+        private static ApplicationError newUnresolvedError(String description,
+                                                           String hostName,
+                                                           Throwable throwable) {
+            return ApplicationError.newUnresolvedError(description, hostName, "10.0.0.1", 8080, throwable);
+        }
+    }
+
+    @Nested
+    class StackTraceDeduplication {
+
+        @Test
+        void shouldStoreIdenticalStackTracesOnce() {
+            var stackTrace = "java.io.IOException: oops\n\tat Example.main(Example.java:42)";
+            var id = getErrorDao().insertError(newErrorWithStackTrace("error 1", stackTrace));
+            var id2 = getErrorDao().insertError(newErrorWithStackTrace("error 2", stackTrace));
+            var id3 = getErrorDao().insertOrIncrementCount(newErrorWithStackTrace("error 3", stackTrace));
+
+            assertThat(countStackTraces()).isOne();
+            assertThat(getErrorDao().getById(id).orElseThrow().getStackTrace()).isEqualTo(stackTrace);
+            assertThat(getErrorDao().getById(id2).orElseThrow().getStackTrace()).isEqualTo(stackTrace);
+            assertThat(getErrorDao().getById(id3).orElseThrow().getStackTrace()).isEqualTo(stackTrace);
+        }
+
+        @Test
+        void shouldNotStoreNullStackTraces() {
+            var id = getErrorDao().insertError(newErrorWithStackTrace("error 1", null));
+
+            assertThat(countStackTraces()).isZero();
+            assertThat(getErrorDao().getById(id).orElseThrow().getStackTrace()).isNull();
+        }
+
+        @Test
+        void shouldDeleteUnusedStackTraces() {
+            var id = getErrorDao().insertError(newErrorWithStackTrace("error 1", "stack trace 1"));
+            getErrorDao().insertError(newErrorWithStackTrace("error 2", "stack trace 2"));
+            // Delete directly, since comparing timestamps differs among databases, e.g. SQLite stores them as text
+            deleteError(id);
+            setStackTracesLastUsedAt(ZonedDateTime.now(ZoneOffset.UTC).minusDays(1));
+
+            assertThat(getErrorDao().deleteUnusedStackTraces()).isOne();
+            assertThat(countStackTraces()).isOne();
+        }
+
+        @Test
+        void shouldDeleteUnusedStackTraces_UpToLimit() {
+            var id = getErrorDao().insertError(newErrorWithStackTrace("error 1", "stack trace 1"));
+            var id2 = getErrorDao().insertError(newErrorWithStackTrace("error 2", "stack trace 2"));
+            getErrorDao().insertError(newErrorWithStackTrace("error 3", "stack trace 3"));
+            deleteError(id);
+            deleteError(id2);
+            setStackTracesLastUsedAt(ZonedDateTime.now(ZoneOffset.UTC).minusDays(1));
+
+            assertThat(getErrorDao().deleteUnusedStackTraces(1)).isOne();
+            assertThat(getErrorDao().deleteUnusedStackTraces(1)).isOne();
+            assertThat(getErrorDao().deleteUnusedStackTraces(1)).isZero();
+            assertThat(countStackTraces()).isOne();
+        }
+
+        @Test
+        void shouldNotDeleteUnusedStackTraces_ThatWereRecentlyUsed() {
+            var id = getErrorDao().insertError(newErrorWithStackTrace("error 1", "stack trace 1"));
+            deleteError(id);
+
+            assertThat(getErrorDao().deleteUnusedStackTraces()).isZero();
+            assertThat(countStackTraces()).isOne();
+        }
+
+        @Test
+        void shouldNotStoreStackTrace_WhenIncrementingCount() {
+            var id = getErrorDao().insertOrIncrementCount(newErrorWithStackTrace("error 1", "stack trace 1"));
+            var id2 = getErrorDao().insertOrIncrementCount(newErrorWithStackTrace("error 1", "stack trace 2"));
+
+            assertThat(id2).isEqualTo(id);
+            assertThat(countStackTraces()).isOne();
+            assertThat(getErrorDao().getById(id).orElseThrow().getStackTrace()).isEqualTo("stack trace 1");
+        }
+
+        @Test
+        void shouldStoreCompressedStackTraces() {
+            var stackTrace = "java.io.IOException: oops\n" + "\tat Example.main(Example.java:42)\n".repeat(100);
+            var compressingErrorDao = new JdbcApplicationErrorDao(getDataSource(), StackTraceCompression.DEFLATE);
+
+            var id = compressingErrorDao.insertError(newErrorWithStackTrace("error 1", stackTrace));
+
+            assertThat(countCompressedStackTraces()).isOne();
+            assertThat(getErrorDao().getById(id).orElseThrow().getStackTrace()).isEqualTo(stackTrace);
+            assertThat(getErrorDao().getErrorSummaries(ApplicationErrorStatus.ALL, 1, 10)).hasSize(1);
+        }
+
+        private static ApplicationError newErrorWithStackTrace(String description, String stackTrace) {
+            return ApplicationError.builder()
+                    .description(description)
+                    .exceptionType("java.io.IOException")
+                    .stackTrace(stackTrace)
+                    .hostName("host-1")
+                    .ipAddress("10.0.0.1")
+                    .port(8080)
+                    .build();
+        }
+
+        private long countCompressedStackTraces() {
+            var sql = "select count(*) from application_error_stack_traces" +
+                    " where stack_trace is null and compressed_stack_trace is not null";
+
+            try (var conn = connection(); var stmt = conn.createStatement(); var rs = stmt.executeQuery(sql)) {
+                nextOrThrow(rs);
+                return rs.getLong(1);
+            } catch (SQLException e) {
+                throw new UncheckedSQLException(e);
+            }
+        }
+
+        private void deleteError(long id) {
+            try (var conn = connection(); var ps = conn.prepareStatement("delete from application_errors where id = ?")) {
+                ps.setLong(1, id);
+                ps.executeUpdate();
+            } catch (SQLException e) {
+                throw new UncheckedSQLException(e);
+            }
+        }
+
+        private void setStackTracesLastUsedAt(ZonedDateTime lastUsedAt) {
+            try (var conn = connection();
+                 var ps = conn.prepareStatement("update application_error_stack_traces set last_used_at = ?")) {
+
+                ps.setTimestamp(1, timestampFromZonedDateTime(lastUsedAt));
+                ps.executeUpdate();
+
+            } catch (SQLException e) {
+                throw new UncheckedSQLException(e);
+            }
+        }
+
+        private long countStackTraces() {
+            try (var conn = connection();
+                 var stmt = conn.createStatement();
+                 var rs = stmt.executeQuery("select count(*) from application_error_stack_traces")) {
+
+                nextOrThrow(rs);
+                return rs.getLong(1);
+
+            } catch (SQLException e) {
+                throw new UncheckedSQLException(e);
+            }
+        }
+    }
+
     protected Connection connection() throws SQLException {
         return getDataSource().getConnection();
     }
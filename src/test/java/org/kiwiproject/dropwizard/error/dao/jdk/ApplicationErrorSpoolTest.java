@@ -0,0 +1,339 @@
+package org.kiwiproject.dropwizard.error.dao.jdk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.kiwiproject.dropwizard.error.util.TestHelpers.newDetailedError;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.kiwiproject.dropwizard.error.dao.jdk.ApplicationErrorSpool.SpooledError;
+import org.kiwiproject.dropwizard.error.model.ApplicationError;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.IntStream;
+
+@DisplayName("ApplicationErrorSpool")
+class ApplicationErrorSpoolTest {
+
+    private static final long MAX_SIZE_IN_BYTES = 64 * 1_024;
+    private static final long HEADER_BYTES = 2 * Long.BYTES;
+
+    @TempDir
+    Path tempDir;
+
+    private Path spoolFile;
+    private ApplicationErrorSpool spool;
+
+    @BeforeEach
+    void setUp() {
+        spoolFile = tempDir.resolve("application-errors.spool");
+        spool = new ApplicationErrorSpool(spoolFile, MAX_SIZE_IN_BYTES, true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        spool.close();
+    }
+
+    @Test
+    void shouldBeEmpty_WhenCreated() {
+        assertThat(spool.isEmpty()).isTrue();
+        assertThat(spool.size()).isZero();
+        assertThat(spool.peek(10)).isEmpty();
+        assertThat(spoolFile).hasSize(HEADER_BYTES);
+    }
+
+    @Nested
+    class AppendingAndPeeking {
+
+        @Test
+        void shouldPeekErrors_InOrder() {
+            var error1 = newDetailedError("error 1");
+            var error2 = newDetailedError("error 2");
+            var error3 = newDetailedError("error 3");
+
+            spool.append(error1);
+            spool.appendAll(List.of(error2, error3));
+
+            assertThat(spool.size()).isEqualTo(3);
+            assertThat(spool.peek(10))
+                    .extracting(SpooledError::error)
+                    .containsExactly(error1, error2, error3);
+        }
+
+        @Test
+        void shouldPeekAtMost_MaxErrors() {
+            spool.appendAll(List.of(
+                    newDetailedError("error 1"), newDetailedError("error 2"), newDetailedError("error 3")));
+
+            assertThat(spool.peek(2))
+                    .extracting(spooled -> spooled.error().getDescription())
+                    .containsExactly("error 1", "error 2");
+        }
+
+        @Test
+        void shouldNotRemoveErrors_WhenPeeking() {
+            spool.append(newDetailedError("an error"));
+
+            assertThat(spool.peek(10)).hasSize(1);
+            assertThat(spool.peek(10)).hasSize(1);
+        }
+
+        @Test
+        void shouldPreserveNullProperties() {
+            var error = ApplicationError.builder()
+                    .description("an error")
+                    .numTimesOccurred(1)
+                    .hostName("host-1")
+                    .ipAddress("127.0.0.1")
+                    .port(8080)
+                    .build();
+
+            spool.append(error);
+
+            assertThat(spool.peek(1)).extracting(SpooledError::error).containsExactly(error);
+        }
+
+        @Test
+        void shouldRejectErrors_WhenFull() {
+            spool.close();
+            spool = new ApplicationErrorSpool(spoolFile, 1_024, true);
+
+            var error = newDetailedError("an error");
+            var appendedCount = 0;
+            while (appendedCount < 100) {
+                try {
+                    spool.append(error);
+                    ++appendedCount;
+                } catch (IllegalStateException e) {
+                    assertThat(e).hasMessageContaining("is full");
+                    break;
+                }
+            }
+
+            assertThat(appendedCount).isPositive().isLessThan(100);
+            assertThat(spool.size()).isEqualTo(appendedCount);
+            assertThat(spool.sizeInBytes()).isLessThanOrEqualTo(1_024);
+        }
+
+        @Test
+        void shouldRejectAllErrors_InBatch_WhenTheyDoNotFit() {
+            spool.close();
+            spool = new ApplicationErrorSpool(spoolFile, 1_024, true);
+
+            var errors = IntStream.rangeClosed(1, 10).mapToObj(i -> newDetailedError("error " + i)).toList();
+            assertThatIllegalStateException().isThrownBy(() -> spool.appendAll(errors));
+
+            assertThat(spool.isEmpty()).isTrue();
+        }
+    }
+
+    @Nested
+    class Discarding {
+
+        @Test
+        void shouldRemoveErrors_ThroughEndOffset() {
+            spool.appendAll(List.of(
+                    newDetailedError("error 1"), newDetailedError("error 2"), newDetailedError("error 3")));
+            var peeked = spool.peek(2);
+
+            spool.discardThrough(peeked.get(1).endOffset());
+
+            assertThat(spool.size()).isOne();
+            assertThat(spool.peek(10))
+                    .extracting(spooled -> spooled.error().getDescription())
+                    .containsExactly("error 3");
+        }
+
+        @Test
+        void shouldIgnoreEndOffset_AlreadyDiscarded() {
+            spool.appendAll(List.of(newDetailedError("error 1"), newDetailedError("error 2")));
+            var peeked = spool.peek(2);
+            spool.discardThrough(peeked.get(0).endOffset());
+
+            spool.discardThrough(peeked.get(0).endOffset());
+
+            assertThat(spool.size()).isOne();
+        }
+
+        @Test
+        void shouldTruncateFile_WhenEmpty() {
+            spool.appendAll(List.of(newDetailedError("error 1"), newDetailedError("error 2")));
+            var peeked = spool.peek(10);
+
+            spool.discardThrough(peeked.get(1).endOffset());
+
+            assertThat(spool.isEmpty()).isTrue();
+            assertThat(spool.sizeInBytes()).isEqualTo(HEADER_BYTES);
+            assertThat(spoolFile).hasSize(HEADER_BYTES);
+        }
+    }
+
+    @Nested
+    class Compacting {
+
+        @BeforeEach
+        void setUp() {
+            spool.close();
+            spool = new ApplicationErrorSpool(spoolFile, 1_024, true);
+        }
+
+        @Test
+        void shouldReclaimSpaceOfDiscardedErrors_WhenFull() {
+            var appendedCount = appendUntilFull();
+            var peeked = spool.peek(2);
+            spool.discardThrough(peeked.get(1).endOffset());
+
+            spool.append(newDetailedError("new error"));
+
+            assertThat(spool.size()).isEqualTo(appendedCount - 1);
+            assertThat(spool.sizeInBytes()).isLessThanOrEqualTo(1_024);
+            assertThat(spoolFile).hasSize(spool.sizeInBytes());
+            assertThat(spool.peek(appendedCount))
+                    .extracting(spooled -> spooled.error().getDescription())
+                    .startsWith("error 3")
+                    .endsWith("new error");
+        }
+
+        @Test
+        void shouldDiscardErrors_PeekedBeforeCompacting() {
+            appendUntilFull();
+            var peeked = spool.peek(3);
+            spool.discardThrough(peeked.get(1).endOffset());
+            spool.append(newDetailedError("new error"));
+
+            spool.discardThrough(peeked.get(2).endOffset());
+
+            assertThat(spool.peek(1))
+                    .extracting(spooled -> spooled.error().getDescription())
+                    .containsExactly("error 4");
+        }
+
+        @Test
+        void shouldRestoreCompactedErrors_WhenReopened() {
+            var appendedCount = appendUntilFull();
+            spool.discardThrough(spool.peek(2).get(1).endOffset());
+            spool.append(newDetailedError("new error"));
+
+            spool.close();
+            spool = new ApplicationErrorSpool(spoolFile, 1_024, true);
+
+            assertThat(spool.size()).isEqualTo(appendedCount - 1);
+            assertThat(spool.peek(1))
+                    .extracting(spooled -> spooled.error().getDescription())
+                    .containsExactly("error 3");
+        }
+
+        private int appendUntilFull() {
+            var appendedCount = 0;
+            while (true) {
+                try {
+                    spool.append(newDetailedError("error " + (appendedCount + 1)));
+                    ++appendedCount;
+                } catch (IllegalStateException e) {
+                    return appendedCount;
+                }
+            }
+        }
+    }
+
+    @Nested
+    class Reopening {
+
+        @Test
+        void shouldRestoreErrors_NotDiscarded() {
+            spool.appendAll(List.of(
+                    newDetailedError("error 1"), newDetailedError("error 2"), newDetailedError("error 3")));
+            spool.discardThrough(spool.peek(1).get(0).endOffset());
+
+            reopen();
+
+            assertThat(spool.peek(10))
+                    .extracting(spooled -> spooled.error().getDescription())
+                    .containsExactly("error 2", "error 3");
+        }
+
+        @Test
+        void shouldAppendAfterRestoredErrors() {
+            spool.append(newDetailedError("error 1"));
+
+            reopen();
+            spool.append(newDetailedError("error 2"));
+
+            assertThat(spool.peek(10))
+                    .extracting(spooled -> spooled.error().getDescription())
+                    .containsExactly("error 1", "error 2");
+        }
+
+        @Test
+        void shouldDiscardPartiallyWrittenRecord() throws IOException {
+            spool.append(newDetailedError("error 1"));
+            spool.close();
+
+            // Write a record length followed by a record that is not all there
+            try (var channel = FileChannel.open(spoolFile, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.allocate(8).putInt(100).putInt(42).flip(), channel.size());
+            }
+
+            reopen();
+            spool.append(newDetailedError("error 2"));
+
+            assertThat(spool.peek(10))
+                    .extracting(spooled -> spooled.error().getDescription())
+                    .containsExactly("error 1", "error 2");
+        }
+
+        @Test
+        void shouldDiscardRecord_WithInvalidChecksum() throws IOException {
+            spool.append(newDetailedError("error 1"));
+            var sizeAfterFirstError = spool.sizeInBytes();
+            spool.append(newDetailedError("error 2"));
+            spool.close();
+
+            // Overwrite the checksum at the end of the second record
+            try (var channel = FileChannel.open(spoolFile, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.allocate(4).putInt(42).flip(), channel.size() - Integer.BYTES);
+            }
+
+            reopen();
+
+            assertThat(spool.size()).isOne();
+            assertThat(spool.sizeInBytes()).isEqualTo(sizeAfterFirstError);
+        }
+
+        @Test
+        void shouldNotOpenFile_ThatIsNotAnApplicationErrorSpool() throws IOException {
+            var otherFile = Files.writeString(tempDir.resolve("other.txt"), "this is not a spool file");
+
+            assertThatThrownBy(() -> new ApplicationErrorSpool(otherFile, MAX_SIZE_IN_BYTES, true))
+                    .isExactlyInstanceOf(UncheckedIOException.class)
+                    .hasMessageContaining("other.txt");
+        }
+
+        private void reopen() {
+            spool.close();
+            spool = new ApplicationErrorSpool(spoolFile, MAX_SIZE_IN_BYTES, false);
+        }
+    }
+
+    @Test
+    void shouldNotAllowChanges_AfterClosing() {
+        spool.close();
+
+        var error = newDetailedError("an error");
+        assertThatIllegalStateException().isThrownBy(() -> spool.append(error));
+        assertThatIllegalStateException().isThrownBy(() -> spool.peek(10));
+    }
+}
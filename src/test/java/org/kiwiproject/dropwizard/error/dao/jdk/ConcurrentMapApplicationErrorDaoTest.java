@@ -1,23 +1,39 @@
 package org.kiwiproject.dropwizard.error.dao.jdk;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 import static org.assertj.core.api.Assertions.within;
+import static org.kiwiproject.collect.KiwiLists.last;
 
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.util.DataSize;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
+import org.kiwiproject.dropwizard.error.config.InMemoryCapacityConfig;
+import org.kiwiproject.dropwizard.error.config.InMemoryCapacityConfig.EvictionPolicy;
 import org.kiwiproject.dropwizard.error.dao.AbstractApplicationErrorDaoTest;
 import org.kiwiproject.dropwizard.error.dao.ApplicationErrorStatus;
 import org.kiwiproject.dropwizard.error.model.ApplicationError;
+import org.kiwiproject.dropwizard.error.model.ApplicationErrorCursor;
 import org.kiwiproject.test.junit.jupiter.ClearBoxTest;
 
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
 
 @DisplayName("ConcurrentMapApplicationErrorDao")
 class ConcurrentMapApplicationErrorDaoTest extends AbstractApplicationErrorDaoTest<ConcurrentMapApplicationErrorDao> {
@@ -39,7 +55,7 @@ class ConcurrentMapApplicationErrorDaoTest extends AbstractApplicationErrorDaoTe
     @Override
     protected long insertApplicationError(ApplicationError error) {
         var id = ID_GENERATOR.incrementAndGet();
-        concurrentMapErrorDao.errors.put(id, error.withId(id));
+        concurrentMapErrorDao.put(error.withId(id));
         return id;
     }
 
@@ -69,6 +85,388 @@ class ConcurrentMapApplicationErrorDaoTest extends AbstractApplicationErrorDaoTe
         }
     }
 
+    @Nested
+    class Indexes {
+
+        @Test
+        void shouldMaintainCounts_AsErrorsChangeStatus_AndAreDeleted() {
+            var id1 = concurrentMapErrorDao.insertError(newError("error 1", "host-1", 0));
+            var id2 = concurrentMapErrorDao.insertError(newError("error 2", "host-1", 0));
+            concurrentMapErrorDao.insertError(newError("error 3", "host-1", 0));
+            concurrentMapErrorDao.incrementCount(id1, 2);
+
+            concurrentMapErrorDao.resolve(id1);
+            concurrentMapErrorDao.resolve(id2);
+
+            assertThat(concurrentMapErrorDao.countResolvedErrors()).isEqualTo(2);
+            assertThat(concurrentMapErrorDao.countUnresolvedErrors()).isOne();
+
+            var deletedCount = concurrentMapErrorDao.deleteResolvedErrorsBefore(
+                    ZonedDateTime.now(ZoneOffset.UTC).plusMinutes(1));
+
+            assertThat(deletedCount).isEqualTo(2);
+            assertThat(concurrentMapErrorDao.countResolvedErrors()).isZero();
+            assertThat(concurrentMapErrorDao.countUnresolvedErrors()).isOne();
+            assertThat(concurrentMapErrorDao.countAllErrors()).isOne();
+        }
+
+        @Test
+        void shouldFindOnlyUnresolvedErrors_ByDescriptionAndHost() {
+            var id1 = concurrentMapErrorDao.insertError(newError("an error", "host-1", 0));
+            var id2 = concurrentMapErrorDao.insertError(newError("an error", "host-1", 0));
+            var id3 = concurrentMapErrorDao.insertError(newError("an error", "host-2", 0));
+
+            concurrentMapErrorDao.resolve(id1);
+
+            assertThat(concurrentMapErrorDao.getUnresolvedErrorsByDescriptionAndHost("an error", "host-1"))
+                    .extracting(ApplicationError::getId)
+                    .containsExactly(id2);
+            assertThat(concurrentMapErrorDao.getUnresolvedErrorsByDescription("an error"))
+                    .extracting(ApplicationError::getId)
+                    .containsExactlyInAnyOrder(id2, id3);
+        }
+
+        @Test
+        void shouldCountOnlyErrorsUpdatedAfterSince() {
+            concurrentMapErrorDao.insertError(newError("an old error", "host-1", 60));
+            concurrentMapErrorDao.insertError(newError("a newer error", "host-1", 10));
+            concurrentMapErrorDao.insertError(newError("a newer error", "host-2", 5));
+
+            var since = ZonedDateTime.now(ZoneOffset.UTC).minusMinutes(30);
+
+            assertThat(concurrentMapErrorDao.countUnresolvedErrorsSince(since)).isEqualTo(2);
+            assertThat(concurrentMapErrorDao.countUnresolvedErrorsOnHostSince(since, "host-1", "127.0.0.1"))
+                    .isOne();
+        }
+
+        @Test
+        void shouldPageThroughAllErrors_NewestFirst_MergingResolvedAndUnresolvedErrors() {
+            var id1 = insertApplicationError(newError("error 1", "host-1", 40));
+            var id2 = insertApplicationError(newError("error 2", "host-1", 30, true));
+            var id3 = insertApplicationError(newError("error 3", "host-1", 20, true));
+            var id4 = insertApplicationError(newError("error 4", "host-1", 10));
+
+            var firstPage = concurrentMapErrorDao.getErrors(ApplicationErrorStatus.ALL, null, 2);
+            var secondPage = concurrentMapErrorDao.getErrors(ApplicationErrorStatus.ALL,
+                    ApplicationErrorCursor.after(last(firstPage)), 2);
+
+            assertThat(firstPage).extracting(ApplicationError::getId).containsExactly(id4, id3);
+            assertThat(secondPage).extracting(ApplicationError::getId).containsExactly(id2, id1);
+            assertThat(concurrentMapErrorDao.getErrors(ApplicationErrorStatus.ALL, 2, 2))
+                    .extracting(ApplicationError::getId)
+                    .containsExactly(id2, id1);
+        }
+
+        @Test
+        void shouldDeleteLeastRecentlyUpdatedErrorsFirst_WhenLimited() {
+            var oldestId = insertApplicationError(newError("error 1", "host-1", 40, true));
+            var olderId = insertApplicationError(newError("error 2", "host-1", 30, true));
+            var newerId = insertApplicationError(newError("error 3", "host-1", 20, true));
+
+            var deletedCount = concurrentMapErrorDao.deleteResolvedErrorsBefore(
+                    ZonedDateTime.now(ZoneOffset.UTC).minusMinutes(10), 2);
+
+            assertThat(deletedCount).isEqualTo(2);
+            assertThat(concurrentMapErrorDao.getById(oldestId)).isEmpty();
+            assertThat(concurrentMapErrorDao.getById(olderId)).isEmpty();
+            assertThat(concurrentMapErrorDao.getById(newerId)).isPresent();
+        }
+
+        @Test
+        void shouldNotReuseIds_OfErrorsThatArePut() {
+            concurrentMapErrorDao.put(newError("an error", "host-1", 0).withId(42L));
+
+            var id = concurrentMapErrorDao.insertError(newError("another error", "host-1", 0));
+
+            assertThat(id).isEqualTo(43);
+            assertThat(concurrentMapErrorDao.countAllErrors()).isEqualTo(2);
+        }
+    }
+
+    @Nested
+    class BoundedCapacity {
+
+        private MetricRegistry metrics;
+        private InMemoryCapacityConfig capacityConfig;
+
+        @BeforeEach
+        void setUp() {
+            metrics = new MetricRegistry();
+            capacityConfig = new InMemoryCapacityConfig();
+            capacityConfig.setMaxErrors(3);
+        }
+
+        @Test
+        void shouldNeverEvictUnresolvedErrors_ByDefault() {
+            var errorDao = new ConcurrentMapApplicationErrorDao(capacityConfig, metrics);
+            var oldestResolvedId = putError(errorDao, newError("error 1", "host-1", 60, true));
+            errorDao.insertError(newError("error 2", "host-1", 50));
+            errorDao.insertError(newError("error 3", "host-1", 40));
+
+            errorDao.insertError(newError("error 4", "host-1", 30));
+            errorDao.insertError(newError("error 5", "host-1", 0));
+
+            assertThat(errorDao.getById(oldestResolvedId)).isEmpty();
+            assertThat(errorDao.countAllErrors()).isEqualTo(4);
+            assertThat(errorDao.countUnresolvedErrors()).isEqualTo(4);
+            assertThat(metrics.meter(ConcurrentMapApplicationErrorDao.EVICTIONS_METRIC).getCount()).isOne();
+        }
+
+        @Test
+        void shouldEvictOldestResolvedErrorFirst() {
+            capacityConfig.setEvictionPolicy(EvictionPolicy.OLDEST_RESOLVED_FIRST);
+            var errorDao = new ConcurrentMapApplicationErrorDao(capacityConfig, metrics);
+            var unresolvedId = errorDao.insertError(newError("error 1", "host-1", 50));
+            var oldestResolvedId = putError(errorDao, newError("error 2", "host-1", 40, true));
+            var resolvedId = putError(errorDao, newError("error 3", "host-1", 30, true));
+
+            var newId = errorDao.insertError(newError("error 4", "host-1", 0));
+
+            assertThat(errorDao.countAllErrors()).isEqualTo(3);
+            assertThat(errorDao.getById(oldestResolvedId)).isEmpty();
+            assertThat(errorDao.getErrors(ApplicationErrorStatus.ALL, null, 10))
+                    .extracting(ApplicationError::getId)
+                    .containsExactly(newId, resolvedId, unresolvedId);
+            assertThat(metrics.meter(ConcurrentMapApplicationErrorDao.EVICTIONS_METRIC).getCount()).isOne();
+        }
+
+        @Test
+        void shouldEvictLeastRecentlyUpdatedUnresolvedError_WhenNoErrorsAreResolved() {
+            capacityConfig.setEvictionPolicy(EvictionPolicy.OLDEST_RESOLVED_FIRST);
+            var errorDao = new ConcurrentMapApplicationErrorDao(capacityConfig, metrics);
+            var oldestId = errorDao.insertError(newError("error 1", "host-1", 50));
+            errorDao.insertError(newError("error 2", "host-1", 40));
+            errorDao.insertError(newError("error 3", "host-1", 30));
+            errorDao.insertError(newError("error 4", "host-1", 0));
+
+            assertThat(errorDao.countUnresolvedErrors()).isEqualTo(3);
+            assertThat(errorDao.getById(oldestId)).isEmpty();
+            assertThat(errorDao.getUnresolvedErrorsByDescription("error 1")).isEmpty();
+        }
+
+        @Test
+        void shouldEvictLeastRecentlyUpdatedError_WhenPolicyIsLeastRecentlyUpdated() {
+            capacityConfig.setEvictionPolicy(EvictionPolicy.LEAST_RECENTLY_UPDATED);
+            var errorDao = new ConcurrentMapApplicationErrorDao(capacityConfig, metrics);
+            var oldestId = errorDao.insertError(newError("error 1", "host-1", 50));
+            putError(errorDao, newError("error 2", "host-1", 40, true));
+            putError(errorDao, newError("error 3", "host-1", 30, true));
+
+            errorDao.insertError(newError("error 4", "host-1", 0));
+
+            assertThat(errorDao.getById(oldestId)).isEmpty();
+            assertThat(errorDao.countResolvedErrors()).isEqualTo(2);
+            assertThat(metrics.meter(ConcurrentMapApplicationErrorDao.EVICTIONS_METRIC).getCount()).isOne();
+        }
+
+        @Test
+        void shouldEvict_WhenMaxEstimatedSizeIsExceeded() {
+            capacityConfig.setEvictionPolicy(EvictionPolicy.OLDEST_RESOLVED_FIRST);
+            capacityConfig.setMaxErrors(100);
+            capacityConfig.setMaxEstimatedSize(DataSize.kibibytes(1));
+            var errorDao = new ConcurrentMapApplicationErrorDao(capacityConfig, metrics);
+            var description = "a".repeat(200);
+
+            errorDao.insertError(newError(description, "host-1", 10));
+            var newestId = errorDao.insertError(newError(description, "host-1", 0));
+
+            assertThat(errorDao.countAllErrors()).isOne();
+            assertThat(errorDao.getById(newestId)).isPresent();
+            assertThat(errorDao.getEstimatedSizeInBytes()).isLessThanOrEqualTo(1_024);
+            assertThat(metrics.meter(ConcurrentMapApplicationErrorDao.EVICTIONS_METRIC).getCount()).isOne();
+        }
+
+        @Test
+        void shouldKeepError_ThatAloneExceedsMaxEstimatedSize() {
+            capacityConfig.setMaxEstimatedSize(DataSize.kibibytes(1));
+            var errorDao = new ConcurrentMapApplicationErrorDao(capacityConfig, metrics);
+
+            var id = errorDao.insertError(newError("a".repeat(2_000), "host-1", 0));
+
+            assertThat(errorDao.getById(id)).isPresent();
+            assertThat(metrics.meter(ConcurrentMapApplicationErrorDao.EVICTIONS_METRIC).getCount()).isZero();
+        }
+
+        @Test
+        void shouldTrackEstimatedSize() {
+            var error = newError("an error", "host-1", 0);
+            var id = concurrentMapErrorDao.insertError(error);
+            concurrentMapErrorDao.incrementCount(id);
+
+            assertThat(concurrentMapErrorDao.getEstimatedSizeInBytes())
+                    .isEqualTo(ConcurrentMapApplicationErrorDao.estimateSizeInBytes(error));
+
+            concurrentMapErrorDao.deleteUnresolvedErrorsBefore(ZonedDateTime.now(ZoneOffset.UTC).plusMinutes(1));
+
+            assertThat(concurrentMapErrorDao.getEstimatedSizeInBytes()).isZero();
+        }
+
+        @Test
+        void shouldValidateCapacityConfig() {
+            capacityConfig.setMaxErrors(0);
+
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> new ConcurrentMapApplicationErrorDao(capacityConfig, metrics));
+        }
+
+        /**
+         * Inserts the error, and then puts it as given, e.g. resolved. Uses the ID assigned by the DAO, since an ID
+         * from {@link #ID_GENERATOR} could be the same as the ID of an error inserted by the DAO.
+         */
+        private static long putError(ConcurrentMapApplicationErrorDao errorDao, ApplicationError error) {
+            var id = errorDao.insertError(error);
+            errorDao.put(error.withId(id));
+            return id;
+        }
+    }
+
+    @Nested
+    class ConcurrentIncrements {
+
+        private static final int THREAD_COUNT = 8;
+        private static final int ITERATIONS = 5_000;
+
+        @Test
+        void shouldNotLoseIncrements_OfTheSameError() throws Exception {
+            var id = concurrentMapErrorDao.insertError(newError("an error", "host-1", 0));
+            var error = concurrentMapErrorDao.getById(id).orElseThrow();
+
+            runConcurrently(() -> {
+                for (var i = 0; i < ITERATIONS; i++) {
+                    concurrentMapErrorDao.incrementCount(id);
+                    concurrentMapErrorDao.incrementCount(id, 2);
+                    concurrentMapErrorDao.insertOrIncrementCount(error);
+                }
+                return null;
+            });
+
+            var expectedCount = 1 + (THREAD_COUNT * ITERATIONS * 4);
+            assertThat(concurrentMapErrorDao.getById(id).orElseThrow().getNumTimesOccurred())
+                    .isEqualTo(expectedCount);
+            assertThat(concurrentMapErrorDao.countUnresolvedErrors()).isOne();
+            assertThat(concurrentMapErrorDao.getErrors(ApplicationErrorStatus.UNRESOLVED, null, 10))
+                    .extracting(ApplicationError::getId)
+                    .containsExactly(id);
+            assertThat(concurrentMapErrorDao.getUnresolvedErrorsByDescriptionAndHost("an error", "host-1"))
+                    .extracting(ApplicationError::getNumTimesOccurred)
+                    .containsExactly(expectedCount);
+        }
+
+        @Test
+        void shouldInsertNewError_OnlyOnce_WhenItOccursConcurrently() throws Exception {
+            var error = newError("a new error", "host-1", 0);
+
+            runConcurrently(() -> {
+                for (var i = 0; i < ITERATIONS; i++) {
+                    concurrentMapErrorDao.insertOrIncrementCount(error);
+                }
+                return null;
+            });
+
+            assertThat(concurrentMapErrorDao.getUnresolvedErrorsByDescriptionAndHost("a new error", "host-1"))
+                    .extracting(ApplicationError::getNumTimesOccurred)
+                    .containsExactly(THREAD_COUNT * ITERATIONS);
+            assertThat(concurrentMapErrorDao.countUnresolvedErrors()).isOne();
+        }
+
+        @Test
+        void shouldInsertNewError_WhenErrorWithSameFingerprintIsResolvedWhileIncrementing() throws Exception {
+            var error = newError("an error", "host-1", 0);
+
+            runConcurrently(() -> {
+                for (var i = 0; i < ITERATIONS; i++) {
+                    var id = concurrentMapErrorDao.insertOrIncrementCount(error);
+                    if (i % 10 == 0) {
+                        concurrentMapErrorDao.resolve(id);
+                    }
+                }
+                return null;
+            });
+
+            var occurrenceCount = THREAD_COUNT * ITERATIONS;
+            var allErrors = concurrentMapErrorDao.getErrors(ApplicationErrorStatus.ALL, null, occurrenceCount);
+            var totalCount = allErrors.stream().mapToLong(ApplicationError::getNumTimesOccurred).sum();
+            assertThat(totalCount).isEqualTo(occurrenceCount);
+            assertThat(concurrentMapErrorDao.countUnresolvedErrors()).isLessThanOrEqualTo(1);
+        }
+
+        @Test
+        void shouldKeepCountsAndIndexesConsistent_WhenResolvingWhileIncrementing() throws Exception {
+            var errorCount = 100;
+            var ids = LongStream.rangeClosed(1, errorCount)
+                    .map(i -> concurrentMapErrorDao.insertError(newError("error " + i, "host-1", 0)))
+                    .toArray();
+
+            runConcurrently(() -> {
+                for (var i = 0; i < ITERATIONS; i++) {
+                    var id = ids[i % errorCount];
+                    if (i % 10 == 0) {
+                        concurrentMapErrorDao.resolve(id);
+                    } else {
+                        concurrentMapErrorDao.incrementCount(id);
+                    }
+                }
+                return null;
+            });
+
+            var resolvedErrors = concurrentMapErrorDao.getErrors(ApplicationErrorStatus.RESOLVED, null, errorCount);
+            var unresolvedErrors = concurrentMapErrorDao.getErrors(ApplicationErrorStatus.UNRESOLVED, null, errorCount);
+            var allErrors = concurrentMapErrorDao.getErrors(ApplicationErrorStatus.ALL, null, errorCount);
+
+            assertThat(resolvedErrors).hasSize(Math.toIntExact(concurrentMapErrorDao.countResolvedErrors()));
+            assertThat(unresolvedErrors).hasSize(Math.toIntExact(concurrentMapErrorDao.countUnresolvedErrors()));
+            assertThat(allErrors)
+                    .extracting(ApplicationError::getId)
+                    .doesNotHaveDuplicates()
+                    .hasSize(errorCount);
+
+            var totalCount = allErrors.stream().mapToLong(ApplicationError::getNumTimesOccurred).sum();
+            var incrementCount = THREAD_COUNT * (ITERATIONS - (ITERATIONS / 10));
+            assertThat(totalCount).isEqualTo(errorCount + incrementCount);
+        }
+
+        private void runConcurrently(Callable<Void> task) throws InterruptedException, ExecutionException {
+            var executor = Executors.newFixedThreadPool(THREAD_COUNT);
+            var startSignal = new CountDownLatch(1);
+
+            try {
+                var futures = new ArrayList<Future<Void>>();
+                for (var i = 0; i < THREAD_COUNT; i++) {
+                    futures.add(executor.submit(() -> {
+                        startSignal.await();
+                        return task.call();
+                    }));
+                }
+
+                startSignal.countDown();
+                for (var future : futures) {
+                    future.get();
+                }
+            } finally {
+                executor.shutdown();
+                assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+            }
+        }
+    }
+
+    private static ApplicationError newError(String description, String hostName, int minutesAgo) {
+        return newError(description, hostName, minutesAgo, false);
+    }
+
+    private static ApplicationError newError(String description, String hostName, int minutesAgo, boolean resolved) {
+        var timestamp = ZonedDateTime.now(ZoneOffset.UTC).minusMinutes(minutesAgo);
+        return ApplicationError.builder()
+                .description(description)
+                .createdAt(timestamp)
+                .updatedAt(timestamp)
+                .numTimesOccurred(1)
+                .hostName(hostName)
+                .ipAddress("127.0.0.1")
+                .port(8080)
+                .resolved(resolved)
+                .build();
+    }
+
     @Nested
     class UpdateWith {
 
@@ -0,0 +1,216 @@
+package org.kiwiproject.dropwizard.error.dao.jdk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.kiwiproject.dropwizard.error.util.TestHelpers.newDetailedError;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.kiwiproject.dropwizard.error.dao.AbstractApplicationErrorDaoTest;
+import org.kiwiproject.dropwizard.error.dao.ApplicationErrorStatus;
+import org.kiwiproject.dropwizard.error.model.ApplicationError;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+@DisplayName("MappedFileApplicationErrorDao")
+class MappedFileApplicationErrorDaoTest extends AbstractApplicationErrorDaoTest<MappedFileApplicationErrorDao> {
+
+    private static final AtomicLong ID_GENERATOR = new AtomicLong();
+
+    @TempDir
+    Path tempDir;
+
+    private Path logFile;
+    private MappedFileApplicationErrorDao mappedFileErrorDao;
+
+    @BeforeEach
+    void setUp() {
+        countAndVerifyNoApplicationErrorsExist();
+    }
+
+    @AfterEach
+    void tearDown() {
+        mappedFileErrorDao.close();
+    }
+
+    @Override
+    protected MappedFileApplicationErrorDao getErrorDao() {
+        // Called by the base class before the setUp method above, so create the DAO here
+        logFile = tempDir.resolve("application-errors.log");
+        mappedFileErrorDao = new MappedFileApplicationErrorDao(logFile);
+        return mappedFileErrorDao;
+    }
+
+    @Override
+    protected long insertApplicationError(ApplicationError error) {
+        var id = ID_GENERATOR.incrementAndGet();
+        mappedFileErrorDao.put(error.withId(id));
+        return id;
+    }
+
+    @Override
+    protected long countApplicationErrors() {
+        return mappedFileErrorDao.countAllErrors();
+    }
+
+    @Override
+    protected ApplicationError getErrorOrThrow(long id) {
+        return mappedFileErrorDao.getById(id)
+                .orElseThrow(() -> new IllegalStateException("No ApplicationError found with id " + id));
+    }
+
+    @Nested
+    class Restarting {
+
+        @Test
+        void shouldRestoreErrors_FromLogFile() {
+            var resolvedId = mappedFileErrorDao.insertError(newDetailedError("error 1"));
+            var incrementedId = mappedFileErrorDao.insertError(newDetailedError("error 2"));
+            var deletedId = mappedFileErrorDao.insertError(newDetailedError("error 3"));
+            mappedFileErrorDao.resolve(resolvedId);
+            mappedFileErrorDao.incrementCount(incrementedId, 41);
+            mappedFileErrorDao.resolve(deletedId);
+            mappedFileErrorDao.deleteResolvedErrorsBefore(ZonedDateTime.now(ZoneOffset.UTC).minusMinutes(30), 1);
+
+            var resolvedError = mappedFileErrorDao.getById(resolvedId).orElseThrow();
+            var incrementedError = mappedFileErrorDao.getById(incrementedId).orElseThrow();
+
+            var restartedErrorDao = restart();
+
+            assertThat(restartedErrorDao.countAllErrors()).isEqualTo(2);
+            assertThat(restartedErrorDao.getById(resolvedId)).contains(resolvedError);
+            assertThat(restartedErrorDao.getById(incrementedId)).contains(incrementedError);
+            assertThat(restartedErrorDao.getById(deletedId)).isEmpty();
+            assertThat(restartedErrorDao.getById(incrementedId).orElseThrow().getNumTimesOccurred()).isEqualTo(42);
+        }
+
+        @Test
+        void shouldNotReuseIds_AfterRestarting() {
+            var id = mappedFileErrorDao.insertError(newDetailedError("an error"));
+
+            var restartedErrorDao = restart();
+            var newId = restartedErrorDao.insertError(newDetailedError("another error"));
+
+            assertThat(newId).isGreaterThan(id);
+        }
+
+        @Test
+        void shouldCompactLog_WhenItIsFull() {
+            mappedFileErrorDao.close();
+            mappedFileErrorDao = new MappedFileApplicationErrorDao(logFile, 512);
+
+            var id = mappedFileErrorDao.insertError(newDetailedError("an error"));
+            for (var i = 0; i < 1_000; i++) {
+                mappedFileErrorDao.incrementCount(id);
+            }
+
+            var restartedErrorDao = restart();
+
+            assertThat(restartedErrorDao.getById(id).orElseThrow().getNumTimesOccurred()).isEqualTo(1_001);
+            assertThat(logFile).isRegularFile();
+            assertThat(tempDir.resolve("application-errors.log.compacting")).doesNotExist();
+        }
+
+        @Test
+        void shouldIgnorePartiallyWrittenRecord() throws IOException {
+            var id = mappedFileErrorDao.insertError(newDetailedError("an error"));
+            mappedFileErrorDao.close();
+
+            // Write a record length followed by a record that is not all there
+            try (var channel = FileChannel.open(logFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                var endOfRecords = findEndOfRecords(channel);
+                channel.write(ByteBuffer.allocate(9).putInt(100).put((byte) 1).putInt(42).flip(), endOfRecords);
+            }
+
+            mappedFileErrorDao = new MappedFileApplicationErrorDao(logFile);
+            var newId = mappedFileErrorDao.insertError(newDetailedError("another error"));
+
+            var restartedErrorDao = restart();
+
+            assertThat(restartedErrorDao.getErrors(ApplicationErrorStatus.ALL, null, 10))
+                    .extracting(ApplicationError::getId)
+                    .containsExactlyInAnyOrder(id, newId);
+        }
+
+        @Test
+        void shouldClearRemainingBytes_AfterRecordWithInvalidLength() throws IOException {
+            var id = mappedFileErrorDao.insertError(newDetailedError("an error"));
+            mappedFileErrorDao.close();
+
+            // Write an invalid record length followed, further on, by leftover bytes
+            long endOfRecords;
+            try (var channel = FileChannel.open(logFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                endOfRecords = findEndOfRecords(channel);
+                channel.write(ByteBuffer.allocate(4).putInt(-1).flip(), endOfRecords);
+                channel.write(ByteBuffer.allocate(4).putInt(0x01020304).flip(), endOfRecords + 100);
+            }
+
+            var restartedErrorDao = restart();
+
+            assertThat(restartedErrorDao.getErrors(ApplicationErrorStatus.ALL, null, 10))
+                    .extracting(ApplicationError::getId)
+                    .containsExactly(id);
+
+            restartedErrorDao.close();
+            try (var channel = FileChannel.open(logFile, StandardOpenOption.READ)) {
+                var leftoverBytes = ByteBuffer.allocate(4);
+                channel.read(leftoverBytes, endOfRecords + 100);
+                assertThat(leftoverBytes.flip().getInt()).isZero();
+            }
+        }
+
+        @Test
+        void shouldNotOpenFile_ThatIsNotAnApplicationErrorLog() throws IOException {
+            var otherFile = Files.writeString(tempDir.resolve("other.txt"), "this is not a log file");
+
+            assertThatThrownBy(() -> new MappedFileApplicationErrorDao(otherFile))
+                    .isExactlyInstanceOf(UncheckedIOException.class)
+                    .hasMessageContaining("other.txt");
+        }
+
+        @Test
+        void shouldNotAllowChanges_AfterClosing() {
+            mappedFileErrorDao.stop();
+
+            var error = newDetailedError("an error");
+            assertThatIllegalStateException().isThrownBy(() -> mappedFileErrorDao.insertError(error));
+            assertThat(mappedFileErrorDao.countAllErrors()).isZero();
+        }
+
+        private MappedFileApplicationErrorDao restart() {
+            mappedFileErrorDao.close();
+            mappedFileErrorDao = new MappedFileApplicationErrorDao(logFile);
+            return mappedFileErrorDao;
+        }
+
+        /**
+         * Find the end of the records, by skipping the header and each record until a zero length.
+         */
+        private static long findEndOfRecords(FileChannel channel) throws IOException {
+            var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.position(Long.BYTES);
+
+            var length = buffer.getInt();
+            while (length > 0) {
+                buffer.position(buffer.position() + Byte.BYTES + length + Integer.BYTES);
+                length = buffer.getInt();
+            }
+
+            return buffer.position() - (long) Integer.BYTES;
+        }
+    }
+}
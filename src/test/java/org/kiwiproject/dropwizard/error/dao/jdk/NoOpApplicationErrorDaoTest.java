@@ -68,6 +68,11 @@ class NoOpApplicationErrorDaoTest {
         assertThat(errorDao.getErrors(ApplicationErrorStatus.UNRESOLVED, 1, 15)).isEmpty();
     }
 
+    @RepeatedTest(5)
+    void shouldGetErrorsUsingCursor() {
+        assertThat(errorDao.getErrors(ApplicationErrorStatus.UNRESOLVED, null, 15)).isEmpty();
+    }
+
     @RepeatedTest(5)
     void shouldGetUnresolvedErrorsByDescription() {
         assertThat(errorDao.getUnresolvedErrorsByDescription("some error")).isEmpty();
@@ -78,6 +83,11 @@ class NoOpApplicationErrorDaoTest {
         assertThat(errorDao.getUnresolvedErrorsByDescriptionAndHost("some error", "localhost")).isEmpty();
     }
 
+    @RepeatedTest(5)
+    void shouldGetUnresolvedErrorIdByFingerprint() {
+        assertThat(errorDao.getUnresolvedErrorIdByFingerprint("some fingerprint")).isEmpty();
+    }
+
     @RepeatedTest(5)
     void shouldInsertError() {
         assertThat(errorDao.insertError(ApplicationError.builder().build())).isZero();
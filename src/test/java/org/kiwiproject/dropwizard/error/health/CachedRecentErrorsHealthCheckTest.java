@@ -0,0 +1,182 @@
+package org.kiwiproject.dropwizard.error.health;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.kiwiproject.metrics.health.HealthCheckResults.SEVERITY_DETAIL;
+import static org.kiwiproject.test.assertj.dropwizard.metrics.HealthCheckResultAssertions.assertThatHealthCheck;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import org.jdbi.v3.core.statement.UnableToExecuteStatementException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.kiwiproject.dropwizard.error.dao.ApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.model.PersistentHostInformation;
+import org.kiwiproject.dropwizard.error.model.ServiceDetails;
+import org.kiwiproject.dropwizard.error.test.junit.jupiter.ApplicationErrorExtension;
+import org.kiwiproject.dropwizard.error.test.junit.jupiter.ApplicationErrorExtension.HostInfo;
+import org.kiwiproject.metrics.health.HealthStatus;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+
+@DisplayName("CachedRecentErrorsHealthCheck")
+@ExtendWith(ApplicationErrorExtension.class)
+class CachedRecentErrorsHealthCheckTest {
+
+    private static final Duration MAX_RESULT_AGE = Duration.ofMinutes(2);
+
+    private CachedRecentErrorsHealthCheck healthCheck;
+    private ApplicationErrorDao errorDao;
+    private Clock clock;
+    private Instant now;
+
+    @BeforeEach
+    void setUp(@HostInfo PersistentHostInformation hostInformation) {
+        errorDao = mock(ApplicationErrorDao.class);
+        var serviceDetails = ServiceDetails.builder()
+                .hostName(hostInformation.getHostName())
+                .ipAddress(hostInformation.getIpAddress())
+                .applicationPort(hostInformation.getPort())
+                .build();
+
+        clock = mock(Clock.class);
+        now = Instant.parse("2024-03-15T10:30:00Z");
+        when(clock.instant()).thenReturn(now);
+
+        healthCheck = new CachedRecentErrorsHealthCheck(errorDao, serviceDetails, 15, ChronoUnit.MINUTES,
+                MAX_RESULT_AGE, clock);
+    }
+
+    @Test
+    void shouldRequireMaxResultAge(@HostInfo PersistentHostInformation hostInformation) {
+        var serviceDetails = ServiceDetails.builder()
+                .hostName(hostInformation.getHostName())
+                .ipAddress(hostInformation.getIpAddress())
+                .applicationPort(hostInformation.getPort())
+                .build();
+
+        assertThatIllegalArgumentException().isThrownBy(() ->
+                new CachedRecentErrorsHealthCheck(errorDao, serviceDetails, 15, ChronoUnit.MINUTES, null));
+    }
+
+    @Nested
+    class Refresh {
+
+        @Test
+        void shouldQueryTheDataStore() {
+            countRecentErrorsAs(0);
+
+            var result = healthCheck.refresh();
+
+            assertThat(result.isHealthy()).isTrue();
+            verify(errorDao).countUnresolvedErrorsOnHostSince(any(ZonedDateTime.class), anyString(), anyString());
+        }
+
+        @Test
+        void shouldNotThrow_WhenErrorDaoThrows() {
+            when(errorDao.countUnresolvedErrorsOnHostSince(any(ZonedDateTime.class), anyString(), anyString()))
+                    .thenThrow(new UnableToExecuteStatementException("Error executing SQL"));
+
+            var result = healthCheck.refresh();
+
+            assertThat(result.isHealthy()).isFalse();
+            assertThat(result.getError()).isExactlyInstanceOf(UnableToExecuteStatementException.class);
+        }
+    }
+
+    @Nested
+    class Execute {
+
+        @Test
+        void shouldEvaluateSynchronously_WhenNeverRefreshed() {
+            countRecentErrorsAs(0);
+
+            assertThatHealthCheck(healthCheck)
+                    .isHealthy()
+                    .hasDetail(SEVERITY_DETAIL, HealthStatus.OK.name())
+                    .hasDetail(CachedRecentErrorsHealthCheck.EVALUATED_AT_DETAIL, now.toString())
+                    .hasDetail(CachedRecentErrorsHealthCheck.RESULT_AGE_MILLIS_DETAIL, 0L);
+
+            verify(errorDao).countUnresolvedErrorsOnHostSince(any(ZonedDateTime.class), anyString(), anyString());
+        }
+
+        @Test
+        void shouldReturnCachedResult_WithoutQueryingTheDataStore() {
+            countRecentErrorsAs(3);
+            healthCheck.refresh();
+
+            var later = now.plusSeconds(10);
+            when(clock.instant()).thenReturn(later);
+
+            assertThatHealthCheck(healthCheck)
+                    .isUnhealthy()
+                    .hasDetail(SEVERITY_DETAIL, HealthStatus.WARN.name())
+                    .hasDetail(CachedRecentErrorsHealthCheck.EVALUATED_AT_DETAIL, now.toString())
+                    .hasDetail(CachedRecentErrorsHealthCheck.RESULT_AGE_MILLIS_DETAIL, 10_000L);
+
+            assertThatHealthCheck(healthCheck).isUnhealthy();
+
+            verify(errorDao, times(1))
+                    .countUnresolvedErrorsOnHostSince(any(ZonedDateTime.class), anyString(), anyString());
+        }
+
+        @Test
+        void shouldReturnLatestResult_AfterRefresh() {
+            countRecentErrorsAs(3);
+            healthCheck.refresh();
+
+            countRecentErrorsAs(0);
+            healthCheck.refresh();
+
+            assertThatHealthCheck(healthCheck).isHealthy();
+        }
+
+        @Test
+        void shouldIncludeErrorFromCachedResult() {
+            when(errorDao.countUnresolvedErrorsOnHostSince(any(ZonedDateTime.class), anyString(), anyString()))
+                    .thenThrow(new UnableToExecuteStatementException("Error executing SQL"));
+            healthCheck.refresh();
+
+            assertThatHealthCheck(healthCheck)
+                    .isUnhealthy()
+                    .hasErrorExactlyInstanceOf(UnableToExecuteStatementException.class)
+                    .hasMessage("Error executing recent error count database query")
+                    .hasDetail(SEVERITY_DETAIL, HealthStatus.CRITICAL.name());
+        }
+
+        @Test
+        void shouldBeUnhealthy_WhenCachedResultIsTooOld() {
+            countRecentErrorsAs(0);
+            healthCheck.refresh();
+
+            when(clock.instant()).thenReturn(now.plus(MAX_RESULT_AGE).plusSeconds(1));
+
+            assertThatHealthCheck(healthCheck)
+                    .isUnhealthy()
+                    .hasMessage("Recent errors health check result is stale; last evaluated 2 minutes 1 second ago")
+                    .hasDetail(CachedRecentErrorsHealthCheck.EVALUATED_AT_DETAIL, now.toString());
+        }
+    }
+
+    @Test
+    void shouldNotQueryTheDataStore_WhenConstructed() {
+        verifyNoInteractions(errorDao);
+    }
+
+    private void countRecentErrorsAs(long count) {
+        when(errorDao.countUnresolvedErrorsOnHostSince(any(ZonedDateTime.class), anyString(), anyString()))
+                .thenReturn(count);
+    }
+}
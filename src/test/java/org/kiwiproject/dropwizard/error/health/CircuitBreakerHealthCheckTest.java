@@ -0,0 +1,57 @@
+package org.kiwiproject.dropwizard.error.health;
+
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.kiwiproject.test.assertj.dropwizard.metrics.HealthCheckResultAssertions.assertThatHealthCheck;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.kiwiproject.dropwizard.error.dao.CircuitBreakingApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.dao.CircuitBreakingApplicationErrorDao.State;
+
+@DisplayName("CircuitBreakerHealthCheck")
+class CircuitBreakerHealthCheckTest {
+
+    private CircuitBreakingApplicationErrorDao errorDao;
+    private CircuitBreakerHealthCheck healthCheck;
+
+    @BeforeEach
+    void setUp() {
+        errorDao = mock(CircuitBreakingApplicationErrorDao.class);
+        healthCheck = new CircuitBreakerHealthCheck(errorDao);
+    }
+
+    @Test
+    void shouldRequireErrorDao() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new CircuitBreakerHealthCheck(null));
+    }
+
+    @Test
+    void shouldBeHealthy_WhenClosed() {
+        when(errorDao.getState()).thenReturn(State.CLOSED);
+
+        assertThatHealthCheck(healthCheck)
+                .isHealthy()
+                .hasMessage("ApplicationError circuit breaker is CLOSED");
+    }
+
+    @Test
+    void shouldBeUnhealthy_WhenOpen() {
+        when(errorDao.getState()).thenReturn(State.OPEN);
+
+        assertThatHealthCheck(healthCheck)
+                .isUnhealthy()
+                .hasMessage("ApplicationError circuit breaker is OPEN; errors are not being saved");
+    }
+
+    @Test
+    void shouldBeUnhealthy_WhenHalfOpen() {
+        when(errorDao.getState()).thenReturn(State.HALF_OPEN);
+
+        assertThatHealthCheck(healthCheck)
+                .isUnhealthy()
+                .hasMessage("ApplicationError circuit breaker is HALF_OPEN; trying to save errors again");
+    }
+}
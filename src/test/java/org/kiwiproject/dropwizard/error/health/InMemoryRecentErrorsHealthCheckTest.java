@@ -0,0 +1,122 @@
+package org.kiwiproject.dropwizard.error.health;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.kiwiproject.metrics.health.HealthCheckResults.SEVERITY_DETAIL;
+import static org.kiwiproject.test.assertj.dropwizard.metrics.HealthCheckResultAssertions.assertThatHealthCheck;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import org.jdbi.v3.core.statement.UnableToExecuteStatementException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.kiwiproject.dropwizard.error.dao.ApplicationErrorDao;
+import org.kiwiproject.dropwizard.error.model.PersistentHostInformation;
+import org.kiwiproject.dropwizard.error.model.ServiceDetails;
+import org.kiwiproject.dropwizard.error.test.junit.jupiter.ApplicationErrorExtension;
+import org.kiwiproject.dropwizard.error.test.junit.jupiter.ApplicationErrorExtension.HostInfo;
+import org.kiwiproject.metrics.health.HealthStatus;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+
+@DisplayName("InMemoryRecentErrorsHealthCheck")
+@ExtendWith(ApplicationErrorExtension.class)
+class InMemoryRecentErrorsHealthCheckTest {
+
+    private InMemoryRecentErrorsHealthCheck healthCheck;
+    private ApplicationErrorDao errorDao;
+    private ServiceDetails serviceDetails;
+    private SlidingWindowErrorCounter counter;
+
+    @BeforeEach
+    void setUp(@HostInfo PersistentHostInformation hostInformation) {
+        errorDao = mock(ApplicationErrorDao.class);
+        serviceDetails = ServiceDetails.builder()
+                .hostName(hostInformation.getHostName())
+                .ipAddress(hostInformation.getIpAddress())
+                .applicationPort(hostInformation.getPort())
+                .build();
+        counter = new SlidingWindowErrorCounter(Duration.ofMinutes(15));
+
+        healthCheck = new InMemoryRecentErrorsHealthCheck(errorDao, serviceDetails, 15, ChronoUnit.MINUTES, counter);
+    }
+
+    @Test
+    void shouldRequireCounter() {
+        assertThatIllegalArgumentException().isThrownBy(() ->
+                new InMemoryRecentErrorsHealthCheck(errorDao, serviceDetails, 15, ChronoUnit.MINUTES, null));
+    }
+
+    @Nested
+    class Execute {
+
+        @Test
+        void shouldBeHealthy_WhenNoErrorsAreCounted() {
+            assertThatHealthCheck(healthCheck)
+                    .isHealthy()
+                    .hasMessage("No error(s) created or updated in last 15 minutes on host {} ({}:{})",
+                            serviceDetails.getHostName(), serviceDetails.getIpAddress(),
+                            serviceDetails.getApplicationPort())
+                    .hasDetail(SEVERITY_DETAIL, HealthStatus.OK.name());
+
+            verifyNoInteractions(errorDao);
+        }
+
+        @Test
+        void shouldBeUnhealthy_WhenErrorsAreCounted() {
+            counter.record("error-1");
+            counter.record("error-2");
+            counter.record("error-3");
+
+            assertThatHealthCheck(healthCheck)
+                    .isUnhealthy()
+                    .hasMessage("3 error(s) created or updated in last 15 minutes on host {} ({}:{})",
+                            serviceDetails.getHostName(), serviceDetails.getIpAddress(),
+                            serviceDetails.getApplicationPort())
+                    .hasDetail(SEVERITY_DETAIL, HealthStatus.WARN.name());
+
+            verifyNoInteractions(errorDao);
+        }
+    }
+
+    @Nested
+    class Reconcile {
+
+        @Test
+        void shouldReplaceCount_WithCountFromDataStore() {
+            counter.record("error-1");
+            counter.record("error-2");
+            counter.record("error-3");
+            when(errorDao.countUnresolvedErrorsOnHostSince(any(ZonedDateTime.class), anyString(), anyString()))
+                    .thenReturn(2L);
+
+            var reconciled = healthCheck.reconcile();
+
+            assertThat(reconciled).isTrue();
+            assertThat(counter.count()).isEqualTo(2);
+            verify(errorDao).countUnresolvedErrorsOnHostSince(any(ZonedDateTime.class),
+                    anyString(), anyString());
+        }
+
+        @Test
+        void shouldNotThrow_AndKeepCount_WhenErrorDaoThrows() {
+            counter.reconcile(5);
+            when(errorDao.countUnresolvedErrorsOnHostSince(any(ZonedDateTime.class), anyString(), anyString()))
+                    .thenThrow(new UnableToExecuteStatementException("Error executing SQL"));
+
+            var reconciled = healthCheck.reconcile();
+
+            assertThat(reconciled).isFalse();
+            assertThat(counter.count()).isEqualTo(5);
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package org.kiwiproject.dropwizard.error.health;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+@DisplayName("SlidingWindowErrorCounter")
+class SlidingWindowErrorCounterTest {
+
+    private static final Duration WINDOW = Duration.ofMinutes(15);
+
+    private SlidingWindowErrorCounter counter;
+    private Clock clock;
+    private long nowMillis;
+
+    @BeforeEach
+    void setUp() {
+        clock = mock(Clock.class);
+        nowMillis = Instant.parse("2024-03-15T10:30:00Z").toEpochMilli();
+        when(clock.millis()).thenReturn(nowMillis);
+
+        counter = new SlidingWindowErrorCounter(WINDOW, clock);
+    }
+
+    @Nested
+    class Constructor {
+
+        @Test
+        void shouldRequirePositiveWindow() {
+            assertThatIllegalArgumentException().isThrownBy(() -> new SlidingWindowErrorCounter(null));
+            assertThatIllegalArgumentException().isThrownBy(() -> new SlidingWindowErrorCounter(Duration.ZERO));
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> new SlidingWindowErrorCounter(Duration.ofMinutes(-1)));
+        }
+
+        @Test
+        void shouldSetWindow() {
+            assertThat(counter.getWindow()).isEqualTo(WINDOW);
+        }
+    }
+
+    @Nested
+    class Count {
+
+        @Test
+        void shouldBeZero_Initially() {
+            assertThat(counter.count()).isZero();
+        }
+
+        @Test
+        void shouldCountEachErrorOnce() {
+            counter.record("error-1");
+            counter.record("error-2");
+
+            advanceSeconds(10);
+            counter.record("error-1");
+
+            assertThat(counter.count()).isEqualTo(2);
+        }
+
+        @Test
+        void shouldRequireErrorKey() {
+            assertThatIllegalArgumentException().isThrownBy(() -> counter.record(null));
+        }
+
+        @Test
+        void shouldCountErrors_ForTheFullWindow() {
+            counter.record("error-1");
+
+            advanceSeconds(WINDOW.toSeconds());
+
+            assertThat(counter.count()).isOne();
+        }
+
+        @Test
+        void shouldNotCountErrors_OlderThanTheWindow() {
+            counter.record("error-1");
+            advanceSeconds(5);
+            counter.record("error-2");
+
+            advanceSeconds(WINDOW.toSeconds() - 3);
+            assertThat(counter.count()).isOne();
+
+            advanceSeconds(5);
+            assertThat(counter.count()).isZero();
+        }
+
+        @Test
+        void shouldCountErrors_ForTheWindowAfterTheirMostRecentOccurrence() {
+            counter.record("error-1");
+            advanceSeconds(60);
+            counter.record("error-1");
+
+            advanceSeconds(WINDOW.toSeconds() - 30);
+
+            assertThat(counter.count()).isOne();
+        }
+
+        @Test
+        void shouldCountConcurrentErrors() throws InterruptedException {
+            var realCounter = new SlidingWindowErrorCounter(WINDOW);
+            var executor = Executors.newFixedThreadPool(8);
+
+            IntStream.range(0, 10_000).forEach(i -> executor.submit(() -> realCounter.record("error-" + (i % 1_000))));
+            executor.shutdown();
+
+            assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(realCounter.count()).isEqualTo(1_000);
+        }
+    }
+
+    @Nested
+    class Remove {
+
+        @Test
+        void shouldRemoveOnlyTheGivenError() {
+            counter.record("error-1");
+            counter.record("error-2");
+
+            counter.remove("error-1");
+
+            assertThat(counter.count()).isOne();
+        }
+
+        @Test
+        void shouldIgnoreErrorsThatAreNotCounted() {
+            counter.record("error-1");
+
+            counter.remove("error-2");
+
+            assertThat(counter.count()).isOne();
+        }
+
+        @Test
+        void shouldNotRemoveFromReconciledCount() {
+            counter.reconcile(3);
+            counter.record("error-1");
+
+            counter.remove("error-1");
+            counter.remove("error-2");
+
+            assertThat(counter.count()).isEqualTo(3);
+        }
+    }
+
+    @Nested
+    class Reconcile {
+
+        @Test
+        void shouldReplaceCount() {
+            counter.record("error-1");
+            advanceSeconds(30);
+            counter.record("error-2");
+
+            counter.reconcile(3);
+
+            assertThat(counter.count()).isEqualTo(3);
+        }
+
+        @Test
+        void shouldAddErrorsRecordedAfterwards() {
+            counter.reconcile(3);
+
+            counter.record("error-1");
+
+            assertThat(counter.count()).isEqualTo(4);
+        }
+
+        @Test
+        void shouldCountReconciledCount_ForTheWindow() {
+            counter.reconcile(3);
+
+            advanceSeconds(WINDOW.toSeconds());
+            assertThat(counter.count()).isEqualTo(3);
+
+            advanceSeconds(1);
+            assertThat(counter.count()).isZero();
+        }
+
+        @Test
+        void shouldIgnoreNegativeCount() {
+            counter.reconcile(-1);
+
+            assertThat(counter.count()).isZero();
+        }
+
+        @Test
+        void shouldNeverExposeAnIntermediateCount() throws InterruptedException {
+            var realCounter = new SlidingWindowErrorCounter(WINDOW);
+            realCounter.reconcile(5);
+            var executor = Executors.newSingleThreadExecutor();
+
+            var reconciling = executor.submit(() -> IntStream.range(0, 10_000).forEach(i -> realCounter.reconcile(5)));
+            while (!reconciling.isDone()) {
+                assertThat(realCounter.count()).isEqualTo(5);
+            }
+            executor.shutdown();
+
+            assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        }
+
+        @Test
+        void shouldReset() {
+            counter.record("error-1");
+            counter.reconcile(3);
+
+            counter.reset();
+
+            assertThat(counter.count()).isZero();
+        }
+    }
+
+    private void advanceSeconds(long seconds) {
+        nowMillis += TimeUnit.SECONDS.toMillis(seconds);
+        when(clock.millis()).thenReturn(nowMillis);
+    }
+}
@@ -1,22 +1,34 @@
 package org.kiwiproject.dropwizard.error.job;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
 
+import com.codahale.metrics.MetricRegistry;
 import io.dropwizard.util.Duration;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.kiwiproject.base.KiwiEnvironment;
 import org.kiwiproject.dropwizard.error.config.CleanupConfig;
 import org.kiwiproject.dropwizard.error.config.CleanupConfig.CleanupStrategy;
 import org.kiwiproject.dropwizard.error.dao.ApplicationErrorDao;
 
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
 
 @DisplayName("CleanupApplicationErrorsJob")
 @Slf4j
@@ -61,11 +73,13 @@ class CleanupApplicationErrorsJobTest {
 
         var expectedResolvedThreshold = now.minusMinutes(config.getResolvedErrorExpiration().toMinutes());
         LOG.debug("Expecting resolved threshold: {}", expectedResolvedThreshold);
-        verify(dao).deleteResolvedErrorsBefore(argThat(time -> time.isBefore(expectedResolvedThreshold)));
+        verify(dao).deleteResolvedErrorsBefore(argThat(time -> time.isBefore(expectedResolvedThreshold)),
+                eq(config.getBatchSize()));
 
         var expectedUnresolvedThreshold = now.minusMinutes(config.getUnresolvedErrorExpiration().toMinutes());
         LOG.debug("Expecting unresolved threshold: {}", expectedUnresolvedThreshold);
-        verify(dao).deleteUnresolvedErrorsBefore(argThat(time -> time.isBefore(expectedUnresolvedThreshold)));
+        verify(dao).deleteUnresolvedErrorsBefore(argThat(time -> time.isBefore(expectedUnresolvedThreshold)),
+                eq(config.getBatchSize()));
     }
 
     @Test
@@ -78,8 +92,152 @@ class CleanupApplicationErrorsJobTest {
 
         var expectedResolvedThreshold = ZonedDateTime.now(ZoneOffset.UTC).minusMinutes(config.getResolvedErrorExpiration().toMinutes());
         LOG.debug("Expecting resolved threshold: {}", expectedResolvedThreshold);
-        verify(dao).deleteResolvedErrorsBefore(argThat(time -> time.isBefore(expectedResolvedThreshold)));
+        verify(dao).deleteResolvedErrorsBefore(argThat(time -> time.isBefore(expectedResolvedThreshold)),
+                eq(config.getBatchSize()));
 
         verifyNoMoreInteractions(dao);
     }
+
+    @Nested
+    class BatchedDeletes {
+
+        private CleanupConfig config;
+        private MetricRegistry metrics;
+        private KiwiEnvironment kiwiEnvironment;
+
+        @BeforeEach
+        void setUp() {
+            config = new CleanupConfig();
+            config.setBatchSize(100);
+            config.setPauseBetweenBatches(Duration.milliseconds(50));
+            config.setMaxRunDuration(Duration.minutes(1));
+
+            metrics = new MetricRegistry();
+            kiwiEnvironment = mock(KiwiEnvironment.class);
+        }
+
+        @Test
+        void shouldDeleteInBatches_UntilABatchIsNotFull() {
+            when(dao.deleteResolvedErrorsBefore(any(ZonedDateTime.class), anyInt())).thenReturn(100, 100, 25);
+            when(dao.deleteUnresolvedErrorsBefore(any(ZonedDateTime.class), anyInt())).thenReturn(100, 0);
+
+            var job = new CleanupApplicationErrorsJob(config, dao, metrics, kiwiEnvironment);
+            job.run();
+
+            verify(dao, times(3)).deleteResolvedErrorsBefore(any(ZonedDateTime.class), eq(100));
+            verify(dao, times(2)).deleteUnresolvedErrorsBefore(any(ZonedDateTime.class), eq(100));
+            verify(kiwiEnvironment, times(3)).sleepQuietly(50, TimeUnit.MILLISECONDS);
+
+            assertThat(metrics.timer(CleanupApplicationErrorsJob.BATCHES_METRIC).getCount()).isEqualTo(6);
+            assertThat(metrics.meter(CleanupApplicationErrorsJob.DELETED_RESOLVED_ERRORS_METRIC).getCount())
+                    .isEqualTo(225);
+            assertThat(metrics.meter(CleanupApplicationErrorsJob.DELETED_UNRESOLVED_ERRORS_METRIC).getCount())
+                    .isEqualTo(100);
+            assertThat(metrics.counter(CleanupApplicationErrorsJob.TIME_BUDGET_EXCEEDED_METRIC).getCount())
+                    .isZero();
+            verify(dao).deleteUnusedStackTraces(100);
+        }
+
+        @Test
+        void shouldDeleteUnusedStackTracesInBatches_UntilABatchIsNotFull() {
+            when(dao.deleteResolvedErrorsBefore(any(ZonedDateTime.class), anyInt())).thenReturn(25);
+            when(dao.deleteUnusedStackTraces(anyInt())).thenReturn(100, 100, 10);
+
+            var job = new CleanupApplicationErrorsJob(config, dao, metrics, kiwiEnvironment);
+            job.run();
+
+            verify(dao, times(3)).deleteUnusedStackTraces(100);
+            verify(dao, never()).deleteUnusedStackTraces();
+            verify(kiwiEnvironment, times(2)).sleepQuietly(50, TimeUnit.MILLISECONDS);
+            assertThat(metrics.meter(CleanupApplicationErrorsJob.DELETED_STACK_TRACES_METRIC).getCount())
+                    .isEqualTo(210);
+        }
+
+        @Test
+        void shouldStopDeletingUnusedStackTraces_WhenMaxRunDurationIsExceeded() {
+            var startNanos = 1_000L;
+            var afterMaxRunDurationNanos = startNanos + TimeUnit.MINUTES.toNanos(1);
+            when(kiwiEnvironment.nanoTime()).thenReturn(startNanos, afterMaxRunDurationNanos);
+            when(dao.deleteResolvedErrorsBefore(any(ZonedDateTime.class), anyInt())).thenReturn(25);
+            when(dao.deleteUnusedStackTraces(anyInt())).thenReturn(100);
+
+            var job = new CleanupApplicationErrorsJob(config, dao, metrics, kiwiEnvironment);
+            job.run();
+
+            verify(dao, times(1)).deleteUnusedStackTraces(100);
+            assertThat(metrics.counter(CleanupApplicationErrorsJob.TIME_BUDGET_EXCEEDED_METRIC).getCount())
+                    .isOne();
+        }
+
+        @Test
+        void shouldNotPause_WhenPauseIsZero() {
+            config.setPauseBetweenBatches(Duration.milliseconds(0));
+            when(dao.deleteResolvedErrorsBefore(any(ZonedDateTime.class), anyInt())).thenReturn(100, 0);
+
+            var job = new CleanupApplicationErrorsJob(config, dao, metrics, kiwiEnvironment);
+            job.run();
+
+            verify(dao, times(2)).deleteResolvedErrorsBefore(any(ZonedDateTime.class), eq(100));
+            verify(kiwiEnvironment, never()).sleepQuietly(anyLong(), any(TimeUnit.class));
+        }
+
+        @Test
+        void shouldStop_WhenMaxRunDurationIsExceeded() {
+            var startNanos = 1_000L;
+            var afterMaxRunDurationNanos = startNanos + TimeUnit.MINUTES.toNanos(1);
+            when(kiwiEnvironment.nanoTime()).thenReturn(startNanos, startNanos, afterMaxRunDurationNanos);
+            when(dao.deleteResolvedErrorsBefore(any(ZonedDateTime.class), anyInt())).thenReturn(100);
+            when(dao.deleteUnresolvedErrorsBefore(any(ZonedDateTime.class), anyInt())).thenReturn(100);
+
+            var job = new CleanupApplicationErrorsJob(config, dao, metrics, kiwiEnvironment);
+            job.run();
+
+            verify(dao, times(2)).deleteResolvedErrorsBefore(any(ZonedDateTime.class), eq(100));
+            verify(dao, times(1)).deleteUnresolvedErrorsBefore(any(ZonedDateTime.class), eq(100));
+            assertThat(metrics.counter(CleanupApplicationErrorsJob.TIME_BUDGET_EXCEEDED_METRIC).getCount())
+                    .isEqualTo(2);
+        }
+
+        @Test
+        void shouldDeleteUnresolvedErrors_WhenDeletingResolvedErrorsUsesHalfOfMaxRunDuration() {
+            var startNanos = 1_000L;
+            var halfMaxRunDurationNanos = startNanos + TimeUnit.SECONDS.toNanos(30);
+            when(kiwiEnvironment.nanoTime()).thenReturn(startNanos, halfMaxRunDurationNanos);
+            when(dao.deleteResolvedErrorsBefore(any(ZonedDateTime.class), anyInt())).thenReturn(100);
+            when(dao.deleteUnresolvedErrorsBefore(any(ZonedDateTime.class), anyInt())).thenReturn(100, 100, 0);
+
+            var job = new CleanupApplicationErrorsJob(config, dao, metrics, kiwiEnvironment);
+            job.run();
+
+            verify(dao, times(1)).deleteResolvedErrorsBefore(any(ZonedDateTime.class), eq(100));
+            verify(dao, times(3)).deleteUnresolvedErrorsBefore(any(ZonedDateTime.class), eq(100));
+            assertThat(metrics.counter(CleanupApplicationErrorsJob.TIME_BUDGET_EXCEEDED_METRIC).getCount())
+                    .isOne();
+        }
+
+        @Test
+        void shouldUseFullMaxRunDuration_ToDeleteResolvedErrors_WhenStrategyIsResolvedErrors() {
+            config.setCleanupStrategy(CleanupStrategy.RESOLVED_ONLY);
+            var startNanos = 1_000L;
+            var halfMaxRunDurationNanos = startNanos + TimeUnit.SECONDS.toNanos(30);
+            when(kiwiEnvironment.nanoTime()).thenReturn(startNanos, halfMaxRunDurationNanos);
+            when(dao.deleteResolvedErrorsBefore(any(ZonedDateTime.class), anyInt())).thenReturn(100, 100, 0);
+
+            var job = new CleanupApplicationErrorsJob(config, dao, metrics, kiwiEnvironment);
+            job.run();
+
+            verify(dao, times(3)).deleteResolvedErrorsBefore(any(ZonedDateTime.class), eq(100));
+            verify(dao, never()).deleteUnresolvedErrorsBefore(any(ZonedDateTime.class), anyInt());
+            assertThat(metrics.counter(CleanupApplicationErrorsJob.TIME_BUDGET_EXCEEDED_METRIC).getCount())
+                    .isZero();
+        }
+
+        @Test
+        void shouldNotDeleteUnusedStackTraces_WhenNoErrorsWereDeleted() {
+            var job = new CleanupApplicationErrorsJob(config, dao, metrics, kiwiEnvironment);
+            job.run();
+
+            verify(dao, never()).deleteUnusedStackTraces(anyInt());
+        }
+    }
 }
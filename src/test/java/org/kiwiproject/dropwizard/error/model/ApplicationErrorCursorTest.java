@@ -0,0 +1,142 @@
+package org.kiwiproject.dropwizard.error.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Base64;
+
+@DisplayName("ApplicationErrorCursor")
+class ApplicationErrorCursorTest {
+
+    @Nested
+    class Of {
+
+        @Test
+        void shouldConvertUpdatedAtToUtc() {
+            var updatedAt = ZonedDateTime.of(2024, 3, 15, 10, 30, 0, 0, ZoneId.of("America/New_York"));
+
+            var cursor = ApplicationErrorCursor.of(updatedAt, 42);
+
+            assertThat(cursor.getUpdatedAt().getZone()).isEqualTo(ZoneOffset.UTC);
+            assertThat(cursor.getUpdatedAt().toInstant()).isEqualTo(updatedAt.toInstant());
+            assertThat(cursor.getId()).isEqualTo(42);
+        }
+
+        @Test
+        void shouldRequireUpdatedAt() {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> ApplicationErrorCursor.of(null, 42))
+                    .withMessage("updatedAt must not be null");
+        }
+    }
+
+    @Nested
+    class After {
+
+        @Test
+        void shouldUseUpdatedAtAndId() {
+            var updatedAt = ZonedDateTime.now(ZoneOffset.UTC);
+            var error = ApplicationError.builder().id(84L).updatedAt(updatedAt).build();
+
+            var cursor = ApplicationErrorCursor.after(error);
+
+            assertThat(cursor).isEqualTo(ApplicationErrorCursor.of(updatedAt, 84));
+        }
+
+        @Test
+        void shouldRequireId() {
+            var error = ApplicationError.builder().updatedAt(ZonedDateTime.now(ZoneOffset.UTC)).build();
+
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> ApplicationErrorCursor.after(error))
+                    .withMessage("error must have an id");
+        }
+    }
+
+    @Nested
+    class Precedes {
+
+        private final ZonedDateTime updatedAt = ZonedDateTime.now(ZoneOffset.UTC);
+        private final ApplicationErrorCursor cursor = ApplicationErrorCursor.of(updatedAt, 42);
+
+        @Test
+        void shouldBeTrue_ForErrorsUpdatedBefore() {
+            var error = ApplicationError.builder().id(84L).updatedAt(updatedAt.minusNanos(1_000)).build();
+
+            assertThat(cursor.precedes(error)).isTrue();
+        }
+
+        @Test
+        void shouldBeTrue_ForErrorsUpdatedAtSameTime_HavingLowerId() {
+            var error = ApplicationError.builder().id(41L).updatedAt(updatedAt).build();
+
+            assertThat(cursor.precedes(error)).isTrue();
+        }
+
+        @ParameterizedTest
+        @ValueSource(longs = { 42, 43 })
+        void shouldBeFalse_ForErrorsUpdatedAtSameTime_HavingSameOrHigherId(long id) {
+            var error = ApplicationError.builder().id(id).updatedAt(updatedAt).build();
+
+            assertThat(cursor.precedes(error)).isFalse();
+        }
+
+        @Test
+        void shouldBeFalse_ForErrorsUpdatedAfter() {
+            var error = ApplicationError.builder().id(1L).updatedAt(updatedAt.plusNanos(1_000)).build();
+
+            assertThat(cursor.precedes(error)).isFalse();
+        }
+    }
+
+    @Nested
+    class EncodeAndDecode {
+
+        @Test
+        void shouldRoundTrip() {
+            var updatedAt = ZonedDateTime.of(2024, 3, 15, 10, 30, 15, 123_456_000, ZoneOffset.UTC);
+            var cursor = ApplicationErrorCursor.of(updatedAt, 12_345);
+
+            var encoded = cursor.encode();
+
+            assertThat(encoded).matches("[A-Za-z0-9_-]+");
+            assertThat(ApplicationErrorCursor.decode(encoded)).isEqualTo(cursor);
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = { "not a cursor", "bm8tc2VwYXJhdG9y", "YmFkLWRhdGV8NDI", "MjAyNC0wMy0xNVQxMDozMDoxNVp8YWJj" })
+        void shouldRejectInvalidCursors(String encodedCursor) {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> ApplicationErrorCursor.decode(encodedCursor))
+                    .withMessageStartingWith("invalid cursor");
+        }
+
+        @Test
+        void shouldRejectBlankCursor() {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> ApplicationErrorCursor.decode(" "))
+                    .withMessage("encodedCursor must not be blank");
+        }
+
+        @Test
+        void shouldDecodeCursorCreatedFromExpectedFormat() {
+            var encoded = Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString("2024-03-15T10:30:15Z|42".getBytes(StandardCharsets.UTF_8));
+
+            var cursor = ApplicationErrorCursor.decode(encoded);
+
+            assertThat(cursor.getId()).isEqualTo(42);
+            assertThat(cursor.getUpdatedAt()).isEqualTo(ZonedDateTime.of(2024, 3, 15, 10, 30, 15, 0, ZoneOffset.UTC));
+        }
+    }
+}
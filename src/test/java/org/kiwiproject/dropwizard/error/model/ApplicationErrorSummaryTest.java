@@ -0,0 +1,86 @@
+package org.kiwiproject.dropwizard.error.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.kiwiproject.dropwizard.error.model.ApplicationError.Resolved;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+@DisplayName("ApplicationErrorSummary")
+@ExtendWith(SoftAssertionsExtension.class)
+class ApplicationErrorSummaryTest {
+
+    @Nested
+    class From {
+
+        @Test
+        void shouldCopyAllPropertiesExceptStackTrace(SoftAssertions softly) {
+            var now = ZonedDateTime.now(ZoneOffset.UTC);
+            var throwable = new UncheckedIOException("I/O error", new IOException("disk full"));
+            var error = ApplicationError.newError("Something bad happened", Resolved.NO,
+                            "host-1.test", "10.0.0.1", 8080, throwable)
+                    .withId(42L);
+            var errorWithTimestamps = ApplicationError.builder()
+                    .id(error.getId())
+                    .createdAt(now.minusMinutes(5))
+                    .updatedAt(now)
+                    .numTimesOccurred(3)
+                    .description(error.getDescription())
+                    .exceptionType(error.getExceptionType())
+                    .exceptionMessage(error.getExceptionMessage())
+                    .exceptionCauseType(error.getExceptionCauseType())
+                    .exceptionCauseMessage(error.getExceptionCauseMessage())
+                    .stackTrace(error.getStackTrace())
+                    .resolved(error.isResolved())
+                    .hostName(error.getHostName())
+                    .ipAddress(error.getIpAddress())
+                    .port(error.getPort())
+                    .fingerprint(error.getFingerprint())
+                    .build();
+
+            var summary = ApplicationErrorSummary.from(errorWithTimestamps);
+
+            softly.assertThat(summary.getId()).isEqualTo(42L);
+            softly.assertThat(summary.getCreatedAt()).isEqualTo(now.minusMinutes(5));
+            softly.assertThat(summary.getUpdatedAt()).isEqualTo(now);
+            softly.assertThat(summary.getCreatedAtMillis()).isEqualTo(errorWithTimestamps.getCreatedAtMillis());
+            softly.assertThat(summary.getUpdatedAtMillis()).isEqualTo(errorWithTimestamps.getUpdatedAtMillis());
+            softly.assertThat(summary.getNumTimesOccurred()).isEqualTo(3);
+            softly.assertThat(summary.getDescription()).isEqualTo("Something bad happened");
+            softly.assertThat(summary.getExceptionType()).isEqualTo(UncheckedIOException.class.getName());
+            softly.assertThat(summary.getExceptionMessage()).isEqualTo("I/O error");
+            softly.assertThat(summary.getExceptionCauseType()).isEqualTo(IOException.class.getName());
+            softly.assertThat(summary.getExceptionCauseMessage()).isEqualTo("disk full");
+            softly.assertThat(summary.isResolved()).isFalse();
+            softly.assertThat(summary.getHostName()).isEqualTo("host-1.test");
+            softly.assertThat(summary.getIpAddress()).isEqualTo("10.0.0.1");
+            softly.assertThat(summary.getPort()).isEqualTo(8080);
+            softly.assertThat(summary.getFingerprint()).isEqualTo(error.getFingerprint());
+        }
+
+        @Test
+        void shouldHaveNullMillis_WhenTimestampsAreNull() {
+            var summary = ApplicationErrorSummary.from(ApplicationError.builder().description("oops").build());
+
+            assertThat(summary.getCreatedAtMillis()).isNull();
+            assertThat(summary.getUpdatedAtMillis()).isNull();
+        }
+
+        @Test
+        void shouldRequireError() {
+            assertThatIllegalArgumentException()
+                    .isThrownBy(() -> ApplicationErrorSummary.from(null))
+                    .withMessage("error must not be null");
+        }
+    }
+}
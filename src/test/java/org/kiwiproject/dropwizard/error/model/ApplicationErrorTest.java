@@ -47,6 +47,7 @@ class ApplicationErrorTest {
     @AfterEach
     void tearDown() {
         ApplicationError.clearPersistentHostInformation();
+        ApplicationError.setStackTraceCapturePolicy(null);
     }
 
     private void setupHostInformation() throws UnknownHostException {
@@ -173,6 +174,74 @@ class ApplicationErrorTest {
         }
     }
 
+    @Nested
+    class Fingerprint {
+
+        @Test
+        void shouldBeHexEncodedSha256() {
+            var fingerprint = ApplicationError.fingerprintOf("An error", "java.io.IOException", "host-1");
+
+            assertThat(fingerprint).hasSize(64).matches("[0-9a-f]+");
+        }
+
+        @Test
+        void shouldDiffer_WhenAnyComponentDiffers(SoftAssertions softly) {
+            var fingerprint = ApplicationError.fingerprintOf("An error", "java.io.IOException", "host-1");
+
+            softly.assertThat(ApplicationError.fingerprintOf("Another error", "java.io.IOException", "host-1"))
+                    .isNotEqualTo(fingerprint);
+            softly.assertThat(ApplicationError.fingerprintOf("An error", "java.lang.IllegalStateException", "host-1"))
+                    .isNotEqualTo(fingerprint);
+            softly.assertThat(ApplicationError.fingerprintOf("An error", null, "host-1"))
+                    .isNotEqualTo(fingerprint);
+            softly.assertThat(ApplicationError.fingerprintOf("An error", "java.io.IOException", "host-2"))
+                    .isNotEqualTo(fingerprint);
+            softly.assertThat(ApplicationError.fingerprintOf("An errorjava.io.IOException", "", "host-1"))
+                    .isNotEqualTo(fingerprint);
+        }
+
+        @Test
+        void shouldDistinguishNull_FromNullStringAndEmptyString(SoftAssertions softly) {
+            var fingerprint = ApplicationError.fingerprintOf("An error", null, "host-1");
+
+            softly.assertThat(ApplicationError.fingerprintOf("An error", "null", "host-1"))
+                    .isNotEqualTo(fingerprint);
+            softly.assertThat(ApplicationError.fingerprintOf("An error", "", "host-1"))
+                    .isNotEqualTo(fingerprint);
+            softly.assertThat(ApplicationError.fingerprintOf("An error", null, "host-1"))
+                    .isEqualTo(fingerprint);
+        }
+
+        @Test
+        void shouldBeKept_WhenCopiedWithId() {
+            error = ApplicationError.newUnresolvedError(description, throwable);
+
+            assertThat(error.withId(42L).getFingerprint()).isEqualTo(error.getFingerprint());
+        }
+
+        @Test
+        void shouldBeComputed_WhenNotSetInBuilder() {
+            error = ApplicationError.builder()
+                    .description(description)
+                    .exceptionType(throwable.getClass().getName())
+                    .hostName(hostName)
+                    .build();
+
+            assertThat(error.getFingerprint())
+                    .isEqualTo(ApplicationError.newUnresolvedError(description, throwable).getFingerprint());
+        }
+
+        @Test
+        void shouldUseFingerprint_WhenSetInBuilder() {
+            error = ApplicationError.builder()
+                    .description(description)
+                    .fingerprint("abc123")
+                    .build();
+
+            assertThat(error.getFingerprint()).isEqualTo("abc123");
+        }
+    }
+
     @Nested
     class NewUnresolvedError {
 
@@ -281,6 +350,30 @@ class ApplicationErrorTest {
         }
     }
 
+    @Nested
+    class StackTraceCapture {
+
+        @Test
+        void shouldCaptureFullStackTrace_WhenNoPolicyIsSet() {
+            assertThat(ApplicationError.getStackTraceCapturePolicy()).isNull();
+
+            error = ApplicationError.newUnresolvedError(description, throwable);
+
+            assertThat(error.getStackTrace()).isEqualTo(ExceptionUtils.getStackTrace(throwable));
+        }
+
+        @Test
+        void shouldCaptureStackTrace_UsingPolicy(SoftAssertions softly) {
+            var policy = StackTraceCapturePolicy.builder().maxFrames(1).maxLength(1_024).build();
+            ApplicationError.setStackTraceCapturePolicy(policy);
+
+            error = ApplicationError.newUnresolvedError(description, throwable);
+
+            assertExceptionProperties(softly, policy.render(throwable));
+            softly.assertThat(error.getStackTrace()).contains("frames omitted");
+        }
+    }
+
     private void assertCommonProperties(SoftAssertions softly) {
         softly.assertThat(error.getId()).isNull();
         softly.assertThat(error.getCreatedAt()).isNotNull();
@@ -290,14 +383,20 @@ class ApplicationErrorTest {
         softly.assertThat(error.getHostName()).isEqualTo(hostName);
         softly.assertThat(error.getIpAddress()).isEqualTo(ipAddress);
         softly.assertThat(error.getPort()).isEqualTo(port);
+        softly.assertThat(error.getFingerprint())
+                .isEqualTo(ApplicationError.fingerprintOf(description, error.getExceptionType(), hostName));
     }
 
     private void assertExceptionProperties(SoftAssertions softly) {
+        assertExceptionProperties(softly, ExceptionUtils.getStackTrace(throwable));
+    }
+
+    private void assertExceptionProperties(SoftAssertions softly, String expectedStackTrace) {
         softly.assertThat(error.getExceptionType()).isEqualTo(throwable.getClass().getName());
         softly.assertThat(error.getExceptionMessage()).isEqualTo(throwable.getMessage());
         softly.assertThat(error.getExceptionCauseType()).isEqualTo(throwable.getCause().getClass().getName());
         softly.assertThat(error.getExceptionCauseMessage()).isEqualTo(throwable.getCause().getMessage());
-        softly.assertThat(error.getStackTrace()).isEqualTo(ExceptionUtils.getStackTrace(throwable));
+        softly.assertThat(error.getStackTrace()).isEqualTo(expectedStackTrace);
     }
 
     private void assertNoExceptionProperties(SoftAssertions softly) {
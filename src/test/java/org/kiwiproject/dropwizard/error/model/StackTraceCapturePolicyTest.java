@@ -0,0 +1,245 @@
+package org.kiwiproject.dropwizard.error.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.stream.IntStream;
+
+@DisplayName("StackTraceCapturePolicy")
+class StackTraceCapturePolicyTest {
+
+    private static final StackTraceElement APP_FRAME_1 =
+            new StackTraceElement("com.acme.OrderResource", "getOrder", "OrderResource.java", 42);
+    private static final StackTraceElement APP_FRAME_2 =
+            new StackTraceElement("com.acme.OrderService", "findOrder", "OrderService.java", 84);
+    private static final StackTraceElement REFLECTION_FRAME =
+            new StackTraceElement("java.lang.reflect.Method", "invoke", "Method.java", 580);
+    private static final StackTraceElement JETTY_FRAME =
+            new StackTraceElement("org.eclipse.jetty.server.Server", "handle", "Server.java", 516);
+
+    @Nested
+    class Builder {
+
+        @Test
+        void shouldRequirePositiveMaxFrames() {
+            var builder = StackTraceCapturePolicy.builder().maxFrames(0).maxLength(1_024);
+
+            assertThatIllegalArgumentException()
+                    .isThrownBy(builder::build)
+                    .withMessage("maxFrames must be positive");
+        }
+
+        @Test
+        void shouldRequireMinimumMaxLength() {
+            var builder = StackTraceCapturePolicy.builder().maxFrames(10).maxLength(63);
+
+            assertThatIllegalArgumentException()
+                    .isThrownBy(builder::build)
+                    .withMessage("maxLength must be at least 64");
+        }
+
+        @Test
+        void shouldExcludeNoPackages_WhenNotSet() {
+            var policy = StackTraceCapturePolicy.builder().maxFrames(10).maxLength(1_024).build();
+
+            assertThat(policy.getExcludedPackages()).isEmpty();
+        }
+    }
+
+    @Test
+    void shouldRenderSameAsPrintStackTrace_WhenNothingIsLimited() {
+        var cause = new IOException("I/O error");
+        var throwable = new UncheckedIOException("File not found or something", cause);
+        throwable.addSuppressed(new IllegalStateException("while closing"));
+
+        var policy = unlimitedPolicy().build();
+
+        assertThat(policy.render(throwable)).isEqualTo(ExceptionUtils.getStackTrace(throwable));
+    }
+
+    @Test
+    void shouldOmitFrames_InExcludedPackages() {
+        var throwable = newThrowable(APP_FRAME_1, REFLECTION_FRAME, APP_FRAME_2, REFLECTION_FRAME, JETTY_FRAME);
+
+        var policy = unlimitedPolicy()
+                .excludedPackages(List.of("java.lang.reflect.", "org.eclipse.jetty."))
+                .build();
+
+        assertThat(policy.render(throwable)).isEqualTo(lines(
+                "java.lang.IllegalStateException: oops",
+                "\tat " + APP_FRAME_1,
+                "\tat " + APP_FRAME_2,
+                "\t... 3 frames omitted"));
+    }
+
+    @Test
+    void shouldOmitFrames_InSubpackagesOfExcludedPackages_WithoutTrailingDot() {
+        var throwable = newThrowable(APP_FRAME_1, REFLECTION_FRAME, JETTY_FRAME);
+
+        var policy = unlimitedPolicy()
+                .excludedPackages(List.of("java.lang", "org.eclipse.jetty.server.Server"))
+                .build();
+
+        assertThat(policy.render(throwable)).isEqualTo(lines(
+                "java.lang.IllegalStateException: oops",
+                "\tat " + APP_FRAME_1,
+                "\t... 2 frames omitted"));
+    }
+
+    @Test
+    void shouldNotOmitFrames_InPackagesThatOnlyStartWithExcludedPackageName() {
+        var jettyxFrame = new StackTraceElement("org.eclipse.jettyx.Server", "handle", "Server.java", 516);
+        var throwable = newThrowable(APP_FRAME_1, jettyxFrame, JETTY_FRAME);
+
+        var policy = unlimitedPolicy().excludedPackages(List.of("org.eclipse.jetty")).build();
+
+        assertThat(policy.render(throwable)).isEqualTo(lines(
+                "java.lang.IllegalStateException: oops",
+                "\tat " + APP_FRAME_1,
+                "\tat " + jettyxFrame,
+                "\t... 1 frame omitted"));
+    }
+
+    @Test
+    void shouldLimitNumberOfFrames() {
+        var throwable = newThrowable(APP_FRAME_1, APP_FRAME_2, JETTY_FRAME, JETTY_FRAME);
+
+        var policy = unlimitedPolicy().maxFrames(2).build();
+
+        assertThat(policy.render(throwable)).isEqualTo(lines(
+                "java.lang.IllegalStateException: oops",
+                "\tat " + APP_FRAME_1,
+                "\tat " + APP_FRAME_2,
+                "\t... 2 frames omitted"));
+    }
+
+    @Test
+    void shouldCollapseRepeatedFrame() {
+        var throwable = newThrowable(APP_FRAME_1, APP_FRAME_2, APP_FRAME_2, APP_FRAME_2, JETTY_FRAME);
+
+        var policy = unlimitedPolicy().collapseRepeatedFrames(true).build();
+
+        assertThat(policy.render(throwable)).isEqualTo(lines(
+                "java.lang.IllegalStateException: oops",
+                "\tat " + APP_FRAME_1,
+                "\tat " + APP_FRAME_2,
+                "\t... previous frame repeated 2 more times",
+                "\tat " + JETTY_FRAME));
+    }
+
+    @Test
+    void shouldCollapseRepeatedSequencesOfFrames() {
+        var recursiveFrames = IntStream.range(0, 100)
+                .mapToObj(i -> i % 2 == 0 ? APP_FRAME_1 : APP_FRAME_2)
+                .toArray(StackTraceElement[]::new);
+        var throwable = newThrowable(recursiveFrames);
+
+        var policy = unlimitedPolicy().collapseRepeatedFrames(true).build();
+
+        assertThat(policy.render(throwable)).isEqualTo(lines(
+                "java.lang.IllegalStateException: oops",
+                "\tat " + APP_FRAME_1,
+                "\tat " + APP_FRAME_2,
+                "\t... previous 2 frames repeated 49 more times"));
+    }
+
+    @Test
+    void shouldNotCollapseRepeatedFrames_WhenDisabled() {
+        var throwable = newThrowable(APP_FRAME_1, APP_FRAME_1);
+
+        var policy = unlimitedPolicy().collapseRepeatedFrames(false).build();
+
+        assertThat(policy.render(throwable)).isEqualTo(ExceptionUtils.getStackTrace(throwable));
+    }
+
+    @Test
+    void shouldTruncate_AtMaxLength() {
+        var frames = IntStream.range(0, 1_000)
+                .mapToObj(i -> new StackTraceElement("com.acme.Recursive", "call", "Recursive.java", i))
+                .toArray(StackTraceElement[]::new);
+        var throwable = newThrowable(frames);
+
+        var policy = unlimitedPolicy().maxLength(1_000).build();
+
+        var stackTrace = policy.render(throwable);
+        assertThat(stackTrace)
+                .hasSizeLessThanOrEqualTo(1_000)
+                .startsWith(lines("java.lang.IllegalStateException: oops", "\tat " + frames[0]))
+                .endsWith(lines("\t... truncated"));
+    }
+
+    @Test
+    void shouldTruncateLongMessage_AtMaxLength() {
+        var throwable = new IllegalStateException("x".repeat(500));
+
+        var policy = unlimitedPolicy().maxLength(100).build();
+
+        var stackTrace = policy.render(throwable);
+        assertThat(stackTrace)
+                .hasSizeLessThanOrEqualTo(100)
+                .startsWith("java.lang.IllegalStateException: xxx")
+                .endsWith(lines("\t... truncated"));
+    }
+
+    @Test
+    void shouldApplyPolicy_ToCauses() {
+        var cause = new IOException("I/O error");
+        cause.setStackTrace(new StackTraceElement[] { APP_FRAME_2, REFLECTION_FRAME, APP_FRAME_1, JETTY_FRAME });
+        var throwable = new UncheckedIOException("wrapped", cause);
+        throwable.setStackTrace(new StackTraceElement[] { APP_FRAME_1, JETTY_FRAME });
+
+        var policy = unlimitedPolicy().excludedPackages(List.of("java.lang.reflect.")).build();
+
+        assertThat(policy.render(throwable)).isEqualTo(lines(
+                "java.io.UncheckedIOException: wrapped",
+                "\tat " + APP_FRAME_1,
+                "\tat " + JETTY_FRAME,
+                "Caused by: java.io.IOException: I/O error",
+                "\tat " + APP_FRAME_2,
+                "\t... 1 frame omitted",
+                "\t... 2 more"));
+    }
+
+    @Test
+    void shouldNotLoopForever_WhenCausesAreCircular() {
+        var first = new IllegalStateException("first");
+        var second = new IllegalArgumentException("second", first);
+        first.initCause(second);
+        first.setStackTrace(new StackTraceElement[] { APP_FRAME_1 });
+        second.setStackTrace(new StackTraceElement[] { APP_FRAME_2 });
+
+        var policy = unlimitedPolicy().build();
+
+        assertThat(policy.render(first)).isEqualTo(lines(
+                "java.lang.IllegalStateException: first",
+                "\tat " + APP_FRAME_1,
+                "Caused by: java.lang.IllegalArgumentException: second",
+                "\tat " + APP_FRAME_2,
+                "Caused by: [CIRCULAR REFERENCE: java.lang.IllegalStateException: first]"));
+    }
+
+    private static StackTraceCapturePolicy.StackTraceCapturePolicyBuilder unlimitedPolicy() {
+        return StackTraceCapturePolicy.builder()
+                .maxFrames(Integer.MAX_VALUE)
+                .maxLength(Integer.MAX_VALUE)
+                .collapseRepeatedFrames(false);
+    }
+
+    private static IllegalStateException newThrowable(StackTraceElement... frames) {
+        var throwable = new IllegalStateException("oops");
+        throwable.setStackTrace(frames);
+        return throwable;
+    }
+
+    private static String lines(String... lines) {
+        return String.join(System.lineSeparator(), lines) + System.lineSeparator();
+    }
+}
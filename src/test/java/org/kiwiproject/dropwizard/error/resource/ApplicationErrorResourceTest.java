@@ -1,12 +1,17 @@
 package org.kiwiproject.dropwizard.error.resource;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.kiwiproject.collect.KiwiLists.last;
 import static org.kiwiproject.test.jaxrs.JaxrsTestHelper.assertInternalServerErrorResponse;
 import static org.kiwiproject.test.jaxrs.JaxrsTestHelper.assertNotFoundResponse;
 import static org.kiwiproject.test.jaxrs.JaxrsTestHelper.assertOkResponse;
 import static org.kiwiproject.test.jaxrs.exception.JaxrsExceptionTestHelper.assertContainsError;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -24,9 +29,14 @@ import org.kiwiproject.dropwizard.error.dao.ApplicationErrorDao;
 import org.kiwiproject.dropwizard.error.dao.ApplicationErrorStatus;
 import org.kiwiproject.dropwizard.error.model.ApplicationError;
 import org.kiwiproject.dropwizard.error.model.ApplicationError.Resolved;
+import org.kiwiproject.dropwizard.error.model.ApplicationErrorCursor;
 import org.kiwiproject.dropwizard.error.model.ApplicationErrorPage;
+import org.kiwiproject.dropwizard.error.model.ApplicationErrorSummary;
+import org.kiwiproject.dropwizard.error.model.ApplicationErrorSummaryPage;
 import org.kiwiproject.jaxrs.KiwiGenericTypes;
 
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -48,6 +58,13 @@ class ApplicationErrorResourceTest {
     @BeforeEach
     void setUp() {
         reset(ERROR_DAO);
+        when(ERROR_DAO.getErrorSummaryPage(any(ApplicationErrorStatus.class), anyInt(), anyInt()))
+                .thenCallRealMethod();
+        when(ERROR_DAO.getErrorSummaries(any(ApplicationErrorStatus.class), anyInt(), anyInt()))
+                .thenCallRealMethod();
+        when(ERROR_DAO.getErrorSummaries(
+                any(ApplicationErrorStatus.class), any(ApplicationErrorCursor.class), anyInt()))
+                .thenCallRealMethod();
     }
 
     @Nested
@@ -157,6 +174,145 @@ class ApplicationErrorResourceTest {
             assertApplicationsErrorsResponse(response, pageNumber, pageSize, totalCount, errors);
         }
 
+        @Test
+        void shouldGetErrorsAfterCursor() {
+            var pageSize = 5;
+            var totalCount = 42L;
+            var now = ZonedDateTime.now(ZoneOffset.UTC);
+            var cursor = ApplicationErrorCursor.of(now, 100);
+            var errors = IntStream.rangeClosed(1, pageSize)
+                    .mapToObj(value -> ApplicationError.builder()
+                            .id(100L - value)
+                            .updatedAt(now.minusSeconds(value))
+                            .description("error " + value)
+                            .build())
+                    .toList();
+
+            when(ERROR_DAO.getErrors(ApplicationErrorStatus.UNRESOLVED, cursor, pageSize)).thenReturn(errors);
+            when(ERROR_DAO.count(ApplicationErrorStatus.UNRESOLVED)).thenReturn(totalCount);
+
+            var response = RESOURCES.client().target("/kiwi/application-errors")
+                    .queryParam("status", ApplicationErrorStatus.UNRESOLVED.name())
+                    .queryParam("pageSize", pageSize)
+                    .queryParam("cursor", cursor.encode())
+                    .request()
+                    .get();
+
+            var page = assertApplicationsErrorsResponse(response, 1, pageSize, totalCount, errors);
+            assertThat(page.getNextCursor()).isEqualTo(ApplicationErrorCursor.after(last(errors)).encode());
+        }
+
+        @Test
+        void shouldNotIncludeNextCursor_OnLastPage() {
+            var pageSize = 5;
+            var errors = List.of(ApplicationError.builder()
+                    .id(42L)
+                    .updatedAt(ZonedDateTime.now(ZoneOffset.UTC))
+                    .description("error")
+                    .build());
+
+            when(ERROR_DAO.getErrors(ApplicationErrorStatus.UNRESOLVED, 1, pageSize)).thenReturn(errors);
+            when(ERROR_DAO.count(ApplicationErrorStatus.UNRESOLVED)).thenReturn(1L);
+
+            var response = RESOURCES.client().target("/kiwi/application-errors")
+                    .queryParam("pageSize", pageSize)
+                    .request()
+                    .get();
+
+            assertOkResponse(response);
+            var page = response.readEntity(ApplicationErrorSummaryPage.class);
+            assertThat(page.getItems()).hasSize(1);
+            assertThat(page.getNextCursor()).isNull();
+        }
+
+        @Test
+        void shouldGetErrorsWithoutTotalCount() {
+            var pageNumber = 2;
+            var pageSize = 15;
+            var errors = IntStream.rangeClosed(1, pageSize)
+                    .mapToObj(value -> newApplicationError("error " + value, Resolved.NO))
+                    .toList();
+
+            when(ERROR_DAO.getErrors(ApplicationErrorStatus.UNRESOLVED, pageNumber, pageSize)).thenReturn(errors);
+
+            var response = RESOURCES.client().target("/kiwi/application-errors")
+                    .queryParam("pageNumber", pageNumber)
+                    .queryParam("pageSize", pageSize)
+                    .queryParam("includeTotal", false)
+                    .request()
+                    .get();
+
+            assertApplicationsErrorsResponse(response, pageNumber, pageSize,
+                    ApplicationErrorPage.TOTAL_COUNT_NOT_INCLUDED, errors);
+
+            verify(ERROR_DAO, never()).count(any(ApplicationErrorStatus.class));
+            verify(ERROR_DAO, never()).getErrorSummaryPage(any(ApplicationErrorStatus.class), anyInt(), anyInt());
+        }
+
+        @Test
+        void shouldGetErrorSummaryPage_WhenIncludingTotalCount() {
+            var pageNumber = 3;
+            var pageSize = 10;
+            var totalCount = 84L;
+            var errors = IntStream.rangeClosed(1, pageSize)
+                    .mapToObj(value -> newApplicationError("error " + value, Resolved.NO))
+                    .toList();
+            var summaries = errors.stream().map(ApplicationErrorSummary::from).toList();
+            var summaryPage = ApplicationErrorSummaryPage.of(summaries, totalCount, pageNumber, pageSize);
+
+            // Use doReturn since setUp stubs this method to call the real method
+            doReturn(summaryPage).when(ERROR_DAO)
+                    .getErrorSummaryPage(ApplicationErrorStatus.UNRESOLVED, pageNumber, pageSize);
+
+            var response = RESOURCES.client().target("/kiwi/application-errors")
+                    .queryParam("pageNumber", pageNumber)
+                    .queryParam("pageSize", pageSize)
+                    .request()
+                    .get();
+
+            assertApplicationsErrorsResponse(response, pageNumber, pageSize, totalCount, errors);
+
+            verify(ERROR_DAO, never()).count(any(ApplicationErrorStatus.class));
+        }
+
+        @Test
+        void shouldNotIncludeStackTraces() {
+            var pageSize = 5;
+            var errors = IntStream.rangeClosed(1, pageSize)
+                    .mapToObj(value -> ApplicationError.builder()
+                            .description("error " + value)
+                            .exceptionType(IllegalStateException.class.getName())
+                            .exceptionMessage("oops " + value)
+                            .stackTrace("java.lang.IllegalStateException: oops " + value
+                                    + "\n\tat Foo.bar(Foo.java:42)")
+                            .build())
+                    .toList();
+
+            when(ERROR_DAO.getErrors(ApplicationErrorStatus.UNRESOLVED, 1, pageSize)).thenReturn(errors);
+            when(ERROR_DAO.count(ApplicationErrorStatus.UNRESOLVED)).thenReturn(5L);
+
+            var response = RESOURCES.client().target("/kiwi/application-errors")
+                    .queryParam("pageSize", pageSize)
+                    .request()
+                    .get();
+
+            assertOkResponse(response);
+            var json = response.readEntity(String.class);
+            assertThat(json)
+                    .contains("oops 1")
+                    .doesNotContain("stackTrace")
+                    .doesNotContain("Foo.bar");
+        }
+
+        @Test
+        void shouldReturnInternalServerError_WhenGivenInvalidCursor() {
+            var response = RESOURCES.client().target("/kiwi/application-errors")
+                    .queryParam("cursor", "not-a-valid-cursor")
+                    .request()
+                    .get();
+            assertInternalServerErrorResponse(response);
+        }
+
         @Test
         void shouldReturnInternalServerError_WhenGivenInvalidStatusParameter() {
             var response = RESOURCES.client().target("/kiwi/application-errors")
@@ -218,14 +374,14 @@ class ApplicationErrorResourceTest {
         assertThat(entity).isEqualTo(Map.of("resolvedCount", resolvedCount));
     }
 
-    private void assertApplicationsErrorsResponse(Response response,
-                                                  int expectedPageNumber,
-                                                  int expectedPageSize,
-                                                  long expectedTotalCount,
-                                                  List<ApplicationError> expectedErrors) {
+    private ApplicationErrorSummaryPage assertApplicationsErrorsResponse(Response response,
+                                                                  int expectedPageNumber,
+                                                                  int expectedPageSize,
+                                                                  long expectedTotalCount,
+                                                                  List<ApplicationError> expectedErrors) {
         assertOkResponse(response);
 
-        var applicationErrors = response.readEntity(ApplicationErrorPage.class);
+        var applicationErrors = response.readEntity(ApplicationErrorSummaryPage.class);
         assertThat(applicationErrors.getPageNumber()).isEqualTo(expectedPageNumber);
         assertThat(applicationErrors.getPageSize()).isEqualTo(expectedPageSize);
         assertThat(applicationErrors.getTotalCount()).isEqualTo(expectedTotalCount);
@@ -235,8 +391,10 @@ class ApplicationErrorResourceTest {
         assertThat(applicationErrors.getItems())
                 .describedAs("should have %d errors with matching descriptions", expectedPageSize)
                 .hasSize(expectedPageSize)
-                .extracting(ApplicationError::getDescription)
+                .extracting(ApplicationErrorSummary::getDescription)
                 .containsExactlyElementsOf(errorDescriptions);
+
+        return applicationErrors;
     }
 
 
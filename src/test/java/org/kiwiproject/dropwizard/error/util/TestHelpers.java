@@ -6,6 +6,7 @@ import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
 import org.kiwiproject.dropwizard.error.dao.ApplicationErrorJdbc;
 import org.kiwiproject.dropwizard.error.dao.ApplicationErrorJdbc.ApplicationErrorJdbcException;
+import org.kiwiproject.dropwizard.error.model.ApplicationError;
 import org.kiwiproject.jdbc.UncheckedSQLException;
 import org.kiwiproject.test.jdbc.SimpleSingleConnectionDataSource;
 import org.testcontainers.containers.JdbcDatabaseContainer;
@@ -15,6 +16,9 @@ import org.testcontainers.utility.DockerImageName;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
 
 import javax.sql.DataSource;
 
@@ -22,6 +26,50 @@ import javax.sql.DataSource;
 @Slf4j
 public class TestHelpers {
 
+    /**
+     * Create a new unresolved error on host "host-1" that has no exception.
+     *
+     * @param description the description of the error
+     * @return a new unresolved error without an ID
+     */
+    public static ApplicationError newError(String description) {
+        return newError(description, "host-1");
+    }
+
+    /**
+     * Create a new unresolved error on the given host that has no exception.
+     *
+     * @param description the description of the error
+     * @param hostName the host on which the error occurred
+     * @return a new unresolved error without an ID
+     */
+    public static ApplicationError newError(String description, String hostName) {
+        return ApplicationError.newUnresolvedError(description, hostName, "127.0.0.1", 8080, null);
+    }
+
+    /**
+     * Create a new unresolved error on host "host-1" that occurred one hour ago and has an exception and stack trace.
+     * The timestamps are truncated to microseconds, so the error is unchanged after being written and read back.
+     *
+     * @param description the description of the error
+     * @return a new unresolved error without an ID
+     */
+    public static ApplicationError newDetailedError(String description) {
+        var oneHourAgo = ZonedDateTime.now(ZoneOffset.UTC).minusHours(1).truncatedTo(ChronoUnit.MICROS);
+        return ApplicationError.builder()
+                .description(description)
+                .createdAt(oneHourAgo)
+                .updatedAt(oneHourAgo)
+                .numTimesOccurred(1)
+                .exceptionType("java.io.IOException")
+                .exceptionMessage("oops")
+                .stackTrace("java.io.IOException: oops\n\tat Example.main(Example.java:42)")
+                .hostName("host-1")
+                .ipAddress("127.0.0.1")
+                .port(8080)
+                .build();
+    }
+
     @SuppressWarnings({ "SqlDialectInspection", "SqlNoDataSourceInspection" })
     public static void shutdownH2Database(DataSource h2DataSource) throws SQLException {
         try (var conn = h2DataSource.getConnection(); var stmt = conn.createStatement()) {